@@ -38,6 +38,31 @@ java {
     }
 }
 
+// Benchmark mains live in their own source set, so they stay out of the application jar.
+// Run one with: ./gradlew benchmark -Pbenchmark=LexerBenchmark [-PbenchmarkArgs="100000"]
+sourceSets {
+    create("benchmark") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+configurations["benchmarkImplementation"].extendsFrom(configurations.implementation.get())
+configurations["benchmarkRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
+tasks.register<JavaExec>("benchmark") {
+    description = "Runs a benchmark main from the benchmark source set."
+    group = "verification"
+    classpath = sourceSets["benchmark"].runtimeClasspath
+    mainClass = providers.gradleProperty("benchmark").map { "org.example.benchmark.$it" }
+    args = providers.gradleProperty("benchmarkArgs").map { it.split(" ") }.getOrElse(emptyList())
+}
+
+// Keep the benchmarks compiling with the rest of the build
+tasks.named("check") {
+    dependsOn(tasks.named("benchmarkClasses"))
+}
+
 application {
     // Define the main class for the application.
     mainClass = "org.example.App"
@@ -0,0 +1,179 @@
+package org.example.benchmark;
+
+import java.util.List;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.lexer.DfaLexer;
+import org.example.lexer.TokenBuffer;
+import org.example.parser.ArenaParser;
+import org.example.parser.PrattParser;
+import org.example.parser.arena.AstArena;
+import org.example.parser.arena.AstCursor;
+import org.example.parser.expression.*;
+import org.example.parser.statement.*;
+
+/**
+ * Object AST from {@link PrattParser} against the {@link AstArena} from
+ * {@link ArenaParser}: parse time, retained bytes per node and the time of
+ * a full traversal that counts nodes and sums the literals, by visitor over
+ * the objects, by cursor over the arena and by a plain scan of its arrays.
+ * Usage: ArenaBenchmark [statementCount]
+ */
+public class ArenaBenchmark {
+    public static void main(String[] args) {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        String program = new RandomProgramGenerator().generate(statementCount);
+        TokenBuffer tokens = new DfaLexer(program).tokenizeToBuffer();
+        System.out.printf("Source: %d chars, %d tokens%n", program.length(), tokens.size());
+
+        List<Statement> objects = new PrattParser(tokens).parse();
+        AstArena arena = new ArenaParser(tokens).parseArena();
+        // The arena has one node more, for the program
+        int nodeCount = arena.size() - 1;
+
+        long objectRetained = BenchmarkHarness.retainedBytes(() -> new PrattParser(tokens).parse());
+        long arenaRetained = BenchmarkHarness.retainedBytes(() -> new ArenaParser(tokens).parseArena());
+        System.out.printf("object AST retained: %6.1f B/node%n", (double) objectRetained / nodeCount);
+        System.out.printf("arena AST  retained: %6.1f B/node (arrays: %.1f B/node)%n",
+                (double) arenaRetained / nodeCount, (double) arena.getFootprint() / nodeCount);
+
+        System.out.println(BenchmarkHarness.measure("parse object AST", 5, 10, () -> new PrattParser(tokens).parse()));
+        System.out.println(BenchmarkHarness.measure("parse arena AST", 5, 10, () -> new ArenaParser(tokens).parseArena()));
+
+        System.out.println(BenchmarkHarness.measure("traverse objects (visitor)", 10, 20, () -> {
+            Totals totals = new Totals();
+            for (Statement statement : objects) {
+                statement.accept(totals);
+            }
+            return totals.check(nodeCount);
+        }));
+        System.out.println(BenchmarkHarness.measure("traverse arena (cursor)", 10, 20, () -> {
+            Totals totals = new Totals();
+            totals.walk(arena.cursor(), arena.getRoot());
+            return totals.check(nodeCount + 1);
+        }));
+        System.out.println(BenchmarkHarness.measure("scan arena arrays", 10, 20, () -> {
+            Totals totals = new Totals();
+            AstCursor cursor = arena.cursor();
+            // Every node is in the tree, so visiting them in index order is a full traversal
+            for (int node = 0; node < arena.size(); node++) {
+                totals.nodes++;
+                if (arena.getKind(node) == AstArena.NUMBER) {
+                    totals.sum += cursor.moveTo(node).getNumber();
+                }
+            }
+            return totals.check(nodeCount + 1);
+        }));
+    }
+
+    private static final class Totals implements StatementVisitor<Void>, ExpressionVisitor<Void> {
+        int nodes;
+        double sum;
+
+        Totals check(int expectedNodes) {
+            if (nodes != expectedNodes) {
+                throw new IllegalStateException("Visited " + nodes + " nodes, expected " + expectedNodes);
+            }
+            return this;
+        }
+
+        void walk(AstCursor cursor, int node) {
+            nodes++;
+            cursor.moveTo(node);
+            if (cursor.getKind() == AstArena.NUMBER) {
+                sum += cursor.getNumber();
+                return;
+            }
+            int count = cursor.getChildCount();
+            for (int i = 0; i < count; i++) {
+                walk(cursor, cursor.moveTo(node).getChild(i));
+            }
+        }
+
+        @Override
+        public Void visitVar(VarStatement statement) {
+            nodes++;
+            if (statement.getInitializer() != null) {
+                statement.getInitializer().accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitPrint(PrintStatement statement) {
+            nodes++;
+            return statement.getExpression().accept(this);
+        }
+
+        @Override
+        public Void visitIf(IfStatement statement) {
+            nodes++;
+            statement.getCondition().accept(this);
+            statement.getThenBranch().accept(this);
+            if (statement.getElseBranch() != null) {
+                statement.getElseBranch().accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitWhile(WhileStatement statement) {
+            nodes++;
+            statement.getCondition().accept(this);
+            return statement.getBody().accept(this);
+        }
+
+        @Override
+        public Void visitBlock(BlockStatement statement) {
+            nodes++;
+            for (Statement child : statement.getStatements()) {
+                child.accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitExpression(ExpressionStatement statement) {
+            nodes++;
+            return statement.getExpression().accept(this);
+        }
+
+        @Override
+        public Void visitNumber(NumberExpression expression) {
+            nodes++;
+            sum += expression.getValue();
+            return null;
+        }
+
+        @Override
+        public Void visitString(StringExpression expression) {
+            nodes++;
+            return null;
+        }
+
+        @Override
+        public Void visitVariable(VariableExpression expression) {
+            nodes++;
+            return null;
+        }
+
+        @Override
+        public Void visitAssign(AssignExpression expression) {
+            nodes++;
+            return expression.getValue().accept(this);
+        }
+
+        @Override
+        public Void visitUnary(UnaryExpression expression) {
+            nodes++;
+            return expression.getRight().accept(this);
+        }
+
+        @Override
+        public Void visitBinary(BinaryExpression expression) {
+            nodes++;
+            expression.getLeft().accept(this);
+            return expression.getRight().accept(this);
+        }
+    }
+}
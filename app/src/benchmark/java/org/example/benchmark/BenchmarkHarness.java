@@ -0,0 +1,63 @@
+package org.example.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Minimal timing helper shared by the benchmark mains. Not a replacement for
+ * JMH, but warms up, reports the mean and measures allocation per operation.
+ */
+final class BenchmarkHarness {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Keeps results reachable so the JIT cannot drop the measured work
+    static volatile Object sink;
+
+    private BenchmarkHarness() {
+    }
+
+    record Result(String name, double millisPerOp, double bytesPerOp) {
+        @Override
+        public String toString() {
+            return String.format("%-32s %10.3f ms/op %14.0f B/op", name, millisPerOp, bytesPerOp);
+        }
+    }
+
+    static Result measure(String name, int warmup, int iterations, Supplier<?> body) {
+        for (int i = 0; i < warmup; i++) {
+            sink = body.get();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = body.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result(name, elapsed / 1e6 / iterations, (double) allocated / iterations);
+    }
+
+    /**
+     * Rough retained size of the supplied value: heap usage after a full GC
+     * with the value alive minus usage without it.
+     */
+    static long retainedBytes(Supplier<?> body) {
+        long before = usedAfterGc();
+        Object value = body.get();
+        long after = usedAfterGc();
+        sink = value;
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.lexer.DfaLexer;
+import org.example.parser.PrattParser;
+import org.example.parser.binary.AstReader;
+import org.example.parser.binary.AstWriter;
+import org.example.parser.statement.Statement;
+
+/**
+ * Loading a program from its serialized AST against lexing and parsing the
+ * source again: size of both, time to get the object AST from each, to
+ * walk the serialized tree without building objects, and to write it.
+ * Usage: BinaryAstBenchmark [statementCount]
+ */
+public class BinaryAstBenchmark {
+    public static void main(String[] args) throws IOException {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String program = new RandomProgramGenerator().generate(statementCount);
+        List<Statement> ast = new PrattParser(new DfaLexer(program).tokenizeToBuffer()).parse();
+        byte[] bytes = new AstWriter().write(ast);
+        System.out.printf("Source: %d chars, serialized AST: %d bytes%n", program.length(), bytes.length);
+
+        Path file = Files.createTempFile("ast", ".bin");
+        try {
+            Files.write(file, bytes);
+
+            System.out.println(BenchmarkHarness.measure("lex + parse source", 5, 10,
+                    () -> new PrattParser(new DfaLexer(program).tokenizeToBuffer()).parse()));
+            System.out.println(BenchmarkHarness.measure("read AST from bytes", 5, 10,
+                    () -> AstReader.of(ByteBuffer.wrap(bytes)).readStatements()));
+            System.out.println(BenchmarkHarness.measure("read AST from mapped file", 5, 10, () -> {
+                try {
+                    return AstReader.map(file).readStatements();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            System.out.println(BenchmarkHarness.measure("walk bytes, no objects", 5, 10, () -> {
+                AstReader reader = AstReader.of(ByteBuffer.wrap(bytes));
+                int nodes = 0;
+                for (int i = 0; i < reader.getStatementCount(); i++) {
+                    nodes += walk(reader);
+                }
+                return nodes;
+            }));
+            System.out.println(BenchmarkHarness.measure("write AST", 5, 10, () -> new AstWriter().write(ast)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // Reads the next node and its subtree, counting the nodes
+    private static int walk(AstReader reader) {
+        reader.next();
+        int nodes = 1;
+        int children = reader.getChildCount();
+        for (int i = 0; i < children; i++) {
+            nodes += walk(reader);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.example.cache.CompilationCache;
+import org.example.core.RandomProgramGenerator;
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+
+/**
+ * A warm {@link CompilationCache} hit against lexing and parsing the file,
+ * and the cost of a miss, which parses and stores the AST.
+ * Usage: CacheBenchmark [statementCount]
+ */
+public class CacheBenchmark {
+    public static void main(String[] args) throws IOException {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Path directory = Files.createTempDirectory("compilation-cache");
+        Path file = Files.createTempFile("program", ".src");
+        Files.writeString(file, new RandomProgramGenerator().generate(statementCount));
+        System.out.printf("Source: %d bytes%n", Files.size(file));
+
+        CompilationCache cache = new CompilationCache(directory, 1L << 30);
+        System.out.println(BenchmarkHarness.measure("lex + parse file", 5, 10, () -> {
+            try {
+                return new Parser(Lexer.fromFile(file).tokenizeToBuffer()).parse();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        System.out.println(BenchmarkHarness.measure("cache miss (parse + store)", 5, 10, () -> {
+            try {
+                // A fresh version stamp makes every run a miss
+                return new CompilationCache(directory, 1L << 30, "run-" + System.nanoTime()).parse(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        System.out.println(BenchmarkHarness.measure("cache hit", 5, 10, () -> {
+            try {
+                return cache.parse(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        System.out.printf("cache: %d hits, %d misses%n", cache.getHitCount(), cache.getMissCount());
+
+        try (var files = Files.list(directory)) {
+            for (Path entry : (Iterable<Path>) files::iterator) {
+                Files.delete(entry);
+            }
+        }
+        Files.delete(directory);
+        Files.delete(file);
+    }
+}
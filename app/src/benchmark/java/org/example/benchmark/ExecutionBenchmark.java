@@ -0,0 +1,94 @@
+package org.example.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.interpreter.BytecodeCompiler;
+import org.example.interpreter.BytecodeProgram;
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.VirtualMachine;
+import org.example.interpreter.node.NodeBuilder;
+import org.example.interpreter.node.RootNode;
+import org.example.ir.ControlFlowGraph;
+import org.example.ir.CopyPropagation;
+import org.example.ir.DeadStoreElimination;
+import org.example.ir.IrInterpreter;
+import org.example.ir.Liveness;
+import org.example.ir.SlotAllocator;
+import org.example.ir.SsaBuilder;
+import org.example.lexer.DfaLexer;
+import org.example.parser.Parser;
+import org.example.parser.statement.Statement;
+
+/**
+ * Direct AST evaluation by {@link Interpreter}, with and without compiling
+ * hot loops to JVM bytecode, against the bytecode {@link VirtualMachine},
+ * the optimized SSA form run by {@link IrInterpreter} and the
+ * self-specializing node tree of {@link NodeBuilder}, on a seeded generated
+ * program with bounded loops and on a tight arithmetic loop. The node tree
+ * is built once and keeps its specializations across runs, so it is
+ * measured in its steady state. Program output is discarded.
+ * Usage: ExecutionBenchmark [statementCount] [loopBound]
+ */
+public class ExecutionBenchmark {
+    private static final String HOT_LOOP =
+            "var i = 0; var sum = 0;\n"
+            + "while (i < 1000000) { if (i / 2 > 10 && sum >= 0) { sum = sum + i * 2; } else { sum = sum - 1; } i = i + 1; }\n"
+            + "print sum;\n";
+
+    // Iterations before a loop is compiled; each run starts with a fresh interpreter, so compiling is measured too
+    private static final int JIT_THRESHOLD = 1_000;
+
+    public static void main(String[] args) {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int loopBound = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        RandomProgramGenerator generator = new RandomProgramGenerator(42);
+        generator.setLoopBound(loopBound);
+        run("generated", generator.generate(statementCount));
+        run("hot loop", HOT_LOOP);
+    }
+
+    private static void run(String name, String program) {
+        PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+        List<Statement> ast = new Parser(new DfaLexer(program).tokenizeToBuffer()).parse();
+        BytecodeProgram bytecode = new BytecodeCompiler().compile(ast);
+        ControlFlowGraph graph = new SsaBuilder().build(ast);
+        new CopyPropagation().run(graph);
+        new DeadStoreElimination().run(graph);
+        SlotAllocator.allocate(graph, new Liveness(graph));
+        System.out.printf("%s: %d chars, %d instruction ints, %d SSA instructions in %d slots%n", name, program.length(),
+                bytecode.getCode().length, graph.countInstructions(), graph.getSlotCount());
+
+        System.out.println(BenchmarkHarness.measure(name + " AST interpreter", 5, 10, () -> {
+            new Interpreter(out).interpret(ast);
+            return ast;
+        }));
+        System.out.println(BenchmarkHarness.measure(name + " AST interpreter + JIT", 5, 10, () -> {
+            new Interpreter(out, JIT_THRESHOLD).interpret(ast);
+            return ast;
+        }));
+        System.out.println(BenchmarkHarness.measure(name + " compile + VM", 5, 10, () -> {
+            new VirtualMachine(out).run(new BytecodeCompiler().compile(ast));
+            return ast;
+        }));
+        System.out.println(BenchmarkHarness.measure(name + " VM", 5, 10, () -> {
+            new VirtualMachine(out).run(bytecode);
+            return bytecode;
+        }));
+        System.out.println(BenchmarkHarness.measure(name + " SSA IR", 5, 10, () -> {
+            new IrInterpreter(out).run(graph);
+            return graph;
+        }));
+
+        RootNode root = NodeBuilder.build(ast);
+        System.out.println(BenchmarkHarness.measure(name + " specialized nodes", 5, 10, () -> {
+            root.execute(out);
+            return root;
+        }));
+        System.out.printf("%s: %d node rewrites, %d of them to generic nodes%n", name, root.getRewriteCount(),
+                root.getDeoptimizationCount());
+    }
+}
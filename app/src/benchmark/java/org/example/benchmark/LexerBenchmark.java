@@ -0,0 +1,31 @@
+package org.example.benchmark;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.lexer.DfaLexer;
+import org.example.lexer.Lexer;
+import org.example.lexer.ParallelLexer;
+
+/**
+ * Lexing throughput of {@link Lexer} against the table-driven {@link DfaLexer}
+ * and the fork/join {@link ParallelLexer}.
+ * Usage: LexerBenchmark [statementCount]
+ */
+public class LexerBenchmark {
+    public static void main(String[] args) {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String program = new RandomProgramGenerator().generate(statementCount);
+        int tokenCount = new Lexer(program).tokenizeToBuffer().size();
+        System.out.printf("Source: %d chars, %d tokens%n", program.length(), tokenCount);
+
+        var results = new BenchmarkHarness.Result[] {
+            BenchmarkHarness.measure("Lexer List<Token>", 5, 10, () -> new Lexer(program).tokenize()),
+            BenchmarkHarness.measure("DfaLexer List<Token>", 5, 10, () -> new DfaLexer(program).tokenize()),
+            BenchmarkHarness.measure("Lexer TokenBuffer", 5, 10, () -> new Lexer(program).tokenizeToBuffer()),
+            BenchmarkHarness.measure("DfaLexer TokenBuffer", 5, 10, () -> new DfaLexer(program).tokenizeToBuffer()),
+            BenchmarkHarness.measure("ParallelLexer TokenBuffer", 5, 10, () -> new ParallelLexer(program).tokenizeToBuffer()),
+        };
+        for (var result : results) {
+            System.out.printf("%s %8.1f MB/s%n", result, program.length() / 1e6 / (result.millisPerOp() / 1000));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.benchmark;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.lexer.DfaLexer;
+import org.example.lexer.TokenBuffer;
+import org.example.parser.HashConsingNodeFactory;
+import org.example.parser.IterativeParser;
+import org.example.parser.ParallelParser;
+import org.example.parser.Parser;
+import org.example.parser.PrattParser;
+
+/**
+ * Parse time and allocation of the recursive descent {@link Parser} against
+ * {@link PrattParser}, the explicit-stack {@link IterativeParser} and
+ * {@link ParallelParser}, all reading the same pre-lexed token buffer,
+ * and of precedence climbing with a {@link HashConsingNodeFactory}.
+ * Usage: ParserBenchmark [statementCount]
+ */
+public class ParserBenchmark {
+    public static void main(String[] args) {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String program = new RandomProgramGenerator().generate(statementCount);
+        TokenBuffer tokens = new DfaLexer(program).tokenizeToBuffer();
+        System.out.printf("Source: %d chars, %d tokens%n", program.length(), tokens.size());
+
+        System.out.println(BenchmarkHarness.measure("recursive descent", 10, 20, () -> new Parser(tokens).parse()));
+        System.out.println(BenchmarkHarness.measure("precedence climbing", 10, 20, () -> new PrattParser(tokens).parse()));
+        System.out.println(BenchmarkHarness.measure("explicit stack", 10, 20, () -> new IterativeParser(tokens).parse()));
+        System.out.println(BenchmarkHarness.measure("parallel chunks", 10, 20, () -> new ParallelParser(tokens).parse()));
+        System.out.println(BenchmarkHarness.measure("hash-consed", 10, 20,
+                () -> new PrattParser(tokens.cursor(), new HashConsingNodeFactory()).parse()));
+
+        // Allocation above includes the factory's tables; this is what the tree keeps
+        HashConsingNodeFactory nodes = new HashConsingNodeFactory();
+        new PrattParser(tokens.cursor(), nodes).parse();
+        System.out.printf("hash-consed: %d expression nodes created, %d requests answered with a shared one%n",
+                nodes.getCreatedCount(), nodes.getReusedCount());
+    }
+}
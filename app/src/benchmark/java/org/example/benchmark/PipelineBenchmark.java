@@ -0,0 +1,32 @@
+package org.example.benchmark;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.lexer.ConcurrentTokenSource;
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+
+/**
+ * End-to-end lex+parse time when the whole token list is built first,
+ * against pulling tokens on demand on the parser's thread and against a
+ * lexer on a producer thread ({@link ConcurrentTokenSource}). B/op only
+ * counts the calling thread.
+ * Usage: PipelineBenchmark [statementCount]
+ */
+public class PipelineBenchmark {
+    public static void main(String[] args) {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String program = new RandomProgramGenerator().generate(statementCount);
+        System.out.printf("Source: %d chars, %d cores%n", program.length(), Runtime.getRuntime().availableProcessors());
+
+        System.out.println(BenchmarkHarness.measure("tokenize, then parse", 5, 10, () -> {
+            Lexer lexer = new Lexer(program);
+            return new Parser(lexer.tokenize(), lexer.getLineMap()).parse();
+        }));
+        System.out.println(BenchmarkHarness.measure("lex on demand", 5, 10, () -> new Parser(new Lexer(program).cursor()).parse()));
+        System.out.println(BenchmarkHarness.measure("producer thread", 5, 10, () -> {
+            try (var tokens = new ConcurrentTokenSource(new Lexer(program))) {
+                return new Parser(tokens).parse();
+            }
+        }));
+    }
+}
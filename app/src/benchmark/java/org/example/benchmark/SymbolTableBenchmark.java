@@ -0,0 +1,62 @@
+package org.example.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.interpreter.Resolver;
+import org.example.lexer.Lexer;
+import org.example.lexer.SymbolTable;
+import org.example.lexer.TokenBuffer;
+import org.example.lexer.TokenType;
+import org.example.parser.Parser;
+import org.example.parser.statement.Statement;
+
+/**
+ * Cost of numbering the identifiers of a program: {@link SymbolTable}
+ * interning straight from the source against a substring per identifier
+ * looked up in a HashMap, and the {@link Resolver}, which binds names
+ * through arrays indexed by symbol.
+ * Usage: SymbolTableBenchmark [statementCount]
+ */
+public class SymbolTableBenchmark {
+    public static void main(String[] args) {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String program = new RandomProgramGenerator().generate(statementCount);
+        TokenBuffer tokens = new Lexer(program).tokenizeToBuffer();
+
+        int identifierCount = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.getType(i) == TokenType.ID) {
+                identifierCount++;
+            }
+        }
+        System.out.printf("Source: %d tokens, %d identifiers, %d distinct%n",
+                tokens.size(), identifierCount, tokens.getSymbolTable().size());
+
+        System.out.println(BenchmarkHarness.measure("SymbolTable from source", 5, 10, () -> {
+            SymbolTable symbols = new SymbolTable();
+            for (int i = 0; i < tokens.size(); i++) {
+                if (tokens.getType(i) == TokenType.ID) {
+                    symbols.intern(program, tokens.getStart(i), tokens.getStart(i) + tokens.getLength(i));
+                }
+            }
+            return symbols;
+        }));
+        System.out.println(BenchmarkHarness.measure("HashMap of substrings", 5, 10, () -> {
+            Map<String, Integer> symbols = new HashMap<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                if (tokens.getType(i) == TokenType.ID) {
+                    String name = program.substring(tokens.getStart(i), tokens.getStart(i) + tokens.getLength(i));
+                    symbols.putIfAbsent(name, symbols.size());
+                }
+            }
+            return symbols;
+        }));
+
+        List<Statement> ast = new Parser(tokens).parse();
+        Resolver resolver = new Resolver();
+        System.out.println(BenchmarkHarness.measure("Resolver", 5, 10, () -> resolver.resolve(ast)));
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.benchmark;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.lexer.Lexer;
+import org.example.lexer.TokenBuffer;
+import org.example.parser.Parser;
+
+/**
+ * Compares the List&lt;Token&gt; path with the packed {@link TokenBuffer}:
+ * retained bytes per token, lexing throughput and lex+parse time.
+ * Usage: TokenBufferBenchmark [statementCount]
+ */
+public class TokenBufferBenchmark {
+    public static void main(String[] args) {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String program = new RandomProgramGenerator().generate(statementCount);
+        int tokenCount = new Lexer(program).tokenizeToBuffer().size();
+        System.out.printf("Source: %d chars, %d tokens%n", program.length(), tokenCount);
+
+        long listRetained = BenchmarkHarness.retainedBytes(() -> new Lexer(program).tokenize());
+        long bufferRetained = BenchmarkHarness.retainedBytes(() -> new Lexer(program).tokenizeToBuffer());
+        System.out.printf("List<Token>  retained: %6.1f B/token%n", (double) listRetained / tokenCount);
+        System.out.printf("TokenBuffer  retained: %6.1f B/token (arrays: %.1f B/token)%n",
+                (double) bufferRetained / tokenCount,
+                (double) new Lexer(program).tokenizeToBuffer().getFootprint() / tokenCount);
+
+        var list = BenchmarkHarness.measure("lex List<Token>", 5, 10, () -> new Lexer(program).tokenize());
+        var buffer = BenchmarkHarness.measure("lex TokenBuffer", 5, 10, () -> new Lexer(program).tokenizeToBuffer());
+        for (var result : new BenchmarkHarness.Result[] {list, buffer}) {
+            System.out.printf("%s %12.0f tokens/s%n", result, tokenCount / (result.millisPerOp() / 1000));
+        }
+
+        System.out.println(BenchmarkHarness.measure("lex+parse List<Token>", 5, 10, () -> {
+            Lexer lexer = new Lexer(program);
+            return new Parser(lexer.tokenize(), lexer.getLineMap()).parse();
+        }));
+        System.out.println(BenchmarkHarness.measure("lex+parse TokenBuffer", 5, 10,
+                () -> new Parser(new Lexer(program).tokenizeToBuffer()).parse()));
+    }
+}
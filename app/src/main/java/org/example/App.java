@@ -1,28 +1,94 @@
 package org.example;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
+import org.example.cache.CompilationCache;
 import org.example.core.ASTPrinter;
 import org.example.core.RandomProgramGenerator;
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.Resolver;
+import org.example.interpreter.TypeInference;
+import org.example.ir.ControlFlowGraph;
+import org.example.ir.CopyPropagation;
+import org.example.ir.DeadStoreElimination;
+import org.example.ir.Liveness;
+import org.example.ir.SlotAllocator;
+import org.example.ir.SsaBuilder;
+import org.example.lexer.ConcurrentTokenSource;
 import org.example.lexer.Lexer;
-import org.example.lexer.Token;
+import org.example.optimizer.ConstantFolder;
+import org.example.optimizer.LoopOptimizer;
+import org.example.optimizer.ValueNumbering;
 import org.example.parser.Parser;
 import org.example.parser.statement.Statement;
 
 public class App {
-    public static void main(String[] args) {
-        RandomProgramGenerator generator = new RandomProgramGenerator();
-        String program = generator.generate(20);
-        System.out.println("Generated Program:\n" + program);
+    private static final long CACHE_BYTES = 256L << 20;
 
-        Lexer lexer = new Lexer(program);
-        List<Token> tokens = lexer.tokenize();
+    public static void main(String[] args) throws IOException {
+        List<Statement> ast;
+        if (args.length > 1) {
+            // Usage: App file cacheDirectory; an unchanged file is loaded without lexing or parsing
+            CompilationCache cache = new CompilationCache(Path.of(args[1]), CACHE_BYTES);
+            ast = cache.parse(Path.of(args[0]));
+            System.out.println(String.format("Compilation cache: %d hits, %d misses, %d evictions",
+                    cache.getHitCount(), cache.getMissCount(), cache.getEvictionCount()));
+        } else {
+            Lexer lexer;
+            if (args.length > 0) {
+                lexer = Lexer.fromFile(Path.of(args[0]));
+            } else {
+                RandomProgramGenerator generator = new RandomProgramGenerator();
+                String program = generator.generate(20);
+                System.out.println("Generated Program:\n" + program);
+                lexer = new Lexer(program);
+            }
 
-        Parser parser = new Parser(tokens);
-        List<Statement> ast = parser.parse();
+            // Lex on a second thread while parsing, without keeping all tokens around
+            try (ConcurrentTokenSource tokens = new ConcurrentTokenSource(lexer)) {
+                Parser parser = new Parser(tokens);
+                ast = parser.parse();
+            }
+        }
         System.out.println(String.format("Successfully parsed %d statements", ast.size()));
 
+        // The tree as written; the passes below add temporaries, only their statistics are shown
         ASTPrinter printer = new ASTPrinter();
         printer.print(ast);
+
+        ConstantFolder folder = new ConstantFolder();
+        ast = folder.fold(ast);
+        System.out.println(String.format("Constant folding removed %d nodes", folder.getRemovedNodes()));
+
+        LoopOptimizer loopOptimizer = new LoopOptimizer();
+        ast = loopOptimizer.optimize(ast);
+        System.out.println(String.format("Hoisted %d loop-invariant expressions, reduced %d operations",
+                loopOptimizer.getHoistedCount(), loopOptimizer.getReducedCount()));
+
+        ValueNumbering valueNumbering = new ValueNumbering();
+        ast = valueNumbering.number(ast);
+        System.out.println(String.format("Reused %d computed values", valueNumbering.getReusedCount()));
+
+        // Reported only: the program fails at run time if that code runs
+        TypeInference types = new TypeInference();
+        types.infer(ast, new Resolver().resolve(ast));
+        for (String error : types.getErrors()) {
+            System.out.println(error);
+        }
+
+        ControlFlowGraph graph = new SsaBuilder().build(ast);
+        int copies = new CopyPropagation().run(graph);
+        int deadStores = new DeadStoreElimination().run(graph);
+        int slots = SlotAllocator.allocate(graph, new Liveness(graph));
+        System.out.println(String.format("SSA form: %d blocks, removed %d copies and %d dead instructions, values fit in %d slots",
+                graph.getBlocks().size(), copies, deadStores, slots));
+
+        // Generated programs may loop forever, so only given files are run
+        if (args.length > 0) {
+            System.out.println("Output:");
+            new Interpreter(System.out).interpret(ast);
+        }
     }
 }
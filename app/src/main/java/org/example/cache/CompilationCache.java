@@ -0,0 +1,243 @@
+package org.example.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.lexer.Lexer;
+import org.example.lexer.MappedSource;
+import org.example.parser.Parser;
+import org.example.parser.binary.AstFormat;
+import org.example.parser.binary.AstReader;
+import org.example.parser.binary.AstWriter;
+import org.example.parser.statement.Statement;
+
+/**
+ * On-disk cache of compilation artifacts, addressed by content: an entry's
+ * key is the SHA-256 of a version stamp and the source bytes, so a changed
+ * source or a new compiler version simply misses. Every artifact of a
+ * source is one file, "key.artifact"; the parse result is stored as a
+ * serialized AST ({@link AstWriter}) under {@link #AST}.
+ *
+ * Entries are written to a temporary file and moved into place, so other
+ * processes sharing the directory see a whole entry or none. A hit touches
+ * the file's modification time, and when the directory grows beyond its
+ * bound, the least recently used entries are deleted until it fits.
+ * Unreadable entries count as misses and are deleted.
+ */
+public class CompilationCache {
+    public static final String AST = "ast";
+
+    // Changes whenever the parser or the AST format could produce something different
+    public static final String VERSION_STAMP = "parser-1/ast-" + AstFormat.VERSION;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    // Temporary files this old were left by a process that died while writing
+    private static final long STALE_TEMP_MILLIS = 10 * 60 * 1000;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final String versionStamp;
+
+    // Bytes of entries in the directory, as far as this process knows
+    private final AtomicLong size = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CompilationCache(Path directory, long maxBytes) throws IOException {
+        this(directory, maxBytes, VERSION_STAMP);
+    }
+
+    /**
+     * @param maxBytes Size the directory is kept under
+     * @param versionStamp Part of every key; entries of other stamps are never hit and age out
+     */
+    public CompilationCache(Path directory, long maxBytes, String versionStamp) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+        this.versionStamp = versionStamp;
+        for (Entry entry : entries()) {
+            size.addAndGet(entry.bytes());
+        }
+    }
+
+    /**
+     * Parses the file, or loads its AST from the cache without lexing or parsing
+     * @throws org.example.exception.ParseException On a syntax error, which is not cached
+     */
+    public List<Statement> parse(Path file) throws IOException {
+        byte[] source = Files.readAllBytes(file);
+        return parse(source, () -> new Parser(new Lexer(new MappedSource(ByteBuffer.wrap(source))).tokenizeToBuffer()));
+    }
+
+    /**
+     * Parses the source, or loads its AST from the cache without lexing or parsing
+     * @throws org.example.exception.ParseException On a syntax error, which is not cached
+     */
+    public List<Statement> parse(String source) throws IOException {
+        return parse(source.getBytes(StandardCharsets.UTF_8), () -> new Parser(new Lexer(source).tokenizeToBuffer()));
+    }
+
+    private interface ParserSupplier {
+        Parser get();
+    }
+
+    private List<Statement> parse(byte[] source, ParserSupplier parser) throws IOException {
+        String key = key(source);
+        byte[] cached = get(key, AST);
+        if (cached != null) {
+            try {
+                return AstReader.of(ByteBuffer.wrap(cached)).readStatements();
+            } catch (RuntimeException e) {
+                // Written by something else under the same stamp, or damaged
+                hits.decrementAndGet();
+                misses.incrementAndGet();
+                Files.deleteIfExists(path(key, AST));
+            }
+        }
+
+        List<Statement> statements = parser.get().parse();
+        put(key, AST, new AstWriter().write(statements));
+        return statements;
+    }
+
+    /**
+     * @return Key of the source for {@link #get} and {@link #put}
+     */
+    public String key(byte[] source) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(versionStamp.getBytes(StandardCharsets.UTF_8));
+        // Keeps stamp and source apart, e.g. stamp "a" + source "bc" from "ab" + "c"
+        digest.update((byte) 0);
+        digest.update(source);
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @param artifact Name of the artifact, e.g. {@link #AST}
+     * @return The artifact's bytes, or null on a miss
+     */
+    public byte[] get(String key, String artifact) throws IOException {
+        Path path = path(key, artifact);
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // Evicted by another process in the meantime; the bytes were read already
+        }
+        return bytes;
+    }
+
+    /**
+     * Stores the artifact, replacing an existing one, then evicts entries if the cache got too large
+     */
+    public void put(String key, String artifact, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        try {
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, path(key, artifact), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path(key, artifact), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if (size.addAndGet(bytes.length) > maxBytes) {
+            evict();
+        }
+    }
+
+    // Rescans the directory, since other processes may have added or removed entries
+    private synchronized void evict() throws IOException {
+        List<Entry> entries = entries();
+        long total = 0;
+        for (Entry entry : entries) {
+            total += entry.bytes();
+        }
+
+        entries.sort(Comparator.comparing(Entry::lastUsed));
+        for (int i = 0; i < entries.size() && total > maxBytes; i++) {
+            Entry entry = entries.get(i);
+            if (Files.deleteIfExists(entry.path())) {
+                evictions.incrementAndGet();
+            }
+            total -= entry.bytes();
+        }
+        size.set(total);
+    }
+
+    private List<Entry> entries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                try {
+                    FileTime lastModified = Files.getLastModifiedTime(file);
+                    if (!file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                        entries.add(new Entry(file, Files.size(file), lastModified));
+                    } else if (System.currentTimeMillis() - lastModified.toMillis() > STALE_TEMP_MILLIS) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (NoSuchFileException e) {
+                    // Evicted by another process while listing
+                }
+            }
+        } catch (DirectoryIteratorException e) {
+            throw e.getCause();
+        }
+        return entries;
+    }
+
+    private Path path(String key, String artifact) {
+        return directory.resolve(key + '.' + artifact);
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private record Entry(Path path, long bytes, FileTime lastUsed) {
+    }
+}
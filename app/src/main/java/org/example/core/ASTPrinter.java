@@ -3,96 +3,485 @@ package org.example.core;
 import org.example.parser.expression.*;
 import org.example.parser.statement.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Writes the AST to an {@link Appendable}, in one of three formats:
+ * - TREE: the indented tree, one node per line
+ * - JSON: compact, one object per node: {"type":..., "children":[...]},
+ *   plus "name", "operator" or "value" where the node has one
+ * - DOT: a Graphviz digraph with one labelled vertex per node
+ *
+ * Nodes are dispatched with their accept methods and written as the walk
+ * enters and leaves them, so nothing is built per node besides its label.
+ * Text goes through one reused buffer and reaches the Appendable in
+ * chunks of a few KB.
+ */
 public class ASTPrinter {
-    
-    // Main method for printing the entire program
+
+    public enum Format { TREE, JSON, DOT }
+
+    private final Format format;
+
+    // Walk the tree with ASTWalker instead of recursion, for deeply nested programs
+    private final boolean iterative;
+
+    public ASTPrinter() {
+        this(Format.TREE, false);
+    }
+
+    public ASTPrinter(boolean iterative) {
+        this(Format.TREE, iterative);
+    }
+
+    public ASTPrinter(Format format, boolean iterative) {
+        this.format = format;
+        this.iterative = iterative;
+    }
+
+    // Main method for printing the entire program, to standard output
     public void print(List<Statement> statements) {
-        System.out.println("Root (Program)");
-        for (int i = 0; i < statements.size(); i++) {
-            printNode(statements.get(i), "", i == statements.size() - 1);
+        // A PrintStream encodes with its own charset, like every other line printed
+        print(statements, System.out);
+        System.out.flush();
+    }
+
+    /**
+     * Writes the program; the output is not flushed
+     * @throws UncheckedIOException If the output fails
+     */
+    public void print(List<Statement> statements, Appendable out) {
+        Output output;
+        switch (format) {
+            case JSON:
+                output = new JsonOutput(out);
+                break;
+            case DOT:
+                output = new DotOutput(out);
+                break;
+            default:
+                output = new TreeOutput(out);
+                break;
+        }
+
+        output.begin();
+        if (iterative) {
+            new ASTWalker().walk(statements, output);
+        } else {
+            Recursive walk = new Recursive(output);
+            for (int i = 0; i < statements.size(); i++) {
+                walk.node(statements.get(i), i == statements.size() - 1);
+            }
+        }
+        output.end();
+        output.flush();
+    }
+
+    // Recursive walk in the same order as ASTWalker, dispatching on the node types
+    private static final class Recursive implements StatementVisitor<Void>, ExpressionVisitor<Void> {
+        private final Output output;
+        private int depth;
+
+        Recursive(Output output) {
+            this.output = output;
+        }
+
+        void node(Object node, boolean isLast) {
+            output.enter(node, depth, isLast);
+            depth++;
+            if (node instanceof Statement) {
+                ((Statement) node).accept(this);
+            } else {
+                ((Expression) node).accept(this);
+            }
+            depth--;
+            output.leave(node, depth);
+        }
+
+        @Override
+        public Void visitVar(VarStatement statement) {
+            if (statement.getInitializer() != null) {
+                node(statement.getInitializer(), true);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitPrint(PrintStatement statement) {
+            node(statement.getExpression(), true);
+            return null;
+        }
+
+        @Override
+        public Void visitIf(IfStatement statement) {
+            node(statement.getCondition(), false);
+            node(statement.getThenBranch(), statement.getElseBranch() == null);
+            if (statement.getElseBranch() != null) {
+                node(statement.getElseBranch(), true);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitWhile(WhileStatement statement) {
+            node(statement.getCondition(), false);
+            node(statement.getBody(), true);
+            return null;
+        }
+
+        @Override
+        public Void visitBlock(BlockStatement statement) {
+            List<Statement> statements = statement.getStatements();
+            for (int i = 0; i < statements.size(); i++) {
+                node(statements.get(i), i == statements.size() - 1);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitExpression(ExpressionStatement statement) {
+            node(statement.getExpression(), true);
+            return null;
+        }
+
+        @Override
+        public Void visitNumber(NumberExpression expression) {
+            return null;
+        }
+
+        @Override
+        public Void visitString(StringExpression expression) {
+            return null;
+        }
+
+        @Override
+        public Void visitVariable(VariableExpression expression) {
+            return null;
+        }
+
+        @Override
+        public Void visitAssign(AssignExpression expression) {
+            node(expression.getValue(), true);
+            return null;
+        }
+
+        @Override
+        public Void visitUnary(UnaryExpression expression) {
+            node(expression.getRight(), true);
+            return null;
+        }
+
+        @Override
+        public Void visitBinary(BinaryExpression expression) {
+            node(expression.getLeft(), false);
+            node(expression.getRight(), true);
+            return null;
         }
     }
-    
-    // Recursive rendering method
-    private void printNode(Object node, String indent, boolean isLast) {
-        if (node == null) return;
-        
-        // Draw the branch
-        String marker = isLast ? "└── " : "├── ";
-        System.out.print(indent + marker);
-        
-        // Prepare the indentation for child elements
-        String childIndent = indent + (isLast ? "    " : "│   ");
-        
-        if (node instanceof VarStatement) {
-            VarStatement v = (VarStatement) node;
-            System.out.println("VarStatement: " + v.getName());
-            
-            if (v.getInitializer() != null) {
-                printNode(v.getInitializer(), childIndent, true);
-            }
-        }
-        else if (node instanceof PrintStatement) {
-            PrintStatement p = (PrintStatement) node;
-            System.out.println("PrintStatement");
-            printNode(p.getExpression(), childIndent, true);
-        }
-        else if (node instanceof IfStatement) {
-            IfStatement i = (IfStatement) node;
-            System.out.println("IfStatement");
-            printNode(i.getCondition(), childIndent, false);
-            printNode(i.getThenBranch(), childIndent, i.getElseBranch() == null);
-            
-            if (i.getElseBranch() != null) {
-                printNode(i.getElseBranch(), childIndent, true);
-            }
-        }
-        else if (node instanceof WhileStatement) {
-            WhileStatement w = (WhileStatement) node;
-            System.out.println("WhileStatement");
-            printNode(w.getCondition(), childIndent, false);
-            printNode(w.getBody(), childIndent, true);
-        }
-        else if (node instanceof BlockStatement) {
-            BlockStatement b = (BlockStatement) node;
-            System.out.println("BlockStatement");
-            for (int j = 0; j < b.getStatements().size(); j++) {
-                printNode(b.getStatements().get(j), childIndent, j == b.getStatements().size() - 1);
-            }
-        }
-        else if (node instanceof ExpressionStatement) {
-            ExpressionStatement e = (ExpressionStatement) node;
-            System.out.println("ExpressionStatement");
-            printNode(e.getExpression(), childIndent, true);
-        }
-        else if (node instanceof BinaryExpression) {
-            BinaryExpression bin = (BinaryExpression) node;
-            System.out.println("BinaryExpression: " + bin.getOperator());
-            printNode(bin.getLeft(), childIndent, false);
-            printNode(bin.getRight(), childIndent, true);
-        }
-        else if (node instanceof UnaryExpression) {
-            UnaryExpression un = (UnaryExpression) node;
-            System.out.println("UnaryExpression: " + un.getOperator());
-            printNode(un.getRight(), childIndent, true);
-        }
-        else if (node instanceof AssignExpression) {
-            AssignExpression assign = (AssignExpression) node;
-            System.out.println("AssignExpression: " + assign.getName() + " =");
-            printNode(assign.getValue(), childIndent, true);
-        }
-        else if (node instanceof NumberExpression) {
-            NumberExpression num = (NumberExpression) node;
-            System.out.println("Number: " + num.getValue());
-        }
-        else if (node instanceof VariableExpression) {
-            VariableExpression varExpr = (VariableExpression) node;
-            System.out.println("Variable: " + varExpr.getName());
-        }
-        else {
-            System.out.println("Unknown Node: " + node.getClass().getName());
+
+    /**
+     * Type name of a node and its one attribute, if any: the variable name,
+     * the operator or the literal value. Reused for every node.
+     */
+    private static final class Describer implements StatementVisitor<Void>, ExpressionVisitor<Void> {
+        String type;
+        // Null when the node has none
+        String key;
+        String value;
+
+        void describe(Object node) {
+            key = null;
+            value = null;
+            if (node instanceof Statement) {
+                ((Statement) node).accept(this);
+            } else {
+                ((Expression) node).accept(this);
+            }
+        }
+
+        private Void set(String type, String key, String value) {
+            this.type = type;
+            this.key = key;
+            this.value = value;
+            return null;
+        }
+
+        @Override
+        public Void visitVar(VarStatement statement) {
+            return set("VarStatement", "name", statement.getName());
+        }
+
+        @Override
+        public Void visitPrint(PrintStatement statement) {
+            return set("PrintStatement", null, null);
+        }
+
+        @Override
+        public Void visitIf(IfStatement statement) {
+            return set("IfStatement", null, null);
+        }
+
+        @Override
+        public Void visitWhile(WhileStatement statement) {
+            return set("WhileStatement", null, null);
+        }
+
+        @Override
+        public Void visitBlock(BlockStatement statement) {
+            return set("BlockStatement", null, null);
+        }
+
+        @Override
+        public Void visitExpression(ExpressionStatement statement) {
+            return set("ExpressionStatement", null, null);
+        }
+
+        @Override
+        public Void visitNumber(NumberExpression expression) {
+            return set("Number", "value", String.valueOf(expression.getValue()));
+        }
+
+        @Override
+        public Void visitString(StringExpression expression) {
+            return set("String", "value", expression.getValue());
+        }
+
+        @Override
+        public Void visitVariable(VariableExpression expression) {
+            return set("Variable", "name", expression.getName());
+        }
+
+        @Override
+        public Void visitAssign(AssignExpression expression) {
+            return set("AssignExpression", "name", expression.getName());
+        }
+
+        @Override
+        public Void visitUnary(UnaryExpression expression) {
+            return set("UnaryExpression", "operator", expression.getOperator().name());
+        }
+
+        @Override
+        public Void visitBinary(BinaryExpression expression) {
+            return set("BinaryExpression", "operator", expression.getOperator().name());
+        }
+    }
+
+    // One output format, fed the nodes as the walk enters and leaves them
+    private abstract static class Output implements ASTWalker.Visitor {
+        private static final int FLUSH_SIZE = 8192;
+
+        private final Appendable out;
+        // Collects small appends, so the output gets a few large ones
+        private final StringBuilder buffer = new StringBuilder(FLUSH_SIZE + 256);
+        final Describer describer = new Describer();
+
+        Output(Appendable out) {
+            this.out = out;
+        }
+
+        abstract void begin();
+
+        abstract void end();
+
+        final void append(CharSequence text) {
+            buffer.append(text);
+        }
+
+        final void append(char c) {
+            buffer.append(c);
+        }
+
+        final void append(int number) {
+            buffer.append(number);
+        }
+
+        // Called after every node
+        final void flushIfFull() {
+            if (buffer.length() >= FLUSH_SIZE) {
+                flush();
+            }
+        }
+
+        final void flush() {
+            try {
+                out.append(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.setLength(0);
+        }
+
+        // Text inside a string literal, quotes and backslashes escaped as both JSON and DOT read them
+        final void escaped(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"' || c == '\\') {
+                    append('\\');
+                    append(c);
+                } else if (c == '\n') {
+                    append("\\n");
+                } else if (c < 0x20) {
+                    append(String.format("\\u%04x", (int) c));
+                } else {
+                    append(c);
+                }
+            }
+        }
+    }
+
+    private static final class TreeOutput extends Output {
+        // Indentation of the current path, four chars per level, cut back when the walk goes up
+        private final StringBuilder indent = new StringBuilder();
+
+        TreeOutput(Appendable out) {
+            super(out);
+        }
+
+        @Override
+        void begin() {
+            append("Root (Program)\n");
+        }
+
+        @Override
+        void end() {
+        }
+
+        @Override
+        public void enter(Object node, int depth, boolean isLast) {
+            indent.setLength(depth * 4);
+            append(indent);
+            append(isLast ? "└── " : "├── ");
+
+            describer.describe(node);
+            append(describer.type);
+            if (describer.key != null) {
+                append(": ");
+                append(describer.value);
+                if (node instanceof AssignExpression) {
+                    append(" =");
+                }
+            }
+            append('\n');
+
+            indent.append(isLast ? "    " : "│   ");
+            flushIfFull();
+        }
+    }
+
+    private static final class JsonOutput extends Output {
+        // Whether the node open at each depth has written its "children" key yet; the program is depth 0
+        private boolean[] hasChildren = new boolean[64];
+
+        JsonOutput(Appendable out) {
+            super(out);
+        }
+
+        @Override
+        void begin() {
+            append("{\"type\":\"Program\"");
+            hasChildren[0] = false;
+        }
+
+        @Override
+        void end() {
+            close(0);
+            append('\n');
+        }
+
+        @Override
+        public void enter(Object node, int depth, boolean isLast) {
+            if (hasChildren[depth]) {
+                append(',');
+            } else {
+                append(",\"children\":[");
+                hasChildren[depth] = true;
+            }
+
+            describer.describe(node);
+            append("{\"type\":\"");
+            append(describer.type);
+            append('"');
+            if (describer.key != null) {
+                append(",\"");
+                append(describer.key);
+                append("\":");
+                if (node instanceof NumberExpression && Double.isFinite(((NumberExpression) node).getValue())) {
+                    append(describer.value);
+                } else {
+                    append('"');
+                    escaped(describer.value);
+                    append('"');
+                }
+            }
+
+            if (depth + 1 == hasChildren.length) {
+                hasChildren = Arrays.copyOf(hasChildren, hasChildren.length * 2);
+            }
+            hasChildren[depth + 1] = false;
+            flushIfFull();
+        }
+
+        @Override
+        public void leave(Object node, int depth) {
+            close(depth + 1);
+        }
+
+        private void close(int level) {
+            if (hasChildren[level]) {
+                append(']');
+            }
+            append('}');
+        }
+    }
+
+    private static final class DotOutput extends Output {
+        // Vertex of the node open at each depth; the program is vertex 0 at depth 0
+        private int[] vertices = new int[64];
+        private int vertexCount;
+
+        DotOutput(Appendable out) {
+            super(out);
+        }
+
+        @Override
+        void begin() {
+            append("digraph AST {\n  n0 [label=\"Program\"];\n");
+            vertices[0] = vertexCount++;
+        }
+
+        @Override
+        void end() {
+            append("}\n");
+        }
+
+        @Override
+        public void enter(Object node, int depth, boolean isLast) {
+            int vertex = vertexCount++;
+
+            describer.describe(node);
+            append("  n");
+            append(vertex);
+            append(" [label=\"");
+            escaped(describer.type);
+            if (describer.key != null) {
+                append(": ");
+                escaped(describer.value);
+            }
+            append("\"];\n  n");
+            append(vertices[depth]);
+            append(" -> n");
+            append(vertex);
+            append(";\n");
+
+            if (depth + 1 == vertices.length) {
+                vertices = Arrays.copyOf(vertices, vertices.length * 2);
+            }
+            vertices[depth + 1] = vertex;
+            flushIfFull();
         }
     }
 }
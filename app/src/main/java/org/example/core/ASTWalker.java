@@ -0,0 +1,131 @@
+package org.example.core;
+
+import org.example.parser.expression.*;
+import org.example.parser.statement.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Depth-first traversal of the AST over an explicit stack instead of the
+ * call stack, so it does not overflow on deeply nested programs. Children
+ * are visited in source order; the walker can be reused.
+ */
+public class ASTWalker {
+
+    public interface Visitor {
+        // Called before the children of the node
+        void enter(Object node, int depth, boolean isLast);
+
+        // Called after all children of the node
+        default void leave(Object node, int depth) {
+        }
+    }
+
+    private Object[] nodes = new Object[64];
+    private int[] depths = new int[64];
+    private boolean[] lasts = new boolean[64];
+    private boolean[] entered = new boolean[64];
+    private int size;
+
+    private final List<Object> children = new ArrayList<>();
+
+    public void walk(List<Statement> statements, Visitor visitor) {
+        size = 0;
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            push(statements.get(i), 0, i == statements.size() - 1);
+        }
+        run(visitor);
+    }
+
+    public void walk(Object root, Visitor visitor) {
+        size = 0;
+        push(root, 0, true);
+        run(visitor);
+    }
+
+    private void run(Visitor visitor) {
+        while (size > 0) {
+            int top = size - 1;
+            Object node = nodes[top];
+            int depth = depths[top];
+
+            if (entered[top]) {
+                nodes[top] = null;
+                size--;
+                visitor.leave(node, depth);
+                continue;
+            }
+
+            entered[top] = true;
+            visitor.enter(node, depth, lasts[top]);
+
+            children.clear();
+            childrenOf(node, children);
+            for (int i = children.size() - 1; i >= 0; i--) {
+                push(children.get(i), depth + 1, i == children.size() - 1);
+            }
+        }
+    }
+
+    private void push(Object node, int depth, boolean isLast) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            depths = Arrays.copyOf(depths, size * 2);
+            lasts = Arrays.copyOf(lasts, size * 2);
+            entered = Arrays.copyOf(entered, size * 2);
+        }
+        nodes[size] = node;
+        depths[size] = depth;
+        lasts[size] = isLast;
+        entered[size] = false;
+        size++;
+    }
+
+    /**
+     * Adds the direct children of the node to the list, in source order;
+     * absent optional children (initializer, else branch) are skipped
+     */
+    public static void childrenOf(Object node, List<Object> out) {
+        if (node instanceof VarStatement) {
+            VarStatement v = (VarStatement) node;
+            if (v.getInitializer() != null) {
+                out.add(v.getInitializer());
+            }
+        }
+        else if (node instanceof PrintStatement) {
+            out.add(((PrintStatement) node).getExpression());
+        }
+        else if (node instanceof IfStatement) {
+            IfStatement i = (IfStatement) node;
+            out.add(i.getCondition());
+            out.add(i.getThenBranch());
+            if (i.getElseBranch() != null) {
+                out.add(i.getElseBranch());
+            }
+        }
+        else if (node instanceof WhileStatement) {
+            WhileStatement w = (WhileStatement) node;
+            out.add(w.getCondition());
+            out.add(w.getBody());
+        }
+        else if (node instanceof BlockStatement) {
+            out.addAll(((BlockStatement) node).getStatements());
+        }
+        else if (node instanceof ExpressionStatement) {
+            out.add(((ExpressionStatement) node).getExpression());
+        }
+        else if (node instanceof BinaryExpression) {
+            BinaryExpression bin = (BinaryExpression) node;
+            out.add(bin.getLeft());
+            out.add(bin.getRight());
+        }
+        else if (node instanceof UnaryExpression) {
+            out.add(((UnaryExpression) node).getRight());
+        }
+        else if (node instanceof AssignExpression) {
+            out.add(((AssignExpression) node).getValue());
+        }
+    }
+}
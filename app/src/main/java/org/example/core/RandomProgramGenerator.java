@@ -4,19 +4,38 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import lombok.Setter;
+
 public class RandomProgramGenerator {
-    private final Random random = new Random();
+    private final Random random;
 
     // Pool of variable names
     private final String[] varNames = {"x", "y", "z", "alpha", "beta", "count", "total", "index", "sum"};
 
-    // List of already declared variables (to avoid using them before declaration)
+    // Variables visible at the current point (to avoid using them before declaration);
+    // a block's own declarations are dropped again when the block ends
     private final List<String> declaredVars = new ArrayList<>();
 
+    // When positive, every while loop also stops after this many iterations,
+    // so the generated program always terminates
+    @Setter
+    private int loopBound;
+
     private final String[] mathOps = {"+", "-", "*", "/"};
     private final String[] compareOps = {"==", "!=", "<", ">", "<=", ">="};
     private final String[] logicOps = {"&&", "||"};
 
+    public RandomProgramGenerator() {
+        this.random = new Random();
+    }
+
+    /**
+     * @param seed Seed for reproducible programs
+     */
+    public RandomProgramGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
     /**
      * Generates a random program
      * @param statementCount Number of statements at the top level
@@ -80,17 +99,21 @@ public class RandomProgramGenerator {
                     break;
                 case 3:
                     builder.append(indent).append("if (").append(generateCondition()).append(") {\n");
-                    generateBlock(builder, random.nextInt(3) + 1, indentLevel + 1);
+                    generateScope(builder, random.nextInt(3) + 1, indentLevel + 1);
 
                     if (random.nextDouble() > 0.5) { // 50% chance for else
                         builder.append(indent).append("} else {\n");
-                        generateBlock(builder, random.nextInt(2) + 1, indentLevel + 1);
+                        generateScope(builder, random.nextInt(2) + 1, indentLevel + 1);
                     }
                     builder.append(indent).append("}\n");
                     break;
                 case 4:
+                    if (loopBound > 0) {
+                        generateBoundedLoop(builder, indentLevel);
+                        break;
+                    }
                     builder.append(indent).append("while (").append(generateCondition()).append(") {\n");
-                    generateBlock(builder, random.nextInt(3) + 1, indentLevel + 1);
+                    generateScope(builder, random.nextInt(3) + 1, indentLevel + 1);
                     builder.append(indent).append("}\n");
                     break;
                 default:
@@ -99,17 +122,40 @@ public class RandomProgramGenerator {
         }
     }
 
+    // Generates a nested block; its variables are not visible after it
+    private void generateScope(StringBuilder builder, int count, int indentLevel) {
+        int visible = declaredVars.size();
+        generateBlock(builder, count, indentLevel);
+        declaredVars.subList(visible, declaredVars.size()).clear();
+    }
+
+    // The counter is named after the nesting level, so nested loops never share
+    // one, and it is never picked by the expression generators
+    private void generateBoundedLoop(StringBuilder builder, int indentLevel) {
+        String indent = " ".repeat(indentLevel * 4);
+        String counter = "loop" + indentLevel;
+
+        builder.append(indent).append("var ").append(counter).append(" = 0;\n");
+        builder.append(indent).append("while (").append(counter).append(" < ").append(loopBound)
+               .append(" && (").append(generateCondition()).append(")) {\n");
+        generateScope(builder, random.nextInt(3) + 1, indentLevel + 1);
+        builder.append(indent).append("    ").append(counter).append(" = ").append(counter).append(" + 1;\n");
+        builder.append(indent).append("}\n");
+    }
+
     private String generateVarDeclaration(int indentLevel) {
         String indent = " ".repeat(indentLevel * 4);
 
         // Pick a random name. If it already exists, we'll just redefine it 
         // (for lexer testing purposes this is ok)
         String varName = varNames[random.nextInt(varNames.length)];
+        // The initializer is generated first: the new name is not visible in it yet
+        String initializer = generateExpression();
         if (!declaredVars.contains(varName)) {
             declaredVars.add(varName);
         }
 
-        return indent + "var " + varName + " = " + generateExpression() + ";";
+        return indent + "var " + varName + " = " + initializer + ";";
     }
 
     private String generateExpression() {
@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class EvaluationException extends RuntimeException {
+    public EvaluationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class SemanticException extends RuntimeException {
+    public SemanticException(String message) {
+        super(message);
+    }
+}
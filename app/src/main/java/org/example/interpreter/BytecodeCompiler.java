@@ -0,0 +1,278 @@
+package org.example.interpreter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.exception.EvaluationException;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Lowers a parsed program to a {@link BytecodeProgram}. Variables are
+ * resolved first and each (depth, slot) becomes one local: the frames of
+ * all depths are laid out one after another. Operand order and checks
+ * follow {@link Interpreter}, so the VM fails at the same point with the
+ * same message.
+ */
+public class BytecodeCompiler {
+    private int[] code;
+    private int size;
+
+    private double[] constants;
+    private int constantCount;
+    private final Map<Long, Integer> constantIndexes = new HashMap<>();
+
+    private int[] frameBases;
+    private String[] names;
+    private int nameCount;
+    private final Map<String, Integer> nameIndexes = new HashMap<>();
+
+    private int stackDepth;
+    private int maxStack;
+
+    public BytecodeProgram compile(List<Statement> statements) {
+        int[] frameSizes = new Resolver().resolve(statements);
+        frameBases = new int[frameSizes.length];
+        int localCount = 0;
+        for (int depth = 0; depth < frameSizes.length; depth++) {
+            frameBases[depth] = localCount;
+            localCount += frameSizes[depth];
+        }
+
+        code = new int[256];
+        size = 0;
+        constants = new double[16];
+        constantCount = 0;
+        constantIndexes.clear();
+        names = new String[16];
+        nameCount = 0;
+        nameIndexes.clear();
+        stackDepth = 0;
+        maxStack = 0;
+
+        for (int i = 0; i < statements.size(); i++) {
+            compileStatement(statements.get(i));
+        }
+        emit(OpCode.HALT, 0);
+
+        return new BytecodeProgram(Arrays.copyOf(code, size), Arrays.copyOf(constants, constantCount),
+                Arrays.copyOf(names, nameCount), localCount, maxStack);
+    }
+
+    private void compileStatement(Statement statement) {
+        if (statement instanceof ExpressionStatement) {
+            Expression expression = ((ExpressionStatement) statement).getExpression();
+            if (expression instanceof AssignExpression) {
+                // Store straight away instead of ASSIGN + POP
+                AssignExpression assign = (AssignExpression) expression;
+                compileExpression(assign.getValue());
+                emit(OpCode.STORE, local(assign.getDepth(), assign.getSlot()), -1);
+            } else {
+                compileExpression(expression);
+                emit(OpCode.POP, -1);
+            }
+        }
+        else if (statement instanceof VarStatement) {
+            VarStatement v = (VarStatement) statement;
+            int local = local(v.getDepth(), v.getSlot());
+            if (v.getInitializer() == null) {
+                emit(OpCode.UNSET, local, 0);
+            } else {
+                compileExpression(v.getInitializer());
+                emit(OpCode.STORE, local, -1);
+            }
+        }
+        else if (statement instanceof PrintStatement) {
+            compileExpression(((PrintStatement) statement).getExpression());
+            emit(OpCode.PRINT, -1);
+        }
+        else if (statement instanceof IfStatement) {
+            IfStatement i = (IfStatement) statement;
+            compileExpression(i.getCondition());
+            int skipThen = emitJump(OpCode.JUMP_IF_FALSE, -1);
+            compileStatement(i.getThenBranch());
+            if (i.getElseBranch() == null) {
+                patch(skipThen);
+            } else {
+                int skipElse = emitJump(OpCode.JUMP, 0);
+                patch(skipThen);
+                compileStatement(i.getElseBranch());
+                patch(skipElse);
+            }
+        }
+        else if (statement instanceof WhileStatement) {
+            WhileStatement w = (WhileStatement) statement;
+            int start = size;
+            compileExpression(w.getCondition());
+            int exit = emitJump(OpCode.JUMP_IF_FALSE, -1);
+            compileStatement(w.getBody());
+            emit(OpCode.JUMP, start, 0);
+            patch(exit);
+        }
+        else if (statement instanceof BlockStatement) {
+            List<Statement> statements = ((BlockStatement) statement).getStatements();
+            for (int i = 0; i < statements.size(); i++) {
+                compileStatement(statements.get(i));
+            }
+        }
+        else {
+            throw new EvaluationException("[Runtime Error] Unsupported statement: " + statement.getClass().getName());
+        }
+    }
+
+    private void compileExpression(Expression expression) {
+        if (expression instanceof NumberExpression) {
+            emit(OpCode.CONST, constant(((NumberExpression) expression).getValue()), 1);
+        }
+        else if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            // The name comes from the read itself: sibling blocks reuse the same locals
+            emit(OpCode.LOAD, local(variable.getDepth(), variable.getSlot()), name(variable.getName()), 1);
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            compileExpression(assign.getValue());
+            emit(OpCode.ASSIGN, local(assign.getDepth(), assign.getSlot()), 0);
+        }
+        else if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            if (unary.getOperator() != TokenType.MINUS) {
+                throw new EvaluationException("[Runtime Error] Unsupported unary operator " + unary.getOperator() + ".");
+            }
+            compileExpression(unary.getRight());
+            emit(OpCode.NEG, 0);
+        }
+        else if (expression instanceof BinaryExpression) {
+            compileBinary((BinaryExpression) expression);
+        }
+        else {
+            throw new EvaluationException("[Runtime Error] Unsupported expression: " + expression.getClass().getName());
+        }
+    }
+
+    private void compileBinary(BinaryExpression binary) {
+        TokenType operator = binary.getOperator();
+
+        if (operator == TokenType.AND || operator == TokenType.OR) {
+            compileExpression(binary.getLeft());
+            // Either the left operand stays as the result, or it is popped for the right one
+            int end = emitJump(operator == TokenType.AND ? OpCode.AND_JUMP : OpCode.OR_JUMP, -1);
+            compileExpression(binary.getRight());
+            emit(OpCode.REQUIRE_BOOLEAN, operator.ordinal(), 0);
+            patch(end);
+            return;
+        }
+
+        compileExpression(binary.getLeft());
+        compileExpression(binary.getRight());
+        emit(binaryOpCode(operator), -1);
+    }
+
+    private static int binaryOpCode(TokenType operator) {
+        switch (operator) {
+            case PLUS:
+                return OpCode.ADD;
+            case MINUS:
+                return OpCode.SUB;
+            case STAR:
+                return OpCode.MUL;
+            case SLASH:
+                return OpCode.DIV;
+            case LT:
+                return OpCode.LT;
+            case LTEQ:
+                return OpCode.LE;
+            case GT:
+                return OpCode.GT;
+            case GTEQ:
+                return OpCode.GE;
+            case EQEQ:
+                return OpCode.EQ;
+            case NEQ:
+                return OpCode.NE;
+            default:
+                throw new EvaluationException("[Runtime Error] Unsupported binary operator " + operator + ".");
+        }
+    }
+
+    private int local(int depth, int slot) {
+        return frameBases[depth] + slot;
+    }
+
+    private int constant(double value) {
+        return constantIndexes.computeIfAbsent(Double.doubleToLongBits(value), bits -> {
+            if (constantCount == constants.length) {
+                constants = Arrays.copyOf(constants, constantCount * 2);
+            }
+            constants[constantCount] = value;
+            return constantCount++;
+        });
+    }
+
+    private int name(String name) {
+        return nameIndexes.computeIfAbsent(name, key -> {
+            if (nameCount == names.length) {
+                names = Arrays.copyOf(names, nameCount * 2);
+            }
+            names[nameCount] = key;
+            return nameCount++;
+        });
+    }
+
+    // stackEffect: change of the operand stack depth caused by the instruction
+    private void emit(int opCode, int stackEffect) {
+        ensureCapacity(1);
+        code[size++] = opCode;
+        adjustStack(stackEffect);
+    }
+
+    private void emit(int opCode, int operand, int stackEffect) {
+        ensureCapacity(2);
+        code[size++] = opCode;
+        code[size++] = operand;
+        adjustStack(stackEffect);
+    }
+
+    private void emit(int opCode, int first, int second, int stackEffect) {
+        ensureCapacity(3);
+        code[size++] = opCode;
+        code[size++] = first;
+        code[size++] = second;
+        adjustStack(stackEffect);
+    }
+
+    // Returns the position of the operand to patch with the target
+    private int emitJump(int opCode, int stackEffect) {
+        emit(opCode, -1, stackEffect);
+        return size - 1;
+    }
+
+    private void patch(int operand) {
+        code[operand] = size;
+    }
+
+    private void adjustStack(int stackEffect) {
+        stackDepth += stackEffect;
+        maxStack = Math.max(maxStack, stackDepth);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > code.length) {
+            code = Arrays.copyOf(code, code.length * 2);
+        }
+    }
+}
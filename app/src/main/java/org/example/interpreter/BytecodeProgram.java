@@ -0,0 +1,49 @@
+package org.example.interpreter;
+
+import lombok.Getter;
+
+/**
+ * Output of the {@link BytecodeCompiler}: a flat instruction stream, its
+ * constant pool, the variable names its loads report and what the VM has
+ * to allocate to run it. Locals are the resolver's frames laid out one
+ * after another.
+ */
+@Getter
+public class BytecodeProgram {
+    private final int[] code;
+    private final double[] constants;
+    // Names of the variables read by LOAD instructions, for error messages.
+    // A local may hold different variables over time, so a load carries its own name.
+    private final String[] names;
+    private final int localCount;
+    private final int maxStack;
+
+    public BytecodeProgram(int[] code, double[] constants, String[] names, int localCount, int maxStack) {
+        this.code = code;
+        this.constants = constants;
+        this.names = names;
+        this.localCount = localCount;
+        this.maxStack = maxStack;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int pc = 0; pc < code.length; pc++) {
+            int opCode = code[pc];
+            builder.append(String.format("%5d  %s", pc, OpCode.name(opCode)));
+            if (opCode == OpCode.LOAD) {
+                builder.append(' ').append(code[++pc]);
+                builder.append(" (").append(names[code[++pc]]).append(')');
+            } else if (OpCode.operandCount(opCode) == 1) {
+                int operand = code[++pc];
+                builder.append(' ').append(operand);
+                if (opCode == OpCode.CONST) {
+                    builder.append(" (").append(constants[operand]).append(')');
+                }
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+}
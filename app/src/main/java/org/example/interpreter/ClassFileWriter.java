@@ -0,0 +1,281 @@
+package org.example.interpreter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Just enough of the JVM class file format for the {@link JitCompiler}:
+ * a constant pool, one class with public methods and their bytecode.
+ * Classes are written as version 49 (Java 5), which the JVM still verifies
+ * by type inference, so no StackMapTable frames have to be computed.
+ */
+final class ClassFileWriter {
+    private static final int VERSION = 49;
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> poolIndexes = new HashMap<>();
+    private int poolCount = 1;
+
+    private final List<byte[]> methods = new ArrayList<>();
+
+    // Constant pool entries, deduplicated by their content
+
+    int utf8(String value) {
+        return entry("U" + value, 1, () -> {
+            poolOut.writeByte(1);
+            poolOut.writeUTF(value);
+        });
+    }
+
+    int classRef(String internalName) {
+        int name = utf8(internalName);
+        return entry("C" + internalName, 1, () -> {
+            poolOut.writeByte(7);
+            poolOut.writeShort(name);
+        });
+    }
+
+    int integer(int value) {
+        return entry("I" + value, 1, () -> {
+            poolOut.writeByte(3);
+            poolOut.writeInt(value);
+        });
+    }
+
+    int doubleConstant(double value) {
+        // A double takes two pool slots
+        return entry("D" + Double.doubleToRawLongBits(value), 2, () -> {
+            poolOut.writeByte(6);
+            poolOut.writeDouble(value);
+        });
+    }
+
+    int longConstant(long value) {
+        // Like a double, two pool slots
+        return entry("J" + value, 2, () -> {
+            poolOut.writeByte(5);
+            poolOut.writeLong(value);
+        });
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameAndType = nameAndType(name, descriptor);
+        return entry("M" + owner + '.' + name + descriptor, 1, () -> {
+            poolOut.writeByte(10);
+            poolOut.writeShort(ownerIndex);
+            poolOut.writeShort(nameAndType);
+        });
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        return entry("N" + name + ':' + descriptor, 1, () -> {
+            poolOut.writeByte(12);
+            poolOut.writeShort(nameIndex);
+            poolOut.writeShort(descriptorIndex);
+        });
+    }
+
+    /**
+     * Adds a public method
+     * @param code Finished bytecode of the method
+     */
+    void addMethod(String name, String descriptor, Code code) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int codeAttribute = utf8("Code");
+        byte[] bytes = code.toByteArray();
+
+        methods.add(write(out -> {
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            out.writeShort(1);
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + bytes.length);
+            out.writeShort(code.maxStack);
+            out.writeShort(code.maxLocals);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeShort(0); // exception table
+            out.writeShort(0); // attributes
+        }));
+    }
+
+    byte[] toByteArray(String name, String superName, String... interfaces) {
+        int thisIndex = classRef(name);
+        int superIndex = classRef(superName);
+        int[] interfaceIndexes = Arrays.stream(interfaces).mapToInt(this::classRef).toArray();
+
+        return write(out -> {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(poolCount);
+            out.write(pool.toByteArray());
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisIndex);
+            out.writeShort(superIndex);
+            out.writeShort(interfaceIndexes.length);
+            for (int index : interfaceIndexes) {
+                out.writeShort(index);
+            }
+            out.writeShort(0); // fields
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+            out.writeShort(0); // attributes
+        });
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface PoolWriter {
+        void write() throws IOException;
+    }
+
+    private int entry(String key, int slots, PoolWriter writer) {
+        Integer index = poolIndexes.get(key);
+        if (index != null) {
+            return index;
+        }
+        try {
+            writer.write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index = poolCount;
+        poolCount += slots;
+        poolIndexes.put(key, index);
+        return index;
+    }
+
+    private static byte[] write(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writer.write(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Bytecode of one method with forward and backward jumps to labels.
+     * The stack depth is tracked by the emitting code through
+     * {@link #stack(int)}; max_locals is given up front.
+     */
+    static final class Code {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        private int stack;
+        private int maxStack;
+        private final int maxLocals;
+
+        // Offset of every label, -1 until it is bound
+        private final List<Integer> labelOffsets = new ArrayList<>();
+        // Jump instructions waiting for each label that is not bound yet
+        private final List<int[]> pendingJumps = new ArrayList<>();
+
+        Code(int maxLocals) {
+            this.maxLocals = maxLocals;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void op(int opCode) {
+            u1(opCode);
+        }
+
+        void op(int opCode, int u2Operand) {
+            u1(opCode);
+            u2(u2Operand);
+        }
+
+        void opByte(int opCode, int u1Operand) {
+            u1(opCode);
+            u1(u1Operand);
+        }
+
+        // Changes the tracked operand stack depth, in slots
+        void stack(int change) {
+            stack += change;
+            maxStack = Math.max(maxStack, stack);
+        }
+
+        int newLabel() {
+            labelOffsets.add(-1);
+            pendingJumps.add(new int[0]);
+            return labelOffsets.size() - 1;
+        }
+
+        void bind(int label) {
+            labelOffsets.set(label, size);
+            for (int jump : pendingJumps.get(label)) {
+                patch(jump, size);
+            }
+            pendingJumps.set(label, null);
+        }
+
+        // A branch with a 16-bit offset relative to the instruction
+        void jump(int opCode, int label) {
+            int at = size;
+            u1(opCode);
+            u2(0);
+            int target = labelOffsets.get(label);
+            if (target >= 0) {
+                patch(at, target);
+            } else {
+                int[] jumps = pendingJumps.get(label);
+                jumps = Arrays.copyOf(jumps, jumps.length + 1);
+                jumps[jumps.length - 1] = at;
+                pendingJumps.set(label, jumps);
+            }
+        }
+
+        private void patch(int at, int target) {
+            int offset = target - at;
+            if (offset != (short) offset) {
+                throw new IllegalStateException("Jump offset does not fit in 16 bits: " + offset);
+            }
+            bytes[at + 1] = (byte) (offset >> 8);
+            bytes[at + 2] = (byte) offset;
+        }
+
+        private void u1(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void u2(int value) {
+            u1(value >> 8);
+            u1(value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
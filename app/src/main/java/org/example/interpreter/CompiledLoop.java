@@ -0,0 +1,12 @@
+package org.example.interpreter;
+
+import java.io.PrintStream;
+
+/**
+ * A while loop compiled to a hidden JVM class by the {@link JitCompiler}.
+ * Runs the loop from its condition to the end, reading and writing
+ * variables through the interpreter's frames.
+ */
+interface CompiledLoop {
+    void run(double[][] values, PrintStream out);
+}
@@ -0,0 +1,382 @@
+package org.example.interpreter;
+
+import java.io.PrintStream;
+import java.util.List;
+
+import org.example.exception.EvaluationException;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Tree-walking interpreter. The program is resolved first (see
+ * {@link Resolver}), then variables live in one preallocated frame per
+ * block depth: a double[] of values and a byte[] of their
+ * {@link ValueKind}s, indexed by slot. Expressions return a primitive
+ * double and leave its kind in a field, so evaluation does not box or
+ * allocate and loops run without any per-iteration garbage.
+ *
+ * Expressions the {@link TypeInference} finds statically typed are
+ * evaluated by number() and bool() instead, which neither track nor check
+ * kinds.
+ *
+ * Numbers are doubles and comparisons produce booleans. Arithmetic and
+ * comparisons need numbers, '&&' and '||' need booleans and short-circuit,
+ * conditions must be booleans, and '==' / '!=' accept any two values
+ * (values of different kinds are never equal).
+ */
+public class Interpreter {
+    private final PrintStream out;
+
+    // Null when loops are never compiled
+    private final JitCompiler jit;
+    private final int jitThreshold;
+
+    private final TypeInference types = new TypeInference();
+
+    private double[][] values;
+    private byte[][] kinds;
+
+    // Kind of the value returned by the last evaluate call
+    private byte kind;
+
+    public Interpreter(PrintStream out) {
+        this(out, 0);
+    }
+
+    /**
+     * @param jitThreshold Iterations after which a while loop is handed to the
+     *                     {@link JitCompiler}; 0 keeps every loop interpreted
+     */
+    public Interpreter(PrintStream out, int jitThreshold) {
+        this.out = out;
+        this.jit = jitThreshold > 0 ? new JitCompiler() : null;
+        this.jitThreshold = jitThreshold;
+    }
+
+    /**
+     * Resolves and runs the program
+     * @param statements Parsed program
+     * @throws org.example.exception.SemanticException If a variable is not declared where it is used
+     * @throws EvaluationException On a type error or a read of an unassigned variable
+     */
+    public void interpret(List<Statement> statements) throws EvaluationException {
+        int[] frameSizes = new Resolver().resolve(statements);
+        types.infer(statements, frameSizes);
+        if (jit != null) {
+            jit.reset(statements, frameSizes);
+        }
+
+        values = new double[frameSizes.length][];
+        kinds = new byte[frameSizes.length][];
+        for (int depth = 0; depth < frameSizes.length; depth++) {
+            values[depth] = new double[frameSizes[depth]];
+            kinds[depth] = new byte[frameSizes[depth]];
+        }
+
+        for (int i = 0; i < statements.size(); i++) {
+            execute(statements.get(i));
+        }
+    }
+
+    private void execute(Statement statement) {
+        if (statement instanceof ExpressionStatement) {
+            evaluateTyped(((ExpressionStatement) statement).getExpression());
+        }
+        else if (statement instanceof VarStatement) {
+            VarStatement v = (VarStatement) statement;
+            if (v.getInitializer() == null) {
+                kinds[v.getDepth()][v.getSlot()] = ValueKind.UNSET;
+            } else {
+                double value = evaluateTyped(v.getInitializer());
+                values[v.getDepth()][v.getSlot()] = value;
+                kinds[v.getDepth()][v.getSlot()] = kind;
+            }
+        }
+        else if (statement instanceof PrintStatement) {
+            double value = evaluateTyped(((PrintStatement) statement).getExpression());
+            print(out, value, kind);
+        }
+        else if (statement instanceof IfStatement) {
+            IfStatement i = (IfStatement) statement;
+            if (condition(i.getCondition())) {
+                execute(i.getThenBranch());
+            } else if (i.getElseBranch() != null) {
+                execute(i.getElseBranch());
+            }
+        }
+        else if (statement instanceof WhileStatement) {
+            WhileStatement w = (WhileStatement) statement;
+            int iterations = 0;
+            while (condition(w.getCondition())) {
+                execute(w.getBody());
+                // Once hot, the rest of the loop runs compiled if its variables allow it
+                if (jit != null && ++iterations == jitThreshold && jit.tryRun(w, values, kinds, out)) {
+                    return;
+                }
+            }
+        }
+        else if (statement instanceof BlockStatement) {
+            List<Statement> statements = ((BlockStatement) statement).getStatements();
+            for (int i = 0; i < statements.size(); i++) {
+                execute(statements.get(i));
+            }
+        }
+        else {
+            throw new EvaluationException("[Runtime Error] Unsupported statement: " + statement.getClass().getName());
+        }
+    }
+
+    private boolean condition(Expression expression) {
+        if (expression.isStaticallyTyped() && expression.getType() == TypeInference.BOOLEAN) {
+            return bool(expression);
+        }
+        double value = evaluate(expression);
+        requireCondition(kind);
+        return value != 0;
+    }
+
+    // Like evaluate, on the unchecked path when the expression allows it
+    private double evaluateTyped(Expression expression) {
+        if (!expression.isStaticallyTyped()) {
+            return evaluate(expression);
+        }
+        if (expression.getType() == TypeInference.NUMBER) {
+            double value = number(expression);
+            kind = ValueKind.NUMBER;
+            return value;
+        }
+        boolean value = bool(expression);
+        kind = ValueKind.BOOLEAN;
+        return value ? 1 : 0;
+    }
+
+    // Statically typed expressions only: no kinds to check, but assignments still store theirs
+
+    private double number(Expression expression) {
+        if (expression instanceof NumberExpression) {
+            return ((NumberExpression) expression).getValue();
+        }
+        else if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            return values[variable.getDepth()][variable.getSlot()];
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            double value = number(assign.getValue());
+            values[assign.getDepth()][assign.getSlot()] = value;
+            kinds[assign.getDepth()][assign.getSlot()] = ValueKind.NUMBER;
+            return value;
+        }
+        else if (expression instanceof UnaryExpression) {
+            return -number(((UnaryExpression) expression).getRight());
+        }
+
+        BinaryExpression binary = (BinaryExpression) expression;
+        double left = number(binary.getLeft());
+        double right = number(binary.getRight());
+        switch (binary.getOperator()) {
+            case PLUS:
+                return left + right;
+            case MINUS:
+                return left - right;
+            case STAR:
+                return left * right;
+            case SLASH:
+                return left / right;
+            default:
+                throw new EvaluationException("[Runtime Error] Unsupported binary operator " + binary.getOperator() + ".");
+        }
+    }
+
+    private boolean bool(Expression expression) {
+        if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            return values[variable.getDepth()][variable.getSlot()] != 0;
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            boolean value = bool(assign.getValue());
+            values[assign.getDepth()][assign.getSlot()] = value ? 1 : 0;
+            kinds[assign.getDepth()][assign.getSlot()] = ValueKind.BOOLEAN;
+            return value;
+        }
+
+        BinaryExpression binary = (BinaryExpression) expression;
+        switch (binary.getOperator()) {
+            case AND:
+                return bool(binary.getLeft()) && bool(binary.getRight());
+            case OR:
+                return bool(binary.getLeft()) || bool(binary.getRight());
+            case EQEQ:
+                return equal(binary.getLeft(), binary.getRight());
+            case NEQ:
+                return !equal(binary.getLeft(), binary.getRight());
+            case LT:
+                return number(binary.getLeft()) < number(binary.getRight());
+            case LTEQ:
+                return number(binary.getLeft()) <= number(binary.getRight());
+            case GT:
+                return number(binary.getLeft()) > number(binary.getRight());
+            case GTEQ:
+                return number(binary.getLeft()) >= number(binary.getRight());
+            default:
+                throw new EvaluationException("[Runtime Error] Unsupported binary operator " + binary.getOperator() + ".");
+        }
+    }
+
+    private boolean equal(Expression left, Expression right) {
+        byte leftType = left.getType();
+        byte rightType = right.getType();
+        if (leftType == TypeInference.NUMBER && rightType == TypeInference.NUMBER) {
+            return number(left) == number(right);
+        }
+        if (leftType == TypeInference.BOOLEAN && rightType == TypeInference.BOOLEAN) {
+            return bool(left) == bool(right);
+        }
+        // Both still run for their assignments, but values of different kinds are never equal
+        evaluateTyped(left);
+        evaluateTyped(right);
+        return false;
+    }
+
+    private double evaluate(Expression expression) {
+        if (expression instanceof NumberExpression) {
+            kind = ValueKind.NUMBER;
+            return ((NumberExpression) expression).getValue();
+        }
+        else if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            kind = kinds[variable.getDepth()][variable.getSlot()];
+            if (kind == ValueKind.UNSET) {
+                throw unassigned(variable.getName());
+            }
+            return values[variable.getDepth()][variable.getSlot()];
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            double value = evaluate(assign.getValue());
+            values[assign.getDepth()][assign.getSlot()] = value;
+            kinds[assign.getDepth()][assign.getSlot()] = kind;
+            return value;
+        }
+        else if (expression instanceof BinaryExpression) {
+            return evaluateBinary((BinaryExpression) expression);
+        }
+        else if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            double value = evaluate(unary.getRight());
+            if (unary.getOperator() == TokenType.MINUS) {
+                requireNumber(unary.getOperator(), kind);
+                return -value;
+            }
+            throw new EvaluationException("[Runtime Error] Unsupported unary operator " + unary.getOperator() + ".");
+        }
+
+        throw new EvaluationException("[Runtime Error] Unsupported expression: " + expression.getClass().getName());
+    }
+
+    private double evaluateBinary(BinaryExpression binary) {
+        TokenType operator = binary.getOperator();
+
+        if (operator == TokenType.AND || operator == TokenType.OR) {
+            double left = evaluate(binary.getLeft());
+            requireBoolean(operator, kind);
+            // The right operand is not evaluated when the left one decides
+            if ((left != 0) == (operator == TokenType.OR)) {
+                return left;
+            }
+            double right = evaluate(binary.getRight());
+            requireBoolean(operator, kind);
+            return right;
+        }
+
+        double left = evaluate(binary.getLeft());
+        byte leftKind = kind;
+        double right = evaluate(binary.getRight());
+        byte rightKind = kind;
+
+        if (operator == TokenType.EQEQ || operator == TokenType.NEQ) {
+            boolean equal = leftKind == rightKind && left == right;
+            kind = ValueKind.BOOLEAN;
+            return equal == (operator == TokenType.EQEQ) ? 1 : 0;
+        }
+
+        requireNumber(operator, leftKind);
+        requireNumber(operator, rightKind);
+
+        switch (operator) {
+            case PLUS:
+                return left + right;
+            case MINUS:
+                return left - right;
+            case STAR:
+                return left * right;
+            case SLASH:
+                return left / right;
+            default:
+                break;
+        }
+
+        kind = ValueKind.BOOLEAN;
+        switch (operator) {
+            case LT:
+                return left < right ? 1 : 0;
+            case LTEQ:
+                return left <= right ? 1 : 0;
+            case GT:
+                return left > right ? 1 : 0;
+            case GTEQ:
+                return left >= right ? 1 : 0;
+            default:
+                throw new EvaluationException("[Runtime Error] Unsupported binary operator " + operator + ".");
+        }
+    }
+
+    // Checks and output shared with the other engines, so all of them behave the same
+
+    public static void print(PrintStream out, double value, byte kind) {
+        if (kind == ValueKind.BOOLEAN) {
+            out.println(value != 0);
+        } else {
+            out.println(value);
+        }
+    }
+
+    public static EvaluationException unassigned(String name) {
+        return new EvaluationException(String.format(
+                "[Runtime Error] Variable '%s' is used before it is assigned.", name));
+    }
+
+    public static void requireCondition(byte kind) {
+        if (kind != ValueKind.BOOLEAN) {
+            throw new EvaluationException(String.format(
+                    "[Runtime Error] Condition must be a boolean, got %s.", ValueKind.name(kind)));
+        }
+    }
+
+    public static void requireNumber(TokenType operator, byte kind) {
+        if (kind != ValueKind.NUMBER) {
+            throw new EvaluationException(String.format(
+                    "[Runtime Error] Operand of %s must be a number, got %s.", operator, ValueKind.name(kind)));
+        }
+    }
+
+    public static void requireBoolean(TokenType operator, byte kind) {
+        if (kind != ValueKind.BOOLEAN) {
+            throw new EvaluationException(String.format(
+                    "[Runtime Error] Operand of %s must be a boolean, got %s.", operator, ValueKind.name(kind)));
+        }
+    }
+}
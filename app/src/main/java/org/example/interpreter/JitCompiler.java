@@ -0,0 +1,840 @@
+package org.example.interpreter;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.core.ASTWalker;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Second tier of the {@link Interpreter}: compiles a hot while loop to a
+ * JVM class, defined as a hidden class next to the interpreter, and lets
+ * HotSpot optimize it. Every variable of the loop becomes a local double
+ * of the generated method; variables declared outside the loop are loaded
+ * from the frames on entry and the assigned ones are written back on exit.
+ * Variables the {@link RangeAnalysis} proves to be small integers
+ * throughout the loop are locals of type long instead, and integral
+ * expressions on them use long arithmetic and comparisons.
+ *
+ * A loop is compiled for the kinds its outer variables have when it gets
+ * hot, and only if those kinds prove that no run-time error can happen in
+ * it: every operand has the kind its operator needs, no variable changes
+ * its kind and none is read unassigned. The compiled code therefore needs
+ * no checks; a guard on the outer variables' kinds at entry is enough.
+ * Loops that do not qualify keep running in the interpreter.
+ */
+final class JitCompiler {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String CLASS_NAME = "org/example/interpreter/JitLoop";
+    private static final String RUN_DESCRIPTOR = "([[DLjava/io/PrintStream;)V";
+
+    // Locals of the generated method: this, values, out, then two slots per variable
+    private static final int FIRST_VARIABLE_LOCAL = 3;
+    private static final int MAX_LOCALS = 255;
+    private static final int MAX_CODE_SIZE = 65535;
+
+    // Placeholder for loops that cannot be compiled, so they are not tried again
+    private static final Loop NOT_COMPILABLE = new Loop(null, new int[0], new int[0], new byte[0]);
+
+    private final Map<WhileStatement, Loop> loops = new IdentityHashMap<>();
+
+    // Analyzed when the first loop gets hot, so programs without hot loops do not pay for it
+    private final RangeAnalysis ranges = new RangeAnalysis();
+    private List<Statement> program;
+    private int[] frameSizes;
+    private boolean analyzed;
+
+    private int compiledCount;
+
+    /**
+     * Runs the rest of the loop, from its next condition check, as compiled code
+     * @return False if the loop cannot be compiled or its variables no longer have
+     *         the kinds it was compiled for; the caller then keeps interpreting it
+     */
+    boolean tryRun(WhileStatement statement, double[][] values, byte[][] kinds, PrintStream out) {
+        Loop loop = loops.get(statement);
+        if (loop == null) {
+            loop = compile(statement, kinds);
+            loops.put(statement, loop);
+        }
+
+        if (loop == NOT_COMPILABLE || !loop.guard(kinds)) {
+            return false;
+        }
+
+        loop.code.run(values, out);
+        return true;
+    }
+
+    int getCompiledCount() {
+        return compiledCount;
+    }
+
+    /**
+     * Forgets every compiled loop before the interpreter runs another program
+     * @param frameSizes What the Resolver returned for it
+     */
+    void reset(List<Statement> program, int[] frameSizes) {
+        loops.clear();
+        this.program = program;
+        this.frameSizes = frameSizes;
+        analyzed = false;
+    }
+
+    private Loop compile(WhileStatement statement, byte[][] kinds) {
+        if (!analyzed) {
+            ranges.analyze(program, frameSizes);
+            analyzed = true;
+        }
+        try {
+            Loop loop = new LoopCompiler(statement, kinds, ranges).compile();
+            compiledCount++;
+            return loop;
+        } catch (NotCompilable | IllegalStateException e) {
+            return NOT_COMPILABLE;
+        }
+    }
+
+    private static final class Loop {
+        private final CompiledLoop code;
+        private final int[] depths;
+        private final int[] slots;
+        private final byte[] kinds;
+
+        Loop(CompiledLoop code, int[] depths, int[] slots, byte[] kinds) {
+            this.code = code;
+            this.depths = depths;
+            this.slots = slots;
+            this.kinds = kinds;
+        }
+
+        boolean guard(byte[][] frameKinds) {
+            for (int i = 0; i < depths.length; i++) {
+                if (frameKinds[depths[i]][slots[i]] != kinds[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class NotCompilable extends RuntimeException {
+        NotCompilable() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Variable {
+        private final int depth;
+        private final int slot;
+        private final int local;
+        private byte kind;
+        private boolean outer;
+        private boolean assigned;
+        // Held in a long local
+        private boolean integral;
+
+        Variable(int depth, int slot, int local) {
+            this.depth = depth;
+            this.slot = slot;
+            this.local = local;
+        }
+    }
+
+    private static final class LoopCompiler {
+        private final WhileStatement loop;
+        private final byte[][] frameKinds;
+        private final RangeAnalysis ranges;
+
+        // Keyed by depth and slot
+        private final Map<Long, Variable> variables = new LinkedHashMap<>();
+        private final Map<Expression, Byte> expressionKinds = new IdentityHashMap<>();
+        // Initializers and assigned values of every variable
+        private final Map<Variable, List<Expression>> writes = new IdentityHashMap<>();
+
+        private final ClassFileWriter classFile = new ClassFileWriter();
+        private ClassFileWriter.Code code;
+
+        LoopCompiler(WhileStatement loop, byte[][] frameKinds, RangeAnalysis ranges) {
+            this.loop = loop;
+            this.frameKinds = frameKinds;
+            this.ranges = ranges;
+        }
+
+        Loop compile() {
+            collectVariables();
+            check(loop);
+            chooseIntegral();
+
+            code = new ClassFileWriter.Code(FIRST_VARIABLE_LOCAL + 2 * variables.size());
+            for (Variable variable : variables.values()) {
+                if (variable.outer) {
+                    loadFromFrame(variable);
+                }
+            }
+            statement(loop);
+            for (Variable variable : variables.values()) {
+                if (variable.outer && variable.assigned) {
+                    storeToFrame(variable);
+                }
+            }
+            code.op(0xb1); // return
+            if (code.size() > MAX_CODE_SIZE) {
+                throw new NotCompilable();
+            }
+
+            classFile.addMethod("<init>", "()V", constructor());
+            classFile.addMethod("run", RUN_DESCRIPTOR, code);
+            byte[] bytes = classFile.toByteArray(CLASS_NAME, "java/lang/Object", "org/example/interpreter/CompiledLoop");
+
+            List<Variable> outer = new ArrayList<>();
+            for (Variable variable : variables.values()) {
+                if (variable.outer) {
+                    outer.add(variable);
+                }
+            }
+            int[] depths = outer.stream().mapToInt(v -> v.depth).toArray();
+            int[] slots = outer.stream().mapToInt(v -> v.slot).toArray();
+            byte[] kinds = new byte[outer.size()];
+            for (int i = 0; i < kinds.length; i++) {
+                kinds[i] = outer.get(i).kind;
+            }
+
+            return new Loop(instantiate(bytes), depths, slots, kinds);
+        }
+
+        private static CompiledLoop instantiate(byte[] bytes) {
+            try {
+                MethodHandles.Lookup hidden = LOOKUP.defineHiddenClass(bytes, true);
+                return (CompiledLoop) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class))
+                        .invoke();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Generated loop class was rejected", e);
+            }
+        }
+
+        private ClassFileWriter.Code constructor() {
+            ClassFileWriter.Code init = new ClassFileWriter.Code(1);
+            init.op(0x2a); // aload_0
+            init.stack(1);
+            init.op(0xb7, classFile.methodRef("java/lang/Object", "<init>", "()V")); // invokespecial
+            init.stack(-1);
+            init.op(0xb1); // return
+            return init;
+        }
+
+        // Every variable the loop touches gets a local; outer ones take their kind from the frames
+        private void collectVariables() {
+            // A loop body is never a bare declaration, so variables declared inside
+            // live in the body's own frames and never share a slot with outer ones
+            List<Object> uses = new ArrayList<>();
+            new ASTWalker().walk(loop, (node, depth, isLast) -> {
+                if (node instanceof VarStatement) {
+                    VarStatement v = (VarStatement) node;
+                    variable(v.getDepth(), v.getSlot());
+                } else if (node instanceof VariableExpression || node instanceof AssignExpression) {
+                    uses.add(node);
+                }
+            });
+            int innerCount = variables.size();
+
+            for (Object use : uses) {
+                if (use instanceof VariableExpression) {
+                    variable(((VariableExpression) use).getDepth(), ((VariableExpression) use).getSlot());
+                } else {
+                    variable(((AssignExpression) use).getDepth(), ((AssignExpression) use).getSlot());
+                }
+            }
+            int index = 0;
+            for (Variable variable : variables.values()) {
+                if (index++ >= innerCount) {
+                    variable.outer = true;
+                    variable.kind = frameKinds[variable.depth][variable.slot];
+                    if (variable.kind == ValueKind.UNSET) {
+                        throw new NotCompilable();
+                    }
+                }
+            }
+            if (FIRST_VARIABLE_LOCAL + 2 * variables.size() > MAX_LOCALS) {
+                throw new NotCompilable();
+            }
+        }
+
+        private Variable variable(int depth, int slot) {
+            return variables.computeIfAbsent(((long) depth << 32) | slot,
+                    key -> new Variable(depth, slot, FIRST_VARIABLE_LOCAL + 2 * variables.size()));
+        }
+
+        // Kind checking, in execution order
+
+        private void check(Statement statement) {
+            if (statement instanceof ExpressionStatement) {
+                check(((ExpressionStatement) statement).getExpression());
+            }
+            else if (statement instanceof VarStatement) {
+                VarStatement v = (VarStatement) statement;
+                if (v.getInitializer() == null) {
+                    throw new NotCompilable();
+                }
+                Variable variable = variable(v.getDepth(), v.getSlot());
+                define(variable, check(v.getInitializer()));
+                write(variable, v.getInitializer());
+            }
+            else if (statement instanceof PrintStatement) {
+                check(((PrintStatement) statement).getExpression());
+            }
+            else if (statement instanceof IfStatement) {
+                IfStatement i = (IfStatement) statement;
+                require(check(i.getCondition()), ValueKind.BOOLEAN);
+                check(i.getThenBranch());
+                if (i.getElseBranch() != null) {
+                    check(i.getElseBranch());
+                }
+            }
+            else if (statement instanceof WhileStatement) {
+                WhileStatement w = (WhileStatement) statement;
+                require(check(w.getCondition()), ValueKind.BOOLEAN);
+                check(w.getBody());
+            }
+            else if (statement instanceof BlockStatement) {
+                for (Statement inner : ((BlockStatement) statement).getStatements()) {
+                    check(inner);
+                }
+            }
+            else {
+                throw new NotCompilable();
+            }
+        }
+
+        private byte check(Expression expression) {
+            byte kind;
+            if (expression instanceof NumberExpression) {
+                kind = ValueKind.NUMBER;
+            }
+            else if (expression instanceof VariableExpression) {
+                VariableExpression v = (VariableExpression) expression;
+                kind = variable(v.getDepth(), v.getSlot()).kind;
+                if (kind == ValueKind.UNSET) {
+                    // An inner variable whose declaration was not checked yet
+                    throw new NotCompilable();
+                }
+            }
+            else if (expression instanceof AssignExpression) {
+                AssignExpression assign = (AssignExpression) expression;
+                kind = check(assign.getValue());
+                Variable variable = variable(assign.getDepth(), assign.getSlot());
+                require(variable.kind, kind);
+                variable.assigned = true;
+                write(variable, assign.getValue());
+            }
+            else if (expression instanceof UnaryExpression) {
+                UnaryExpression unary = (UnaryExpression) expression;
+                if (unary.getOperator() != TokenType.MINUS) {
+                    throw new NotCompilable();
+                }
+                kind = require(check(unary.getRight()), ValueKind.NUMBER);
+            }
+            else if (expression instanceof BinaryExpression) {
+                BinaryExpression binary = (BinaryExpression) expression;
+                byte left = check(binary.getLeft());
+                byte right = check(binary.getRight());
+                switch (binary.getOperator()) {
+                    case PLUS:
+                    case MINUS:
+                    case STAR:
+                    case SLASH:
+                        require(left, ValueKind.NUMBER);
+                        kind = require(right, ValueKind.NUMBER);
+                        break;
+                    case LT:
+                    case LTEQ:
+                    case GT:
+                    case GTEQ:
+                        require(left, ValueKind.NUMBER);
+                        require(right, ValueKind.NUMBER);
+                        kind = ValueKind.BOOLEAN;
+                        break;
+                    case AND:
+                    case OR:
+                        require(left, ValueKind.BOOLEAN);
+                        kind = require(right, ValueKind.BOOLEAN);
+                        break;
+                    case EQEQ:
+                    case NEQ:
+                        kind = ValueKind.BOOLEAN;
+                        break;
+                    default:
+                        throw new NotCompilable();
+                }
+            }
+            else {
+                throw new NotCompilable();
+            }
+
+            expressionKinds.put(expression, kind);
+            return kind;
+        }
+
+        private void define(Variable variable, byte kind) {
+            if (variable.kind == ValueKind.UNSET) {
+                variable.kind = kind;
+            } else {
+                require(kind, variable.kind);
+            }
+        }
+
+        private void write(Variable variable, Expression value) {
+            writes.computeIfAbsent(variable, key -> new ArrayList<>()).add(value);
+        }
+
+        // A number variable is held in a long if every value it can have there is integral
+        private void chooseIntegral() {
+            for (Variable variable : variables.values()) {
+                if (variable.kind != ValueKind.NUMBER) {
+                    continue;
+                }
+                boolean integral = !variable.outer || isIntegral(ranges.rangeAt(loop, variable.depth, variable.slot));
+                for (Expression value : writes.getOrDefault(variable, List.of())) {
+                    integral &= ranges.isIntegral(value);
+                }
+                variable.integral = integral;
+            }
+        }
+
+        private static boolean isIntegral(Range range) {
+            return range != null && range.isIntegral();
+        }
+
+        // Whether the expression can be computed as a long: integral, and so are its operands
+        private boolean isLong(Expression expression) {
+            if (expressionKinds.get(expression) != ValueKind.NUMBER || !ranges.isIntegral(expression)) {
+                return false;
+            }
+            if (expression instanceof NumberExpression || expression instanceof VariableExpression) {
+                return true;
+            }
+            else if (expression instanceof AssignExpression) {
+                AssignExpression assign = (AssignExpression) expression;
+                return variable(assign.getDepth(), assign.getSlot()).integral && isLong(assign.getValue());
+            }
+            else if (expression instanceof UnaryExpression) {
+                return isLong(((UnaryExpression) expression).getRight());
+            }
+            BinaryExpression binary = (BinaryExpression) expression;
+            if (binary.getOperator() == TokenType.SLASH) {
+                // Integral only when dividing by 1 or -1
+                return isLong(binary.getLeft()) && binary.getRight() instanceof NumberExpression;
+            }
+            return isLong(binary.getLeft()) && isLong(binary.getRight());
+        }
+
+        private static byte require(int actual, byte expected) {
+            if (actual != expected) {
+                throw new NotCompilable();
+            }
+            return expected;
+        }
+
+        // Code generation
+
+        private void statement(Statement statement) {
+            if (statement instanceof ExpressionStatement) {
+                Expression expression = ((ExpressionStatement) statement).getExpression();
+                if (expression instanceof AssignExpression) {
+                    AssignExpression assign = (AssignExpression) expression;
+                    assign(variable(assign.getDepth(), assign.getSlot()), assign.getValue());
+                } else {
+                    value(expression);
+                    code.op(0x58); // pop2
+                    code.stack(-2);
+                }
+            }
+            else if (statement instanceof VarStatement) {
+                VarStatement v = (VarStatement) statement;
+                assign(variable(v.getDepth(), v.getSlot()), v.getInitializer());
+            }
+            else if (statement instanceof PrintStatement) {
+                print(((PrintStatement) statement).getExpression());
+            }
+            else if (statement instanceof IfStatement) {
+                IfStatement i = (IfStatement) statement;
+                int otherwise = code.newLabel();
+                branch(i.getCondition(), false, otherwise);
+                statement(i.getThenBranch());
+                if (i.getElseBranch() == null) {
+                    code.bind(otherwise);
+                } else {
+                    int end = code.newLabel();
+                    code.jump(0xa7, end); // goto
+                    code.bind(otherwise);
+                    statement(i.getElseBranch());
+                    code.bind(end);
+                }
+            }
+            else if (statement instanceof WhileStatement) {
+                WhileStatement w = (WhileStatement) statement;
+                int start = code.newLabel();
+                int exit = code.newLabel();
+                code.bind(start);
+                branch(w.getCondition(), false, exit);
+                statement(w.getBody());
+                code.jump(0xa7, start); // goto
+                code.bind(exit);
+            }
+            else if (statement instanceof BlockStatement) {
+                for (Statement inner : ((BlockStatement) statement).getStatements()) {
+                    statement(inner);
+                }
+            }
+        }
+
+        // Same output as Interpreter.print: println(double) or println(boolean)
+        private void print(Expression expression) {
+            code.op(0x2c); // aload_2
+            code.stack(1);
+            if (expressionKinds.get(expression) == ValueKind.BOOLEAN) {
+                booleanAsInt(expression);
+                invokePrintln("(Z)V", -2);
+            } else {
+                value(expression);
+                invokePrintln("(D)V", -3);
+            }
+        }
+
+        private void invokePrintln(String descriptor, int stackChange) {
+            code.op(0xb6, classFile.methodRef("java/io/PrintStream", "println", descriptor)); // invokevirtual
+            code.stack(stackChange);
+        }
+
+        // Pushes the value as a double; booleans as 1 or 0
+        private void value(Expression expression) {
+            if (isLong(expression) && !(expression instanceof NumberExpression)) {
+                longValue(expression);
+                code.op(0x8a); // l2d
+            }
+            else if (expression instanceof NumberExpression) {
+                double number = ((NumberExpression) expression).getValue();
+                if (Double.doubleToRawLongBits(number) == 0L) {
+                    code.op(0x0e); // dconst_0
+                } else if (number == 1.0) {
+                    code.op(0x0f); // dconst_1
+                } else {
+                    code.op(0x14, classFile.doubleConstant(number)); // ldc2_w
+                }
+                code.stack(2);
+            }
+            else if (expression instanceof VariableExpression) {
+                VariableExpression v = (VariableExpression) expression;
+                Variable variable = variable(v.getDepth(), v.getSlot());
+                load(variable);
+                if (variable.integral) {
+                    code.op(0x8a); // l2d
+                }
+            }
+            else if (expression instanceof AssignExpression) {
+                AssignExpression assign = (AssignExpression) expression;
+                Variable variable = variable(assign.getDepth(), assign.getSlot());
+                if (variable.integral) {
+                    // Not isLong, so the value is computed as a double; being integral, it converts exactly
+                    value(assign.getValue());
+                    code.op(0x5c); // dup2
+                    code.op(0x8f); // d2l
+                    code.stack(2);
+                } else {
+                    value(assign.getValue());
+                    code.op(0x5c); // dup2
+                    code.stack(2);
+                }
+                store(variable);
+            }
+            else if (expression instanceof UnaryExpression) {
+                value(((UnaryExpression) expression).getRight());
+                code.op(0x77); // dneg
+            }
+            else if (expressionKinds.get(expression) == ValueKind.NUMBER) {
+                BinaryExpression binary = (BinaryExpression) expression;
+                value(binary.getLeft());
+                value(binary.getRight());
+                code.op(arithmetic(binary.getOperator()));
+                code.stack(-2);
+            }
+            else {
+                int isFalse = code.newLabel();
+                int end = code.newLabel();
+                branch(expression, false, isFalse);
+                code.op(0x0f); // dconst_1
+                code.jump(0xa7, end); // goto
+                code.bind(isFalse);
+                code.op(0x0e); // dconst_0
+                code.bind(end);
+                code.stack(2);
+            }
+        }
+
+        // Pushes the value of an isLong expression as a long
+        private void longValue(Expression expression) {
+            if (expression instanceof NumberExpression) {
+                long number = (long) ((NumberExpression) expression).getValue();
+                if (number == 0 || number == 1) {
+                    code.op(0x09 + (int) number); // lconst_<n>
+                } else {
+                    code.op(0x14, classFile.longConstant(number)); // ldc2_w
+                }
+                code.stack(2);
+            }
+            else if (expression instanceof VariableExpression) {
+                VariableExpression v = (VariableExpression) expression;
+                Variable variable = variable(v.getDepth(), v.getSlot());
+                load(variable);
+                if (!variable.integral) {
+                    // The analysis proved this value integral even though others of the variable are not
+                    code.op(0x8f); // d2l
+                }
+            }
+            else if (expression instanceof AssignExpression) {
+                AssignExpression assign = (AssignExpression) expression;
+                longValue(assign.getValue());
+                code.op(0x5c); // dup2
+                code.stack(2);
+                store(variable(assign.getDepth(), assign.getSlot()));
+            }
+            else if (expression instanceof UnaryExpression) {
+                longValue(((UnaryExpression) expression).getRight());
+                code.op(0x75); // lneg
+            }
+            else {
+                BinaryExpression binary = (BinaryExpression) expression;
+                longValue(binary.getLeft());
+                switch (binary.getOperator()) {
+                    case SLASH:
+                        // By 1 or -1, as isLong requires
+                        if (((NumberExpression) binary.getRight()).getValue() < 0) {
+                            code.op(0x75); // lneg
+                        }
+                        return;
+                    case PLUS:
+                        longValue(binary.getRight());
+                        code.op(0x61); // ladd
+                        break;
+                    case MINUS:
+                        longValue(binary.getRight());
+                        code.op(0x65); // lsub
+                        break;
+                    default:
+                        longValue(binary.getRight());
+                        code.op(0x69); // lmul
+                        break;
+                }
+                code.stack(-2);
+            }
+        }
+
+        // Computes the value and stores it, converted to the variable's type
+        private void assign(Variable variable, Expression value) {
+            if (variable.integral && isLong(value)) {
+                longValue(value);
+            } else {
+                value(value);
+                if (variable.integral) {
+                    code.op(0x8f); // d2l
+                }
+            }
+            store(variable);
+        }
+
+        private void booleanAsInt(Expression expression) {
+            int isFalse = code.newLabel();
+            int end = code.newLabel();
+            branch(expression, false, isFalse);
+            code.op(0x04); // iconst_1
+            code.jump(0xa7, end); // goto
+            code.bind(isFalse);
+            code.op(0x03); // iconst_0
+            code.bind(end);
+            code.stack(1);
+        }
+
+        private static int arithmetic(TokenType operator) {
+            switch (operator) {
+                case PLUS:
+                    return 0x63; // dadd
+                case MINUS:
+                    return 0x67; // dsub
+                case STAR:
+                    return 0x6b; // dmul
+                default:
+                    return 0x6f; // ddiv
+            }
+        }
+
+        // Jumps to the label if the boolean expression evaluates to `when`, falls through otherwise
+        private void branch(Expression expression, boolean when, int label) {
+            TokenType operator = expression instanceof BinaryExpression
+                    ? ((BinaryExpression) expression).getOperator() : null;
+
+            if (operator == TokenType.AND || operator == TokenType.OR) {
+                BinaryExpression binary = (BinaryExpression) expression;
+                // The left operand alone decides when it is false for '&&' and true for '||'
+                boolean deciding = operator == TokenType.OR;
+                if (when == deciding) {
+                    branch(binary.getLeft(), deciding, label);
+                    branch(binary.getRight(), deciding, label);
+                } else {
+                    int skip = code.newLabel();
+                    branch(binary.getLeft(), deciding, skip);
+                    branch(binary.getRight(), when, label);
+                    code.bind(skip);
+                }
+                return;
+            }
+
+            if (operator == TokenType.EQEQ || operator == TokenType.NEQ) {
+                BinaryExpression binary = (BinaryExpression) expression;
+                boolean equalWhen = (operator == TokenType.EQEQ) == when;
+                if (!expressionKinds.get(binary.getLeft()).equals(expressionKinds.get(binary.getRight()))) {
+                    // Values of different kinds are never equal; still run both operands
+                    value(binary.getLeft());
+                    value(binary.getRight());
+                    code.op(0x58); // pop2
+                    code.op(0x58); // pop2
+                    code.stack(-4);
+                    if (!equalWhen) {
+                        code.jump(0xa7, label); // goto
+                    }
+                    return;
+                }
+                if (isLong(binary.getLeft()) && isLong(binary.getRight())) {
+                    longValue(binary.getLeft());
+                    longValue(binary.getRight());
+                    code.op(0x94); // lcmp
+                } else {
+                    value(binary.getLeft());
+                    value(binary.getRight());
+                    code.op(0x97); // dcmpl, NaN compares unequal
+                }
+                code.stack(-3);
+                code.jump(equalWhen ? 0x99 : 0x9a, label); // ifeq : ifne
+                code.stack(-1);
+                return;
+            }
+
+            if (operator == TokenType.LT || operator == TokenType.LTEQ
+                    || operator == TokenType.GT || operator == TokenType.GTEQ) {
+                BinaryExpression binary = (BinaryExpression) expression;
+                if (isLong(binary.getLeft()) && isLong(binary.getRight())) {
+                    longValue(binary.getLeft());
+                    longValue(binary.getRight());
+                    code.op(0x94); // lcmp
+                } else {
+                    value(binary.getLeft());
+                    value(binary.getRight());
+                    // dcmpg for < and <=, dcmpl for > and >=, so NaN makes every comparison false
+                    boolean less = operator == TokenType.LT || operator == TokenType.LTEQ;
+                    code.op(less ? 0x98 : 0x97);
+                }
+                code.stack(-3);
+                int jump;
+                switch (operator) {
+                    case LT:
+                        jump = when ? 0x9b : 0x9c; // iflt : ifge
+                        break;
+                    case LTEQ:
+                        jump = when ? 0x9e : 0x9d; // ifle : ifgt
+                        break;
+                    case GT:
+                        jump = when ? 0x9d : 0x9e; // ifgt : ifle
+                        break;
+                    default:
+                        jump = when ? 0x9c : 0x9b; // ifge : iflt
+                        break;
+                }
+                code.jump(jump, label);
+                code.stack(-1);
+                return;
+            }
+
+            // A boolean variable or assignment, held as 1 or 0
+            value(expression);
+            code.op(0x0e); // dconst_0
+            code.stack(2);
+            code.op(0x97); // dcmpl
+            code.stack(-3);
+            code.jump(when ? 0x9a : 0x99, label); // ifne : ifeq
+            code.stack(-1);
+        }
+
+        private void load(Variable variable) {
+            code.opByte(variable.integral ? 0x16 : 0x18, variable.local); // lload : dload
+            code.stack(2);
+        }
+
+        private void store(Variable variable) {
+            code.opByte(variable.integral ? 0x37 : 0x39, variable.local); // lstore : dstore
+            code.stack(-2);
+        }
+
+        // values[depth][slot] -> local
+        private void loadFromFrame(Variable variable) {
+            code.op(0x2b); // aload_1
+            code.stack(1);
+            pushInt(variable.depth);
+            code.op(0x32); // aaload
+            code.stack(-1);
+            pushInt(variable.slot);
+            code.op(0x31); // daload
+            code.stack(0);
+            if (variable.integral) {
+                code.op(0x8f); // d2l
+            }
+            store(variable);
+        }
+
+        // local -> values[depth][slot]
+        private void storeToFrame(Variable variable) {
+            code.op(0x2b); // aload_1
+            code.stack(1);
+            pushInt(variable.depth);
+            code.op(0x32); // aaload
+            code.stack(-1);
+            pushInt(variable.slot);
+            load(variable);
+            if (variable.integral) {
+                code.op(0x8a); // l2d
+            }
+            code.op(0x52); // dastore
+            code.stack(-4);
+        }
+
+        private void pushInt(int value) {
+            if (value <= 5) {
+                code.op(0x03 + value); // iconst_<n>
+            } else if (value <= Byte.MAX_VALUE) {
+                code.opByte(0x10, value); // bipush
+            } else if (value <= Short.MAX_VALUE) {
+                code.op(0x11, value); // sipush
+            } else {
+                code.op(0x13, classFile.integer(value)); // ldc_w
+            }
+            code.stack(1);
+        }
+    }
+}
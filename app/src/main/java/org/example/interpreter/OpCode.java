@@ -0,0 +1,66 @@
+package org.example.interpreter;
+
+/**
+ * Instructions of the {@link VirtualMachine}. Each instruction is an opcode
+ * int in the code array, followed by its int operands, at most two.
+ */
+public final class OpCode {
+    // operand: constant pool index; pushes a number
+    public static final int CONST = 0;
+    // operands: local index, name table index; pushes the local, fails naming the variable if it is unset
+    public static final int LOAD = 1;
+    // operand: local index; pops into the local
+    public static final int STORE = 2;
+    // operand: local index; copies the top of the stack into the local
+    public static final int ASSIGN = 3;
+    // operand: local index; marks the local as unset ("var x;")
+    public static final int UNSET = 4;
+    public static final int POP = 5;
+
+    public static final int NEG = 6;
+    public static final int ADD = 7;
+    public static final int SUB = 8;
+    public static final int MUL = 9;
+    public static final int DIV = 10;
+    public static final int LT = 11;
+    public static final int LE = 12;
+    public static final int GT = 13;
+    public static final int GE = 14;
+    public static final int EQ = 15;
+    public static final int NE = 16;
+
+    // operand: target; unconditional jump
+    public static final int JUMP = 17;
+    // operand: target; pops a condition and jumps if it is false
+    public static final int JUMP_IF_FALSE = 18;
+    // operand: target; keeps a false left operand of '&&' and jumps, pops a true one
+    public static final int AND_JUMP = 19;
+    // operand: target; keeps a true left operand of '||' and jumps, pops a false one
+    public static final int OR_JUMP = 20;
+    // operand: TokenType ordinal of the operator; checks the right operand of '&&' / '||'
+    public static final int REQUIRE_BOOLEAN = 21;
+
+    public static final int PRINT = 22;
+    public static final int HALT = 23;
+
+    private static final String[] NAMES = {
+        "CONST", "LOAD", "STORE", "ASSIGN", "UNSET", "POP",
+        "NEG", "ADD", "SUB", "MUL", "DIV", "LT", "LE", "GT", "GE", "EQ", "NE",
+        "JUMP", "JUMP_IF_FALSE", "AND_JUMP", "OR_JUMP", "REQUIRE_BOOLEAN",
+        "PRINT", "HALT",
+    };
+
+    private OpCode() {
+    }
+
+    public static String name(int opCode) {
+        return NAMES[opCode];
+    }
+
+    public static int operandCount(int opCode) {
+        if (opCode == LOAD) {
+            return 2;
+        }
+        return opCode <= UNSET || opCode >= JUMP && opCode <= REQUIRE_BOOLEAN ? 1 : 0;
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.interpreter;
+
+import lombok.Getter;
+
+/**
+ * Integers from lo to hi, both within {@link #LIMIT} of 0, where doubles
+ * and longs hold exactly the same values. A number outside any range may
+ * be fractional, too large, infinite or NaN; the analysis then has no
+ * range for it (null) at all.
+ *
+ * Zero is ambiguous: a double can also be -0.0, which prints differently.
+ * Ranges that may contain it say so and cannot be held in a long.
+ */
+@Getter
+public final class Range {
+    public static final long LIMIT = 1L << 53;
+    private static final long WIDENED = LIMIT / 2;
+
+    private final long lo;
+    private final long hi;
+    private final boolean negativeZero;
+
+    private Range(long lo, long hi, boolean negativeZero) {
+        this.lo = lo;
+        this.hi = hi;
+        this.negativeZero = negativeZero;
+    }
+
+    /**
+     * @return The range, or null if it goes beyond the limit
+     */
+    static Range of(long lo, long hi, boolean negativeZero) {
+        if (lo < -LIMIT || hi > LIMIT) {
+            return null;
+        }
+        return new Range(lo, hi, negativeZero);
+    }
+
+    /**
+     * @return The range of the single value, or null if it is not an integer within the limit
+     */
+    static Range constant(double value) {
+        if (value != Math.rint(value) || Math.abs(value) > LIMIT) {
+            return null;
+        }
+        return of((long) value, (long) value, Double.doubleToRawLongBits(value) == Double.doubleToRawLongBits(-0.0));
+    }
+
+    /**
+     * @return Whether every value of the range can be held in a long and converted back unchanged
+     */
+    public boolean isIntegral() {
+        return !negativeZero;
+    }
+
+    boolean containsZero() {
+        return lo <= 0 && hi >= 0;
+    }
+
+    static Range join(Range a, Range b) {
+        if (a == null || b == null) {
+            return null;
+        }
+        return new Range(Math.min(a.lo, b.lo), Math.max(a.hi, b.hi), a.negativeZero || b.negativeZero);
+    }
+
+    /**
+     * Bounds that grew jump to half the limit, leaving room for the small
+     * steps loops take from there; if they grow beyond that, the range is given up
+     */
+    static Range widen(Range previous, Range next) {
+        if (previous == null || next == null) {
+            return null;
+        }
+        long lo = previous.lo;
+        long hi = previous.hi;
+        if (next.lo < lo) {
+            if (next.lo < -WIDENED) {
+                return null;
+            }
+            lo = -WIDENED;
+        }
+        if (next.hi > hi) {
+            if (next.hi > WIDENED) {
+                return null;
+            }
+            hi = WIDENED;
+        }
+        return new Range(lo, hi, next.negativeZero);
+    }
+
+    // Null if no value is left
+    static Range intersect(Range range, long lo, long hi) {
+        long newLo = Math.max(range.lo, lo);
+        long newHi = Math.min(range.hi, hi);
+        if (newLo > newHi) {
+            return null;
+        }
+        return new Range(newLo, newHi, range.negativeZero && newLo <= 0 && newHi >= 0);
+    }
+
+    static Range negate(Range a) {
+        // -(0.0) is -0.0 and -(-0.0) is 0.0
+        return a == null ? null : of(-a.hi, -a.lo, a.containsZero());
+    }
+
+    static Range add(Range a, Range b) {
+        if (a == null || b == null) {
+            return null;
+        }
+        return of(a.lo + b.lo, a.hi + b.hi, a.negativeZero && b.negativeZero);
+    }
+
+    static Range subtract(Range a, Range b) {
+        if (a == null || b == null) {
+            return null;
+        }
+        return of(a.lo - b.hi, a.hi - b.lo, a.negativeZero && b.containsZero());
+    }
+
+    static Range multiply(Range a, Range b) {
+        if (a == null || b == null) {
+            return null;
+        }
+        try {
+            long p1 = Math.multiplyExact(a.lo, b.lo);
+            long p2 = Math.multiplyExact(a.lo, b.hi);
+            long p3 = Math.multiplyExact(a.hi, b.lo);
+            long p4 = Math.multiplyExact(a.hi, b.hi);
+            // A zero times a negative number, or a -0.0 times anything, may give -0.0
+            boolean negativeZero = a.negativeZero || b.negativeZero
+                    || (a.containsZero() && b.lo < 0) || (b.containsZero() && a.lo < 0);
+            return of(Math.min(Math.min(p1, p2), Math.min(p3, p4)), Math.max(Math.max(p1, p2), Math.max(p3, p4)),
+                    negativeZero);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    // Exact only when dividing by 1 or -1
+    static Range divide(Range a, Range b) {
+        if (a == null || b == null || b.lo != b.hi || b.negativeZero) {
+            return null;
+        }
+        if (b.lo == 1) {
+            return a;
+        }
+        if (b.lo == -1) {
+            return negate(a);
+        }
+        return null;
+    }
+
+    boolean sameAs(Range other) {
+        return other != null && lo == other.lo && hi == other.hi && negativeZero == other.negativeZero;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + lo + ", " + hi + "]" + (negativeZero ? " or -0.0" : "");
+    }
+}
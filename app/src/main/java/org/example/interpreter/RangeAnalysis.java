@@ -0,0 +1,434 @@
+package org.example.interpreter;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Abstract interpretation of a resolved program over integer
+ * {@link Range}s, to find the numbers that are always integers small
+ * enough to be held in a long. The state is a range (or none) per
+ * (depth, slot), followed through the statements in order: branches are
+ * joined, and conditions comparing a variable narrow it on each side, so
+ * loop counters get the bounds of their loop.
+ *
+ * A loop is iterated until the state at its condition stops changing.
+ * After a few rounds, bounds that keep growing are widened towards the limit;
+ * a few more rounds from there narrow them back to what the condition
+ * allows. Only the final round is recorded. '/' gives a range only when
+ * dividing by 1 or -1, since other quotients may have a fraction.
+ *
+ * Results are kept per node, joined over every time it is reached, and
+ * for each loop the state at its condition.
+ */
+public class RangeAnalysis {
+    private static final int WIDENING_DELAY = 3;
+    private static final int NARROWING_STEPS = 2;
+
+    private final Map<Expression, Range> ranges = new IdentityHashMap<>();
+    // Reached at least once without a range
+    private final Set<Expression> unbounded = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<WhileStatement, Range[][]> loopStates = new IdentityHashMap<>();
+
+    private boolean recording;
+
+    /**
+     * @param statements Program resolved by the {@link Resolver}
+     * @param frameSizes What the Resolver returned for it
+     */
+    public void analyze(List<Statement> statements, int[] frameSizes) {
+        ranges.clear();
+        unbounded.clear();
+        loopStates.clear();
+
+        Range[][] state = new Range[frameSizes.length][];
+        for (int depth = 0; depth < frameSizes.length; depth++) {
+            state[depth] = new Range[frameSizes[depth]];
+        }
+        recording = true;
+        execute(statements, state);
+    }
+
+    /**
+     * @return Range of every value the expression produces, or null if there is none
+     */
+    public Range rangeOf(Expression expression) {
+        return unbounded.contains(expression) ? null : ranges.get(expression);
+    }
+
+    public boolean isIntegral(Expression expression) {
+        Range range = rangeOf(expression);
+        return range != null && range.isIntegral();
+    }
+
+    /**
+     * @return Range of the variable whenever the loop checks its condition, or null if there is none
+     */
+    public Range rangeAt(WhileStatement loop, int depth, int slot) {
+        Range[][] state = loopStates.get(loop);
+        return state == null ? null : state[depth][slot];
+    }
+
+    // Statements: the state is changed in place, null once unreachable
+
+    private Range[][] execute(List<Statement> statements, Range[][] state) {
+        for (int i = 0; i < statements.size() && state != null; i++) {
+            state = execute(statements.get(i), state);
+        }
+        return state;
+    }
+
+    private Range[][] execute(Statement statement, Range[][] state) {
+        if (state == null) {
+            return null;
+        }
+        if (statement instanceof ExpressionStatement) {
+            evaluate(((ExpressionStatement) statement).getExpression(), state);
+        }
+        else if (statement instanceof VarStatement) {
+            VarStatement v = (VarStatement) statement;
+            state[v.getDepth()][v.getSlot()] = v.getInitializer() == null ? null : evaluate(v.getInitializer(), state);
+        }
+        else if (statement instanceof PrintStatement) {
+            evaluate(((PrintStatement) statement).getExpression(), state);
+        }
+        else if (statement instanceof IfStatement) {
+            IfStatement i = (IfStatement) statement;
+            evaluate(i.getCondition(), state);
+            Range[][] thenState = execute(i.getThenBranch(), narrow(copy(state), i.getCondition(), true));
+            Range[][] elseState = narrow(state, i.getCondition(), false);
+            if (i.getElseBranch() != null) {
+                elseState = execute(i.getElseBranch(), elseState);
+            }
+            return join(thenState, elseState);
+        }
+        else if (statement instanceof WhileStatement) {
+            return loop((WhileStatement) statement, state);
+        }
+        else if (statement instanceof BlockStatement) {
+            return execute(((BlockStatement) statement).getStatements(), state);
+        }
+        return state;
+    }
+
+    private Range[][] loop(WhileStatement loop, Range[][] entry) {
+        boolean outerRecording = recording;
+        recording = false;
+
+        Range[][] head = copy(entry);
+        for (int round = 0; ; round++) {
+            Range[][] next = join(copy(entry), iterate(loop, head));
+            if (round >= WIDENING_DELAY) {
+                next = widen(head, next);
+            }
+            if (same(head, next)) {
+                break;
+            }
+            head = next;
+        }
+        for (int round = 0; round < NARROWING_STEPS; round++) {
+            Range[][] next = join(copy(entry), iterate(loop, head));
+            if (same(head, next)) {
+                break;
+            }
+            head = next;
+        }
+
+        recording = outerRecording;
+        if (recording) {
+            loopStates.merge(loop, copy(head), RangeAnalysis::join);
+            iterate(loop, head);
+        }
+        Range[][] exit = copy(head);
+        evaluate(loop.getCondition(), exit);
+        return narrow(exit, loop.getCondition(), false);
+    }
+
+    // One pass from the condition through the body: the state the body ends with
+    private Range[][] iterate(WhileStatement loop, Range[][] head) {
+        Range[][] state = copy(head);
+        evaluate(loop.getCondition(), state);
+        return execute(loop.getBody(), narrow(state, loop.getCondition(), true));
+    }
+
+    // Expressions
+
+    private Range evaluate(Expression expression, Range[][] state) {
+        Range range = compute(expression, state);
+        if (recording) {
+            if (range == null) {
+                unbounded.add(expression);
+            } else {
+                ranges.merge(expression, range, Range::join);
+            }
+        }
+        return range;
+    }
+
+    private Range compute(Expression expression, Range[][] state) {
+        if (expression instanceof NumberExpression) {
+            return Range.constant(((NumberExpression) expression).getValue());
+        }
+        else if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            return state[variable.getDepth()][variable.getSlot()];
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            Range value = evaluate(assign.getValue(), state);
+            state[assign.getDepth()][assign.getSlot()] = value;
+            return value;
+        }
+        else if (expression instanceof UnaryExpression) {
+            Range right = evaluate(((UnaryExpression) expression).getRight(), state);
+            return ((UnaryExpression) expression).getOperator() == TokenType.MINUS ? Range.negate(right) : null;
+        }
+        else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            TokenType operator = binary.getOperator();
+            Range left = evaluate(binary.getLeft(), state);
+
+            if (operator == TokenType.AND || operator == TokenType.OR) {
+                if (!assigns(binary.getRight())) {
+                    evaluate(binary.getRight(), state);
+                    return null;
+                }
+                // The right operand may not run: the state after it joins the one before
+                Range[][] right = copy(state);
+                evaluate(binary.getRight(), right);
+                joinInto(state, right);
+                return null;
+            }
+
+            Range right = evaluate(binary.getRight(), state);
+            switch (operator) {
+                case PLUS:
+                    return Range.add(left, right);
+                case MINUS:
+                    return Range.subtract(left, right);
+                case STAR:
+                    return Range.multiply(left, right);
+                case SLASH:
+                    return Range.divide(left, right);
+                default:
+                    // Booleans
+                    return null;
+            }
+        }
+        return null;
+    }
+
+    // Conditions
+
+    /**
+     * Narrows the state to where the condition, already evaluated in it, has the given outcome
+     * @return The state, or null if that outcome is impossible
+     */
+    private Range[][] narrow(Range[][] state, Expression condition, boolean outcome) {
+        // A comparison describes the values it read only if nothing is assigned meanwhile
+        if (state == null || assigns(condition)) {
+            return state;
+        }
+        return narrowPure(state, condition, outcome);
+    }
+
+    private Range[][] narrowPure(Range[][] state, Expression condition, boolean outcome) {
+        if (state == null || !(condition instanceof BinaryExpression)) {
+            return state;
+        }
+        BinaryExpression binary = (BinaryExpression) condition;
+        TokenType operator = binary.getOperator();
+
+        if (operator == TokenType.AND || operator == TokenType.OR) {
+            // Both operands had the outcome only when it is true for '&&' and false for '||'
+            if (outcome == (operator == TokenType.AND)) {
+                state = narrowPure(state, binary.getLeft(), outcome);
+                state = narrowPure(state, binary.getRight(), outcome);
+            }
+            return state;
+        }
+
+        Range left = peek(binary.getLeft(), state);
+        Range right = peek(binary.getRight(), state);
+        if (left == null || right == null) {
+            // Not two integers: a NaN would make every comparison false
+            return state;
+        }
+        TokenType relation = outcome ? operator : negate(operator);
+        if (relation == null) {
+            return state;
+        }
+
+        state = narrowVariable(state, binary.getLeft(), relation, right);
+        return narrowVariable(state, binary.getRight(), mirror(relation), left);
+    }
+
+    // Narrows the variable to the values that have the relation to some value of other
+    private static Range[][] narrowVariable(Range[][] state, Expression operand, TokenType relation, Range other) {
+        if (state == null || !(operand instanceof VariableExpression)) {
+            return state;
+        }
+        VariableExpression variable = (VariableExpression) operand;
+        Range range = state[variable.getDepth()][variable.getSlot()];
+
+        long lo = Long.MIN_VALUE;
+        long hi = Long.MAX_VALUE;
+        switch (relation) {
+            case LT:
+                hi = other.getHi() - 1;
+                break;
+            case LTEQ:
+                hi = other.getHi();
+                break;
+            case GT:
+                lo = other.getLo() + 1;
+                break;
+            case GTEQ:
+                lo = other.getLo();
+                break;
+            case EQEQ:
+                lo = other.getLo();
+                hi = other.getHi();
+                break;
+            default:
+                return state;
+        }
+
+        Range narrowed = Range.intersect(range, lo, hi);
+        if (narrowed == null) {
+            return null;
+        }
+        state[variable.getDepth()][variable.getSlot()] = narrowed;
+        return state;
+    }
+
+    // Range of an expression without assignments, not recorded
+    private Range peek(Expression expression, Range[][] state) {
+        boolean wasRecording = recording;
+        recording = false;
+        Range range = compute(expression, state);
+        recording = wasRecording;
+        return range;
+    }
+
+    private static boolean assigns(Expression expression) {
+        if (expression instanceof AssignExpression) {
+            return true;
+        } else if (expression instanceof UnaryExpression) {
+            return assigns(((UnaryExpression) expression).getRight());
+        } else if (expression instanceof BinaryExpression) {
+            return assigns(((BinaryExpression) expression).getLeft()) || assigns(((BinaryExpression) expression).getRight());
+        }
+        return false;
+    }
+
+    // Outcome false of the comparison, on integers; '!=' tells nothing about a range
+    private static TokenType negate(TokenType operator) {
+        switch (operator) {
+            case LT:
+                return TokenType.GTEQ;
+            case LTEQ:
+                return TokenType.GT;
+            case GT:
+                return TokenType.LTEQ;
+            case GTEQ:
+                return TokenType.LT;
+            case NEQ:
+                return TokenType.EQEQ;
+            default:
+                return null;
+        }
+    }
+
+    // The same relation with the operands swapped
+    private static TokenType mirror(TokenType relation) {
+        switch (relation) {
+            case LT:
+                return TokenType.GT;
+            case LTEQ:
+                return TokenType.GTEQ;
+            case GT:
+                return TokenType.LT;
+            case GTEQ:
+                return TokenType.LTEQ;
+            default:
+                return relation;
+        }
+    }
+
+    // States
+
+    private static Range[][] copy(Range[][] state) {
+        if (state == null) {
+            return null;
+        }
+        Range[][] copy = new Range[state.length][];
+        for (int depth = 0; depth < state.length; depth++) {
+            copy[depth] = state[depth].clone();
+        }
+        return copy;
+    }
+
+    private static Range[][] join(Range[][] a, Range[][] b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        joinInto(a, b);
+        return a;
+    }
+
+    private static void joinInto(Range[][] state, Range[][] other) {
+        for (int depth = 0; depth < state.length; depth++) {
+            for (int slot = 0; slot < state[depth].length; slot++) {
+                state[depth][slot] = Range.join(state[depth][slot], other[depth][slot]);
+            }
+        }
+    }
+
+    private static Range[][] widen(Range[][] previous, Range[][] next) {
+        if (previous == null || next == null) {
+            return next;
+        }
+        for (int depth = 0; depth < next.length; depth++) {
+            for (int slot = 0; slot < next[depth].length; slot++) {
+                next[depth][slot] = Range.widen(previous[depth][slot], next[depth][slot]);
+            }
+        }
+        return next;
+    }
+
+    private static boolean same(Range[][] a, Range[][] b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        for (int depth = 0; depth < a.length; depth++) {
+            for (int slot = 0; slot < a[depth].length; slot++) {
+                Range range = a[depth][slot];
+                if (range == null ? b[depth][slot] != null : !range.sameAs(b[depth][slot])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
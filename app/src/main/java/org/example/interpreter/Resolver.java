@@ -0,0 +1,183 @@
+package org.example.interpreter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.example.core.ASTWalker;
+import org.example.exception.SemanticException;
+import org.example.lexer.SymbolTable;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+
+/**
+ * Binds every variable use to its declaration before the program runs.
+ * The program and each block are scopes; a name is looked up from the
+ * innermost scope outwards and bound to (depth, slot): the block nesting
+ * depth of the declaring scope, 0 for the program, and the index of the
+ * name in that scope. Only one block per depth is active at a time, so
+ * engines can keep one preallocated frame per depth.
+ *
+ * An initializer is resolved before its name is declared, so
+ * "var x = x + 1;" reads an outer x. Declaring a name again in the same
+ * scope reuses its slot.
+ *
+ * Names are numbered, and the declaration in scope for each number is kept
+ * in plain arrays: a lookup is one array read whatever the nesting, and a
+ * scope undoes its shadowing when it ends. Nodes carrying a lexer symbol
+ * are mapped through an array too, names are only hashed the first time a
+ * symbol is seen and for nodes made without one.
+ */
+public class Resolver {
+    // Numbers of the names this resolver has seen
+    private final SymbolTable names = new SymbolTable();
+    // By lexer symbol: the name it was seen with and its number in names
+    private String[] symbolNames = new String[0];
+    private int[] symbolIds = new int[0];
+
+    // By name number: depth and slot of the declaration in scope, depth -1 if none
+    private int[] depths = new int[0];
+    private int[] slots = new int[0];
+
+    // Declarations hidden by the open scopes, three ints each: name number, depth, slot
+    private int[] shadowed = new int[48];
+    private int shadowedCount;
+    // By depth of an open scope: shadowedCount when it began and the slots it uses
+    private int[] scopeStarts = new int[16];
+    private int[] scopeSizes = new int[16];
+    private int scopeCount;
+
+    private final List<Integer> frameSizes = new ArrayList<>();
+
+    /**
+     * Fills in depth and slot of every VarStatement, VariableExpression and AssignExpression
+     * @param statements Program to resolve
+     * @return Slots needed in the frame of every depth
+     * @throws SemanticException If a variable is used where it is not declared
+     */
+    public int[] resolve(List<Statement> statements) throws SemanticException {
+        Arrays.fill(depths, -1);
+        shadowedCount = 0;
+        scopeCount = 0;
+        frameSizes.clear();
+        beginScope();
+
+        new ASTWalker().walk(statements, new ASTWalker.Visitor() {
+            @Override
+            public void enter(Object node, int depth, boolean isLast) {
+                if (node instanceof BlockStatement) {
+                    beginScope();
+                } else if (node instanceof VariableExpression) {
+                    VariableExpression variable = (VariableExpression) node;
+                    int id = lookup(variable.getName(), variable.getSymbol());
+                    variable.setDepth(depths[id]);
+                    variable.setSlot(slots[id]);
+                } else if (node instanceof AssignExpression) {
+                    AssignExpression assign = (AssignExpression) node;
+                    int id = lookup(assign.getName(), assign.getSymbol());
+                    assign.setDepth(depths[id]);
+                    assign.setSlot(slots[id]);
+                }
+            }
+
+            @Override
+            public void leave(Object node, int depth) {
+                if (node instanceof BlockStatement) {
+                    endScope();
+                } else if (node instanceof VarStatement) {
+                    // Declared only now, after its initializer has been resolved
+                    declare((VarStatement) node);
+                }
+            }
+        });
+
+        return frameSizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void beginScope() {
+        if (scopeCount == scopeStarts.length) {
+            scopeStarts = Arrays.copyOf(scopeStarts, scopeCount * 2);
+            scopeSizes = Arrays.copyOf(scopeSizes, scopeCount * 2);
+        }
+        scopeStarts[scopeCount] = shadowedCount;
+        scopeSizes[scopeCount] = 0;
+        scopeCount++;
+        if (frameSizes.size() < scopeCount) {
+            frameSizes.add(0);
+        }
+    }
+
+    // Brings back the declarations the scope hid, latest first
+    private void endScope() {
+        scopeCount--;
+        while (shadowedCount > scopeStarts[scopeCount]) {
+            shadowedCount -= 3;
+            int id = shadowed[shadowedCount];
+            depths[id] = shadowed[shadowedCount + 1];
+            slots[id] = shadowed[shadowedCount + 2];
+        }
+    }
+
+    private void declare(VarStatement declaration) {
+        int depth = scopeCount - 1;
+        int id = idOf(declaration.getName(), declaration.getSymbol());
+
+        if (depths[id] != depth) {
+            if (shadowedCount == shadowed.length) {
+                shadowed = Arrays.copyOf(shadowed, shadowedCount * 2);
+            }
+            shadowed[shadowedCount++] = id;
+            shadowed[shadowedCount++] = depths[id];
+            shadowed[shadowedCount++] = slots[id];
+
+            depths[id] = depth;
+            slots[id] = scopeSizes[depth]++;
+            frameSizes.set(depth, Math.max(frameSizes.get(depth), scopeSizes[depth]));
+        }
+
+        declaration.setDepth(depth);
+        declaration.setSlot(slots[id]);
+    }
+
+    // Number of the name declared in scope
+    private int lookup(String name, int symbol) {
+        int id = idOf(name, symbol);
+        if (depths[id] < 0) {
+            throw new SemanticException(String.format("[Semantic Error] Undefined variable '%s'.", name));
+        }
+        return id;
+    }
+
+    /**
+     * A symbol is trusted only for the String it was first seen with, which
+     * lexers share between all tokens of a name, so nodes from another table
+     * or renamed by a pass still get the number of their own name.
+     */
+    private int idOf(String name, int symbol) {
+        if (symbol >= 0 && symbol < symbolNames.length && symbolNames[symbol] == name) {
+            return symbolIds[symbol];
+        }
+
+        int id = names.intern(name);
+        if (id >= depths.length) {
+            int length = Math.max(16, names.size() * 2);
+            int from = depths.length;
+            depths = Arrays.copyOf(depths, length);
+            slots = Arrays.copyOf(slots, length);
+            Arrays.fill(depths, from, length, -1);
+        }
+        if (symbol >= 0) {
+            if (symbol >= symbolNames.length) {
+                int length = Math.max(16, symbol * 2);
+                symbolNames = Arrays.copyOf(symbolNames, length);
+                symbolIds = Arrays.copyOf(symbolIds, length);
+            }
+            symbolNames[symbol] = name;
+            symbolIds[symbol] = id;
+        }
+        return id;
+    }
+}
@@ -0,0 +1,211 @@
+package org.example.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Annotates every expression of a resolved program with its static type
+ * (see {@link Expression#getType()}). A type is a set of
+ * {@link ValueKind}s: {@link #NUMBER}, {@link #BOOLEAN} or {@link #UNKNOWN}
+ * when a value may be either, or may not be assigned at all.
+ *
+ * Operators always produce the same type; only variables can hold both.
+ * The type of a variable is the union of everything written to its
+ * (depth, slot), iterated until it no longer changes, so it holds
+ * wherever the variable is read. "var x;" makes it unknown, since the read
+ * may fail.
+ *
+ * An expression is statically typed when it and all its operands have an
+ * exact type and every operator gets the operands it needs: evaluating it
+ * can not fail a type check, so engines can run it on plain doubles and
+ * booleans without any. Operands that always have the wrong type are
+ * reported as errors; the program still only fails if that code runs.
+ * Like the Resolver's slots, annotations are stored in the nodes: shared
+ * subtrees (see HashConsingNodeFactory) get one, which holds for every use.
+ */
+public class TypeInference {
+    public static final byte NUMBER = ValueKind.NUMBER;
+    public static final byte BOOLEAN = ValueKind.BOOLEAN;
+    public static final byte UNKNOWN = NUMBER | BOOLEAN;
+
+    // Type bits of an annotation, plus this flag when statically typed
+    private static final byte TYPED = 4;
+
+    private final List<String> errors = new ArrayList<>();
+    private byte[][] variables;
+
+    private boolean changed;
+    private boolean reporting;
+
+    /**
+     * @param statements Program resolved by the {@link Resolver}
+     * @param frameSizes What the Resolver returned for it
+     */
+    public void infer(List<Statement> statements, int[] frameSizes) {
+        errors.clear();
+        variables = new byte[frameSizes.length][];
+        for (int depth = 0; depth < frameSizes.length; depth++) {
+            variables[depth] = new byte[frameSizes[depth]];
+        }
+
+        reporting = false;
+        do {
+            changed = false;
+            visit(statements);
+        } while (changed);
+
+        reporting = true;
+        visit(statements);
+    }
+
+    /**
+     * @return Type of everything stored in the slot by the last {@link #infer} call
+     */
+    public byte typeOf(int depth, int slot) {
+        return variables[depth][slot] == 0 ? UNKNOWN : variables[depth][slot];
+    }
+
+    /**
+     * @return Messages for operands that always have the wrong type
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    private void visit(List<Statement> statements) {
+        for (int i = 0; i < statements.size(); i++) {
+            visit(statements.get(i));
+        }
+    }
+
+    private void visit(Statement statement) {
+        if (statement instanceof ExpressionStatement) {
+            visit(((ExpressionStatement) statement).getExpression());
+        }
+        else if (statement instanceof VarStatement) {
+            VarStatement v = (VarStatement) statement;
+            if (v.getInitializer() == null) {
+                write(v.getDepth(), v.getSlot(), UNKNOWN);
+            } else {
+                write(v.getDepth(), v.getSlot(), (byte) (visit(v.getInitializer()) & UNKNOWN));
+            }
+        }
+        else if (statement instanceof PrintStatement) {
+            visit(((PrintStatement) statement).getExpression());
+        }
+        else if (statement instanceof IfStatement) {
+            IfStatement i = (IfStatement) statement;
+            condition(i.getCondition());
+            visit(i.getThenBranch());
+            if (i.getElseBranch() != null) {
+                visit(i.getElseBranch());
+            }
+        }
+        else if (statement instanceof WhileStatement) {
+            WhileStatement w = (WhileStatement) statement;
+            condition(w.getCondition());
+            visit(w.getBody());
+        }
+        else if (statement instanceof BlockStatement) {
+            visit(((BlockStatement) statement).getStatements());
+        }
+    }
+
+    private void condition(Expression expression) {
+        if ((visit(expression) & UNKNOWN) == NUMBER && reporting) {
+            errors.add("[Semantic Error] Condition is always a number, not a boolean.");
+        }
+    }
+
+    /**
+     * @return Annotation of the expression: its type, with TYPED if statically typed
+     */
+    private byte visit(Expression expression) {
+        byte annotation = annotate(expression);
+        expression.setType((byte) (annotation & UNKNOWN));
+        expression.setStaticallyTyped((annotation & TYPED) != 0);
+        return annotation;
+    }
+
+    private byte annotate(Expression expression) {
+        if (expression instanceof NumberExpression) {
+            return NUMBER | TYPED;
+        }
+        else if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            byte type = variables[variable.getDepth()][variable.getSlot()];
+            return type == NUMBER || type == BOOLEAN ? (byte) (type | TYPED) : UNKNOWN;
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            byte value = visit(assign.getValue());
+            write(assign.getDepth(), assign.getSlot(), (byte) (value & UNKNOWN));
+            return value;
+        }
+        else if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            byte right = visit(unary.getRight());
+            return operand(unary.getOperator(), right, NUMBER) ? NUMBER | TYPED : NUMBER;
+        }
+        else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            TokenType operator = binary.getOperator();
+            byte left = visit(binary.getLeft());
+            byte right = visit(binary.getRight());
+
+            if (operator == TokenType.EQEQ || operator == TokenType.NEQ) {
+                return (left & right & TYPED) != 0 ? BOOLEAN | TYPED : BOOLEAN;
+            }
+            boolean logical = operator == TokenType.AND || operator == TokenType.OR;
+            byte needed = logical ? BOOLEAN : NUMBER;
+            // Both checked, so both are reported
+            boolean leftTyped = operand(operator, left, needed);
+            boolean rightTyped = operand(operator, right, needed);
+
+            byte type = logical || isComparison(operator) ? BOOLEAN : NUMBER;
+            return leftTyped && rightTyped ? (byte) (type | TYPED) : type;
+        }
+
+        return UNKNOWN;
+    }
+
+    /**
+     * @return Whether the operand is statically typed and of the needed type
+     */
+    private boolean operand(TokenType operator, byte annotation, byte needed) {
+        byte type = (byte) (annotation & UNKNOWN);
+        if (reporting && type != needed && type != UNKNOWN && type != 0) {
+            errors.add(String.format("[Semantic Error] Operand of %s is always a %s, not a %s.",
+                    operator, ValueKind.name(type), ValueKind.name(needed)));
+        }
+        return (annotation & TYPED) != 0 && type == needed;
+    }
+
+    private void write(int depth, int slot, byte type) {
+        byte joined = (byte) (variables[depth][slot] | type);
+        if (joined != variables[depth][slot]) {
+            variables[depth][slot] = joined;
+            changed = true;
+        }
+    }
+
+    private static boolean isComparison(TokenType operator) {
+        return operator == TokenType.LT || operator == TokenType.LTEQ
+                || operator == TokenType.GT || operator == TokenType.GTEQ;
+    }
+}
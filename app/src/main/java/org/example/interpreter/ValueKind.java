@@ -0,0 +1,26 @@
+package org.example.interpreter;
+
+/**
+ * Run-time kind of a value. Values themselves are stored as doubles,
+ * booleans as 1 and 0, next to a kind byte that says how to read them.
+ */
+public final class ValueKind {
+    // Declared with "var x;" and not assigned yet
+    public static final byte UNSET = 0;
+    public static final byte NUMBER = 1;
+    public static final byte BOOLEAN = 2;
+
+    private ValueKind() {
+    }
+
+    public static String name(byte kind) {
+        switch (kind) {
+            case NUMBER:
+                return "number";
+            case BOOLEAN:
+                return "boolean";
+            default:
+                return "unset";
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.interpreter;
+
+import java.io.PrintStream;
+
+import org.example.exception.EvaluationException;
+import org.example.lexer.TokenType;
+
+/**
+ * Runs a {@link BytecodeProgram} in a single switch dispatch loop. The
+ * operand stack is a double[] with a parallel byte[] of {@link ValueKind}s,
+ * locals are laid out the same way, so nothing is boxed. Behaves exactly
+ * like {@link Interpreter}: same output, same errors at the same point.
+ */
+public class VirtualMachine {
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final PrintStream out;
+
+    public VirtualMachine(PrintStream out) {
+        this.out = out;
+    }
+
+    public void run(BytecodeProgram program) throws EvaluationException {
+        int[] code = program.getCode();
+        double[] constants = program.getConstants();
+
+        double[] locals = new double[program.getLocalCount()];
+        byte[] localKinds = new byte[program.getLocalCount()];
+        double[] stack = new double[program.getMaxStack()];
+        byte[] kinds = new byte[program.getMaxStack()];
+        int sp = 0;
+        int pc = 0;
+
+        while (true) {
+            switch (code[pc++]) {
+                case OpCode.CONST:
+                    stack[sp] = constants[code[pc++]];
+                    kinds[sp++] = ValueKind.NUMBER;
+                    break;
+                case OpCode.LOAD: {
+                    int local = code[pc];
+                    byte kind = localKinds[local];
+                    if (kind == ValueKind.UNSET) {
+                        throw Interpreter.unassigned(program.getNames()[code[pc + 1]]);
+                    }
+                    pc += 2;
+                    stack[sp] = locals[local];
+                    kinds[sp++] = kind;
+                    break;
+                }
+                case OpCode.STORE: {
+                    int local = code[pc++];
+                    sp--;
+                    locals[local] = stack[sp];
+                    localKinds[local] = kinds[sp];
+                    break;
+                }
+                case OpCode.ASSIGN: {
+                    int local = code[pc++];
+                    locals[local] = stack[sp - 1];
+                    localKinds[local] = kinds[sp - 1];
+                    break;
+                }
+                case OpCode.UNSET:
+                    localKinds[code[pc++]] = ValueKind.UNSET;
+                    break;
+                case OpCode.POP:
+                    sp--;
+                    break;
+
+                case OpCode.NEG:
+                    Interpreter.requireNumber(TokenType.MINUS, kinds[sp - 1]);
+                    stack[sp - 1] = -stack[sp - 1];
+                    break;
+                case OpCode.ADD:
+                    sp--;
+                    requireNumbers(TokenType.PLUS, kinds, sp);
+                    stack[sp - 1] += stack[sp];
+                    break;
+                case OpCode.SUB:
+                    sp--;
+                    requireNumbers(TokenType.MINUS, kinds, sp);
+                    stack[sp - 1] -= stack[sp];
+                    break;
+                case OpCode.MUL:
+                    sp--;
+                    requireNumbers(TokenType.STAR, kinds, sp);
+                    stack[sp - 1] *= stack[sp];
+                    break;
+                case OpCode.DIV:
+                    sp--;
+                    requireNumbers(TokenType.SLASH, kinds, sp);
+                    stack[sp - 1] /= stack[sp];
+                    break;
+                case OpCode.LT:
+                    sp--;
+                    requireNumbers(TokenType.LT, kinds, sp);
+                    stack[sp - 1] = stack[sp - 1] < stack[sp] ? 1 : 0;
+                    kinds[sp - 1] = ValueKind.BOOLEAN;
+                    break;
+                case OpCode.LE:
+                    sp--;
+                    requireNumbers(TokenType.LTEQ, kinds, sp);
+                    stack[sp - 1] = stack[sp - 1] <= stack[sp] ? 1 : 0;
+                    kinds[sp - 1] = ValueKind.BOOLEAN;
+                    break;
+                case OpCode.GT:
+                    sp--;
+                    requireNumbers(TokenType.GT, kinds, sp);
+                    stack[sp - 1] = stack[sp - 1] > stack[sp] ? 1 : 0;
+                    kinds[sp - 1] = ValueKind.BOOLEAN;
+                    break;
+                case OpCode.GE:
+                    sp--;
+                    requireNumbers(TokenType.GTEQ, kinds, sp);
+                    stack[sp - 1] = stack[sp - 1] >= stack[sp] ? 1 : 0;
+                    kinds[sp - 1] = ValueKind.BOOLEAN;
+                    break;
+                case OpCode.EQ:
+                    sp--;
+                    stack[sp - 1] = kinds[sp - 1] == kinds[sp] && stack[sp - 1] == stack[sp] ? 1 : 0;
+                    kinds[sp - 1] = ValueKind.BOOLEAN;
+                    break;
+                case OpCode.NE:
+                    sp--;
+                    stack[sp - 1] = kinds[sp - 1] == kinds[sp] && stack[sp - 1] == stack[sp] ? 0 : 1;
+                    kinds[sp - 1] = ValueKind.BOOLEAN;
+                    break;
+
+                case OpCode.JUMP:
+                    pc = code[pc];
+                    break;
+                case OpCode.JUMP_IF_FALSE:
+                    sp--;
+                    Interpreter.requireCondition(kinds[sp]);
+                    pc = stack[sp] == 0 ? code[pc] : pc + 1;
+                    break;
+                case OpCode.AND_JUMP:
+                    Interpreter.requireBoolean(TokenType.AND, kinds[sp - 1]);
+                    if (stack[sp - 1] == 0) {
+                        pc = code[pc];
+                    } else {
+                        sp--;
+                        pc++;
+                    }
+                    break;
+                case OpCode.OR_JUMP:
+                    Interpreter.requireBoolean(TokenType.OR, kinds[sp - 1]);
+                    if (stack[sp - 1] != 0) {
+                        pc = code[pc];
+                    } else {
+                        sp--;
+                        pc++;
+                    }
+                    break;
+                case OpCode.REQUIRE_BOOLEAN:
+                    Interpreter.requireBoolean(TYPES[code[pc++]], kinds[sp - 1]);
+                    break;
+
+                case OpCode.PRINT:
+                    sp--;
+                    Interpreter.print(out, stack[sp], kinds[sp]);
+                    break;
+                case OpCode.HALT:
+                    return;
+                default:
+                    throw new IllegalStateException("Unknown opcode " + code[pc - 1] + " at " + (pc - 1));
+            }
+        }
+    }
+
+    // Checks the two operands of a binary instruction after the stack pointer was moved to the right one
+    private static void requireNumbers(TokenType operator, byte[] kinds, int right) {
+        Interpreter.requireNumber(operator, kinds[right - 1]);
+        Interpreter.requireNumber(operator, kinds[right]);
+    }
+}
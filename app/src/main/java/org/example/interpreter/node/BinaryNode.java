@@ -0,0 +1,24 @@
+package org.example.interpreter.node;
+
+import org.example.lexer.TokenType;
+
+abstract class BinaryNode extends ExpressionNode {
+    final TokenType operator;
+    ExpressionNode left;
+    ExpressionNode right;
+
+    BinaryNode(TokenType operator, ExpressionNode left, ExpressionNode right) {
+        this.operator = operator;
+        this.left = adopt(left);
+        this.right = adopt(right);
+    }
+
+    @Override
+    void replaceChild(Node child, Node replacement) {
+        if (left == child) {
+            left = (ExpressionNode) replacement;
+        } else {
+            right = (ExpressionNode) replacement;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.interpreter.node;
+
+import org.example.interpreter.ValueKind;
+import org.example.lexer.TokenType;
+
+/**
+ * '==' and '!='. Specializes to two numbers or two booleans after the first
+ * execution; goes generic, comparing kinds too, when the kinds change.
+ */
+abstract class EqualsNode extends BinaryNode {
+    EqualsNode(TokenType operator, ExpressionNode left, ExpressionNode right) {
+        super(operator, left, right);
+    }
+
+    static EqualsNode create(TokenType operator, ExpressionNode left, ExpressionNode right) {
+        return new Uninitialized(operator, left, right);
+    }
+
+    final double result(Frame frame, boolean equal) {
+        frame.kind = ValueKind.BOOLEAN;
+        return equal == (operator == TokenType.EQEQ) ? 1 : 0;
+    }
+
+    static final class Uninitialized extends EqualsNode {
+        Uninitialized(TokenType operator, ExpressionNode left, ExpressionNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double leftValue = left.execute(frame);
+            byte leftKind = frame.kind;
+            double rightValue = right.execute(frame);
+            byte rightKind = frame.kind;
+
+            if (leftKind != rightKind) {
+                deoptimize(new Generic(operator, left, right));
+            } else if (leftKind == ValueKind.NUMBER) {
+                specialize(new Numbers(operator, left, right));
+            } else {
+                specialize(new Booleans(operator, left, right));
+            }
+            return result(frame, leftKind == rightKind && leftValue == rightValue);
+        }
+    }
+
+    static final class Numbers extends EqualsNode {
+        Numbers(TokenType operator, ExpressionNode left, ExpressionNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double leftValue;
+            try {
+                leftValue = left.executeNumber(frame);
+            } catch (UnexpectedKindException e) {
+                return deoptimize(new Generic(operator, left, right)).executeRight(frame, e.value, e.kind);
+            }
+            double rightValue;
+            try {
+                rightValue = right.executeNumber(frame);
+            } catch (UnexpectedKindException e) {
+                deoptimize(new Generic(operator, left, right));
+                return result(frame, false);
+            }
+            return result(frame, leftValue == rightValue);
+        }
+    }
+
+    static final class Booleans extends EqualsNode {
+        Booleans(TokenType operator, ExpressionNode left, ExpressionNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            boolean leftValue;
+            try {
+                leftValue = left.executeBoolean(frame);
+            } catch (UnexpectedKindException e) {
+                return deoptimize(new Generic(operator, left, right)).executeRight(frame, e.value, e.kind);
+            }
+            boolean rightValue;
+            try {
+                rightValue = right.executeBoolean(frame);
+            } catch (UnexpectedKindException e) {
+                deoptimize(new Generic(operator, left, right));
+                return result(frame, false);
+            }
+            return result(frame, leftValue == rightValue);
+        }
+    }
+
+    static final class Generic extends EqualsNode {
+        Generic(TokenType operator, ExpressionNode left, ExpressionNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double leftValue = left.execute(frame);
+            return executeRight(frame, leftValue, frame.kind);
+        }
+
+        // Continues after the left operand, which was already executed
+        double executeRight(Frame frame, double leftValue, byte leftKind) {
+            double rightValue = right.execute(frame);
+            return result(frame, leftKind == frame.kind && leftValue == rightValue);
+        }
+    }
+}
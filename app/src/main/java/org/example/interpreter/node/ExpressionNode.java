@@ -0,0 +1,34 @@
+package org.example.interpreter.node;
+
+import org.example.interpreter.ValueKind;
+
+abstract class ExpressionNode extends Node {
+    /**
+     * @return The value; its kind is left in the frame
+     */
+    abstract double execute(Frame frame);
+
+    /**
+     * For parents that expect a number; specialized nodes skip the kind
+     * @throws UnexpectedKindException If the value is not a number
+     */
+    double executeNumber(Frame frame) throws UnexpectedKindException {
+        double value = execute(frame);
+        if (frame.kind != ValueKind.NUMBER) {
+            throw new UnexpectedKindException(value, frame.kind);
+        }
+        return value;
+    }
+
+    /**
+     * For parents that expect a boolean; specialized nodes skip the kind
+     * @throws UnexpectedKindException If the value is not a boolean
+     */
+    boolean executeBoolean(Frame frame) throws UnexpectedKindException {
+        double value = execute(frame);
+        if (frame.kind != ValueKind.BOOLEAN) {
+            throw new UnexpectedKindException(value, frame.kind);
+        }
+        return value != 0;
+    }
+}
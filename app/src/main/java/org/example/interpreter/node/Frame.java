@@ -0,0 +1,26 @@
+package org.example.interpreter.node;
+
+import java.io.PrintStream;
+
+/**
+ * State of one run: one frame of values and one of their kinds per block
+ * depth, as in the Interpreter.
+ */
+final class Frame {
+    final double[][] values;
+    final byte[][] kinds;
+    final PrintStream out;
+
+    // Kind of the value returned by the last generic execute call
+    byte kind;
+
+    Frame(int[] frameSizes, PrintStream out) {
+        this.values = new double[frameSizes.length][];
+        this.kinds = new byte[frameSizes.length][];
+        for (int depth = 0; depth < frameSizes.length; depth++) {
+            values[depth] = new double[frameSizes[depth]];
+            kinds[depth] = new byte[frameSizes[depth]];
+        }
+        this.out = out;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.interpreter.node;
+
+import org.example.interpreter.ValueKind;
+
+final class LiteralNode extends ExpressionNode {
+    private final double value;
+
+    LiteralNode(double value) {
+        this.value = value;
+    }
+
+    @Override
+    double execute(Frame frame) {
+        frame.kind = ValueKind.NUMBER;
+        return value;
+    }
+
+    @Override
+    double executeNumber(Frame frame) {
+        return value;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.interpreter.node;
+
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.ValueKind;
+import org.example.lexer.TokenType;
+
+/**
+ * '&&' and '||', short-circuiting. Any operand that is not a boolean is an
+ * error, so there is nothing to specialize: operands are always executed
+ * as booleans.
+ */
+final class LogicalNode extends BinaryNode {
+    LogicalNode(TokenType operator, ExpressionNode left, ExpressionNode right) {
+        super(operator, left, right);
+    }
+
+    @Override
+    double execute(Frame frame) {
+        boolean result = executeBoolean(frame);
+        frame.kind = ValueKind.BOOLEAN;
+        return result ? 1 : 0;
+    }
+
+    @Override
+    boolean executeBoolean(Frame frame) {
+        // The right operand is not executed when the left one decides
+        if (operand(frame, left) == (operator == TokenType.OR)) {
+            return operator == TokenType.OR;
+        }
+        return operand(frame, right);
+    }
+
+    private boolean operand(Frame frame, ExpressionNode operand) {
+        try {
+            return operand.executeBoolean(frame);
+        } catch (UnexpectedKindException e) {
+            Interpreter.requireBoolean(operator, e.kind);
+            throw new IllegalStateException("Unreachable");
+        }
+    }
+}
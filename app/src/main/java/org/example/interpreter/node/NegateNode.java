@@ -0,0 +1,84 @@
+package org.example.interpreter.node;
+
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.ValueKind;
+import org.example.lexer.TokenType;
+
+/**
+ * Unary '-'. Specializes to a number operand after the first execution;
+ * goes generic, checking the kind, when it is not one.
+ */
+abstract class NegateNode extends ExpressionNode {
+    ExpressionNode operand;
+
+    NegateNode(ExpressionNode operand) {
+        this.operand = adopt(operand);
+    }
+
+    static NegateNode create(ExpressionNode operand) {
+        return new Uninitialized(operand);
+    }
+
+    @Override
+    void replaceChild(Node child, Node replacement) {
+        operand = (ExpressionNode) replacement;
+    }
+
+    static double negate(Frame frame, double value, byte kind) {
+        Interpreter.requireNumber(TokenType.MINUS, kind);
+        frame.kind = ValueKind.NUMBER;
+        return -value;
+    }
+
+    static final class Uninitialized extends NegateNode {
+        Uninitialized(ExpressionNode operand) {
+            super(operand);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double value = operand.execute(frame);
+            if (frame.kind == ValueKind.NUMBER) {
+                specialize(new Number(operand));
+            } else {
+                deoptimize(new Generic(operand));
+            }
+            return negate(frame, value, frame.kind);
+        }
+    }
+
+    static final class Number extends NegateNode {
+        Number(ExpressionNode operand) {
+            super(operand);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double value = executeNumber(frame);
+            frame.kind = ValueKind.NUMBER;
+            return value;
+        }
+
+        @Override
+        double executeNumber(Frame frame) {
+            try {
+                return -operand.executeNumber(frame);
+            } catch (UnexpectedKindException e) {
+                deoptimize(new Generic(operand));
+                return negate(frame, e.value, e.kind);
+            }
+        }
+    }
+
+    static final class Generic extends NegateNode {
+        Generic(ExpressionNode operand) {
+            super(operand);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double value = operand.execute(frame);
+            return negate(frame, value, frame.kind);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.interpreter.node;
+
+/**
+ * Node of an executable tree built by {@link NodeBuilder}. A node may
+ * replace itself in its parent with one specialized for what it has seen
+ * at run time, or with a generic one when that no longer holds.
+ */
+public abstract class Node {
+    private Node parent;
+
+    public Node getParent() {
+        return parent;
+    }
+
+    final <T extends Node> T adopt(T child) {
+        if (child != null) {
+            ((Node) child).parent = this;
+        }
+        return child;
+    }
+
+    /**
+     * Puts the specialized node in this one's place
+     * @return The replacement, to continue executing with
+     */
+    final <T extends Node> T specialize(T replacement) {
+        return replace(replacement, false);
+    }
+
+    /**
+     * Puts the generic node in this one's place, because what this one was
+     * specialized for did not hold
+     * @return The replacement, to continue executing with
+     */
+    final <T extends Node> T deoptimize(T replacement) {
+        return replace(replacement, true);
+    }
+
+    /**
+     * Called on the parent when a child replaces itself
+     */
+    void replaceChild(Node child, Node replacement) {
+        throw new IllegalStateException(getClass().getSimpleName() + " has no replaceable children");
+    }
+
+    private <T extends Node> T replace(T replacement, boolean generic) {
+        ((Node) replacement).parent = parent;
+        parent.replaceChild(this, replacement);
+
+        Node root = parent;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        if (root instanceof RootNode) {
+            ((RootNode) root).rewritten(generic);
+        }
+        return replacement;
+    }
+}
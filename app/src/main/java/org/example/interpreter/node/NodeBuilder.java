@@ -0,0 +1,113 @@
+package org.example.interpreter.node;
+
+import java.util.List;
+
+import org.example.exception.EvaluationException;
+import org.example.interpreter.Resolver;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Builds the executable node tree of a program. Every node starts
+ * uninitialized and specializes itself as it runs (see {@link Node}), so
+ * parsed subtrees that are shared get one node per place they are used.
+ */
+public final class NodeBuilder {
+    private NodeBuilder() {
+    }
+
+    /**
+     * Resolves the program and builds its tree
+     * @param statements Parsed program
+     * @throws org.example.exception.SemanticException If a variable is not declared where it is used
+     */
+    public static RootNode build(List<Statement> statements) {
+        int[] frameSizes = new Resolver().resolve(statements);
+        return new RootNode(block(statements), frameSizes);
+    }
+
+    private static StatementNode.Block block(List<Statement> statements) {
+        StatementNode[] nodes = new StatementNode[statements.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = statement(statements.get(i));
+        }
+        return new StatementNode.Block(nodes);
+    }
+
+    private static StatementNode statement(Statement statement) {
+        if (statement instanceof ExpressionStatement) {
+            return new StatementNode.Evaluate(expression(((ExpressionStatement) statement).getExpression()));
+        }
+        else if (statement instanceof VarStatement) {
+            VarStatement v = (VarStatement) statement;
+            if (v.getInitializer() == null) {
+                return new StatementNode.Unset(v.getDepth(), v.getSlot());
+            }
+            return new StatementNode.Evaluate(
+                    WriteVariableNode.create(v.getDepth(), v.getSlot(), expression(v.getInitializer())));
+        }
+        else if (statement instanceof PrintStatement) {
+            return new StatementNode.Print(expression(((PrintStatement) statement).getExpression()));
+        }
+        else if (statement instanceof IfStatement) {
+            IfStatement i = (IfStatement) statement;
+            return new StatementNode.If(expression(i.getCondition()), statement(i.getThenBranch()),
+                    i.getElseBranch() == null ? null : statement(i.getElseBranch()));
+        }
+        else if (statement instanceof WhileStatement) {
+            WhileStatement w = (WhileStatement) statement;
+            return new StatementNode.While(expression(w.getCondition()), statement(w.getBody()));
+        }
+        else if (statement instanceof BlockStatement) {
+            return block(((BlockStatement) statement).getStatements());
+        }
+        throw new EvaluationException("[Runtime Error] Unsupported statement: " + statement.getClass().getName());
+    }
+
+    private static ExpressionNode expression(Expression expression) {
+        if (expression instanceof NumberExpression) {
+            return new LiteralNode(((NumberExpression) expression).getValue());
+        }
+        else if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            return ReadVariableNode.create(variable.getName(), variable.getDepth(), variable.getSlot());
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            return WriteVariableNode.create(assign.getDepth(), assign.getSlot(), expression(assign.getValue()));
+        }
+        else if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            if (unary.getOperator() == TokenType.MINUS) {
+                return NegateNode.create(expression(unary.getRight()));
+            }
+            throw new EvaluationException("[Runtime Error] Unsupported unary operator " + unary.getOperator() + ".");
+        }
+        else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            TokenType operator = binary.getOperator();
+            ExpressionNode left = expression(binary.getLeft());
+            ExpressionNode right = expression(binary.getRight());
+            if (operator == TokenType.AND || operator == TokenType.OR) {
+                return new LogicalNode(operator, left, right);
+            }
+            if (operator == TokenType.EQEQ || operator == TokenType.NEQ) {
+                return EqualsNode.create(operator, left, right);
+            }
+            return NumberOperatorNode.create(operator, left, right);
+        }
+        throw new EvaluationException("[Runtime Error] Unsupported expression: " + expression.getClass().getName());
+    }
+}
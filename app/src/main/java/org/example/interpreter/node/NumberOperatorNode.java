@@ -0,0 +1,150 @@
+package org.example.interpreter.node;
+
+import org.example.exception.EvaluationException;
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.ValueKind;
+import org.example.lexer.TokenType;
+
+/**
+ * Arithmetic and comparisons. Specializes to number operands, executed
+ * without their kinds, after the first execution; goes generic, checking
+ * the kinds, when an operand turns out not to be a number.
+ */
+abstract class NumberOperatorNode extends BinaryNode {
+    final byte resultKind;
+
+    NumberOperatorNode(TokenType operator, ExpressionNode left, ExpressionNode right) {
+        super(operator, left, right);
+        switch (operator) {
+            case PLUS:
+            case MINUS:
+            case STAR:
+            case SLASH:
+                resultKind = ValueKind.NUMBER;
+                break;
+            case LT:
+            case LTEQ:
+            case GT:
+            case GTEQ:
+                resultKind = ValueKind.BOOLEAN;
+                break;
+            default:
+                throw new EvaluationException("[Runtime Error] Unsupported binary operator " + operator + ".");
+        }
+    }
+
+    static NumberOperatorNode create(TokenType operator, ExpressionNode left, ExpressionNode right) {
+        return new Uninitialized(operator, left, right);
+    }
+
+    final double apply(Frame frame, double leftValue, double rightValue) {
+        frame.kind = resultKind;
+        switch (operator) {
+            case PLUS:
+                return leftValue + rightValue;
+            case MINUS:
+                return leftValue - rightValue;
+            case STAR:
+                return leftValue * rightValue;
+            case SLASH:
+                return leftValue / rightValue;
+            case LT:
+                return leftValue < rightValue ? 1 : 0;
+            case LTEQ:
+                return leftValue <= rightValue ? 1 : 0;
+            case GT:
+                return leftValue > rightValue ? 1 : 0;
+            default:
+                return leftValue >= rightValue ? 1 : 0;
+        }
+    }
+
+    final double checkAndApply(Frame frame, double leftValue, byte leftKind, double rightValue, byte rightKind) {
+        Interpreter.requireNumber(operator, leftKind);
+        Interpreter.requireNumber(operator, rightKind);
+        return apply(frame, leftValue, rightValue);
+    }
+
+    static final class Uninitialized extends NumberOperatorNode {
+        Uninitialized(TokenType operator, ExpressionNode left, ExpressionNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double leftValue = left.execute(frame);
+            byte leftKind = frame.kind;
+            double rightValue = right.execute(frame);
+            byte rightKind = frame.kind;
+
+            NumberOperatorNode next = leftKind == ValueKind.NUMBER && rightKind == ValueKind.NUMBER
+                    ? specialize(new Numbers(operator, left, right))
+                    : deoptimize(new Generic(operator, left, right));
+            return next.checkAndApply(frame, leftValue, leftKind, rightValue, rightKind);
+        }
+    }
+
+    static final class Numbers extends NumberOperatorNode {
+        Numbers(TokenType operator, ExpressionNode left, ExpressionNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double leftValue;
+            try {
+                leftValue = left.executeNumber(frame);
+            } catch (UnexpectedKindException e) {
+                return deoptimize(new Generic(operator, left, right)).executeRight(frame, e.value, e.kind);
+            }
+            double rightValue;
+            try {
+                rightValue = right.executeNumber(frame);
+            } catch (UnexpectedKindException e) {
+                return deoptimize(new Generic(operator, left, right))
+                        .checkAndApply(frame, leftValue, ValueKind.NUMBER, e.value, e.kind);
+            }
+            return apply(frame, leftValue, rightValue);
+        }
+
+        // Conditions and '&&' / '||' operands get the comparison without a kind
+        @Override
+        boolean executeBoolean(Frame frame) throws UnexpectedKindException {
+            if (resultKind != ValueKind.BOOLEAN) {
+                return super.executeBoolean(frame);
+            }
+            double leftValue;
+            try {
+                leftValue = left.executeNumber(frame);
+            } catch (UnexpectedKindException e) {
+                return deoptimize(new Generic(operator, left, right)).executeRight(frame, e.value, e.kind) != 0;
+            }
+            double rightValue;
+            try {
+                rightValue = right.executeNumber(frame);
+            } catch (UnexpectedKindException e) {
+                return deoptimize(new Generic(operator, left, right))
+                        .checkAndApply(frame, leftValue, ValueKind.NUMBER, e.value, e.kind) != 0;
+            }
+            return apply(frame, leftValue, rightValue) != 0;
+        }
+    }
+
+    static final class Generic extends NumberOperatorNode {
+        Generic(TokenType operator, ExpressionNode left, ExpressionNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double leftValue = left.execute(frame);
+            return executeRight(frame, leftValue, frame.kind);
+        }
+
+        // Continues after the left operand, which was already executed
+        double executeRight(Frame frame, double leftValue, byte leftKind) {
+            double rightValue = right.execute(frame);
+            return checkAndApply(frame, leftValue, leftKind, rightValue, frame.kind);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.interpreter.node;
+
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.ValueKind;
+
+/**
+ * Reads a slot. Starts uninitialized and specializes to the kind found on
+ * the first read; goes generic once the slot holds something else.
+ */
+abstract class ReadVariableNode extends ExpressionNode {
+    final String name;
+    final int depth;
+    final int slot;
+
+    ReadVariableNode(String name, int depth, int slot) {
+        this.name = name;
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    static ReadVariableNode create(String name, int depth, int slot) {
+        return new Uninitialized(name, depth, slot);
+    }
+
+    static final class Uninitialized extends ReadVariableNode {
+        Uninitialized(String name, int depth, int slot) {
+            super(name, depth, slot);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            switch (frame.kinds[depth][slot]) {
+                case ValueKind.NUMBER:
+                    return specialize(new Number(name, depth, slot)).execute(frame);
+                case ValueKind.BOOLEAN:
+                    return specialize(new Boolean(name, depth, slot)).execute(frame);
+                default:
+                    throw Interpreter.unassigned(name);
+            }
+        }
+    }
+
+    static final class Number extends ReadVariableNode {
+        Number(String name, int depth, int slot) {
+            super(name, depth, slot);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            if (frame.kinds[depth][slot] != ValueKind.NUMBER) {
+                return deoptimize(new Generic(name, depth, slot)).execute(frame);
+            }
+            frame.kind = ValueKind.NUMBER;
+            return frame.values[depth][slot];
+        }
+
+        @Override
+        double executeNumber(Frame frame) throws UnexpectedKindException {
+            if (frame.kinds[depth][slot] != ValueKind.NUMBER) {
+                return deoptimize(new Generic(name, depth, slot)).executeNumber(frame);
+            }
+            return frame.values[depth][slot];
+        }
+    }
+
+    static final class Boolean extends ReadVariableNode {
+        Boolean(String name, int depth, int slot) {
+            super(name, depth, slot);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            if (frame.kinds[depth][slot] != ValueKind.BOOLEAN) {
+                return deoptimize(new Generic(name, depth, slot)).execute(frame);
+            }
+            frame.kind = ValueKind.BOOLEAN;
+            return frame.values[depth][slot];
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame) throws UnexpectedKindException {
+            if (frame.kinds[depth][slot] != ValueKind.BOOLEAN) {
+                return deoptimize(new Generic(name, depth, slot)).executeBoolean(frame);
+            }
+            return frame.values[depth][slot] != 0;
+        }
+    }
+
+    static final class Generic extends ReadVariableNode {
+        Generic(String name, int depth, int slot) {
+            super(name, depth, slot);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            byte kind = frame.kinds[depth][slot];
+            if (kind == ValueKind.UNSET) {
+                throw Interpreter.unassigned(name);
+            }
+            frame.kind = kind;
+            return frame.values[depth][slot];
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.interpreter.node;
+
+import java.io.PrintStream;
+
+import lombok.Getter;
+
+/**
+ * A program as an executable node tree. Nodes keep their specializations
+ * from one {@link #execute} to the next, so repeated runs go on where the
+ * previous one left off.
+ */
+public final class RootNode extends Node {
+    private final StatementNode.Block body;
+    private final int[] frameSizes;
+
+    // Nodes that replaced themselves, in total and with a generic node
+    @Getter
+    private int rewriteCount;
+    @Getter
+    private int deoptimizationCount;
+
+    RootNode(StatementNode.Block body, int[] frameSizes) {
+        this.body = adopt(body);
+        this.frameSizes = frameSizes;
+    }
+
+    /**
+     * Runs the program on fresh frames
+     * @throws org.example.exception.EvaluationException On a type error or a read of an unassigned variable
+     */
+    public void execute(PrintStream out) {
+        body.execute(new Frame(frameSizes, out));
+    }
+
+    void rewritten(boolean generic) {
+        rewriteCount++;
+        if (generic) {
+            deoptimizationCount++;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.interpreter.node;
+
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.ValueKind;
+
+abstract class StatementNode extends Node {
+    abstract void execute(Frame frame);
+
+    static boolean condition(Frame frame, ExpressionNode condition) {
+        try {
+            return condition.executeBoolean(frame);
+        } catch (UnexpectedKindException e) {
+            Interpreter.requireCondition(e.kind);
+            throw new IllegalStateException("Unreachable");
+        }
+    }
+
+    // An expression statement, or a declaration with an initializer
+    static final class Evaluate extends StatementNode {
+        private ExpressionNode expression;
+
+        Evaluate(ExpressionNode expression) {
+            this.expression = adopt(expression);
+        }
+
+        @Override
+        void execute(Frame frame) {
+            expression.execute(frame);
+        }
+
+        @Override
+        void replaceChild(Node child, Node replacement) {
+            expression = (ExpressionNode) replacement;
+        }
+    }
+
+    // "var x;"
+    static final class Unset extends StatementNode {
+        private final int depth;
+        private final int slot;
+
+        Unset(int depth, int slot) {
+            this.depth = depth;
+            this.slot = slot;
+        }
+
+        @Override
+        void execute(Frame frame) {
+            frame.kinds[depth][slot] = ValueKind.UNSET;
+        }
+    }
+
+    static final class Print extends StatementNode {
+        private ExpressionNode expression;
+
+        Print(ExpressionNode expression) {
+            this.expression = adopt(expression);
+        }
+
+        @Override
+        void execute(Frame frame) {
+            double value = expression.execute(frame);
+            Interpreter.print(frame.out, value, frame.kind);
+        }
+
+        @Override
+        void replaceChild(Node child, Node replacement) {
+            expression = (ExpressionNode) replacement;
+        }
+    }
+
+    static final class If extends StatementNode {
+        private ExpressionNode condition;
+        private final StatementNode thenBranch;
+        // Null without an else branch
+        private final StatementNode elseBranch;
+
+        If(ExpressionNode condition, StatementNode thenBranch, StatementNode elseBranch) {
+            this.condition = adopt(condition);
+            this.thenBranch = adopt(thenBranch);
+            this.elseBranch = adopt(elseBranch);
+        }
+
+        @Override
+        void execute(Frame frame) {
+            if (condition(frame, condition)) {
+                thenBranch.execute(frame);
+            } else if (elseBranch != null) {
+                elseBranch.execute(frame);
+            }
+        }
+
+        @Override
+        void replaceChild(Node child, Node replacement) {
+            condition = (ExpressionNode) replacement;
+        }
+    }
+
+    static final class While extends StatementNode {
+        private ExpressionNode condition;
+        private final StatementNode body;
+
+        While(ExpressionNode condition, StatementNode body) {
+            this.condition = adopt(condition);
+            this.body = adopt(body);
+        }
+
+        @Override
+        void execute(Frame frame) {
+            while (condition(frame, condition)) {
+                body.execute(frame);
+            }
+        }
+
+        @Override
+        void replaceChild(Node child, Node replacement) {
+            condition = (ExpressionNode) replacement;
+        }
+    }
+
+    static final class Block extends StatementNode {
+        private final StatementNode[] statements;
+
+        Block(StatementNode[] statements) {
+            this.statements = statements;
+            for (StatementNode statement : statements) {
+                adopt(statement);
+            }
+        }
+
+        @Override
+        void execute(Frame frame) {
+            for (StatementNode statement : statements) {
+                statement.execute(frame);
+            }
+        }
+    }
+}
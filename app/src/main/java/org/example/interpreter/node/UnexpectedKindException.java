@@ -0,0 +1,18 @@
+package org.example.interpreter.node;
+
+/**
+ * Thrown by a specialized execute method when the value does not have the
+ * kind it promises; carries the value, so the caller can go on without
+ * executing the node again.
+ */
+final class UnexpectedKindException extends Exception {
+    final double value;
+    final byte kind;
+
+    UnexpectedKindException(double value, byte kind) {
+        // Part of normal control flow when nodes deoptimize: no stack trace
+        super(null, null, false, false);
+        this.value = value;
+        this.kind = kind;
+    }
+}
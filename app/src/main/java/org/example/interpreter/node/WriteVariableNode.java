@@ -0,0 +1,115 @@
+package org.example.interpreter.node;
+
+import org.example.interpreter.ValueKind;
+
+/**
+ * Assigns a slot and returns the value. Specializes to the kind of the
+ * first value stored, so the value is executed without its kind; goes
+ * generic once another kind comes along.
+ */
+abstract class WriteVariableNode extends ExpressionNode {
+    final int depth;
+    final int slot;
+    ExpressionNode value;
+
+    WriteVariableNode(int depth, int slot, ExpressionNode value) {
+        this.depth = depth;
+        this.slot = slot;
+        this.value = adopt(value);
+    }
+
+    static WriteVariableNode create(int depth, int slot, ExpressionNode value) {
+        return new Uninitialized(depth, slot, value);
+    }
+
+    @Override
+    void replaceChild(Node child, Node replacement) {
+        value = (ExpressionNode) replacement;
+    }
+
+    final double store(Frame frame, double result, byte kind) {
+        frame.values[depth][slot] = result;
+        frame.kinds[depth][slot] = kind;
+        frame.kind = kind;
+        return result;
+    }
+
+    static final class Uninitialized extends WriteVariableNode {
+        Uninitialized(int depth, int slot, ExpressionNode value) {
+            super(depth, slot, value);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double result = value.execute(frame);
+            if (frame.kind == ValueKind.NUMBER) {
+                specialize(new Number(depth, slot, value));
+            } else {
+                specialize(new Boolean(depth, slot, value));
+            }
+            return store(frame, result, frame.kind);
+        }
+    }
+
+    static final class Number extends WriteVariableNode {
+        Number(int depth, int slot, ExpressionNode value) {
+            super(depth, slot, value);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            try {
+                return store(frame, value.executeNumber(frame), ValueKind.NUMBER);
+            } catch (UnexpectedKindException e) {
+                return deoptimize(new Generic(depth, slot, value)).store(frame, e.value, e.kind);
+            }
+        }
+
+        @Override
+        double executeNumber(Frame frame) throws UnexpectedKindException {
+            try {
+                return store(frame, value.executeNumber(frame), ValueKind.NUMBER);
+            } catch (UnexpectedKindException e) {
+                deoptimize(new Generic(depth, slot, value)).store(frame, e.value, e.kind);
+                throw e;
+            }
+        }
+    }
+
+    static final class Boolean extends WriteVariableNode {
+        Boolean(int depth, int slot, ExpressionNode value) {
+            super(depth, slot, value);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            try {
+                return store(frame, value.executeBoolean(frame) ? 1 : 0, ValueKind.BOOLEAN);
+            } catch (UnexpectedKindException e) {
+                return deoptimize(new Generic(depth, slot, value)).store(frame, e.value, e.kind);
+            }
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame) throws UnexpectedKindException {
+            try {
+                return store(frame, value.executeBoolean(frame) ? 1 : 0, ValueKind.BOOLEAN) != 0;
+            } catch (UnexpectedKindException e) {
+                deoptimize(new Generic(depth, slot, value)).store(frame, e.value, e.kind);
+                throw e;
+            }
+        }
+    }
+
+    static final class Generic extends WriteVariableNode {
+        Generic(int depth, int slot, ExpressionNode value) {
+            super(depth, slot, value);
+        }
+
+        @Override
+        double execute(Frame frame) {
+            double result = value.execute(frame);
+            return store(frame, result, frame.kind);
+        }
+    }
+}
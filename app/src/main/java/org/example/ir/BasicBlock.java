@@ -0,0 +1,33 @@
+package org.example.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Straight-line code: phis first, then instructions ending with a
+ * terminator that names the successors.
+ */
+@Getter
+public class BasicBlock {
+    private final int id;
+    private final List<Instruction> phis = new ArrayList<>();
+    private final List<Instruction> instructions = new ArrayList<>();
+    private final List<BasicBlock> predecessors = new ArrayList<>();
+    // Of a BRANCH: the target when true, then when false
+    private final List<BasicBlock> successors = new ArrayList<>();
+
+    BasicBlock(int id) {
+        this.id = id;
+    }
+
+    public Instruction getTerminator() {
+        return instructions.get(instructions.size() - 1);
+    }
+
+    void addSuccessor(BasicBlock successor) {
+        successors.add(successor);
+        successor.predecessors.add(this);
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * A program in SSA form: basic blocks, the first one is the entry. Built
+ * by {@link SsaBuilder}, changed in place by the passes.
+ */
+@Getter
+public class ControlFlowGraph {
+    private final List<BasicBlock> blocks = new ArrayList<>();
+    // Instruction ids are below this; removed instructions leave gaps
+    private int instructionCount;
+    // Slots the values need at run time, set by the SlotAllocator
+    private int slotCount = -1;
+
+    public BasicBlock getEntry() {
+        return blocks.get(0);
+    }
+
+    BasicBlock newBlock() {
+        BasicBlock block = new BasicBlock(blocks.size());
+        blocks.add(block);
+        return block;
+    }
+
+    Instruction append(BasicBlock block, int op, Instruction... operands) {
+        Instruction instruction = new Instruction(instructionCount++, op, block);
+        for (Instruction operand : operands) {
+            instruction.addOperand(operand);
+        }
+        block.getInstructions().add(instruction);
+        return instruction;
+    }
+
+    Instruction phi(BasicBlock block) {
+        Instruction phi = new Instruction(instructionCount++, Instruction.PHI, block);
+        block.getPhis().add(phi);
+        return phi;
+    }
+
+    void setSlotCount(int slotCount) {
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * @return Blocks in reverse postorder: every block comes after its dominators
+     */
+    public List<BasicBlock> reversePostOrder() {
+        List<BasicBlock> order = new ArrayList<>(blocks.size());
+        boolean[] visited = new boolean[blocks.size()];
+        // Explicit stack of (block, next successor index)
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{0, 0});
+        visited[0] = true;
+        while (!stack.isEmpty()) {
+            int[] top = stack.peek();
+            List<BasicBlock> successors = blocks.get(top[0]).getSuccessors();
+            if (top[1] < successors.size()) {
+                BasicBlock next = successors.get(top[1]++);
+                if (!visited[next.getId()]) {
+                    visited[next.getId()] = true;
+                    stack.push(new int[]{next.getId(), 0});
+                }
+            } else {
+                order.add(blocks.get(top[0]));
+                stack.pop();
+            }
+        }
+        Collections.reverse(order);
+        return order;
+    }
+
+    public int countInstructions() {
+        int count = 0;
+        for (BasicBlock block : blocks) {
+            count += block.getPhis().size() + block.getInstructions().size();
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (BasicBlock block : blocks) {
+            builder.append('b').append(block.getId()).append(':');
+            for (BasicBlock predecessor : block.getPredecessors()) {
+                builder.append(" b").append(predecessor.getId());
+            }
+            builder.append('\n');
+            for (Instruction phi : block.getPhis()) {
+                builder.append("    ").append(phi).append('\n');
+            }
+            for (Instruction instruction : block.getInstructions()) {
+                builder.append("    ").append(instruction).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.ir;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Removes instructions that only pass a value on: a READ of a variable
+ * that is always assigned, a REQUIRE_BOOLEAN of a value that is always a
+ * boolean, and a phi whose operands are all the same value. Their users
+ * use the original value instead.
+ */
+public class CopyPropagation {
+    private int removedCount;
+
+    /**
+     * @return Instructions removed by this run
+     */
+    public int run(ControlFlowGraph graph) {
+        int before = removedCount;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            KindAnalysis kinds = new KindAnalysis(graph);
+            for (BasicBlock block : graph.getBlocks()) {
+                changed |= propagate(block.getPhis(), kinds);
+                changed |= propagate(block.getInstructions(), kinds);
+            }
+        }
+        return removedCount - before;
+    }
+
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    private boolean propagate(List<Instruction> instructions, KindAnalysis kinds) {
+        boolean changed = false;
+        Iterator<Instruction> iterator = instructions.iterator();
+        while (iterator.hasNext()) {
+            Instruction instruction = iterator.next();
+            Instruction source = source(instruction, kinds);
+            if (source != null) {
+                instruction.replaceBy(source);
+                instruction.dropOperands();
+                iterator.remove();
+                removedCount++;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static Instruction source(Instruction instruction, KindAnalysis kinds) {
+        switch (instruction.getOp()) {
+            case Instruction.READ:
+            case Instruction.REQUIRE_BOOLEAN:
+                return kinds.mayFail(instruction) ? null : instruction.getOperands().get(0);
+            case Instruction.PHI:
+                Instruction same = null;
+                for (Instruction operand : instruction.getOperands()) {
+                    if (operand == instruction || operand == same) {
+                        continue;
+                    }
+                    if (same != null) {
+                        return null;
+                    }
+                    same = operand;
+                }
+                return same;
+            default:
+                return null;
+        }
+    }
+}
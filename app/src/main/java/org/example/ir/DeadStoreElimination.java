@@ -0,0 +1,70 @@
+package org.example.ir;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * In SSA form every write to a variable is the value written, so a write
+ * that is never read is a value nothing uses. Starting from what has an
+ * effect (PRINT, terminators and the checks that can fail), marks the
+ * values it needs, then removes everything else: unused writes from
+ * VarStatements and assignments, the computations only they needed, and
+ * phis that merge them.
+ */
+public class DeadStoreElimination {
+    private int removedCount;
+
+    /**
+     * @return Instructions removed by this run
+     */
+    public int run(ControlFlowGraph graph) {
+        KindAnalysis kinds = new KindAnalysis(graph);
+        boolean[] live = new boolean[graph.getInstructionCount()];
+        Deque<Instruction> work = new ArrayDeque<>();
+
+        for (BasicBlock block : graph.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                if (!instruction.definesValue() || kinds.mayFail(instruction)) {
+                    live[instruction.getId()] = true;
+                    work.push(instruction);
+                }
+            }
+        }
+        while (!work.isEmpty()) {
+            for (Instruction operand : work.pop().getOperands()) {
+                if (!live[operand.getId()]) {
+                    live[operand.getId()] = true;
+                    work.push(operand);
+                }
+            }
+        }
+
+        int removed = 0;
+        for (BasicBlock block : graph.getBlocks()) {
+            removed += sweep(block.getPhis(), live);
+            removed += sweep(block.getInstructions(), live);
+        }
+        removedCount += removed;
+        return removed;
+    }
+
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    private static int sweep(List<Instruction> instructions, boolean[] live) {
+        int removed = 0;
+        Iterator<Instruction> iterator = instructions.iterator();
+        while (iterator.hasNext()) {
+            Instruction instruction = iterator.next();
+            if (!live[instruction.getId()]) {
+                instruction.dropOperands();
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
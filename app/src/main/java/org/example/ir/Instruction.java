@@ -0,0 +1,148 @@
+package org.example.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import lombok.Getter;
+import org.example.interpreter.ValueKind;
+import org.example.lexer.TokenType;
+
+/**
+ * One SSA instruction. Every instruction except PRINT and the terminators
+ * defines a value; its operands are the instructions whose values it uses.
+ * Users are tracked in the other direction, so a value can be replaced
+ * everywhere at once.
+ */
+@Getter
+public class Instruction {
+    // A number or boolean constant
+    public static final int CONST = 0;
+    // Value of "var x;": reading it is an error
+    public static final int UNDEFINED = 1;
+    // Use of a variable: fails if the value is UNDEFINED, otherwise passes it on
+    public static final int READ = 2;
+    public static final int NEG = 3;
+    public static final int BINARY = 4;
+    // Operand of '&&' / '||': fails if it is not a boolean, otherwise passes it on
+    public static final int REQUIRE_BOOLEAN = 5;
+    // One operand per predecessor of the block, in the same order
+    public static final int PHI = 6;
+    public static final int PRINT = 7;
+
+    // Terminators, the last instruction of every block
+    public static final int JUMP = 8;
+    // Fails if the condition is not a boolean
+    public static final int BRANCH = 9;
+    public static final int RETURN = 10;
+
+    private static final String[] NAMES = {
+            "const", "undefined", "read", "neg", "binary", "require_boolean", "phi", "print", "jump", "branch", "return"
+    };
+
+    private final int id;
+    private final int op;
+    private final BasicBlock block;
+    private final List<Instruction> operands = new ArrayList<>(2);
+    private final List<Instruction> users = new ArrayList<>();
+
+    private double constant;
+    private byte constantKind;
+    // Of BINARY and REQUIRE_BOOLEAN
+    private TokenType operator;
+    // Variable name of READ, for its error message
+    private String name;
+
+    // Storage of the value at run time, set by the SlotAllocator
+    private int slot = -1;
+
+    Instruction(int id, int op, BasicBlock block) {
+        this.id = id;
+        this.op = op;
+        this.block = block;
+    }
+
+    public boolean definesValue() {
+        return op != PRINT && op != JUMP && op != BRANCH && op != RETURN;
+    }
+
+    public boolean isTerminator() {
+        return op >= JUMP;
+    }
+
+    void setConstant(double constant, byte constantKind) {
+        this.constant = constant;
+        this.constantKind = constantKind;
+    }
+
+    void setOperator(TokenType operator) {
+        this.operator = operator;
+    }
+
+    void setName(String name) {
+        this.name = name;
+    }
+
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    void addOperand(Instruction operand) {
+        operands.add(operand);
+        operand.users.add(this);
+    }
+
+    /**
+     * Makes every user use the replacement instead; this instruction is left without users
+     */
+    void replaceBy(Instruction replacement) {
+        Set<Instruction> distinctUsers = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinctUsers.addAll(users);
+        for (Instruction user : distinctUsers) {
+            for (int i = 0; i < user.operands.size(); i++) {
+                if (user.operands.get(i) == this) {
+                    user.operands.set(i, replacement);
+                    replacement.users.add(user);
+                }
+            }
+        }
+        users.clear();
+    }
+
+    // Before the instruction is removed from its block
+    void dropOperands() {
+        for (Instruction operand : operands) {
+            operand.users.remove(this);
+        }
+        operands.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (definesValue()) {
+            builder.append('v').append(id).append(" = ");
+        }
+        builder.append(NAMES[op]);
+        if (op == CONST) {
+            builder.append(' ').append(constantKind == ValueKind.BOOLEAN ? String.valueOf(constant != 0) : constant);
+        }
+        if (operator != null) {
+            builder.append(' ').append(operator);
+        }
+        if (name != null) {
+            builder.append(' ').append(name);
+        }
+        for (Instruction operand : operands) {
+            builder.append(" v").append(operand.id);
+        }
+        for (BasicBlock successor : block.getSuccessors()) {
+            if (isTerminator()) {
+                builder.append(" b").append(successor.getId());
+            }
+        }
+        return builder.toString();
+    }
+}
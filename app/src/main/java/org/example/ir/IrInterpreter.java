@@ -0,0 +1,185 @@
+package org.example.ir;
+
+import java.io.PrintStream;
+import java.util.List;
+
+import org.example.exception.EvaluationException;
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.ValueKind;
+import org.example.lexer.TokenType;
+
+/**
+ * Runs a {@link ControlFlowGraph} after {@link SlotAllocator}: one double[]
+ * of values and one byte[] of kinds, as long as the number of slots
+ * liveness allows rather than the number of variables. Errors and output
+ * are the same as the {@link Interpreter}'s.
+ */
+public class IrInterpreter {
+    private final PrintStream out;
+
+    public IrInterpreter(PrintStream out) {
+        this.out = out;
+    }
+
+    public void run(ControlFlowGraph graph) throws EvaluationException {
+        if (graph.getSlotCount() < 0) {
+            throw new IllegalStateException("Slots are not allocated");
+        }
+        double[] values = new double[graph.getSlotCount()];
+        byte[] kinds = new byte[graph.getSlotCount()];
+
+        int maxPhis = 0;
+        for (BasicBlock block : graph.getBlocks()) {
+            maxPhis = Math.max(maxPhis, block.getPhis().size());
+        }
+        double[] phiValues = new double[maxPhis];
+        byte[] phiKinds = new byte[maxPhis];
+
+        BasicBlock previous = null;
+        BasicBlock block = graph.getEntry();
+        while (block != null) {
+            List<Instruction> phis = block.getPhis();
+            if (!phis.isEmpty()) {
+                // All phis read their operands before any of them is written
+                int edge = block.getPredecessors().indexOf(previous);
+                for (int i = 0; i < phis.size(); i++) {
+                    int slot = phis.get(i).getOperands().get(edge).getSlot();
+                    phiValues[i] = values[slot];
+                    phiKinds[i] = kinds[slot];
+                }
+                for (int i = 0; i < phis.size(); i++) {
+                    values[phis.get(i).getSlot()] = phiValues[i];
+                    kinds[phis.get(i).getSlot()] = phiKinds[i];
+                }
+            }
+
+            previous = block;
+            block = execute(block, values, kinds);
+        }
+    }
+
+    /**
+     * @return The block to continue with, null at the end of the program
+     */
+    private BasicBlock execute(BasicBlock block, double[] values, byte[] kinds) {
+        List<Instruction> instructions = block.getInstructions();
+        for (int i = 0; i < instructions.size(); i++) {
+            Instruction instruction = instructions.get(i);
+            List<Instruction> operands = instruction.getOperands();
+            int slot = instruction.getSlot();
+
+            switch (instruction.getOp()) {
+                case Instruction.CONST:
+                    values[slot] = instruction.getConstant();
+                    kinds[slot] = instruction.getConstantKind();
+                    break;
+                case Instruction.UNDEFINED:
+                    kinds[slot] = ValueKind.UNSET;
+                    break;
+                case Instruction.READ: {
+                    int from = operands.get(0).getSlot();
+                    if (kinds[from] == ValueKind.UNSET) {
+                        throw Interpreter.unassigned(instruction.getName());
+                    }
+                    values[slot] = values[from];
+                    kinds[slot] = kinds[from];
+                    break;
+                }
+                case Instruction.NEG: {
+                    int from = operands.get(0).getSlot();
+                    Interpreter.requireNumber(TokenType.MINUS, kinds[from]);
+                    values[slot] = -values[from];
+                    kinds[slot] = ValueKind.NUMBER;
+                    break;
+                }
+                case Instruction.BINARY:
+                    binary(instruction, operands.get(0).getSlot(), operands.get(1).getSlot(), values, kinds);
+                    break;
+                case Instruction.REQUIRE_BOOLEAN: {
+                    int from = operands.get(0).getSlot();
+                    Interpreter.requireBoolean(instruction.getOperator(), kinds[from]);
+                    values[slot] = values[from];
+                    kinds[slot] = ValueKind.BOOLEAN;
+                    break;
+                }
+                case Instruction.PRINT: {
+                    int from = operands.get(0).getSlot();
+                    Interpreter.print(out, values[from], kinds[from]);
+                    break;
+                }
+                case Instruction.JUMP:
+                    return block.getSuccessors().get(0);
+                case Instruction.BRANCH: {
+                    int from = operands.get(0).getSlot();
+                    Interpreter.requireCondition(kinds[from]);
+                    return block.getSuccessors().get(values[from] != 0 ? 0 : 1);
+                }
+                case Instruction.RETURN:
+                    return null;
+                default:
+                    throw new EvaluationException("[Runtime Error] Unsupported instruction: " + instruction);
+            }
+        }
+        throw new EvaluationException("[Runtime Error] Block b" + block.getId() + " has no terminator.");
+    }
+
+    private static void binary(Instruction instruction, int leftSlot, int rightSlot, double[] values, byte[] kinds) {
+        double left = values[leftSlot];
+        byte leftKind = kinds[leftSlot];
+        double right = values[rightSlot];
+        byte rightKind = kinds[rightSlot];
+        int slot = instruction.getSlot();
+
+        switch (instruction.getOperator()) {
+            case EQEQ:
+            case NEQ: {
+                boolean equal = leftKind == rightKind && left == right;
+                values[slot] = equal == (instruction.getOperator() == TokenType.EQEQ) ? 1 : 0;
+                kinds[slot] = ValueKind.BOOLEAN;
+                return;
+            }
+            default:
+                break;
+        }
+
+        Interpreter.requireNumber(instruction.getOperator(), leftKind);
+        Interpreter.requireNumber(instruction.getOperator(), rightKind);
+
+        double result;
+        byte kind = ValueKind.BOOLEAN;
+        switch (instruction.getOperator()) {
+            case PLUS:
+                result = left + right;
+                kind = ValueKind.NUMBER;
+                break;
+            case MINUS:
+                result = left - right;
+                kind = ValueKind.NUMBER;
+                break;
+            case STAR:
+                result = left * right;
+                kind = ValueKind.NUMBER;
+                break;
+            case SLASH:
+                result = left / right;
+                kind = ValueKind.NUMBER;
+                break;
+            case LT:
+                result = left < right ? 1 : 0;
+                break;
+            case LTEQ:
+                result = left <= right ? 1 : 0;
+                break;
+            case GT:
+                result = left > right ? 1 : 0;
+                break;
+            case GTEQ:
+                result = left >= right ? 1 : 0;
+                break;
+            default:
+                throw new EvaluationException("[Runtime Error] Unsupported binary operator " + instruction.getOperator() + ".");
+        }
+        values[slot] = result;
+        kinds[slot] = kind;
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.ir;
+
+import java.util.List;
+
+import org.example.interpreter.ValueKind;
+import org.example.lexer.TokenType;
+
+/**
+ * The {@link ValueKind}s each value may have, as a bit mask
+ * (1 << kind) indexed by instruction id, iterated to a fixpoint over the
+ * phis of loops. Tells the passes which checks can never fail.
+ */
+class KindAnalysis {
+    static final int UNSET = 1 << ValueKind.UNSET;
+    static final int NUMBER = 1 << ValueKind.NUMBER;
+    static final int BOOLEAN = 1 << ValueKind.BOOLEAN;
+
+    private final int[] kinds;
+
+    KindAnalysis(ControlFlowGraph graph) {
+        kinds = new int[graph.getInstructionCount()];
+        List<BasicBlock> order = graph.reversePostOrder();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BasicBlock block : order) {
+                for (Instruction phi : block.getPhis()) {
+                    changed |= update(phi);
+                }
+                for (Instruction instruction : block.getInstructions()) {
+                    changed |= update(instruction);
+                }
+            }
+        }
+    }
+
+    int kinds(Instruction instruction) {
+        return kinds[instruction.getId()];
+    }
+
+    /**
+     * @return Whether the instruction can stop the program with an error
+     */
+    boolean mayFail(Instruction instruction) {
+        List<Instruction> operands = instruction.getOperands();
+        switch (instruction.getOp()) {
+            case Instruction.READ:
+                return (kinds(operands.get(0)) & UNSET) != 0;
+            case Instruction.NEG:
+                return kinds(operands.get(0)) != NUMBER;
+            case Instruction.BINARY:
+                if (isEquality(instruction.getOperator())) {
+                    return false;
+                }
+                return kinds(operands.get(0)) != NUMBER || kinds(operands.get(1)) != NUMBER;
+            case Instruction.REQUIRE_BOOLEAN:
+            case Instruction.BRANCH:
+                return kinds(operands.get(0)) != BOOLEAN;
+            default:
+                return false;
+        }
+    }
+
+    private boolean update(Instruction instruction) {
+        int kind = transfer(instruction);
+        if (kind == kinds[instruction.getId()]) {
+            return false;
+        }
+        kinds[instruction.getId()] = kind;
+        return true;
+    }
+
+    private int transfer(Instruction instruction) {
+        switch (instruction.getOp()) {
+            case Instruction.CONST:
+                return 1 << instruction.getConstantKind();
+            case Instruction.UNDEFINED:
+                return UNSET;
+            case Instruction.READ:
+                return kinds(instruction.getOperands().get(0)) & ~UNSET;
+            case Instruction.NEG:
+                return NUMBER;
+            case Instruction.BINARY:
+                TokenType operator = instruction.getOperator();
+                if (isEquality(operator) || operator == TokenType.LT || operator == TokenType.LTEQ
+                        || operator == TokenType.GT || operator == TokenType.GTEQ) {
+                    return BOOLEAN;
+                }
+                return NUMBER;
+            case Instruction.REQUIRE_BOOLEAN:
+                return BOOLEAN;
+            case Instruction.PHI:
+                int union = 0;
+                for (Instruction operand : instruction.getOperands()) {
+                    union |= kinds(operand);
+                }
+                return union;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean isEquality(TokenType operator) {
+        return operator == TokenType.EQEQ || operator == TokenType.NEQ;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.ir;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Values live at the start and at the end of every block, as sets of
+ * instruction ids. A phi operand is live at the end of the predecessor it
+ * comes from, not at the start of the phi's block; the phis themselves are
+ * defined at the start of their block and so are not in its live-in set.
+ */
+public class Liveness {
+    private final BitSet[] liveIn;
+    private final BitSet[] liveOut;
+
+    public Liveness(ControlFlowGraph graph) {
+        int blockCount = graph.getBlocks().size();
+        liveIn = new BitSet[blockCount];
+        liveOut = new BitSet[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            liveIn[i] = new BitSet();
+            liveOut[i] = new BitSet();
+        }
+
+        List<BasicBlock> order = graph.reversePostOrder();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            // Backwards problem: postorder reaches a fixpoint fastest
+            for (int i = order.size() - 1; i >= 0; i--) {
+                BasicBlock block = order.get(i);
+                BitSet out = computeLiveOut(block);
+                BitSet in = liveBefore(block.getInstructions(), 0, out);
+                for (Instruction phi : block.getPhis()) {
+                    in.clear(phi.getId());
+                }
+                if (!in.equals(liveIn[block.getId()]) || !out.equals(liveOut[block.getId()])) {
+                    liveIn[block.getId()] = in;
+                    liveOut[block.getId()] = out;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    public BitSet getLiveIn(BasicBlock block) {
+        return liveIn[block.getId()];
+    }
+
+    public BitSet getLiveOut(BasicBlock block) {
+        return liveOut[block.getId()];
+    }
+
+    /**
+     * @return Values live right before instructions.get(from), given those live after the last one
+     */
+    static BitSet liveBefore(List<Instruction> instructions, int from, BitSet liveAfter) {
+        BitSet live = (BitSet) liveAfter.clone();
+        for (int i = instructions.size() - 1; i >= from; i--) {
+            Instruction instruction = instructions.get(i);
+            live.clear(instruction.getId());
+            for (Instruction operand : instruction.getOperands()) {
+                live.set(operand.getId());
+            }
+        }
+        return live;
+    }
+
+    private BitSet computeLiveOut(BasicBlock block) {
+        BitSet out = new BitSet();
+        for (BasicBlock successor : block.getSuccessors()) {
+            out.or(liveIn[successor.getId()]);
+            int edge = successor.getPredecessors().indexOf(block);
+            for (Instruction phi : successor.getPhis()) {
+                out.set(phi.getOperands().get(edge).getId());
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.ir;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Gives every value a run-time slot, sharing slots between values that are
+ * never live at the same time. In SSA form a value live where another is
+ * defined was defined before it on every path, so visiting blocks in
+ * reverse postorder and taking the lowest slot not held by a live value is
+ * enough. A value may take the slot of an operand that dies at the same
+ * instruction, since operands are read before the result is written; phis
+ * are written together on the incoming edge.
+ */
+public final class SlotAllocator {
+    private SlotAllocator() {
+    }
+
+    /**
+     * @return Number of slots needed, also stored in the graph
+     */
+    public static int allocate(ControlFlowGraph graph, Liveness liveness) {
+        Instruction[] byId = new Instruction[graph.getInstructionCount()];
+        for (BasicBlock block : graph.getBlocks()) {
+            for (Instruction phi : block.getPhis()) {
+                phi.setSlot(-1);
+                byId[phi.getId()] = phi;
+            }
+            for (Instruction instruction : block.getInstructions()) {
+                instruction.setSlot(-1);
+                byId[instruction.getId()] = instruction;
+            }
+        }
+
+        // Index of the last instruction of the current block using each value
+        int[] lastUse = new int[graph.getInstructionCount()];
+        int slotCount = 0;
+
+        for (BasicBlock block : graph.reversePostOrder()) {
+            List<Instruction> instructions = block.getInstructions();
+            BitSet liveOut = liveness.getLiveOut(block);
+            BitSet used = new BitSet();
+            for (int i = 0; i < instructions.size(); i++) {
+                for (Instruction operand : instructions.get(i).getOperands()) {
+                    lastUse[operand.getId()] = i;
+                    used.set(operand.getId());
+                }
+            }
+
+            // Slots held by live values; each live value has its own
+            BitSet occupied = new BitSet();
+            BitSet liveIn = liveness.getLiveIn(block);
+            for (int id = liveIn.nextSetBit(0); id >= 0; id = liveIn.nextSetBit(id + 1)) {
+                occupied.set(byId[id].getSlot());
+            }
+            for (Instruction phi : block.getPhis()) {
+                phi.setSlot(occupied.nextClearBit(0));
+                occupied.set(phi.getSlot());
+                slotCount = Math.max(slotCount, phi.getSlot() + 1);
+            }
+            for (Instruction phi : block.getPhis()) {
+                if (!used.get(phi.getId()) && !liveOut.get(phi.getId())) {
+                    occupied.clear(phi.getSlot());
+                }
+            }
+
+            for (int i = 0; i < instructions.size(); i++) {
+                Instruction instruction = instructions.get(i);
+                for (Instruction operand : instruction.getOperands()) {
+                    if (lastUse[operand.getId()] == i && !liveOut.get(operand.getId())) {
+                        occupied.clear(operand.getSlot());
+                    }
+                }
+                if (!instruction.definesValue()) {
+                    continue;
+                }
+                instruction.setSlot(occupied.nextClearBit(0));
+                slotCount = Math.max(slotCount, instruction.getSlot() + 1);
+                // A value nothing uses (a check kept for its error) frees its slot at once
+                if (used.get(instruction.getId()) || liveOut.get(instruction.getId())) {
+                    occupied.set(instruction.getSlot());
+                }
+            }
+        }
+
+        graph.setSlotCount(slotCount);
+        return slotCount;
+    }
+}
@@ -0,0 +1,332 @@
+package org.example.ir;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.exception.EvaluationException;
+import org.example.interpreter.Resolver;
+import org.example.interpreter.ValueKind;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Lowers a program to a {@link ControlFlowGraph} in SSA form, directly
+ * from the AST, after Braun et al., "Simple and Efficient Construction of
+ * Static Single Assignment Form": every block records the last value of
+ * each variable, a read looks it up through the predecessors and places a
+ * phi where several of them meet. Phis of a block whose predecessors are
+ * not all known yet (a loop header) are completed when it is sealed, and
+ * phis that merge only one value are removed on the spot.
+ *
+ * Variables are resolved first; each (depth, slot) is one variable. Checks
+ * happen in the same order as in the Interpreter: '&&' and '||' become
+ * branches, each operand checked by REQUIRE_BOOLEAN.
+ */
+public class SsaBuilder {
+    private ControlFlowGraph graph;
+    private BasicBlock current;
+
+    private int[] frameBases;
+    private Instruction undefined;
+
+    // Per block id: variable -> its current value at the end of the block
+    private final List<Map<Integer, Instruction>> definitions = new ArrayList<>();
+    private final List<Map<Integer, Instruction>> incompletePhis = new ArrayList<>();
+    private final List<Boolean> sealed = new ArrayList<>();
+    // Phis removed as trivial -> the value that replaced them
+    private final Map<Instruction, Instruction> replacements = new IdentityHashMap<>();
+
+    public ControlFlowGraph build(List<Statement> statements) {
+        int[] frameSizes = new Resolver().resolve(statements);
+        frameBases = new int[frameSizes.length];
+        for (int depth = 1; depth < frameSizes.length; depth++) {
+            frameBases[depth] = frameBases[depth - 1] + frameSizes[depth - 1];
+        }
+
+        graph = new ControlFlowGraph();
+        definitions.clear();
+        incompletePhis.clear();
+        sealed.clear();
+        replacements.clear();
+
+        current = newBlock();
+        seal(current);
+        undefined = graph.append(current, Instruction.UNDEFINED);
+
+        for (int i = 0; i < statements.size(); i++) {
+            lower(statements.get(i));
+        }
+        graph.append(current, Instruction.RETURN);
+        return graph;
+    }
+
+    private void lower(Statement statement) {
+        if (statement instanceof ExpressionStatement) {
+            lower(((ExpressionStatement) statement).getExpression());
+        }
+        else if (statement instanceof VarStatement) {
+            VarStatement v = (VarStatement) statement;
+            Instruction value = v.getInitializer() == null ? undefined : lower(v.getInitializer());
+            write(variable(v.getDepth(), v.getSlot()), current, value);
+        }
+        else if (statement instanceof PrintStatement) {
+            // Lowered first: '&&' and '||' end in another block
+            Instruction value = lower(((PrintStatement) statement).getExpression());
+            graph.append(current, Instruction.PRINT, value);
+        }
+        else if (statement instanceof IfStatement) {
+            IfStatement i = (IfStatement) statement;
+            Instruction condition = lower(i.getCondition());
+            BasicBlock thenBlock = newBlock();
+            BasicBlock elseBlock = i.getElseBranch() == null ? null : newBlock();
+            BasicBlock join = newBlock();
+            branch(condition, thenBlock, elseBlock == null ? join : elseBlock);
+
+            seal(thenBlock);
+            current = thenBlock;
+            lower(i.getThenBranch());
+            jump(join);
+
+            if (elseBlock != null) {
+                seal(elseBlock);
+                current = elseBlock;
+                lower(i.getElseBranch());
+                jump(join);
+            }
+
+            seal(join);
+            current = join;
+        }
+        else if (statement instanceof WhileStatement) {
+            WhileStatement w = (WhileStatement) statement;
+            // Not sealed until the body has jumped back
+            BasicBlock header = newBlock();
+            jump(header);
+            current = header;
+
+            Instruction condition = lower(w.getCondition());
+            BasicBlock body = newBlock();
+            BasicBlock exit = newBlock();
+            branch(condition, body, exit);
+
+            seal(body);
+            current = body;
+            lower(w.getBody());
+            jump(header);
+            seal(header);
+
+            seal(exit);
+            current = exit;
+        }
+        else if (statement instanceof BlockStatement) {
+            List<Statement> statements = ((BlockStatement) statement).getStatements();
+            for (int i = 0; i < statements.size(); i++) {
+                lower(statements.get(i));
+            }
+        }
+        else {
+            throw new EvaluationException("[Runtime Error] Unsupported statement: " + statement.getClass().getName());
+        }
+    }
+
+    private Instruction lower(Expression expression) {
+        if (expression instanceof NumberExpression) {
+            Instruction constant = graph.append(current, Instruction.CONST);
+            constant.setConstant(((NumberExpression) expression).getValue(), ValueKind.NUMBER);
+            return constant;
+        }
+        else if (expression instanceof VariableExpression) {
+            VariableExpression v = (VariableExpression) expression;
+            Instruction read = graph.append(current, Instruction.READ, read(variable(v.getDepth(), v.getSlot()), current));
+            read.setName(v.getName());
+            return read;
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            Instruction value = lower(assign.getValue());
+            write(variable(assign.getDepth(), assign.getSlot()), current, value);
+            return value;
+        }
+        else if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            if (unary.getOperator() != TokenType.MINUS) {
+                throw new EvaluationException("[Runtime Error] Unsupported unary operator " + unary.getOperator() + ".");
+            }
+            Instruction right = lower(unary.getRight());
+            return graph.append(current, Instruction.NEG, right);
+        }
+        else if (expression instanceof BinaryExpression) {
+            return lowerBinary((BinaryExpression) expression);
+        }
+
+        throw new EvaluationException("[Runtime Error] Unsupported expression: " + expression.getClass().getName());
+    }
+
+    private Instruction lowerBinary(BinaryExpression binary) {
+        TokenType operator = binary.getOperator();
+
+        if (operator == TokenType.AND || operator == TokenType.OR) {
+            Instruction left = requireBoolean(operator, lower(binary.getLeft()));
+            BasicBlock leftEnd = current;
+            BasicBlock rightBlock = newBlock();
+            BasicBlock join = newBlock();
+            // The left operand is the result when it is false for '&&' and true for '||'
+            if (operator == TokenType.AND) {
+                branch(left, rightBlock, join);
+            } else {
+                branch(left, join, rightBlock);
+            }
+
+            seal(rightBlock);
+            current = rightBlock;
+            Instruction right = requireBoolean(operator, lower(binary.getRight()));
+            jump(join);
+
+            seal(join);
+            current = join;
+            Instruction phi = graph.phi(join);
+            for (BasicBlock predecessor : join.getPredecessors()) {
+                phi.addOperand(predecessor == leftEnd ? left : right);
+            }
+            return phi;
+        }
+
+        Instruction left = lower(binary.getLeft());
+        Instruction right = lower(binary.getRight());
+        Instruction instruction = graph.append(current, Instruction.BINARY, left, right);
+        instruction.setOperator(operator);
+        return instruction;
+    }
+
+    private Instruction requireBoolean(TokenType operator, Instruction value) {
+        Instruction check = graph.append(current, Instruction.REQUIRE_BOOLEAN, value);
+        check.setOperator(operator);
+        return check;
+    }
+
+    private int variable(int depth, int slot) {
+        return frameBases[depth] + slot;
+    }
+
+    private BasicBlock newBlock() {
+        definitions.add(new HashMap<>());
+        incompletePhis.add(new HashMap<>());
+        sealed.add(false);
+        return graph.newBlock();
+    }
+
+    private void jump(BasicBlock target) {
+        graph.append(current, Instruction.JUMP);
+        current.addSuccessor(target);
+    }
+
+    private void branch(Instruction condition, BasicBlock whenTrue, BasicBlock whenFalse) {
+        graph.append(current, Instruction.BRANCH, condition);
+        current.addSuccessor(whenTrue);
+        current.addSuccessor(whenFalse);
+    }
+
+    // SSA construction
+
+    private void write(int variable, BasicBlock block, Instruction value) {
+        definitions.get(block.getId()).put(variable, value);
+    }
+
+    private Instruction read(int variable, BasicBlock block) {
+        Instruction value = definitions.get(block.getId()).get(variable);
+        if (value == null) {
+            return readRecursive(variable, block);
+        }
+        // Definitions may still point to a phi removed later
+        return resolve(value);
+    }
+
+    private Instruction readRecursive(int variable, BasicBlock block) {
+        Instruction value;
+        List<BasicBlock> predecessors = block.getPredecessors();
+        if (!sealed.get(block.getId())) {
+            value = graph.phi(block);
+            incompletePhis.get(block.getId()).put(variable, value);
+        } else if (predecessors.isEmpty()) {
+            // Never written on the way from the entry: a read there is not reachable
+            value = undefined;
+        } else if (predecessors.size() == 1) {
+            value = read(variable, predecessors.get(0));
+        } else {
+            // Written first, so a loop back to this block finds the phi
+            Instruction phi = graph.phi(block);
+            write(variable, block, phi);
+            value = addPhiOperands(variable, phi);
+        }
+        write(variable, block, value);
+        return value;
+    }
+
+    private Instruction addPhiOperands(int variable, Instruction phi) {
+        for (BasicBlock predecessor : phi.getBlock().getPredecessors()) {
+            phi.addOperand(read(variable, predecessor));
+        }
+        return tryRemoveTrivialPhi(phi);
+    }
+
+    private Instruction tryRemoveTrivialPhi(Instruction phi) {
+        Instruction same = null;
+        for (Instruction operand : phi.getOperands()) {
+            if (operand == same || operand == phi) {
+                continue;
+            }
+            if (same != null) {
+                return phi;
+            }
+            same = operand;
+        }
+        if (same == null) {
+            same = undefined;
+        }
+
+        List<Instruction> users = new ArrayList<>(phi.getUsers());
+        users.removeIf(user -> user == phi);
+        phi.replaceBy(same);
+        phi.dropOperands();
+        phi.getBlock().getPhis().remove(phi);
+        replacements.put(phi, same);
+
+        for (Instruction user : users) {
+            if (user.getOp() == Instruction.PHI && user.getBlock().getPhis().contains(user)) {
+                tryRemoveTrivialPhi(user);
+            }
+        }
+        // Removing the users may have removed 'same' as well
+        return resolve(same);
+    }
+
+    private Instruction resolve(Instruction value) {
+        while (replacements.containsKey(value)) {
+            value = replacements.get(value);
+        }
+        return value;
+    }
+
+    private void seal(BasicBlock block) {
+        for (Map.Entry<Integer, Instruction> entry : incompletePhis.get(block.getId()).entrySet()) {
+            addPhiOperands(entry.getKey(), entry.getValue());
+        }
+        incompletePhis.get(block.getId()).clear();
+        sealed.set(block.getId(), true);
+    }
+}
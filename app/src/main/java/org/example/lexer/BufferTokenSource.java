@@ -0,0 +1,82 @@
+package org.example.lexer;
+
+/**
+ * Parser cursor over a {@link TokenBuffer}. Types, text and symbols are read
+ * straight from the buffer; Token objects are only built for peek()/previous().
+ * A cursor can be limited to a range of the buffer, it then reads EOF at
+ * the end of the range.
+ */
+public class BufferTokenSource implements TokenSource {
+    private final TokenBuffer tokens;
+    private final int end;
+    private int position;
+
+    public BufferTokenSource(TokenBuffer tokens) {
+        this(tokens, 0, tokens.size() - 1);
+    }
+
+    /**
+     * @param from Index of the first token
+     * @param to Index read as EOF; the buffer's EOF index for the whole buffer
+     */
+    public BufferTokenSource(TokenBuffer tokens, int from, int to) {
+        this.tokens = tokens;
+        this.end = to;
+        this.position = from;
+    }
+
+    @Override
+    public LineMap getLineMap() {
+        return tokens.getLineMap();
+    }
+
+    @Override
+    public Token peek() {
+        if (position == end) {
+            return new Token(TokenType.EOF, "", tokens.getStart(end));
+        }
+        return tokens.getToken(position);
+    }
+
+    @Override
+    public Token previous() {
+        return tokens.getToken(position - 1);
+    }
+
+    @Override
+    public void advance() {
+        if (position < end) {
+            position++;
+        }
+    }
+
+    @Override
+    public TokenType peekType() {
+        return position == end ? TokenType.EOF : tokens.getType(position);
+    }
+
+    @Override
+    public TokenType previousType() {
+        return tokens.getType(position - 1);
+    }
+
+    @Override
+    public String previousValue() {
+        return tokens.getText(position - 1);
+    }
+
+    @Override
+    public int previousSymbol() {
+        return tokens.getSymbol(position - 1);
+    }
+
+    @Override
+    public int peekPosition() {
+        return tokens.getStart(position);
+    }
+
+    @Override
+    public int previousPosition() {
+        return tokens.getStart(position - 1);
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.lexer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parser cursor fed by a {@link Lexer} running on its own producer thread.
+ * Tokens are handed over through a bounded single-producer single-consumer
+ * ring: each side only writes its own counter, so no locks are taken, and
+ * a full or empty ring makes that side spin, then yield, then park briefly.
+ * At most capacity tokens are in flight.
+ *
+ * A lexer error is rethrown to the parser when it reaches the point of the
+ * input where lexing failed. Close the source when the parser is done with
+ * it early, otherwise the producer may wait for ring space forever.
+ */
+public class ConcurrentTokenSource implements TokenSource, AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final int SPINS = 100;
+    private static final int YIELDS = 1000;
+
+    private final Lexer lexer;
+    private final Token[] ring;
+    private final int mask;
+
+    // Next slot to read, written by the consumer only
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write, written by the producer only
+    private final AtomicLong tail = new AtomicLong();
+
+    private final Thread producer;
+    private volatile boolean closed;
+    // Set by the producer after publishing the tokens lexed before the error
+    private volatile Throwable failure;
+
+    private Token current;
+    private Token previous;
+
+    public ConcurrentTokenSource(Lexer lexer) {
+        this(lexer, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Ring size in tokens, rounded up to a power of two
+     */
+    public ConcurrentTokenSource(Lexer lexer, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.lexer = lexer;
+        this.ring = new Token[Integer.highestOneBit(Math.max(2, capacity) * 2 - 1)];
+        this.mask = ring.length - 1;
+
+        this.producer = new Thread(this::produce, "token-producer");
+        this.producer.setDaemon(true);
+        this.producer.start();
+
+        this.current = take();
+    }
+
+    /**
+     * Stops the producer first: the lexer's line map is only safe to read
+     * from this thread once the producer is no longer adding to it. Meant
+     * for error reporting; later tokens can no longer be read afterwards.
+     */
+    @Override
+    public LineMap getLineMap() {
+        close();
+        return lexer.getLineMap();
+    }
+
+    @Override
+    public Token peek() {
+        return current;
+    }
+
+    @Override
+    public Token previous() {
+        return previous;
+    }
+
+    @Override
+    public void advance() {
+        if (current.getType() != TokenType.EOF) {
+            previous = current;
+            current = take();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(producer);
+        boolean interrupted = false;
+        while (producer.isAlive()) {
+            try {
+                producer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void produce() {
+        long next = tail.get();
+        try {
+            Token token;
+            do {
+                token = lexer.nextToken();
+                int idle = 0;
+                while (next - head.get() == ring.length) {
+                    if (closed) {
+                        return;
+                    }
+                    idle = backOff(idle);
+                }
+                ring[(int) next & mask] = token;
+                tail.lazySet(++next);
+            } while (token.getType() != TokenType.EOF && !closed);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+    }
+
+    private Token take() {
+        long slot = head.get();
+        int idle = 0;
+        while (slot == tail.get()) {
+            Throwable failed = failure;
+            // Tokens published before the failure still come first
+            if (failed != null && slot == tail.get()) {
+                if (failed instanceof Error error) {
+                    throw error;
+                }
+                throw (RuntimeException) failed;
+            }
+            if (closed) {
+                throw new IllegalStateException("Token source is closed");
+            }
+            idle = backOff(idle);
+        }
+
+        int index = (int) slot & mask;
+        Token token = ring[index];
+        ring[index] = null;
+        head.lazySet(slot + 1);
+        return token;
+    }
+
+    private static int backOff(int idle) {
+        if (idle < SPINS) {
+            Thread.onSpinWait();
+        } else if (idle < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+        return idle + 1;
+    }
+}
@@ -0,0 +1,267 @@
+package org.example.lexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.example.exception.ParseException;
+
+/**
+ * Table-driven alternative to {@link Lexer}. Chars are mapped to classes
+ * through a precomputed ASCII table, and tokens are recognized by walking a
+ * state-transition table with maximal munch. Keywords and operators are
+ * states of that table, so they are recognized without building a String.
+ * Produces exactly the same tokens as {@link Lexer}.
+ */
+public class DfaLexer {
+    private static final int CLASS_OTHER = 0;
+    private static final int CLASS_WHITESPACE = 1;
+    private static final int CLASS_DIGIT = 2;
+    private static final int CLASS_LETTER = 3;
+    // Every char used by a keyword or an operator gets a class of its own
+    private static final int FIRST_CHAR_CLASS = 4;
+
+    private static final int START = 0;
+    private static final int NUMBER = 1;
+    private static final int WORD = 2;
+    private static final int DEAD = -1;
+
+    private static final byte[] ASCII_CLASSES = new byte[128];
+    private static final int CLASS_COUNT;
+
+    private static final int[] TRANSITIONS;
+    private static final TokenType[] ACCEPTING;
+    // Canonical text of keyword and operator states, shared by every token
+    private static final String[] FIXED_TEXT;
+
+    static {
+        int nextClass = FIRST_CHAR_CLASS;
+        for (char c = 0; c < ASCII_CLASSES.length; c++) {
+            ASCII_CLASSES[c] = (byte) classifyByCharacter(c);
+        }
+        for (var word : concat(Lexer.keywords, Lexer.operators)) {
+            for (char c : word.toCharArray()) {
+                if (ASCII_CLASSES[c] < FIRST_CHAR_CLASS) {
+                    ASCII_CLASSES[c] = (byte) nextClass++;
+                }
+            }
+        }
+        CLASS_COUNT = nextClass;
+
+        var table = new TableBuilder();
+        Lexer.keywords.forEach(table::addFixedToken);
+        Lexer.operators.forEach(table::addFixedToken);
+        TRANSITIONS = Arrays.copyOf(table.transitions, table.stateCount * CLASS_COUNT);
+        ACCEPTING = Arrays.copyOf(table.accepting, table.stateCount);
+        FIXED_TEXT = Arrays.copyOf(table.fixedText, table.stateCount);
+    }
+
+    private final CharSequence input;
+    private final int length;
+
+    private final LineMap lines;
+    private final SymbolTable symbols = new SymbolTable();
+
+    private int position;
+
+    private int tokenStart;
+    private int tokenState;
+
+    public DfaLexer(CharSequence input) {
+        this.input = input;
+        this.length = input.length();
+        this.lines = new LineMap();
+    }
+
+    public LineMap getLineMap() {
+        return lines;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    public List<Token> tokenize() throws ParseException {
+        List<Token> result = new ArrayList<>();
+
+        TokenType type;
+        while ((type = scanToken()) != TokenType.EOF) {
+            if (type == TokenType.ID) {
+                int symbol = symbols.intern(input, tokenStart, position);
+                result.add(new Token(type, symbols.getName(symbol), tokenStart, symbol));
+                continue;
+            }
+            var text = FIXED_TEXT[tokenState];
+            if (text == null) {
+                text = input.subSequence(tokenStart, position).toString();
+            }
+            result.add(new Token(type, text, tokenStart));
+        }
+
+        result.add(new Token(TokenType.EOF, "", position));
+
+        return result;
+    }
+
+    public TokenBuffer tokenizeToBuffer() throws ParseException {
+        TokenBuffer result = new TokenBuffer(input, lines, symbols);
+
+        TokenType type;
+        do {
+            type = scanToken();
+            int symbol = type == TokenType.ID ? symbols.intern(input, tokenStart, position) : -1;
+            result.add(type, tokenStart, position - tokenStart, symbol);
+        } while (type != TokenType.EOF);
+
+        return result;
+    }
+
+    private TokenType scanToken() throws ParseException {
+        int index = position;
+        while (index < length) {
+            char current = input.charAt(index);
+            if (classOf(current) != CLASS_WHITESPACE) {
+                break;
+            }
+            index++;
+            if (current == '\n') {
+                lines.addLineStart(index);
+            }
+        }
+
+        tokenStart = index;
+        position = index;
+
+        if (index >= length) {
+            return TokenType.EOF;
+        }
+
+        // Longest match; only operators can pass through a non-accepting state
+        int state = START;
+        int acceptedState = DEAD;
+        int acceptedEnd = index;
+        while (index < length) {
+            int next = TRANSITIONS[state * CLASS_COUNT + classOf(input.charAt(index))];
+            if (next == DEAD) {
+                break;
+            }
+            state = next;
+            index++;
+            if (ACCEPTING[state] != null) {
+                acceptedState = state;
+                acceptedEnd = index;
+            }
+        }
+
+        if (acceptedState == DEAD) {
+            throw new ParseException(String.format("[Lexer Error] Unexpected character '%s' at Line %d, Column %d",
+                    input.charAt(tokenStart), lines.getLine(tokenStart), lines.getColumn(tokenStart)));
+        }
+
+        position = acceptedEnd;
+        tokenState = acceptedState;
+        return ACCEPTING[acceptedState];
+    }
+
+    private static int classOf(char c) {
+        return c < ASCII_CLASSES.length ? ASCII_CLASSES[c] : classifyByCharacter(c);
+    }
+
+    // Same checks, in the same order, as Lexer uses
+    private static int classifyByCharacter(char c) {
+        if (Character.isWhitespace(c)) {
+            return CLASS_WHITESPACE;
+        } else if (Character.isDigit(c)) {
+            return CLASS_DIGIT;
+        } else if (Character.isLetter(c)) {
+            return CLASS_LETTER;
+        }
+        return CLASS_OTHER;
+    }
+
+    private static boolean isWordClass(int charClass) {
+        if (charClass == CLASS_DIGIT || charClass == CLASS_LETTER) {
+            return true;
+        }
+        if (charClass < FIRST_CHAR_CLASS) {
+            return false;
+        }
+        for (char c = 0; c < ASCII_CLASSES.length; c++) {
+            if (ASCII_CLASSES[c] == charClass) {
+                return Character.isLetterOrDigit(c);
+            }
+        }
+        return false;
+    }
+
+    private static List<String> concat(Map<String, TokenType> first, Map<String, TokenType> second) {
+        List<String> result = new ArrayList<>(first.keySet());
+        result.addAll(second.keySet());
+        return result;
+    }
+
+    private static class TableBuilder {
+        private int[] transitions = new int[0];
+        private TokenType[] accepting = new TokenType[0];
+        private String[] fixedText = new String[0];
+        private int stateCount;
+
+        TableBuilder() {
+            newState(null);
+            newState(TokenType.NUMBER);
+            newState(TokenType.ID);
+
+            for (int c = 0; c < CLASS_COUNT; c++) {
+                if (isWordClass(c)) {
+                    setTransition(WORD, c, WORD);
+                    if (c != CLASS_DIGIT) {
+                        setTransition(START, c, WORD);
+                    }
+                }
+            }
+            setTransition(START, CLASS_DIGIT, NUMBER);
+            setTransition(NUMBER, CLASS_DIGIT, NUMBER);
+        }
+
+        // Threads a keyword or operator through the table, branching off the
+        // shared word state where needed
+        void addFixedToken(String text, TokenType type) {
+            int state = START;
+            for (char c : text.toCharArray()) {
+                int charClass = ASCII_CLASSES[c];
+                int next = transitions[state * CLASS_COUNT + charClass];
+                if (next == DEAD || next == WORD) {
+                    boolean word = next == WORD;
+                    next = newState(word ? TokenType.ID : null);
+                    if (word) {
+                        // A keyword prefix still continues as an ordinary identifier
+                        for (int other = 0; other < CLASS_COUNT; other++) {
+                            if (isWordClass(other)) {
+                                setTransition(next, other, WORD);
+                            }
+                        }
+                    }
+                    setTransition(state, charClass, next);
+                }
+                state = next;
+            }
+            accepting[state] = type;
+            fixedText[state] = text;
+        }
+
+        private int newState(TokenType acceptedType) {
+            int state = stateCount++;
+            transitions = Arrays.copyOf(transitions, stateCount * CLASS_COUNT);
+            Arrays.fill(transitions, state * CLASS_COUNT, stateCount * CLASS_COUNT, DEAD);
+            accepting = Arrays.copyOf(accepting, stateCount);
+            fixedText = Arrays.copyOf(fixedText, stateCount);
+            accepting[state] = acceptedType;
+            return state;
+        }
+
+        private void setTransition(int state, int charClass, int next) {
+            transitions[state * CLASS_COUNT + charClass] = next;
+        }
+    }
+}
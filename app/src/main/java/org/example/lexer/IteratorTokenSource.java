@@ -0,0 +1,43 @@
+package org.example.lexer;
+
+import java.util.Iterator;
+
+/**
+ * Adapts a token iterator (for example {@link StreamingLexer}) to the parser.
+ * Only the current and the previous token are retained.
+ */
+public class IteratorTokenSource implements TokenSource {
+    private final Iterator<Token> tokens;
+    private final LineMap lines;
+    private Token current;
+    private Token previous;
+
+    public IteratorTokenSource(Iterator<Token> tokens, LineMap lines) {
+        this.tokens = tokens;
+        this.lines = lines;
+        this.current = tokens.next();
+    }
+
+    @Override
+    public LineMap getLineMap() {
+        return lines;
+    }
+
+    @Override
+    public Token peek() {
+        return current;
+    }
+
+    @Override
+    public Token previous() {
+        return previous;
+    }
+
+    @Override
+    public void advance() {
+        if (current.getType() != TokenType.EOF) {
+            previous = current;
+            current = tokens.next();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.lexer;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -7,13 +9,20 @@ import java.util.List;
 import org.example.exception.ParseException;
 
 public class Lexer {
-    private String input;
+    private CharSequence input;
+    // Lexing stops here; the whole input unless a range was given
+    private final int end;
 
     private int position;
-    private int line;
-    private int column;
+    private final LineMap lines;
 
-    private static final HashMap<String, TokenType> keywords = new HashMap<>();
+    private final SymbolTable symbols = new SymbolTable();
+
+    private int tokenStart;
+    private String tokenText;
+    private int tokenSymbol;
+
+    static final HashMap<String, TokenType> keywords = new HashMap<>();
     static {
         keywords.put("var", TokenType.VAR);
         keywords.put("print", TokenType.PRINT);
@@ -21,8 +30,10 @@ public class Lexer {
         keywords.put("else", TokenType.ELSE);
         keywords.put("while", TokenType.WHILE);
     }
+    // The same keywords, for matching them in the input without building a String
+    private static final String[] keywordNames = keywords.keySet().toArray(new String[0]);
 
-    private static final HashMap<String, TokenType> operators = new HashMap<>();
+    static final HashMap<String, TokenType> operators = new HashMap<>();
     static {
         operators.put("+", TokenType.PLUS);
         operators.put("-", TokenType.MINUS);
@@ -49,109 +60,201 @@ public class Lexer {
 
     }
 
-    public Lexer(String input) {
+    /**
+     * Maps the file into memory and lexes its bytes in place, see {@link MappedSource}
+     * @param path File to lex
+     * @return Lexer over the mapped file
+     */
+    public static Lexer fromFile(Path path) throws IOException {
+        return new Lexer(MappedSource.map(path));
+    }
+
+    public Lexer(CharSequence input) {
+        this(input, 0, input.length());
+    }
+
+    /**
+     * Lexer over part of the input. Token positions stay offsets into the
+     * whole input, but the line map starts at the range, so lines are
+     * counted from the range start.
+     * @param from First char to lex, should be the start of a line
+     * @param to End of the range, exclusive
+     */
+    public Lexer(CharSequence input, int from, int to) {
         this.input = input;
-        this.position = 0;
-        this.line = 1;
-        this.column = 1;
+        this.end = to;
+        this.position = from;
+        this.lines = new LineMap(from);
+    }
+
+    /**
+     * @return Line starts seen so far; complete once tokenizing has finished
+     */
+    public LineMap getLineMap() {
+        return lines;
+    }
+
+    /**
+     * @return Identifiers seen so far; the symbols of this lexer's ID tokens are their ids
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
     }
 
     public List<Token> tokenize() throws ParseException {
         List<Token> result = new ArrayList<>();
-        while (position < input.length()) {
-            var current = peek(input);
 
-            if (Character.isWhitespace(current)) {
-                next();
-            } else if (Character.isDigit(current)) {
-                tokenizeNumber(result);
-            } else if (Character.isLetter(current)) {
-                tokenizeWord(result);
-            } else {
-                tokenizeOperatorOrPunctuation(result);
-            }
+        Token token;
+        while ((token = nextToken()).getType() != TokenType.EOF) {
+            result.add(token);
         }
 
-        result.add(new Token(TokenType.EOF, "", position, line, column));
+        result.add(token);
 
         return result;
     }
 
-    private void tokenizeNumber(List<Token> result) {
-        int startPos = position;
-        int startLine = line;
-        int startColumn = column;
+    /**
+     * Scans one more token on demand. Keeps returning EOF once the input is exhausted.
+     */
+    public Token nextToken() throws ParseException {
+        TokenType type = scanToken();
+        if (type == TokenType.EOF) {
+            return new Token(TokenType.EOF, "", position);
+        }
+
+        var value = tokenText != null ? tokenText : slice(tokenStart, position);
+        return new Token(type, value, tokenStart, tokenSymbol);
+    }
+
+    /**
+     * @return Parser cursor that lexes on the calling thread as the parser advances
+     */
+    public TokenSource cursor() {
+        return new LexerTokenSource(this);
+    }
+
+    /**
+     * Tokenizes the input into a packed buffer. Token text is not copied,
+     * it is sliced from the input when asked for.
+     * @return Token buffer ending with EOF
+     */
+    public TokenBuffer tokenizeToBuffer() throws ParseException {
+        TokenBuffer result = new TokenBuffer(input, lines, symbols);
 
+        TokenType type;
+        do {
+            type = scanToken();
+            result.add(type, tokenStart, position - tokenStart, tokenSymbol);
+        } while (type != TokenType.EOF);
+
+        return result;
+    }
+
+    // Skips whitespace and scans one token, leaving its start in tokenStart
+    private TokenType scanToken() throws ParseException {
+        while (position < end && Character.isWhitespace(peek(input))) {
+            // Tokens never span lines, so this is the only place a newline can be seen
+            if (next() == '\n') {
+                lines.addLineStart(position);
+            }
+        }
+
+        tokenStart = position;
+        tokenText = null;
+        tokenSymbol = -1;
+
+        if (position >= end) {
+            return TokenType.EOF;
+        }
+
+        var current = peek(input);
+        if (Character.isDigit(current)) {
+            return tokenizeNumber();
+        } else if (Character.isLetter(current)) {
+            return tokenizeWord();
+        } else {
+            return tokenizeOperatorOrPunctuation();
+        }
+    }
+
+    private TokenType tokenizeNumber() {
         while (Character.isDigit(peek(input))) {
             next();
         }
 
-        var numberString = input.substring(startPos, position);
-        result.add(new Token(TokenType.NUMBER, numberString, startPos, startLine, startColumn));
+        return TokenType.NUMBER;
     }
 
-    private void tokenizeWord(List<Token> result) {
-        int startPos = position;
-        int startLine = line;
-        int startColumn = column;
-
+    private TokenType tokenizeWord() {
         while (Character.isLetterOrDigit(peek(input))) {
             next();
         }
 
-        var word = input.substring(startPos, position);
-        var type = keywords.getOrDefault(word, TokenType.ID);
+        for (String keyword : keywordNames) {
+            if (matches(keyword)) {
+                tokenText = keyword;
+                return keywords.get(keyword);
+            }
+        }
 
-        result.add(new Token(type, word, startPos, startLine, startColumn));
+        tokenSymbol = symbols.intern(input, tokenStart, position);
+        tokenText = symbols.getName(tokenSymbol);
+        return TokenType.ID;
     }
 
-    private void tokenizeOperatorOrPunctuation(List<Token> result) throws ParseException {
-        int startPos = position;
-        int startLine = line;
-        int startColumn = column;
+    // Whether the word just scanned is the keyword
+    private boolean matches(String keyword) {
+        if (keyword.length() != position - tokenStart) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (keyword.charAt(i) != input.charAt(tokenStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        if (position + 1 < input.length()) {
-            var twoChars = input.substring(position, position + 2);
+    private TokenType tokenizeOperatorOrPunctuation() throws ParseException {
+        if (position + 1 < end) {
+            var twoChars = slice(position, position + 2);
             if (operators.containsKey(twoChars)) {
                 next();
                 next();
-                result.add(new Token(operators.get(twoChars), twoChars, startPos, startLine, startColumn));
-                return;
+                tokenText = twoChars;
+                return operators.get(twoChars);
             }
         }
 
-        var oneChar = input.substring(position, position + 1);
+        var oneChar = slice(position, position + 1);
         if (operators.containsKey(oneChar)) {
             next();
-            result.add(new Token(operators.get(oneChar), oneChar, startPos, startLine, startColumn));
+            tokenText = oneChar;
+            return operators.get(oneChar);
         } else {
             var badChar = peek(input);
             throw new ParseException(String.format("[Lexer Error] Unexpected character '%s' at Line %d, Column %d",
-                    badChar, startLine, startColumn));
+                    badChar, lines.getLine(tokenStart), lines.getColumn(tokenStart)));
         }
     }
 
-    private char peek(String input) {
-        if (position >= input.length()) {
+    private char peek(CharSequence input) {
+        if (position >= end) {
             return '\0';
         }
         return input.charAt(position);
     }
 
+    private String slice(int start, int end) {
+        return input.subSequence(start, end).toString();
+    }
+
     private char next() {
-        if (position >= input.length()) {
+        if (position >= end) {
             return '\0';
         }
 
-        char current = input.charAt(position++);
-
-        if (current == '\n') {
-            line++;
-            column = 1;
-        } else {
-            column++;
-        }
-
-        return current;
+        return input.charAt(position++);
     }
 }
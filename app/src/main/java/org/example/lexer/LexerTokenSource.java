@@ -0,0 +1,40 @@
+package org.example.lexer;
+
+/**
+ * Parser cursor that pulls tokens from a {@link Lexer} one at a time, so
+ * lexing and parsing interleave on the calling thread and no token list is
+ * built. Only the current and the previous token are retained.
+ */
+public class LexerTokenSource implements TokenSource {
+    private final Lexer lexer;
+    private Token current;
+    private Token previous;
+
+    public LexerTokenSource(Lexer lexer) {
+        this.lexer = lexer;
+        this.current = lexer.nextToken();
+    }
+
+    @Override
+    public LineMap getLineMap() {
+        return lexer.getLineMap();
+    }
+
+    @Override
+    public Token peek() {
+        return current;
+    }
+
+    @Override
+    public Token previous() {
+        return previous;
+    }
+
+    @Override
+    public void advance() {
+        if (current.getType() != TokenType.EOF) {
+            previous = current;
+            current = lexer.nextToken();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Source positions service: remembers where lines start and turns a char
+ * offset into a line and column on demand (binary search). Lexers record
+ * line starts while skipping whitespace, so tokens only carry their offset.
+ */
+public class LineMap {
+    private int[] lineStarts;
+    private int size;
+    // Line number of lineStarts[0]; grows when old lines are discarded
+    private int firstLine;
+
+    public LineMap() {
+        this(0);
+    }
+
+    /**
+     * Map whose first line starts at the offset, for lexing part of a source
+     */
+    public LineMap(int firstLineStart) {
+        this.lineStarts = new int[64];
+        this.lineStarts[0] = firstLineStart;
+        this.size = 1;
+        this.firstLine = 1;
+    }
+
+    /**
+     * Builds the map in one pass over the whole source
+     * @param source Source text
+     * @return Map with every line start of the source
+     */
+    public static LineMap of(CharSequence source) {
+        LineMap lines = new LineMap();
+        for (int i = 0; i < source.length(); i++) {
+            if (source.charAt(i) == '\n') {
+                lines.addLineStart(i + 1);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Records that a new line starts at the offset. Offsets have to be added
+     * in increasing order.
+     */
+    public void addLineStart(int offset) {
+        if (size == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, size * 2);
+        }
+        lineStarts[size++] = offset;
+    }
+
+    /**
+     * Appends the lines of a map that continues this one: its first line
+     * start has to be the last line start recorded here.
+     */
+    void append(LineMap next) {
+        if (next.lineStarts[0] != lineStarts[size - 1]) {
+            throw new IllegalArgumentException(String.format(
+                    "Map starting at %d does not continue the line at %d", next.lineStarts[0], lineStarts[size - 1]));
+        }
+        for (int i = 1; i < next.size; i++) {
+            addLineStart(next.lineStarts[i]);
+        }
+    }
+
+    public int getLine(int offset) {
+        return firstLine + indexOf(offset);
+    }
+
+    public int getColumn(int offset) {
+        return offset - lineStarts[indexOf(offset)] + 1;
+    }
+
+    public int getLineCount() {
+        return firstLine + size - 1;
+    }
+
+    /**
+     * Forgets lines that end before the offset. Used by streaming lexers so
+     * the map only covers what the parser can still ask about.
+     */
+    public void discardBefore(int offset) {
+        int keepFrom = indexOf(offset);
+        // Compact lazily, once at least half of the array is dead
+        if (keepFrom > 0 && keepFrom * 2 >= size) {
+            System.arraycopy(lineStarts, keepFrom, lineStarts, 0, size - keepFrom);
+            size -= keepFrom;
+            firstLine += keepFrom;
+        }
+    }
+
+    // Index of the last line start at or before the offset
+    private int indexOf(int offset) {
+        if (offset < lineStarts[0]) {
+            throw new IllegalArgumentException(String.format(
+                    "Offset %d is before the first remembered line start %d", offset, lineStarts[0]));
+        }
+
+        int index = Arrays.binarySearch(lineStarts, 0, size, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.lexer;
+
+import java.util.List;
+import java.util.Objects;
+
+public class ListTokenSource implements TokenSource {
+    private final List<Token> tokens;
+    private final LineMap lines;
+    private int position;
+
+    public ListTokenSource(List<Token> tokens, LineMap lines) {
+        this.tokens = tokens;
+        this.lines = Objects.requireNonNull(lines, "lines");
+        this.position = 0;
+    }
+
+    @Override
+    public LineMap getLineMap() {
+        return lines;
+    }
+
+    @Override
+    public Token peek() {
+        return tokens.get(position);
+    }
+
+    @Override
+    public Token previous() {
+        return tokens.get(position - 1);
+    }
+
+    @Override
+    public void advance() {
+        if (peek().getType() != TokenType.EOF) {
+            position++;
+        }
+    }
+}
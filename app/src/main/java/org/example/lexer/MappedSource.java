@@ -0,0 +1,65 @@
+package org.example.lexer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only CharSequence view over UTF-8 bytes, typically a memory-mapped
+ * file. The lexer scans the bytes in place: ASCII bytes are returned as is,
+ * and every non-ASCII byte reads as a letter, so multi-byte identifiers scan
+ * as a single ID. Only {@link #toString()} decodes, and it does so for just
+ * the requested slice.
+ *
+ * Offsets and columns are byte based. Non-ASCII characters outside
+ * identifiers are accepted as identifier characters here, while the String
+ * based lexer would report them.
+ */
+public final class MappedSource implements CharSequence {
+    // Character.isLetter('\u00AA') is true, which is all the lexer needs to know
+    private static final char NON_ASCII = '\u00AA';
+
+    private final ByteBuffer bytes;
+
+    public MappedSource(ByteBuffer bytes) {
+        this.bytes = bytes.slice();
+    }
+
+    public static MappedSource map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format("%s is %d bytes, only files up to %d bytes can be mapped",
+                        path, size, Integer.MAX_VALUE));
+            }
+            // The mapping stays valid after the channel is closed
+            return new MappedSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    @Override
+    public int length() {
+        return bytes.limit();
+    }
+
+    @Override
+    public char charAt(int index) {
+        byte value = bytes.get(index);
+        return value >= 0 ? (char) value : NON_ASCII;
+    }
+
+    @Override
+    public MappedSource subSequence(int start, int end) {
+        return new MappedSource(bytes.slice(start, end - start));
+    }
+
+    @Override
+    public String toString() {
+        byte[] data = new byte[bytes.limit()];
+        bytes.get(0, data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+}
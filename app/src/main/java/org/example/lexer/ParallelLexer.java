@@ -0,0 +1,216 @@
+package org.example.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.example.exception.ParseException;
+
+/**
+ * Lexes a large source on a ForkJoinPool. No token spans a line, so the
+ * source is cut into segments right after newlines, each segment is lexed
+ * by its own range {@link Lexer}, and the results are joined in order with
+ * one EOF at the end. Positions are offsets into the whole source, so only
+ * the line maps and the symbol tables need stitching; every segment interns
+ * into a table of its own, and merging them in order gives the ids the
+ * sequential lexer would. Produces exactly the same tokens as
+ * {@link Lexer}; if any segment fails, the source is lexed again
+ * sequentially so the reported error is the first one, with its real line.
+ */
+public class ParallelLexer {
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+
+    private final CharSequence input;
+    private final ForkJoinPool pool;
+    private final int segmentSize;
+
+    private LineMap lines;
+    private SymbolTable symbols;
+
+    public ParallelLexer(CharSequence input) {
+        this(input, ForkJoinPool.commonPool(), DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param segmentSize Approximate chars per segment; segments are cut at
+     *                    the first newline after this many chars
+     */
+    public ParallelLexer(CharSequence input, ForkJoinPool pool, int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.input = input;
+        this.pool = pool;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * @return Line starts of the whole source; available once tokenizing has finished
+     */
+    public LineMap getLineMap() {
+        return lines;
+    }
+
+    /**
+     * @return Identifiers of the whole source; available once tokenizing has finished
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    public TokenBuffer tokenizeToBuffer() throws ParseException {
+        Segment[] segments = split();
+        if (!lexAll(segments, true)) {
+            Lexer lexer = new Lexer(input);
+            TokenBuffer result = lexer.tokenizeToBuffer();
+            lines = lexer.getLineMap();
+            symbols = lexer.getSymbols();
+            return result;
+        }
+
+        int tokenCount = 1;
+        for (Segment segment : segments) {
+            tokenCount += segment.buffer.size() - 1;
+        }
+
+        lines = segments[0].lexer.getLineMap();
+        symbols = new SymbolTable();
+        TokenBuffer result = new TokenBuffer(input, lines, symbols, tokenCount);
+        for (int i = 0; i < segments.length; i++) {
+            // Every segment ends with its own EOF, which is dropped
+            result.addAll(segments[i].buffer, segments[i].buffer.size() - 1);
+            if (i > 0) {
+                lines.append(segments[i].lexer.getLineMap());
+            }
+            segments[i] = null;
+        }
+        result.add(TokenType.EOF, input.length(), 0);
+
+        return result;
+    }
+
+    public List<Token> tokenize() throws ParseException {
+        Segment[] segments = split();
+        if (!lexAll(segments, false)) {
+            Lexer lexer = new Lexer(input);
+            List<Token> result = lexer.tokenize();
+            lines = lexer.getLineMap();
+            symbols = lexer.getSymbols();
+            return result;
+        }
+
+        int tokenCount = 1;
+        for (Segment segment : segments) {
+            tokenCount += segment.tokens.size() - 1;
+        }
+
+        lines = segments[0].lexer.getLineMap();
+        symbols = new SymbolTable();
+        List<Token> result = new ArrayList<>(tokenCount);
+        for (int i = 0; i < segments.length; i++) {
+            List<Token> tokens = segments[i].tokens.subList(0, segments[i].tokens.size() - 1);
+            SymbolTable segmentSymbols = segments[i].lexer.getSymbols();
+            int[] ids = new int[segmentSymbols.size()];
+            for (int id = 0; id < ids.length; id++) {
+                ids[id] = symbols.intern(segmentSymbols.getName(id));
+            }
+            for (Token token : tokens) {
+                if (token.getSymbol() >= 0) {
+                    token.setSymbol(ids[token.getSymbol()]);
+                    token.setValue(symbols.getName(token.getSymbol()));
+                }
+            }
+            result.addAll(tokens);
+            if (i > 0) {
+                lines.append(segments[i].lexer.getLineMap());
+            }
+            segments[i] = null;
+        }
+        result.add(new Token(TokenType.EOF, "", input.length()));
+
+        return result;
+    }
+
+    // Cuts the source right after the first newline past every segmentSize chars
+    private Segment[] split() {
+        List<Segment> segments = new ArrayList<>();
+        int length = input.length();
+        int start = 0;
+
+        while (true) {
+            int end = start + segmentSize < length ? start + segmentSize : length;
+            while (end < length && input.charAt(end - 1) != '\n') {
+                end++;
+            }
+            segments.add(new Segment(start, end));
+            if (end >= length) {
+                break;
+            }
+            start = end;
+        }
+
+        return segments.toArray(new Segment[0]);
+    }
+
+    // Returns false if any segment failed to lex
+    private boolean lexAll(Segment[] segments, boolean toBuffer) {
+        var task = new LexSegments(segments, 0, segments.length, toBuffer);
+        pool.invoke(task);
+        return !task.failed;
+    }
+
+    private static class Segment {
+        private final int start;
+        private final int end;
+
+        private Lexer lexer;
+        private TokenBuffer buffer;
+        private List<Token> tokens;
+
+        Segment(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // Halves the segment range until one segment is left, then lexes it
+    private class LexSegments extends RecursiveAction {
+        private final Segment[] segments;
+        private final int from;
+        private final int to;
+        private final boolean toBuffer;
+        private boolean failed;
+
+        LexSegments(Segment[] segments, int from, int to, boolean toBuffer) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.toBuffer = toBuffer;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                var left = new LexSegments(segments, from, middle, toBuffer);
+                var right = new LexSegments(segments, middle, to, toBuffer);
+                invokeAll(left, right);
+                failed = left.failed || right.failed;
+                return;
+            }
+
+            Segment segment = segments[from];
+            segment.lexer = new Lexer(input, segment.start, segment.end);
+            try {
+                if (toBuffer) {
+                    segment.buffer = segment.lexer.tokenizeToBuffer();
+                } else {
+                    segment.tokens = segment.lexer.tokenize();
+                }
+            } catch (ParseException e) {
+                failed = true;
+            }
+        }
+    }
+}
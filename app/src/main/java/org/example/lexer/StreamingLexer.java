@@ -0,0 +1,227 @@
+package org.example.lexer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.example.exception.ParseException;
+
+/**
+ * Lexer that pulls the source in fixed-size chunks and hands out tokens one
+ * at a time. Only the chunk buffer and the token being scanned are kept in
+ * memory; a token crossing a chunk boundary is moved to the front of the
+ * buffer before the next chunk is read. Produces the same tokens as
+ * {@link Lexer}, ending with a single EOF.
+ *
+ * The line map only keeps the lines of the last two tokens handed out,
+ * which is all a parser with one token of lookahead can report on.
+ */
+public class StreamingLexer implements Iterator<Token> {
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final Reader reader;
+
+    private char[] buffer;
+    private int start;
+    private int cursor;
+    private int limit;
+    private long consumed;
+    private boolean exhausted;
+    private boolean finished;
+
+    private int position;
+    private final LineMap lines;
+    private int lastTokenStart;
+    private final SymbolTable symbols = new SymbolTable();
+
+    public StreamingLexer(Reader reader) {
+        this(reader, DEFAULT_CHUNK_SIZE);
+    }
+
+    public StreamingLexer(Reader reader, int chunkSize) {
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("Chunk size must be at least 2, got " + chunkSize);
+        }
+
+        this.reader = reader;
+        this.buffer = new char[chunkSize];
+        this.lines = new LineMap();
+    }
+
+    public StreamingLexer(ReadableByteChannel channel) {
+        this(channel, DEFAULT_CHUNK_SIZE);
+    }
+
+    public StreamingLexer(ReadableByteChannel channel, int chunkSize) {
+        this(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), chunkSize), chunkSize);
+    }
+
+    public LineMap getLineMap() {
+        return lines;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * @return Parser cursor that pulls tokens from this lexer on demand
+     */
+    public TokenSource cursor() {
+        return new IteratorTokenSource(this, lines);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !finished;
+    }
+
+    @Override
+    public Token next() {
+        if (finished) {
+            throw new NoSuchElementException("EOF has already been returned");
+        }
+        return nextToken();
+    }
+
+    private Token nextToken() throws ParseException {
+        start = cursor;
+        while (Character.isWhitespace(peek(0))) {
+            if (advance() == '\n') {
+                lines.addLineStart(position);
+            }
+            start = cursor;
+        }
+
+        // The previous token is the oldest one a parser can still ask about
+        lines.discardBefore(lastTokenStart);
+        lastTokenStart = position;
+
+        int current = peek(0);
+        if (current < 0) {
+            finished = true;
+            return new Token(TokenType.EOF, "", position);
+        }
+
+        if (Character.isDigit(current)) {
+            return tokenizeNumber();
+        } else if (Character.isLetter(current)) {
+            return tokenizeWord();
+        } else {
+            return tokenizeOperatorOrPunctuation();
+        }
+    }
+
+    private Token tokenizeNumber() {
+        int startPos = position;
+
+        while (Character.isDigit(peek(0))) {
+            advance();
+        }
+
+        return new Token(TokenType.NUMBER, text(), startPos);
+    }
+
+    private Token tokenizeWord() {
+        int startPos = position;
+
+        while (Character.isLetterOrDigit(peek(0))) {
+            advance();
+        }
+
+        var word = text();
+        var keyword = Lexer.keywords.get(word);
+        if (keyword != null) {
+            return new Token(keyword, word, startPos);
+        }
+        // Every use of a name shares the interned String, the chunk's copy is dropped
+        int symbol = symbols.intern(word);
+        return new Token(TokenType.ID, symbols.getName(symbol), startPos, symbol);
+    }
+
+    private Token tokenizeOperatorOrPunctuation() throws ParseException {
+        int startPos = position;
+
+        if (peek(1) >= 0) {
+            var twoChars = new String(buffer, cursor, 2);
+            if (Lexer.operators.containsKey(twoChars)) {
+                advance();
+                advance();
+                return new Token(Lexer.operators.get(twoChars), twoChars, startPos);
+            }
+        }
+
+        var oneChar = new String(buffer, cursor, 1);
+        if (Lexer.operators.containsKey(oneChar)) {
+            advance();
+            return new Token(Lexer.operators.get(oneChar), oneChar, startPos);
+        }
+
+        throw new ParseException(String.format("[Lexer Error] Unexpected character '%s' at Line %d, Column %d",
+                oneChar, lines.getLine(startPos), lines.getColumn(startPos)));
+    }
+
+    private String text() {
+        return new String(buffer, start, cursor - start);
+    }
+
+    // Returns the char `ahead` positions after the cursor, or -1 past the end of input
+    private int peek(int ahead) {
+        while (cursor + ahead >= limit) {
+            if (!fill()) {
+                return -1;
+            }
+        }
+        return buffer[cursor + ahead];
+    }
+
+    private char advance() {
+        position++;
+        return buffer[cursor++];
+    }
+
+    private boolean fill() {
+        if (exhausted) {
+            return false;
+        }
+
+        // Keep only the token being scanned, then make room for the next chunk
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, limit - start);
+            cursor -= start;
+            limit -= start;
+            start = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        int read;
+        try {
+            read = reader.read(buffer, limit, buffer.length - limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (read < 0) {
+            exhausted = true;
+            return false;
+        }
+
+        consumed += read;
+        if (consumed > Integer.MAX_VALUE) {
+            // Token positions are int offsets, same as for the String based lexer
+            throw new ParseException(String.format("[Lexer Error] Source is longer than %d characters",
+                    Integer.MAX_VALUE));
+        }
+
+        limit += read;
+        return true;
+    }
+}
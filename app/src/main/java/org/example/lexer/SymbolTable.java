@@ -0,0 +1,161 @@
+package org.example.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Interns identifiers: every distinct name gets a dense int id, 0, 1, 2...
+ * in the order the names are first seen, and its String is kept once, as a
+ * side lookup by id. Lexers intern straight from the source chars, so an
+ * identifier that was seen before costs a hash and a compare, no allocation.
+ * Passes keyed by name can then use plain arrays indexed by id.
+ *
+ * Open addressing over a power-of-two table of ids. Not thread-safe: use
+ * one table per lexer (see {@link ParallelLexer} for merging them).
+ */
+public class SymbolTable {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private String[] names;
+    private int[] hashes;
+    private int size;
+
+    // Id + 1 of the name in every slot; 0 for an empty slot
+    private int[] slots;
+    private int mask;
+
+    public SymbolTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Expected number of distinct names
+     */
+    public SymbolTable(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, capacity) * 2 - 1) * 2;
+        this.names = new String[tableSize / 2];
+        this.hashes = new int[tableSize / 2];
+        this.slots = new int[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /**
+     * Names with non-ASCII chars are interned by their decoded text: a
+     * {@link MappedSource} reads every non-ASCII byte as the same char, so
+     * its chars neither tell such names apart nor match the stored String.
+     * @return Id of the chars from start up to, not including, end
+     */
+    public int intern(CharSequence source, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c >= 0x80) {
+                return intern(source.subSequence(start, end).toString());
+            }
+            hash = 31 * hash + c;
+        }
+        return intern(source, start, end, hash);
+    }
+
+    /**
+     * @return Id of the name
+     */
+    public int intern(String name) {
+        return intern(name, 0, name.length(), name.hashCode());
+    }
+
+    // The hash is String.hashCode() of the name
+    private int intern(CharSequence source, int start, int end, int hash) {
+        int slot = mix(hash) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            int id = entry - 1;
+            if (hashes[id] == hash && matches(names[id], source, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return add(source.subSequence(start, end).toString(), hash, slot);
+    }
+
+    /**
+     * @return Id of the name, or -1 if it was never interned
+     */
+    public int lookup(String name) {
+        int hash = name.hashCode();
+        int slot = mix(hash) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            int id = entry - 1;
+            if (hashes[id] == hash && names[id].equals(name)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The interned name; the same instance for every call with the id
+     */
+    public String getName(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No symbol " + id + " in a table of " + size);
+        }
+        return names[id];
+    }
+
+    /**
+     * @return Number of distinct names, one more than the highest id
+     */
+    public int size() {
+        return size;
+    }
+
+    private int add(String name, int hash, int slot) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        names[id] = name;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+
+        // At most half full, so probe runs stay short
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    // Spreads the high bits of String-style hashes, which short names leave mostly zero
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String name, CharSequence source, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -9,15 +9,18 @@ public class Token {
     private TokenType type;
     private String value;
     private int position;
-    private int line;
-    private int column;
+    // Id of an ID token's name in the lexer's SymbolTable, -1 for every other token
+    private int symbol = -1;
 
-    public Token(TokenType type, String value, int position, int line, int column) {
+    public Token(TokenType type, String value, int position) {
         this.type = type;
         this.value = value;
         this.position = position;
-        this.line = line;
-        this.column = column;
+    }
+
+    public Token(TokenType type, String value, int position, int symbol) {
+        this(type, value, position);
+        this.symbol = symbol;
     }
 
     @Override
@@ -0,0 +1,168 @@
+package org.example.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Packed token storage: one entry per token spread over parallel primitive
+ * arrays instead of a Token object with its own String. Token text is
+ * sliced from the source only when {@link #getText(int)} is called, lines
+ * and columns are looked up in the shared {@link LineMap}. ID tokens carry
+ * their symbol, whose name is kept once in the {@link SymbolTable}.
+ */
+public class TokenBuffer {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final CharSequence source;
+    private final LineMap lines;
+    private final SymbolTable symbolTable;
+
+    private byte[] types;
+    private int[] starts;
+    private int[] lengths;
+    private int[] symbols;
+    private int size;
+
+    public TokenBuffer(CharSequence source, LineMap lines, SymbolTable symbolTable) {
+        this(source, lines, symbolTable, DEFAULT_CAPACITY);
+    }
+
+    public TokenBuffer(CharSequence source, LineMap lines, SymbolTable symbolTable, int capacity) {
+        this.source = source;
+        this.lines = lines;
+        this.symbolTable = symbolTable;
+        this.types = new byte[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.symbols = new int[capacity];
+    }
+
+    public void add(TokenType type, int start, int length) {
+        add(type, start, length, -1);
+    }
+
+    /**
+     * @param symbol Id of an ID token's name in the buffer's SymbolTable, -1 for other tokens
+     */
+    public void add(TokenType type, int start, int length, int symbol) {
+        if (size == types.length) {
+            grow();
+        }
+
+        types[size] = (byte) type.ordinal();
+        starts[size] = start;
+        lengths[size] = length;
+        symbols[size] = symbol;
+        size++;
+    }
+
+    /**
+     * Copies the first count tokens of another buffer over the same source.
+     * Symbols are interned again into this buffer's table.
+     */
+    void addAll(TokenBuffer other, int count) {
+        while (size + count > types.length) {
+            grow();
+        }
+
+        System.arraycopy(other.types, 0, types, size, count);
+        System.arraycopy(other.starts, 0, starts, size, count);
+        System.arraycopy(other.lengths, 0, lengths, size, count);
+
+        int[] ids = new int[other.symbolTable.size()];
+        for (int id = 0; id < ids.length; id++) {
+            ids[id] = symbolTable.intern(other.symbolTable.getName(id));
+        }
+        for (int i = 0; i < count; i++) {
+            int symbol = other.symbols[i];
+            symbols[size + i] = symbol < 0 ? -1 : ids[symbol];
+        }
+        size += count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public CharSequence getSource() {
+        return source;
+    }
+
+    public LineMap getLineMap() {
+        return lines;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public TokenType getType(int index) {
+        return TYPES[types[index]];
+    }
+
+    public int getStart(int index) {
+        return starts[index];
+    }
+
+    public int getLength(int index) {
+        return lengths[index];
+    }
+
+    /**
+     * @return Symbol of an ID token, -1 for any other token
+     */
+    public int getSymbol(int index) {
+        return symbols[index];
+    }
+
+    public int getLine(int index) {
+        return lines.getLine(starts[index]);
+    }
+
+    public int getColumn(int index) {
+        return lines.getColumn(starts[index]);
+    }
+
+    public String getText(int index) {
+        if (symbols[index] >= 0) {
+            return symbolTable.getName(symbols[index]);
+        }
+        return source.subSequence(starts[index], starts[index] + lengths[index]).toString();
+    }
+
+    /**
+     * Builds a standalone Token for the entry. Meant for diagnostics and
+     * interop with the List&lt;Token&gt; API, not for the hot path.
+     */
+    public Token getToken(int index) {
+        return new Token(getType(index), getText(index), starts[index], symbols[index]);
+    }
+
+    public TokenSource cursor() {
+        return new BufferTokenSource(this);
+    }
+
+    /**
+     * @return Cursor over the tokens from index from up to, not including, to;
+     * it reads EOF at index to
+     */
+    public TokenSource cursor(int from, int to) {
+        return new BufferTokenSource(this, from, to);
+    }
+
+    /**
+     * @return Bytes held by the token arrays, including unused capacity
+     */
+    public long getFootprint() {
+        long arrayHeader = 16;
+        return 4 * arrayHeader + types.length + 4L * (starts.length + lengths.length + symbols.length);
+    }
+
+    private void grow() {
+        int capacity = Math.max(DEFAULT_CAPACITY, types.length + (types.length >> 1));
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        symbols = Arrays.copyOf(symbols, capacity);
+    }
+}
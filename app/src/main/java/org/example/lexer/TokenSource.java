@@ -0,0 +1,55 @@
+package org.example.lexer;
+
+/**
+ * Cursor over a token sequence as seen by the parser: the current token and
+ * the one consumed right before it. Implementations only have to keep that
+ * much lookahead around, so tokens may be produced on demand.
+ */
+public interface TokenSource {
+    /**
+     * @return The current (not yet consumed) token
+     */
+    Token peek();
+
+    /**
+     * @return The most recently consumed token
+     */
+    Token previous();
+
+    /**
+     * Consumes the current token. The cursor never moves past EOF.
+     */
+    void advance();
+
+    /**
+     * @return Line starts of the underlying source, or null if unknown
+     */
+    LineMap getLineMap();
+
+    // Shortcuts for the parser's hot path. Sources that do not hold Token
+    // objects override them to avoid materializing one per call.
+
+    default TokenType peekType() {
+        return peek().getType();
+    }
+
+    default TokenType previousType() {
+        return previous().getType();
+    }
+
+    default String previousValue() {
+        return previous().getValue();
+    }
+
+    default int previousSymbol() {
+        return previous().getSymbol();
+    }
+
+    default int peekPosition() {
+        return peek().getPosition();
+    }
+
+    default int previousPosition() {
+        return previous().getPosition();
+    }
+}
@@ -0,0 +1,278 @@
+package org.example.optimizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.core.ASTWalker;
+import org.example.interpreter.ValueKind;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Folds constant subexpressions and removes code that can never run.
+ *
+ * Arithmetic on numbers becomes a {@link NumberExpression}. There is no
+ * boolean literal, so a constant comparison stays a comparison (of two
+ * numbers, if that is smaller), but an if whose condition is constant is
+ * replaced by the branch it takes and a while whose condition is
+ * constantly false is dropped. Blocks that declare nothing are flattened
+ * into the enclosing list; blocks with declarations keep their scope.
+ *
+ * The program behaves exactly as before: anything that would fail at run
+ * time (e.g. a number used as a condition) is left as it is. Unchanged
+ * subtrees are shared with the input, which itself is not modified.
+ */
+public class ConstantFolder {
+    private final ASTWalker walker = new ASTWalker();
+
+    private int removedNodes;
+
+    // Set by fold(Expression): kind of the folded expression if it is constant, UNSET otherwise
+    private byte constantKind;
+    private double constantValue;
+
+    /**
+     * @param statements Parsed program, resolved or not
+     * @return Folded program; resolve it again before running it
+     */
+    public List<Statement> fold(List<Statement> statements) {
+        List<Statement> folded = new ArrayList<>();
+        foldInto(statements, folded);
+        removedNodes = countNodes(statements) - countNodes(folded);
+        return folded;
+    }
+
+    /**
+     * @return How many AST nodes the last {@link #fold} call removed
+     */
+    public int getRemovedNodes() {
+        return removedNodes;
+    }
+
+    private void foldInto(List<Statement> statements, List<Statement> out) {
+        for (int i = 0; i < statements.size(); i++) {
+            Statement statement = fold(statements.get(i));
+            if (statement == null) {
+                continue;
+            }
+            if (statement instanceof BlockStatement && !declares((BlockStatement) statement)) {
+                out.addAll(((BlockStatement) statement).getStatements());
+            } else {
+                out.add(statement);
+            }
+        }
+    }
+
+    // Returns null if the statement does nothing
+    private Statement fold(Statement statement) {
+        if (statement instanceof ExpressionStatement) {
+            Expression expression = ((ExpressionStatement) statement).getExpression();
+            Expression folded = fold(expression);
+            return folded == expression ? statement : new ExpressionStatement(folded);
+        }
+        else if (statement instanceof VarStatement) {
+            VarStatement v = (VarStatement) statement;
+            if (v.getInitializer() == null) {
+                return statement;
+            }
+            Expression folded = fold(v.getInitializer());
+            return folded == v.getInitializer() ? statement : new VarStatement(v.getName(), v.getSymbol(), folded);
+        }
+        else if (statement instanceof PrintStatement) {
+            Expression expression = ((PrintStatement) statement).getExpression();
+            Expression folded = fold(expression);
+            return folded == expression ? statement : new PrintStatement(folded);
+        }
+        else if (statement instanceof IfStatement) {
+            IfStatement i = (IfStatement) statement;
+            Expression condition = fold(i.getCondition());
+            if (constantKind == ValueKind.BOOLEAN) {
+                // A branch is never a bare declaration, so it can replace the if as it is
+                if (constantValue != 0) {
+                    return fold(i.getThenBranch());
+                }
+                return i.getElseBranch() == null ? null : fold(i.getElseBranch());
+            }
+            Statement thenBranch = branch(i.getThenBranch());
+            Statement elseBranch = i.getElseBranch() == null ? null : branch(i.getElseBranch());
+            if (condition == i.getCondition() && thenBranch == i.getThenBranch() && elseBranch == i.getElseBranch()) {
+                return statement;
+            }
+            return new IfStatement(condition, thenBranch, elseBranch);
+        }
+        else if (statement instanceof WhileStatement) {
+            WhileStatement w = (WhileStatement) statement;
+            Expression condition = fold(w.getCondition());
+            if (constantKind == ValueKind.BOOLEAN && constantValue == 0) {
+                return null;
+            }
+            Statement body = branch(w.getBody());
+            if (condition == w.getCondition() && body == w.getBody()) {
+                return statement;
+            }
+            return new WhileStatement(condition, body);
+        }
+        else if (statement instanceof BlockStatement) {
+            List<Statement> statements = ((BlockStatement) statement).getStatements();
+            List<Statement> folded = new ArrayList<>(statements.size());
+            foldInto(statements, folded);
+            return folded.equals(statements) ? statement : new BlockStatement(folded);
+        }
+        return statement;
+    }
+
+    // A statement that has to stay, e.g. the body of a loop
+    private Statement branch(Statement statement) {
+        Statement folded = fold(statement);
+        return folded == null ? new BlockStatement(new ArrayList<>()) : folded;
+    }
+
+    private Expression fold(Expression expression) {
+        if (expression instanceof NumberExpression) {
+            constant(ValueKind.NUMBER, ((NumberExpression) expression).getValue());
+            return expression;
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            Expression value = fold(assign.getValue());
+            constantKind = ValueKind.UNSET;
+            return value == assign.getValue() ? expression : new AssignExpression(assign.getName(), assign.getSymbol(), value);
+        }
+        else if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            Expression right = fold(unary.getRight());
+            if (unary.getOperator() == TokenType.MINUS && constantKind == ValueKind.NUMBER) {
+                return number(-constantValue);
+            }
+            constantKind = ValueKind.UNSET;
+            return right == unary.getRight() ? expression : new UnaryExpression(unary.getOperator(), right);
+        }
+        else if (expression instanceof BinaryExpression) {
+            return foldBinary((BinaryExpression) expression);
+        }
+
+        constantKind = ValueKind.UNSET;
+        return expression;
+    }
+
+    private Expression foldBinary(BinaryExpression binary) {
+        TokenType operator = binary.getOperator();
+
+        Expression left = fold(binary.getLeft());
+        byte leftKind = constantKind;
+        double leftValue = constantValue;
+
+        if (operator == TokenType.AND || operator == TokenType.OR) {
+            // A constant left operand that decides the result skips the right one
+            boolean deciding = operator == TokenType.OR;
+            if (leftKind == ValueKind.BOOLEAN && (leftValue != 0) == deciding) {
+                return booleanConstant(deciding, binary);
+            }
+            Expression right = fold(binary.getRight());
+            if (leftKind == ValueKind.BOOLEAN && constantKind == ValueKind.BOOLEAN) {
+                return booleanConstant(constantValue != 0, binary);
+            }
+            constantKind = ValueKind.UNSET;
+            return rebuild(binary, left, right);
+        }
+
+        Expression right = fold(binary.getRight());
+        byte rightKind = constantKind;
+        double rightValue = constantValue;
+
+        if (leftKind == ValueKind.UNSET || rightKind == ValueKind.UNSET) {
+            constantKind = ValueKind.UNSET;
+            return rebuild(binary, left, right);
+        }
+
+        switch (operator) {
+            case EQEQ:
+                return booleanConstant(leftKind == rightKind && leftValue == rightValue, binary);
+            case NEQ:
+                return booleanConstant(leftKind != rightKind || leftValue != rightValue, binary);
+            default:
+                break;
+        }
+
+        // Anything else on a boolean fails at run time, so it is kept
+        if (leftKind != ValueKind.NUMBER || rightKind != ValueKind.NUMBER) {
+            constantKind = ValueKind.UNSET;
+            return rebuild(binary, left, right);
+        }
+
+        switch (operator) {
+            case PLUS:
+                return number(leftValue + rightValue);
+            case MINUS:
+                return number(leftValue - rightValue);
+            case STAR:
+                return number(leftValue * rightValue);
+            case SLASH:
+                return number(leftValue / rightValue);
+            case LT:
+                return booleanConstant(leftValue < rightValue, binary);
+            case LTEQ:
+                return booleanConstant(leftValue <= rightValue, binary);
+            case GT:
+                return booleanConstant(leftValue > rightValue, binary);
+            case GTEQ:
+                return booleanConstant(leftValue >= rightValue, binary);
+            default:
+                constantKind = ValueKind.UNSET;
+                return rebuild(binary, left, right);
+        }
+    }
+
+    private static Expression rebuild(BinaryExpression binary, Expression left, Expression right) {
+        if (left == binary.getLeft() && right == binary.getRight()) {
+            return binary;
+        }
+        return new BinaryExpression(left, binary.getOperator(), right);
+    }
+
+    private Expression number(double value) {
+        constant(ValueKind.NUMBER, value);
+        return new NumberExpression(value);
+    }
+
+    // The original expression is kept unless "0 == 0" or "0 != 0" is smaller
+    private Expression booleanConstant(boolean value, BinaryExpression original) {
+        constant(ValueKind.BOOLEAN, value ? 1 : 0);
+        if (original.getLeft() instanceof NumberExpression && original.getRight() instanceof NumberExpression) {
+            return original;
+        }
+        return new BinaryExpression(new NumberExpression(0), value ? TokenType.EQEQ : TokenType.NEQ,
+                new NumberExpression(0));
+    }
+
+    private void constant(byte kind, double value) {
+        constantKind = kind;
+        constantValue = value;
+    }
+
+    private static boolean declares(BlockStatement block) {
+        for (Statement statement : block.getStatements()) {
+            if (statement instanceof VarStatement) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int countNodes(List<Statement> statements) {
+        int[] count = new int[1];
+        walker.walk(statements, (node, depth, isLast) -> count[0]++);
+        return count[0];
+    }
+}
@@ -0,0 +1,419 @@
+package org.example.optimizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.core.ASTWalker;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Makes while loops do less work per iteration.
+ *
+ * Loop-invariant code motion: a binary expression inside a loop whose
+ * variables are neither assigned nor declared in the loop is computed
+ * once into a temporary ("var $t0 = total * 4;") right before the loop.
+ * Strength reduction: in loops, "x * 2" becomes "x + x", division by a
+ * power of two becomes multiplication by its exact reciprocal and
+ * multiplication or division by 1 is dropped.
+ *
+ * The hoisted expression now runs even if the loop body does not, and a
+ * reduced one reports errors under a different operator, so both only
+ * touch variables that always hold numbers: every declaration of the
+ * name has an initializer and everything ever stored in it is a number.
+ * Such expressions cannot fail and have no side effects.
+ */
+public class LoopOptimizer {
+    private static final String TEMP_PREFIX = "$t";
+
+    private final ASTWalker walker = new ASTWalker();
+
+    // Names whose variables hold a number whenever they are read
+    private Set<String> numericNames;
+
+    private int tempCount;
+    private int hoistedCount;
+    private int reducedCount;
+
+    /**
+     * @param statements Parsed program
+     * @return Optimized program; the input is not modified
+     */
+    public List<Statement> optimize(List<Statement> statements) {
+        numericNames = numericNames(statements);
+        hoistedCount = 0;
+        reducedCount = 0;
+
+        List<Statement> optimized = new ArrayList<>();
+        optimizeInto(statements, optimized);
+        return optimized;
+    }
+
+    /**
+     * @return Expressions hoisted out of loops by the last {@link #optimize} call
+     */
+    public int getHoistedCount() {
+        return hoistedCount;
+    }
+
+    /**
+     * @return Multiplications and divisions replaced by the last {@link #optimize} call
+     */
+    public int getReducedCount() {
+        return reducedCount;
+    }
+
+    private void optimizeInto(List<Statement> statements, List<Statement> out) {
+        for (int i = 0; i < statements.size(); i++) {
+            optimize(statements.get(i), out);
+        }
+    }
+
+    // Adds the optimized statement to out, preceded by the temporaries hoisted out of it
+    private void optimize(Statement statement, List<Statement> out) {
+        if (statement instanceof IfStatement) {
+            IfStatement i = (IfStatement) statement;
+            Statement thenBranch = single(i.getThenBranch());
+            Statement elseBranch = i.getElseBranch() == null ? null : single(i.getElseBranch());
+            out.add(thenBranch == i.getThenBranch() && elseBranch == i.getElseBranch()
+                    ? statement : new IfStatement(i.getCondition(), thenBranch, elseBranch));
+        }
+        else if (statement instanceof WhileStatement) {
+            optimizeLoop((WhileStatement) statement, out);
+        }
+        else if (statement instanceof BlockStatement) {
+            List<Statement> statements = ((BlockStatement) statement).getStatements();
+            List<Statement> optimized = new ArrayList<>(statements.size());
+            optimizeInto(statements, optimized);
+            out.add(optimized.equals(statements) ? statement : new BlockStatement(optimized));
+        }
+        else {
+            out.add(statement);
+        }
+    }
+
+    // A statement that has to stay one statement, e.g. a branch of an if
+    private Statement single(Statement statement) {
+        List<Statement> out = new ArrayList<>(1);
+        optimize(statement, out);
+        // The block gives the hoisted temporaries a scope of their own
+        return out.size() == 1 ? out.get(0) : new BlockStatement(out);
+    }
+
+    private void optimizeLoop(WhileStatement loop, List<Statement> out) {
+        // Inner loops first, their temporaries then count as declared in this loop
+        Statement body = single(loop.getBody());
+
+        Set<String> changed = new HashSet<>();
+        collectChanged(loop.getCondition(), changed);
+        collectChanged(body, changed);
+
+        LoopRewriter rewriter = new LoopRewriter(changed);
+        Expression condition = rewriter.rewrite(loop.getCondition());
+        body = rewriter.rewrite(body);
+
+        out.addAll(rewriter.temps.values());
+        out.add(condition == loop.getCondition() && body == loop.getBody() ? loop : new WhileStatement(condition, body));
+    }
+
+    private void collectChanged(Object node, Set<String> changed) {
+        walker.walk(node, (child, depth, isLast) -> {
+            if (child instanceof VarStatement) {
+                changed.add(((VarStatement) child).getName());
+            } else if (child instanceof AssignExpression) {
+                changed.add(((AssignExpression) child).getName());
+            }
+        });
+    }
+
+    /**
+     * Rewrites one loop. Equal invariant expressions share a temporary.
+     */
+    private final class LoopRewriter {
+        private final Set<String> changed;
+
+        // Structural key of a hoisted expression -> declaration of its temporary
+        private final Map<String, VarStatement> temps = new LinkedHashMap<>();
+
+        LoopRewriter(Set<String> changed) {
+            this.changed = changed;
+        }
+
+        Statement rewrite(Statement statement) {
+            if (statement instanceof ExpressionStatement) {
+                Expression expression = ((ExpressionStatement) statement).getExpression();
+                Expression rewritten = rewrite(expression);
+                return rewritten == expression ? statement : new ExpressionStatement(rewritten);
+            }
+            else if (statement instanceof VarStatement) {
+                VarStatement v = (VarStatement) statement;
+                if (v.getInitializer() == null) {
+                    return statement;
+                }
+                Expression rewritten = rewrite(v.getInitializer());
+                return rewritten == v.getInitializer() ? statement : new VarStatement(v.getName(), v.getSymbol(), rewritten);
+            }
+            else if (statement instanceof PrintStatement) {
+                Expression expression = ((PrintStatement) statement).getExpression();
+                Expression rewritten = rewrite(expression);
+                return rewritten == expression ? statement : new PrintStatement(rewritten);
+            }
+            else if (statement instanceof IfStatement) {
+                IfStatement i = (IfStatement) statement;
+                Expression condition = rewrite(i.getCondition());
+                Statement thenBranch = rewrite(i.getThenBranch());
+                Statement elseBranch = i.getElseBranch() == null ? null : rewrite(i.getElseBranch());
+                if (condition == i.getCondition() && thenBranch == i.getThenBranch() && elseBranch == i.getElseBranch()) {
+                    return statement;
+                }
+                return new IfStatement(condition, thenBranch, elseBranch);
+            }
+            else if (statement instanceof WhileStatement) {
+                WhileStatement w = (WhileStatement) statement;
+                Expression condition = rewrite(w.getCondition());
+                Statement body = rewrite(w.getBody());
+                return condition == w.getCondition() && body == w.getBody() ? statement : new WhileStatement(condition, body);
+            }
+            else if (statement instanceof BlockStatement) {
+                List<Statement> statements = ((BlockStatement) statement).getStatements();
+                List<Statement> rewritten = new ArrayList<>(statements.size());
+                for (int i = 0; i < statements.size(); i++) {
+                    rewritten.add(rewrite(statements.get(i)));
+                }
+                return rewritten.equals(statements) ? statement : new BlockStatement(rewritten);
+            }
+            return statement;
+        }
+
+        Expression rewrite(Expression expression) {
+            if (expression instanceof BinaryExpression && invariant(expression) && hasVariable(expression)) {
+                return hoist(expression);
+            }
+
+            if (expression instanceof AssignExpression) {
+                AssignExpression assign = (AssignExpression) expression;
+                Expression value = rewrite(assign.getValue());
+                return value == assign.getValue() ? expression : new AssignExpression(assign.getName(), assign.getSymbol(), value);
+            }
+            else if (expression instanceof UnaryExpression) {
+                UnaryExpression unary = (UnaryExpression) expression;
+                Expression right = rewrite(unary.getRight());
+                return right == unary.getRight() ? expression : new UnaryExpression(unary.getOperator(), right);
+            }
+            else if (expression instanceof BinaryExpression) {
+                BinaryExpression binary = (BinaryExpression) expression;
+                Expression left = rewrite(binary.getLeft());
+                Expression right = rewrite(binary.getRight());
+                Expression reduced = reduce(left, binary.getOperator(), right);
+                if (reduced != null) {
+                    reducedCount++;
+                    return reduced;
+                }
+                if (left == binary.getLeft() && right == binary.getRight()) {
+                    return expression;
+                }
+                return new BinaryExpression(left, binary.getOperator(), right);
+            }
+            return expression;
+        }
+
+        private Expression hoist(Expression expression) {
+            VarStatement temp = temps.computeIfAbsent(key(expression, new StringBuilder()).toString(), key -> {
+                hoistedCount++;
+                return new VarStatement(TEMP_PREFIX + tempCount++, expression);
+            });
+            return new VariableExpression(temp.getName());
+        }
+
+        // Variables that always hold numbers and keep their value for the whole loop
+        private boolean invariant(Expression expression) {
+            if (expression instanceof NumberExpression) {
+                return true;
+            }
+            else if (expression instanceof VariableExpression) {
+                String name = ((VariableExpression) expression).getName();
+                return !changed.contains(name) && numericNames.contains(name);
+            }
+            else if (expression instanceof UnaryExpression) {
+                UnaryExpression unary = (UnaryExpression) expression;
+                return unary.getOperator() == TokenType.MINUS && invariant(unary.getRight());
+            }
+            else if (expression instanceof BinaryExpression) {
+                BinaryExpression binary = (BinaryExpression) expression;
+                return !isLogical(binary.getOperator()) && invariant(binary.getLeft()) && invariant(binary.getRight());
+            }
+            return false;
+        }
+    }
+
+    // Returns null if nothing can be reduced
+    private Expression reduce(Expression left, TokenType operator, Expression right) {
+        if (operator == TokenType.STAR) {
+            if (isNumber(right, 2) && left instanceof VariableExpression && isNumeric(left)) {
+                return new BinaryExpression(left, TokenType.PLUS, copy((VariableExpression) left));
+            }
+            if (isNumber(left, 2) && right instanceof VariableExpression && isNumeric(right)) {
+                return new BinaryExpression(right, TokenType.PLUS, copy((VariableExpression) right));
+            }
+            if (isNumber(right, 1) && isNumeric(left)) {
+                return left;
+            }
+            if (isNumber(left, 1) && isNumeric(right)) {
+                return right;
+            }
+        }
+        else if (operator == TokenType.SLASH && right instanceof NumberExpression && isNumeric(left)) {
+            double divisor = ((NumberExpression) right).getValue();
+            if (divisor == 1) {
+                return left;
+            }
+            double reciprocal = 1 / divisor;
+            // Exact only if both are powers of two, i.e. have no mantissa bits
+            if (isPowerOfTwo(divisor) && isPowerOfTwo(reciprocal)) {
+                return new BinaryExpression(left, TokenType.STAR, new NumberExpression(reciprocal));
+            }
+        }
+        return null;
+    }
+
+    private static boolean isPowerOfTwo(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        long exponent = (bits >>> 52) & 0x7ff;
+        return exponent != 0 && exponent != 0x7ff && (bits & 0xfffffffffffffL) == 0;
+    }
+
+    private static boolean isNumber(Expression expression, double value) {
+        return expression instanceof NumberExpression && ((NumberExpression) expression).getValue() == value;
+    }
+
+    // Holds a number whenever its evaluation succeeds
+    private boolean isNumeric(Expression expression) {
+        if (expression instanceof NumberExpression) {
+            return true;
+        }
+        else if (expression instanceof VariableExpression) {
+            return numericNames.contains(((VariableExpression) expression).getName());
+        }
+        else if (expression instanceof AssignExpression) {
+            return isNumeric(((AssignExpression) expression).getValue());
+        }
+        else if (expression instanceof UnaryExpression) {
+            return ((UnaryExpression) expression).getOperator() == TokenType.MINUS;
+        }
+        else if (expression instanceof BinaryExpression) {
+            return isArithmetic(((BinaryExpression) expression).getOperator());
+        }
+        return false;
+    }
+
+    /**
+     * Names whose variables hold a number whenever they are read. Starts from
+     * all names and drops those with a declaration without initializer or an
+     * initializer / assigned value that may not be a number, until nothing
+     * changes; values can only come from these places.
+     */
+    private Set<String> numericNames(List<Statement> statements) {
+        Map<String, List<Expression>> stores = new HashMap<>();
+        Set<String> numeric = new HashSet<>();
+        Set<String> uninitialized = new HashSet<>();
+        tempCount = 0;
+        walker.walk(statements, (node, depth, isLast) -> {
+            if (node instanceof VarStatement) {
+                VarStatement v = (VarStatement) node;
+                skipTemp(v.getName());
+                if (v.getInitializer() == null) {
+                    uninitialized.add(v.getName());
+                } else {
+                    stores.computeIfAbsent(v.getName(), name -> new ArrayList<>()).add(v.getInitializer());
+                }
+            } else if (node instanceof AssignExpression) {
+                AssignExpression assign = (AssignExpression) node;
+                stores.computeIfAbsent(assign.getName(), name -> new ArrayList<>()).add(assign.getValue());
+            }
+        });
+        numeric.addAll(stores.keySet());
+        numeric.removeAll(uninitialized);
+        numericNames = numeric;
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, List<Expression>> entry : stores.entrySet()) {
+                if (numeric.contains(entry.getKey()) && !entry.getValue().stream().allMatch(this::isNumeric)) {
+                    numeric.remove(entry.getKey());
+                    changed = true;
+                }
+            }
+        }
+        return numeric;
+    }
+
+    // Temporaries of an earlier run keep their names
+    private void skipTemp(String name) {
+        if (name.startsWith(TEMP_PREFIX)) {
+            tempCount = Math.max(tempCount, Integer.parseInt(name.substring(TEMP_PREFIX.length())) + 1);
+        }
+    }
+
+    private static boolean hasVariable(Expression expression) {
+        if (expression instanceof VariableExpression) {
+            return true;
+        }
+        else if (expression instanceof UnaryExpression) {
+            return hasVariable(((UnaryExpression) expression).getRight());
+        }
+        else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            return hasVariable(binary.getLeft()) || hasVariable(binary.getRight());
+        }
+        return false;
+    }
+
+    // Invariant expressions only consist of numbers, variables and operators
+    private static StringBuilder key(Expression expression, StringBuilder key) {
+        if (expression instanceof NumberExpression) {
+            return key.append(Double.doubleToRawLongBits(((NumberExpression) expression).getValue()));
+        }
+        else if (expression instanceof VariableExpression) {
+            return key.append('$').append(((VariableExpression) expression).getName());
+        }
+        else if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            return key(unary.getRight(), key.append('(').append(unary.getOperator()).append(' ')).append(')');
+        }
+        BinaryExpression binary = (BinaryExpression) expression;
+        key.append('(').append(binary.getOperator()).append(' ');
+        key(binary.getLeft(), key).append(' ');
+        return key(binary.getRight(), key).append(')');
+    }
+
+    private static VariableExpression copy(VariableExpression variable) {
+        return new VariableExpression(variable.getName(), variable.getSymbol());
+    }
+
+    private static boolean isArithmetic(TokenType operator) {
+        return operator == TokenType.PLUS || operator == TokenType.MINUS
+                || operator == TokenType.STAR || operator == TokenType.SLASH;
+    }
+
+    private static boolean isLogical(TokenType operator) {
+        return operator == TokenType.AND || operator == TokenType.OR;
+    }
+}
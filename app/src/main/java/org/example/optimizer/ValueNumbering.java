@@ -0,0 +1,321 @@
+package org.example.optimizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.core.ASTWalker;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Local value numbering: a binary expression computed again in the same
+ * basic block, with none of its variables assigned in between, reuses the
+ * first result. The first occurrence stores its value in a temporary
+ * ("($v0 = x + 1)") and the later ones read it ("$v0").
+ *
+ * A basic block is a run of declarations, expression and print statements
+ * in one statement list, up to and including the condition of an if.
+ * Loops and nested blocks start new ones. Every variable gets a version
+ * that an assignment or declaration bumps, so expressions are numbered by
+ * operator, operand numbers and versions. Only occurrences that always run
+ * can store a value: never the right operand of '&&' or '||'. The stored
+ * value is the one the expression would compute again, so errors and
+ * output stay the same.
+ */
+public class ValueNumbering {
+    private static final String TEMP_PREFIX = "$v";
+
+    private final ASTWalker walker = new ASTWalker();
+
+    private int tempCount;
+    private int reusedCount;
+
+    // Of the current basic block
+    private final Map<String, Integer> numbers = new HashMap<>();
+    private final Map<String, Integer> versions = new HashMap<>();
+    private final List<Occurrences> occurrences = new ArrayList<>();
+    private boolean counting;
+
+    // Value number of the last expression visited, -1 if it has side effects
+    private int valueNumber;
+
+    private static final class Occurrences {
+        // The value was stored by an occurrence that always runs
+        private boolean available;
+        private int reuses;
+        private String temp;
+        private BinaryExpression expression;
+    }
+
+    /**
+     * @param statements Parsed program
+     * @return Program with repeated computations replaced; the input is not modified
+     */
+    public List<Statement> number(List<Statement> statements) {
+        tempCount = 0;
+        reusedCount = 0;
+        walker.walk(statements, (node, depth, isLast) -> {
+            if (node instanceof VarStatement && ((VarStatement) node).getName().startsWith(TEMP_PREFIX)) {
+                String name = ((VarStatement) node).getName();
+                tempCount = Math.max(tempCount, Integer.parseInt(name.substring(TEMP_PREFIX.length())) + 1);
+            }
+        });
+        return numberList(statements);
+    }
+
+    /**
+     * @return Computations replaced by a temporary in the last {@link #number} call
+     */
+    public int getReusedCount() {
+        return reusedCount;
+    }
+
+    private List<Statement> numberList(List<Statement> statements) {
+        List<Statement> out = new ArrayList<>(statements.size());
+        int start = 0;
+        while (start < statements.size()) {
+            Statement first = statements.get(start);
+            if (first instanceof WhileStatement) {
+                WhileStatement w = (WhileStatement) first;
+                Statement body = numberStatement(w.getBody());
+                out.add(body == w.getBody() ? w : new WhileStatement(w.getCondition(), body));
+                start++;
+                continue;
+            }
+            if (first instanceof BlockStatement) {
+                List<Statement> inner = ((BlockStatement) first).getStatements();
+                List<Statement> numbered = numberList(inner);
+                out.add(numbered.equals(inner) ? first : new BlockStatement(numbered));
+                start++;
+                continue;
+            }
+
+            // A basic block: simple statements, possibly ended by an if
+            int end = start;
+            while (end < statements.size() && isSimple(statements.get(end))) {
+                end++;
+            }
+            if (end < statements.size() && statements.get(end) instanceof IfStatement) {
+                end++;
+            }
+            numberBlock(statements.subList(start, end), out);
+            start = end;
+        }
+        return out;
+    }
+
+    // A statement that has to stay one statement, e.g. a branch of an if
+    private Statement numberStatement(Statement statement) {
+        List<Statement> out = numberList(List.of(statement));
+        return out.size() == 1 ? out.get(0) : new BlockStatement(out);
+    }
+
+    private void numberBlock(List<Statement> block, List<Statement> out) {
+        // First count which values are computed again, then rewrite with the same numbering
+        numbers.clear();
+        occurrences.clear();
+        versions.clear();
+        counting = true;
+        for (int i = 0; i < block.size(); i++) {
+            visit(block.get(i));
+        }
+
+        for (Occurrences value : occurrences) {
+            if (value.available && value.reuses > 0) {
+                value.temp = TEMP_PREFIX + tempCount++;
+                // A value of the same kind, so the temporary never changes its kind
+                out.add(new VarStatement(value.temp, isArithmetic(value.expression.getOperator())
+                        ? new NumberExpression(0)
+                        : new BinaryExpression(new NumberExpression(0), TokenType.EQEQ, new NumberExpression(0))));
+            }
+            value.available = false;
+        }
+
+        // Replaying from the same versions gives every expression the same number again
+        versions.clear();
+        counting = false;
+        for (int i = 0; i < block.size(); i++) {
+            // An if ends the block, so numbering its branches may reuse the state
+            out.add(visit(block.get(i)));
+        }
+    }
+
+    private Statement visit(Statement statement) {
+        if (statement instanceof ExpressionStatement) {
+            Expression expression = ((ExpressionStatement) statement).getExpression();
+            Expression visited = visit(expression, false);
+            return visited == expression ? statement : new ExpressionStatement(visited);
+        }
+        else if (statement instanceof VarStatement) {
+            VarStatement v = (VarStatement) statement;
+            Expression initializer = v.getInitializer() == null ? null : visit(v.getInitializer(), false);
+            assigned(v.getName());
+            return initializer == v.getInitializer() ? statement : new VarStatement(v.getName(), v.getSymbol(), initializer);
+        }
+        else if (statement instanceof PrintStatement) {
+            Expression expression = ((PrintStatement) statement).getExpression();
+            Expression visited = visit(expression, false);
+            return visited == expression ? statement : new PrintStatement(visited);
+        }
+
+        // The if that ends the block: its condition belongs to it, its branches start new blocks
+        IfStatement i = (IfStatement) statement;
+        Expression condition = visit(i.getCondition(), false);
+        if (counting) {
+            return statement;
+        }
+        Statement thenBranch = numberStatement(i.getThenBranch());
+        Statement elseBranch = i.getElseBranch() == null ? null : numberStatement(i.getElseBranch());
+        if (condition == i.getCondition() && thenBranch == i.getThenBranch() && elseBranch == i.getElseBranch()) {
+            return statement;
+        }
+        return new IfStatement(condition, thenBranch, elseBranch);
+    }
+
+    // Visits in evaluation order; conditional: the expression may be skipped by '&&' or '||'
+    private Expression visit(Expression expression, boolean conditional) {
+        if (expression instanceof NumberExpression) {
+            valueNumber = number("#" + Double.doubleToRawLongBits(((NumberExpression) expression).getValue()));
+            return expression;
+        }
+        else if (expression instanceof VariableExpression) {
+            String name = ((VariableExpression) expression).getName();
+            valueNumber = number(name + "@" + versions.getOrDefault(name, 0));
+            return expression;
+        }
+        else if (expression instanceof AssignExpression) {
+            AssignExpression assign = (AssignExpression) expression;
+            Expression value = visit(assign.getValue(), conditional);
+            assigned(assign.getName());
+            valueNumber = -1;
+            return value == assign.getValue() ? expression : new AssignExpression(assign.getName(), assign.getSymbol(), value);
+        }
+        else if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            Expression right = visit(unary.getRight(), conditional);
+            valueNumber = valueNumber < 0 ? -1 : number(unary.getOperator() + "(" + valueNumber + ")");
+            return right == unary.getRight() ? expression : new UnaryExpression(unary.getOperator(), right);
+        }
+        else if (expression instanceof BinaryExpression) {
+            return visitBinary((BinaryExpression) expression, conditional);
+        }
+
+        valueNumber = -1;
+        return expression;
+    }
+
+    private Expression visitBinary(BinaryExpression binary, boolean conditional) {
+        // Its operands are not evaluated again if the value is reused, so number it first
+        int known = pureNumber(binary);
+        Occurrences value = known < 0 ? null : occurrences.get(known);
+        if (value != null && value.available) {
+            valueNumber = known;
+            if (counting) {
+                value.reuses++;
+                return binary;
+            }
+            if (value.temp != null) {
+                reusedCount++;
+                return new VariableExpression(value.temp);
+            }
+        }
+
+        TokenType operator = binary.getOperator();
+        boolean logical = operator == TokenType.AND || operator == TokenType.OR;
+        Expression left = visit(binary.getLeft(), conditional);
+        int leftNumber = valueNumber;
+        Expression right = visit(binary.getRight(), conditional || logical);
+        int rightNumber = valueNumber;
+
+        Expression visited = left == binary.getLeft() && right == binary.getRight()
+                ? binary : new BinaryExpression(left, operator, right);
+        if (leftNumber < 0 || rightNumber < 0) {
+            valueNumber = -1;
+            return visited;
+        }
+
+        valueNumber = number(operator + "(" + leftNumber + "," + rightNumber + ")");
+        value = occurrences.get(valueNumber);
+        if (value.expression == null) {
+            value.expression = binary;
+        }
+        if (conditional || value.available) {
+            return visited;
+        }
+        value.available = true;
+        return value.temp == null || counting ? visited : new AssignExpression(value.temp, visited);
+    }
+
+    // Number of an expression without side effects, -1 otherwise; visits nothing
+    private int pureNumber(Expression expression) {
+        String key;
+        if (expression instanceof NumberExpression) {
+            key = "#" + Double.doubleToRawLongBits(((NumberExpression) expression).getValue());
+        }
+        else if (expression instanceof VariableExpression) {
+            String name = ((VariableExpression) expression).getName();
+            key = name + "@" + versions.getOrDefault(name, 0);
+        }
+        else if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            int right = pureNumber(unary.getRight());
+            if (right < 0) {
+                return -1;
+            }
+            key = unary.getOperator() + "(" + right + ")";
+        }
+        else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            int left = pureNumber(binary.getLeft());
+            int right = left < 0 ? -1 : pureNumber(binary.getRight());
+            if (right < 0) {
+                return -1;
+            }
+            key = binary.getOperator() + "(" + left + "," + right + ")";
+        }
+        else {
+            return -1;
+        }
+        Integer known = numbers.get(key);
+        return known == null ? -1 : known;
+    }
+
+    private int number(String key) {
+        Integer known = numbers.get(key);
+        if (known != null) {
+            return known;
+        }
+        numbers.put(key, occurrences.size());
+        occurrences.add(new Occurrences());
+        return occurrences.size() - 1;
+    }
+
+    // Old values of the name are no longer found: new reads get a new number
+    private void assigned(String name) {
+        versions.merge(name, 1, Integer::sum);
+    }
+
+    private static boolean isSimple(Statement statement) {
+        return statement instanceof ExpressionStatement || statement instanceof VarStatement
+                || statement instanceof PrintStatement;
+    }
+
+    private static boolean isArithmetic(TokenType operator) {
+        return operator == TokenType.PLUS || operator == TokenType.MINUS
+                || operator == TokenType.STAR || operator == TokenType.SLASH;
+    }
+}
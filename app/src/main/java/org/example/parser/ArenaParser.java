@@ -0,0 +1,156 @@
+package org.example.parser;
+
+import java.util.List;
+
+import org.example.exception.ParseException;
+import org.example.lexer.LineMap;
+import org.example.lexer.ListTokenSource;
+import org.example.lexer.Token;
+import org.example.lexer.TokenBuffer;
+import org.example.lexer.TokenSource;
+import org.example.lexer.TokenType;
+import org.example.parser.arena.AstArena;
+import org.example.parser.arena.AstArenaBuilder;
+
+/**
+ * Parser that targets an {@link AstArenaBuilder} instead of creating node
+ * objects: {@link #parseArena()} returns the program as one
+ * {@link AstArena}. Expressions are parsed by precedence climbing as in
+ * {@link PrattParser}; the grammar and error messages are those of
+ * {@link Parser}, whose {@link #parse()} still returns the object AST.
+ */
+public class ArenaParser extends Parser {
+    private final AstArenaBuilder builder;
+
+    public ArenaParser(List<Token> tokens, LineMap lines) {
+        this(new ListTokenSource(tokens, lines), new AstArenaBuilder());
+    }
+
+    public ArenaParser(TokenBuffer tokens) {
+        // Programs have about two nodes for every three tokens
+        this(tokens.cursor(), new AstArenaBuilder(16 + tokens.size() / 3 * 2));
+    }
+
+    public ArenaParser(TokenSource tokens) {
+        this(tokens, new AstArenaBuilder());
+    }
+
+    public ArenaParser(TokenSource tokens, AstArenaBuilder builder) {
+        super(tokens);
+        this.builder = builder;
+    }
+
+    public AstArena parseArena() {
+        int program = builder.startList();
+        while (!isAtEnd()) {
+            builder.addToList(declaration());
+        }
+        return builder.build(program);
+    }
+
+    private int declaration() {
+        if (match(TokenType.VAR)) {
+            consume(TokenType.ID, "Ожидается имя переменной.");
+            String name = tokens.previousValue();
+            int initializer = -1;
+
+            if (match(TokenType.EQ)) {
+                initializer = expression(PrecedenceTable.ASSIGNMENT);
+            }
+
+            consume(TokenType.SEMICOLON, "Ожидается ';' после объявления переменной.");
+            return builder.varStatement(name, initializer);
+        }
+
+        return statement();
+    }
+
+    private int statement() {
+        if (match(TokenType.IF)) {
+            consume(TokenType.LPAREN, "Ожидается '(' после 'if'.");
+            int condition = expression(PrecedenceTable.ASSIGNMENT);
+            consume(TokenType.RPAREN, "Ожидается ')' после условия 'if'.");
+
+            int thenBranch = statement();
+            int elseBranch = match(TokenType.ELSE) ? statement() : -1;
+            return builder.ifStatement(condition, thenBranch, elseBranch);
+        }
+
+        if (match(TokenType.WHILE)) {
+            consume(TokenType.LPAREN, "Ожидается '(' после 'while'.");
+            int condition = expression(PrecedenceTable.ASSIGNMENT);
+            consume(TokenType.RPAREN, "Ожидается ')' после условия 'while'.");
+            return builder.whileStatement(condition, statement());
+        }
+
+        if (match(TokenType.PRINT)) {
+            int value = expression(PrecedenceTable.ASSIGNMENT);
+            consume(TokenType.SEMICOLON, "Ожидается ';' после значения.");
+            return builder.printStatement(value);
+        }
+
+        if (match(TokenType.LBRACE)) {
+            int block = builder.startList();
+            while (!check(TokenType.RBRACE) && !isAtEnd()) {
+                builder.addToList(declaration());
+            }
+            consume(TokenType.RBRACE, "Ожидается '}' после блока.");
+            return builder.block(block);
+        }
+
+        int expression = expression(PrecedenceTable.ASSIGNMENT);
+        consume(TokenType.SEMICOLON, "Ожидается ';' после выражения.");
+        return builder.expressionStatement(expression);
+    }
+
+    private int expression(int minPrecedence) {
+        int expression = prefix();
+
+        while (true) {
+            TokenType operator = tokens.peekType();
+            int precedence = PrecedenceTable.infix(operator);
+            if (precedence == PrecedenceTable.NONE || precedence < minPrecedence) {
+                return expression;
+            }
+            advance();
+
+            if (PrecedenceTable.isRightAssociative(operator)) {
+                ParseException invalidTarget = invalidTarget(builder.getKind(expression) == AstArena.VARIABLE);
+                int value = expression(precedence);
+
+                if (invalidTarget != null) {
+                    throw invalidTarget;
+                }
+                expression = builder.assign(expression, value);
+            } else {
+                int right = expression(precedence + 1);
+                expression = builder.binary(expression, operator, right);
+            }
+        }
+    }
+
+    private int prefix() {
+        TokenType type = tokens.peekType();
+
+        if (PrecedenceTable.PREFIX_OPERATORS.contains(type)) {
+            advance();
+            return builder.unary(type, prefix());
+        }
+
+        if (match(TokenType.NUMBER)) {
+            return builder.number(Double.parseDouble(tokens.previousValue()));
+        }
+
+        if (match(TokenType.ID)) {
+            return builder.variable(tokens.previousValue());
+        }
+
+        if (match(TokenType.LPAREN)) {
+            int expression = expression(PrecedenceTable.ASSIGNMENT);
+            consume(TokenType.RPAREN, "Ожидается ')' после выражения.");
+            return expression;
+        }
+
+        throw new ParseException("Ожидается выражение.");
+    }
+}
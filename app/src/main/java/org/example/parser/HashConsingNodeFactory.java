@@ -0,0 +1,130 @@
+package org.example.parser;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.example.lexer.TokenType;
+import org.example.parser.expression.Expression;
+
+/**
+ * Node factory that shares structurally identical expressions: every
+ * "x + 1" reading the same declaration of x is one node, so repeated
+ * subexpressions take memory once and tree passes can compare them by
+ * identity. Only side-effect-free expressions are shared; assignments and
+ * everything containing one are always new nodes.
+ *
+ * A variable node is shared only between uses of the same declaration,
+ * because the Resolver stores its depth and slot in the node. Shared
+ * nodes are visited once per use, so passes that walk or rebuild the tree
+ * see it as before. Not thread-safe: use one factory per parser.
+ */
+public class HashConsingNodeFactory extends NodeFactory {
+    // Keys are lists of operator and children; children are compared by identity
+    private final Map<Object, Expression> nodes = new HashMap<>();
+    private final Set<Expression> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // Name -> declaration it refers to, innermost scope first; 0 for names never declared
+    private final Deque<Map<String, Integer>> scopes = new ArrayDeque<>();
+    private int declarationCount;
+
+    private int createdCount;
+    private int reusedCount;
+
+    public HashConsingNodeFactory() {
+        scopes.push(new HashMap<>());
+    }
+
+    @Override
+    public Expression number(double value) {
+        return intern(Double.doubleToRawLongBits(value), () -> super.number(value));
+    }
+
+    @Override
+    public Expression variable(String name, int symbol) {
+        return intern(List.of(name, declarationOf(name)), () -> super.variable(name, symbol));
+    }
+
+    @Override
+    public Expression unary(TokenType operator, Expression right) {
+        if (!shared.contains(right)) {
+            return created(super.unary(operator, right));
+        }
+        return intern(List.of(operator, right), () -> super.unary(operator, right));
+    }
+
+    @Override
+    public Expression binary(Expression left, TokenType operator, Expression right) {
+        if (!shared.contains(left) || !shared.contains(right)) {
+            return created(super.binary(left, operator, right));
+        }
+        return intern(List.of(left, operator, right), () -> super.binary(left, operator, right));
+    }
+
+    @Override
+    public Expression assign(String name, int symbol, Expression value) {
+        return created(super.assign(name, symbol, value));
+    }
+
+    @Override
+    public void enterScope() {
+        scopes.push(new HashMap<>());
+    }
+
+    @Override
+    public void exitScope() {
+        scopes.pop();
+    }
+
+    @Override
+    public void declare(String name) {
+        scopes.peek().put(name, ++declarationCount);
+    }
+
+    /**
+     * @return Nodes actually allocated
+     */
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * @return Requests answered with an existing node
+     */
+    public int getReusedCount() {
+        return reusedCount;
+    }
+
+    private int declarationOf(String name) {
+        for (Map<String, Integer> scope : scopes) {
+            Integer declaration = scope.get(name);
+            if (declaration != null) {
+                return declaration;
+            }
+        }
+        return 0;
+    }
+
+    private Expression intern(Object key, Supplier<Expression> supplier) {
+        Expression node = nodes.get(key);
+        if (node != null) {
+            reusedCount++;
+            return node;
+        }
+        node = created(supplier.get());
+        nodes.put(key, node);
+        shared.add(node);
+        return node;
+    }
+
+    private Expression created(Expression node) {
+        createdCount++;
+        return node;
+    }
+}
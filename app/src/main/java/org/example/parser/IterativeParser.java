@@ -0,0 +1,262 @@
+package org.example.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import org.example.exception.ParseException;
+import org.example.lexer.LineMap;
+import org.example.lexer.Token;
+import org.example.lexer.TokenBuffer;
+import org.example.lexer.TokenSource;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Parser that keeps all of its nesting on the heap: unfinished blocks, ifs
+ * and whiles are frames of an explicit stack, and expressions are parsed by
+ * shunting-yard over operand and operator stacks. Nesting depth is limited
+ * by memory, not by the thread stack. Trees and error messages are the same
+ * as in {@link Parser}.
+ */
+public class IterativeParser extends Parser {
+    private static final int BLOCK = 0;
+    private static final int IF_THEN = 1;
+    private static final int IF_ELSE = 2;
+    private static final int WHILE = 3;
+
+    private Expression[] operands = new Expression[16];
+    private int operandCount;
+
+    // Pending operators; an open parenthesis is kept with precedence NONE
+    private TokenType[] operators = new TokenType[16];
+    private int[] precedences = new int[16];
+    // Error for an '=' whose target is not a variable, thrown when it is reduced
+    private ParseException[] invalidTargets = new ParseException[16];
+    private int operatorCount;
+
+    public IterativeParser(List<Token> tokens, LineMap lines) {
+        super(tokens, lines);
+    }
+
+    public IterativeParser(TokenBuffer tokens) {
+        super(tokens);
+    }
+
+    public IterativeParser(TokenSource tokens) {
+        super(tokens);
+    }
+
+    public IterativeParser(TokenSource tokens, NodeFactory nodes) {
+        super(tokens, nodes);
+    }
+
+    @Override
+    public List<Statement> parse() {
+        List<Statement> program = new ArrayList<>();
+        Deque<Frame> frames = new ArrayDeque<>();
+
+        while (true) {
+            Frame frame = frames.peek();
+            Statement statement;
+
+            if (frame == null && isAtEnd()) {
+                return program;
+            }
+
+            if (frame == null || frame.kind == BLOCK) {
+                if (frame != null && (check(TokenType.RBRACE) || isAtEnd())) {
+                    consume(TokenType.RBRACE, "Ожидается '}' после блока.");
+                    frames.pop();
+                    nodes.exitScope();
+                    statement = new BlockStatement(frame.statements);
+                } else if (match(TokenType.VAR)) {
+                    statement = parseVarDeclaration();
+                } else {
+                    statement = beginStatement(frames);
+                }
+            } else {
+                statement = beginStatement(frames);
+            }
+
+            // Hand the finished statement to the frames waiting for it
+            while (statement != null) {
+                frame = frames.peek();
+                if (frame == null) {
+                    program.add(statement);
+                    statement = null;
+                } else if (frame.kind == BLOCK) {
+                    frame.statements.add(statement);
+                    statement = null;
+                } else if (frame.kind == IF_THEN) {
+                    frame.thenBranch = statement;
+                    if (match(TokenType.ELSE)) {
+                        frame.kind = IF_ELSE;
+                        statement = null;
+                    } else {
+                        frames.pop();
+                        statement = new IfStatement(frame.condition, frame.thenBranch, null);
+                    }
+                } else if (frame.kind == IF_ELSE) {
+                    frames.pop();
+                    statement = new IfStatement(frame.condition, frame.thenBranch, statement);
+                } else {
+                    frames.pop();
+                    statement = new WhileStatement(frame.condition, statement);
+                }
+            }
+        }
+    }
+
+    // Parses a simple statement, or opens a frame and returns null
+    private Statement beginStatement(Deque<Frame> frames) {
+        if (match(TokenType.IF)) {
+            consume(TokenType.LPAREN, "Ожидается '(' после 'if'.");
+            Expression condition = parseExpression();
+            consume(TokenType.RPAREN, "Ожидается ')' после условия 'if'.");
+            frames.push(new Frame(IF_THEN, condition));
+            return null;
+        }
+
+        if (match(TokenType.WHILE)) {
+            consume(TokenType.LPAREN, "Ожидается '(' после 'while'.");
+            Expression condition = parseExpression();
+            consume(TokenType.RPAREN, "Ожидается ')' после условия 'while'.");
+            frames.push(new Frame(WHILE, condition));
+            return null;
+        }
+
+        if (match(TokenType.PRINT)) {
+            return parsePrintStatement();
+        }
+
+        if (match(TokenType.LBRACE)) {
+            nodes.enterScope();
+            frames.push(new Frame(BLOCK, null));
+            return null;
+        }
+
+        return parseExpressionStatement();
+    }
+
+    @Override
+    protected Expression parseExpression() {
+        operandCount = 0;
+        operatorCount = 0;
+
+        while (true) {
+            // Operand position: any prefix operators and open parentheses, then a literal
+            while (true) {
+                TokenType type = tokens.peekType();
+                if (PrecedenceTable.PREFIX_OPERATORS.contains(type)) {
+                    advance();
+                    pushOperator(type, PrecedenceTable.UNARY);
+                } else if (match(TokenType.LPAREN)) {
+                    pushOperator(TokenType.LPAREN, PrecedenceTable.NONE);
+                } else {
+                    break;
+                }
+            }
+
+            if (match(TokenType.NUMBER)) {
+                pushOperand(nodes.number(Double.parseDouble(tokens.previousValue())));
+            } else if (match(TokenType.ID)) {
+                pushOperand(nodes.variable(tokens.previousValue(), tokens.previousSymbol()));
+            } else {
+                throw new ParseException("Ожидается выражение.");
+            }
+
+            // Operator position: close parentheses until an infix operator or the end
+            while (true) {
+                TokenType operator = tokens.peekType();
+                int precedence = PrecedenceTable.infix(operator);
+
+                if (precedence != PrecedenceTable.NONE) {
+                    boolean rightAssociative = PrecedenceTable.isRightAssociative(operator);
+                    while (operatorCount > 0 && (precedences[operatorCount - 1] > precedence
+                            || precedences[operatorCount - 1] == precedence && !rightAssociative)) {
+                        reduce();
+                    }
+                    advance();
+                    pushOperator(operator, precedence);
+                    break;
+                }
+
+                while (operatorCount > 0 && precedences[operatorCount - 1] != PrecedenceTable.NONE) {
+                    reduce();
+                }
+                if (operatorCount == 0) {
+                    return operands[--operandCount];
+                }
+
+                consume(TokenType.RPAREN, "Ожидается ')' после выражения.");
+                operatorCount--;
+            }
+        }
+    }
+
+    private void reduce() {
+        int top = --operatorCount;
+        TokenType operator = operators[top];
+
+        if (precedences[top] == PrecedenceTable.UNARY) {
+            operands[operandCount - 1] = nodes.unary(operator, operands[operandCount - 1]);
+            return;
+        }
+
+        Expression right = operands[--operandCount];
+        Expression left = operands[operandCount - 1];
+
+        if (operator == TokenType.EQ) {
+            if (invalidTargets[top] != null) {
+                throw invalidTargets[top];
+            }
+            VariableExpression variableExpression = (VariableExpression) left;
+            operands[operandCount - 1] = nodes.assign(variableExpression.getName(), variableExpression.getSymbol(), right);
+        } else {
+            operands[operandCount - 1] = nodes.binary(left, operator, right);
+        }
+    }
+
+    private void pushOperand(Expression expression) {
+        if (operandCount == operands.length) {
+            operands = Arrays.copyOf(operands, operandCount * 2);
+        }
+        operands[operandCount++] = expression;
+    }
+
+    private void pushOperator(TokenType operator, int precedence) {
+        if (operatorCount == operators.length) {
+            operators = Arrays.copyOf(operators, operatorCount * 2);
+            precedences = Arrays.copyOf(precedences, operatorCount * 2);
+            invalidTargets = Arrays.copyOf(invalidTargets, operatorCount * 2);
+        }
+        operators[operatorCount] = operator;
+        precedences[operatorCount] = precedence;
+        // The target of '=' is the operand on top, everything above '=' is reduced by now
+        invalidTargets[operatorCount] = operator == TokenType.EQ
+                ? invalidTarget(operands[operandCount - 1] instanceof VariableExpression)
+                : null;
+        operatorCount++;
+    }
+
+    private static class Frame {
+        private int kind;
+        private final Expression condition;
+        private Statement thenBranch;
+        private final List<Statement> statements;
+
+        Frame(int kind, Expression condition) {
+            this.kind = kind;
+            this.condition = condition;
+            this.statements = kind == BLOCK ? new ArrayList<>() : null;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.parser;
+
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+
+/**
+ * Creates the expression nodes of the parsers. This one makes a new node
+ * every time; subclasses may return shared ones. The parser also reports
+ * the scopes and declarations it passes, in source order, so a factory
+ * knows which declaration a variable name refers to.
+ */
+public class NodeFactory {
+    public Expression number(double value) {
+        return new NumberExpression(value);
+    }
+
+    /**
+     * @param symbol Id of the name in the lexer's SymbolTable, -1 if unknown
+     */
+    public Expression variable(String name, int symbol) {
+        return new VariableExpression(name, symbol);
+    }
+
+    public Expression assign(String name, int symbol, Expression value) {
+        return new AssignExpression(name, symbol, value);
+    }
+
+    public Expression unary(TokenType operator, Expression right) {
+        return new UnaryExpression(operator, right);
+    }
+
+    public Expression binary(Expression left, TokenType operator, Expression right) {
+        return new BinaryExpression(left, operator, right);
+    }
+
+    // Called at '{'
+    public void enterScope() {
+    }
+
+    // Called at the matching '}'
+    public void exitScope() {
+    }
+
+    // Called after the initializer, which still sees the previous meaning of the name
+    public void declare(String name) {
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import org.example.exception.ParseException;
+import org.example.lexer.TokenBuffer;
+import org.example.lexer.TokenSource;
+import org.example.lexer.TokenType;
+import org.example.parser.statement.Statement;
+
+/**
+ * Parses the top-level statements of a token buffer on a ForkJoinPool.
+ * A pre-scan over token types finds where top-level statements end: a ';'
+ * or '}' outside of any braces and parentheses that is not followed by
+ * 'else'. The buffer is cut at such points into chunks, each chunk is
+ * parsed by its own parser on a cursor that reads EOF at the chunk end,
+ * and the statement lists are joined in order.
+ *
+ * The parser never looks past a statement's closing ';' or '}' except to
+ * check for 'else', so a chunk parses to the same statements as in a
+ * sequential run. If any chunk fails, the whole buffer is parsed again
+ * sequentially so the error is the one Parser would report.
+ */
+public class ParallelParser {
+    private static final int DEFAULT_CHUNK_TOKENS = 1 << 16;
+
+    private final TokenBuffer tokens;
+    private final ForkJoinPool pool;
+    private final int chunkTokens;
+    private final Function<TokenSource, Parser> parsers;
+
+    public ParallelParser(TokenBuffer tokens) {
+        this(tokens, ForkJoinPool.commonPool(), DEFAULT_CHUNK_TOKENS, Parser::new);
+    }
+
+    /**
+     * @param chunkTokens Approximate tokens per chunk; a chunk ends at the
+     *                    first statement boundary after this many tokens
+     * @param parsers Creates the parser for a chunk, e.g. PrattParser::new
+     */
+    public ParallelParser(TokenBuffer tokens, ForkJoinPool pool, int chunkTokens,
+            Function<TokenSource, Parser> parsers) {
+        if (chunkTokens < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkTokens);
+        }
+        this.tokens = tokens;
+        this.pool = pool;
+        this.chunkTokens = chunkTokens;
+        this.parsers = parsers;
+    }
+
+    public List<Statement> parse() {
+        int[] bounds = split();
+        int chunkCount = bounds.length - 1;
+
+        // Filled in by index, one chunk per task
+        List<List<Statement>> chunks = new ArrayList<>(Collections.nCopies(chunkCount, null));
+        var task = new ParseChunks(bounds, chunks, 0, chunkCount);
+        pool.invoke(task);
+
+        if (task.failed) {
+            return parsers.apply(tokens.cursor()).parse();
+        }
+
+        int statementCount = 0;
+        for (List<Statement> chunk : chunks) {
+            statementCount += chunk.size();
+        }
+
+        List<Statement> result = new ArrayList<>(statementCount);
+        for (List<Statement> chunk : chunks) {
+            result.addAll(chunk);
+        }
+        return result;
+    }
+
+    // Chunk i covers tokens bounds[i] up to bounds[i + 1]; the last bound is the EOF index
+    private int[] split() {
+        int eof = tokens.size() - 1;
+        int[] bounds = new int[16];
+        int count = 1;
+        int depth = 0;
+        int chunkStart = 0;
+
+        for (int i = 0; i < eof; i++) {
+            TokenType type = tokens.getType(i);
+            if (type == TokenType.LBRACE || type == TokenType.LPAREN) {
+                depth++;
+            } else if (type == TokenType.RBRACE || type == TokenType.RPAREN) {
+                depth--;
+            }
+
+            boolean statementEnd = depth == 0 && (type == TokenType.SEMICOLON || type == TokenType.RBRACE)
+                    && tokens.getType(i + 1) != TokenType.ELSE;
+            if (statementEnd && i + 1 - chunkStart >= chunkTokens && i + 1 < eof) {
+                if (count == bounds.length) {
+                    bounds = Arrays.copyOf(bounds, count * 2);
+                }
+                bounds[count++] = i + 1;
+                chunkStart = i + 1;
+            }
+        }
+
+        bounds = Arrays.copyOf(bounds, count + 1);
+        bounds[count] = eof;
+        return bounds;
+    }
+
+    // Halves the chunk range until one chunk is left, then parses it
+    private class ParseChunks extends RecursiveAction {
+        private final int[] bounds;
+        private final List<List<Statement>> chunks;
+        private final int from;
+        private final int to;
+        private boolean failed;
+
+        ParseChunks(int[] bounds, List<List<Statement>> chunks, int from, int to) {
+            this.bounds = bounds;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                var left = new ParseChunks(bounds, chunks, from, middle);
+                var right = new ParseChunks(bounds, chunks, middle, to);
+                invokeAll(left, right);
+                failed = left.failed || right.failed;
+                return;
+            }
+
+            try {
+                chunks.set(from, parsers.apply(tokens.cursor(bounds[from], bounds[from + 1])).parse());
+            } catch (ParseException e) {
+                failed = true;
+            }
+        }
+    }
+}
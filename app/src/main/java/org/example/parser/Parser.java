@@ -4,13 +4,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.example.exception.ParseException;
+import org.example.lexer.LineMap;
+import org.example.lexer.ListTokenSource;
 import org.example.lexer.Token;
+import org.example.lexer.TokenBuffer;
+import org.example.lexer.TokenSource;
 import org.example.lexer.TokenType;
-import org.example.parser.expression.AssignExpression;
-import org.example.parser.expression.BinaryExpression;
 import org.example.parser.expression.Expression;
-import org.example.parser.expression.NumberExpression;
-import org.example.parser.expression.UnaryExpression;
 import org.example.parser.expression.VariableExpression;
 import org.example.parser.statement.BlockStatement;
 import org.example.parser.statement.ExpressionStatement;
@@ -21,12 +21,27 @@ import org.example.parser.statement.VarStatement;
 import org.example.parser.statement.WhileStatement;
 
 public class Parser {
-    private final List<Token> tokens;
-    private int position;
+    protected final TokenSource tokens;
+    protected final NodeFactory nodes;
 
-    public Parser(List<Token> tokens) {
+    public Parser(List<Token> tokens, LineMap lines) {
+        this(new ListTokenSource(tokens, lines));
+    }
+
+    public Parser(TokenBuffer tokens) {
+        this(tokens.cursor());
+    }
+
+    public Parser(TokenSource tokens) {
+        this(tokens, new NodeFactory());
+    }
+
+    /**
+     * @param nodes Creates the expression nodes, e.g. a {@link HashConsingNodeFactory}
+     */
+    public Parser(TokenSource tokens, NodeFactory nodes) {
         this.tokens = tokens;
-        this.position = 0;
+        this.nodes = nodes;
     }
 
     public List<Statement> parse() {
@@ -38,7 +53,7 @@ public class Parser {
     }
 
     private Statement parseDeclaration() {
-        if (match(List.of(TokenType.VAR))) {
+        if (match(TokenType.VAR)) {
             return parseVarDeclaration();
         }
 
@@ -46,35 +61,38 @@ public class Parser {
     }
 
     private Statement parseStatement() {
-        if (match(List.of(TokenType.IF))) {
+        if (match(TokenType.IF)) {
             return parseIfStatement();
         }
 
-        if (match(List.of(TokenType.WHILE))) {
+        if (match(TokenType.WHILE)) {
             return parseWhileStatement();
         }
 
-        if (match(List.of(TokenType.PRINT))) {
+        if (match(TokenType.PRINT)) {
             return parsePrintStatement();
         }
 
-        if (match(List.of(TokenType.LBRACE))) {
+        if (match(TokenType.LBRACE)) {
             return new BlockStatement(parseBlock());
         }
 
         return parseExpressionStatement();
     }
 
-    private Statement parseVarDeclaration() {
-        Token name = consume(TokenType.ID, "Ожидается имя переменной.");
+    protected Statement parseVarDeclaration() {
+        consume(TokenType.ID, "Ожидается имя переменной.");
+        String name = tokens.previousValue();
+        int symbol = tokens.previousSymbol();
         Expression initializer = null;
 
-        if (match(List.of(TokenType.EQ))) {
+        if (match(TokenType.EQ)) {
             initializer = parseExpression();
         }
 
         consume(TokenType.SEMICOLON, "Ожидается ';' после объявления переменной.");
-        return new VarStatement(name.getValue(), initializer);
+        nodes.declare(name);
+        return new VarStatement(name, symbol, initializer);
     }
 
     private Statement parseIfStatement() {
@@ -85,7 +103,7 @@ public class Parser {
         Statement thenBranch = parseStatement();
         Statement elseBranch = null;
 
-        if (match(List.of(TokenType.ELSE))) {
+        if (match(TokenType.ELSE)) {
             elseBranch = parseStatement();
         }
 
@@ -101,13 +119,13 @@ public class Parser {
         return new WhileStatement(condition, body);
     }
 
-    private Statement parsePrintStatement() {
+    protected Statement parsePrintStatement() {
         Expression value = parseExpression();
         consume(TokenType.SEMICOLON, "Ожидается ';' после значения.");
         return new PrintStatement(value);
     }
 
-    private Statement parseExpressionStatement() {
+    protected Statement parseExpressionStatement() {
         Expression expr = parseExpression();
         consume(TokenType.SEMICOLON, "Ожидается ';' после выражения.");
         return new ExpressionStatement(expr);
@@ -115,16 +133,18 @@ public class Parser {
 
     private List<Statement> parseBlock() {
         List<Statement> statements = new ArrayList<>();
+        nodes.enterScope();
 
         while (!check(TokenType.RBRACE) && !isAtEnd()) {
             statements.add(parseDeclaration());
         }
 
         consume(TokenType.RBRACE, "Ожидается '}' после блока.");
+        nodes.exitScope();
         return statements;
     }
 
-    private Expression parseExpression() {
+    protected Expression parseExpression() {
         return parseAssignment();
     }
 
@@ -132,15 +152,15 @@ public class Parser {
         Expression expression = parseLogicalOr();
 
         if (match(List.of(TokenType.EQ))) {
-            Token equals = previous();
+            // Located now: a streaming source may forget this line while the value is parsed
+            ParseException invalidTarget = invalidTarget(expression instanceof VariableExpression);
             Expression value = parseAssignment();
 
-            if (expression instanceof VariableExpression variableExpression) {
-                return new AssignExpression(variableExpression.getName(), value);
+            if (invalidTarget != null) {
+                throw invalidTarget;
             }
-
-            throw new ParseException(String.format("[Parser Error] Line %d, Col %d: Invalid assignment target.",
-                    equals.getLine(), equals.getColumn()));
+            VariableExpression variableExpression = (VariableExpression) expression;
+            return nodes.assign(variableExpression.getName(), variableExpression.getSymbol(), value);
         }
 
         return expression;
@@ -150,9 +170,9 @@ public class Parser {
         Expression expression = parseLogicalAnd();
 
         while (match(List.of(TokenType.OR))) {
-            TokenType operator = previous().getType();
+            TokenType operator = tokens.previousType();
             Expression right = parseLogicalAnd();
-            expression = new BinaryExpression(expression, operator, right);
+            expression = nodes.binary(expression, operator, right);
         }
 
         return expression;
@@ -162,9 +182,9 @@ public class Parser {
         Expression expression = parseEquality();
 
         while (match(List.of(TokenType.AND))) {
-            TokenType operator = previous().getType();
+            TokenType operator = tokens.previousType();
             Expression right = parseEquality();
-            expression = new BinaryExpression(expression, operator, right);
+            expression = nodes.binary(expression, operator, right);
         }
 
         return expression;
@@ -174,9 +194,9 @@ public class Parser {
         Expression expression = parseComparison();
 
         while (match(List.of(TokenType.EQEQ, TokenType.NEQ))) {
-            TokenType operator = previous().getType();
+            TokenType operator = tokens.previousType();
             Expression right = parseComparison();
-            expression = new BinaryExpression(expression, operator, right);
+            expression = nodes.binary(expression, operator, right);
         }
 
         return expression;
@@ -186,9 +206,9 @@ public class Parser {
         Expression expression = parseTerm();
 
         while (match(List.of(TokenType.LT, TokenType.LTEQ, TokenType.GT, TokenType.GTEQ))) {
-            TokenType operator = previous().getType();
+            TokenType operator = tokens.previousType();
             Expression right = parseTerm();
-            expression = new BinaryExpression(expression, operator, right);
+            expression = nodes.binary(expression, operator, right);
         }
 
         return expression;
@@ -198,9 +218,9 @@ public class Parser {
         Expression expression = parseFactor();
 
         while (match(List.of(TokenType.PLUS, TokenType.MINUS))) {
-            TokenType operator = previous().getType();
+            TokenType operator = tokens.previousType();
             Expression right = parseFactor();
-            expression = new BinaryExpression(expression, operator, right);
+            expression = nodes.binary(expression, operator, right);
         }
 
         return expression;
@@ -210,9 +230,9 @@ public class Parser {
         Expression expression = parseUnary();
 
         while (match(List.of(TokenType.STAR, TokenType.SLASH))) {
-            TokenType operator = previous().getType();
+            TokenType operator = tokens.previousType();
             Expression right = parseUnary();
-            expression = new BinaryExpression(expression, operator, right);
+            expression = nodes.binary(expression, operator, right);
         }
 
         return expression;
@@ -220,9 +240,9 @@ public class Parser {
 
     private Expression parseUnary() {
         if (match(List.of(TokenType.MINUS))) {
-            TokenType operator = previous().getType();
+            TokenType operator = tokens.previousType();
             Expression right = parseUnary();
-            return new UnaryExpression(operator, right);
+            return nodes.unary(operator, right);
         }
 
         return parsePrimary();
@@ -230,11 +250,11 @@ public class Parser {
 
     private Expression parsePrimary() {
         if (match(List.of(TokenType.NUMBER))) {
-            return new NumberExpression(Double.parseDouble(previous().getValue()));
+            return nodes.number(Double.parseDouble(tokens.previousValue()));
         }
 
         if (match(List.of(TokenType.ID))) {
-            return new VariableExpression(previous().getValue());
+            return nodes.variable(tokens.previousValue(), tokens.previousSymbol());
         }
 
         if (match(List.of(TokenType.LPAREN))) {
@@ -246,6 +266,15 @@ public class Parser {
         throw new ParseException("Ожидается выражение.");
     }
 
+    protected boolean match(TokenType type) {
+        if (check(type)) {
+            advance();
+            return true;
+        }
+
+        return false;
+    }
+
     private boolean match(List<TokenType> types) {
         for (TokenType type : types) {
             if (check(type)) {
@@ -257,41 +286,42 @@ public class Parser {
         return false;
     }
 
-    private boolean check(TokenType type) {
+    protected boolean check(TokenType type) {
         if (isAtEnd()) {
             return false;
         }
 
-        return peek().getType() == type;
+        return tokens.peekType() == type;
     }
 
-    private Token advance() {
-        if (!isAtEnd()) {
-            position++;
-        }
-
-        return previous();
+    protected void advance() {
+        tokens.advance();
     }
 
-    private boolean isAtEnd() {
-        return peek().getType() == TokenType.EOF;
+    protected boolean isAtEnd() {
+        return tokens.peekType() == TokenType.EOF;
     }
 
-    private Token peek() {
-        return tokens.get(position);
-    }
+    protected void consume(TokenType type, String message) {
+        if (check(type)) {
+            advance();
+            return;
+        }
 
-    private Token previous() {
-        return tokens.get(position - 1);
+        throw error(tokens.peekPosition(), message);
     }
 
-    private Token consume(TokenType type, String message) {
-        if (check(type)) {
-            return advance();
-        }
+    /**
+     * @return Error for the '=' just matched, or null if its target is valid;
+     * thrown only after the value, so errors in the value are reported first
+     */
+    protected ParseException invalidTarget(boolean valid) {
+        return valid ? null : error(tokens.previousPosition(), "Invalid assignment target.");
+    }
 
-        Token token = peek();
-        throw new ParseException(
-                String.format("[Parser Error] Line %d, Col %d: %s", token.getLine(), token.getColumn(), message));
+    protected ParseException error(int position, String message) {
+        LineMap lines = tokens.getLineMap();
+        return new ParseException(String.format("[Parser Error] Line %d, Col %d: %s",
+                lines.getLine(position), lines.getColumn(position), message));
     }
 }
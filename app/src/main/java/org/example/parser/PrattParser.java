@@ -0,0 +1,94 @@
+package org.example.parser;
+
+import java.util.List;
+
+import org.example.exception.ParseException;
+import org.example.lexer.LineMap;
+import org.example.lexer.Token;
+import org.example.lexer.TokenBuffer;
+import org.example.lexer.TokenSource;
+import org.example.lexer.TokenType;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.VariableExpression;
+
+/**
+ * Parser whose expressions are parsed by precedence climbing over
+ * {@link PrecedenceTable} instead of one method per precedence level.
+ * A literal is parsed in one call, and no token lists are built to check
+ * operators. Statements, trees and error messages are the same as in
+ * {@link Parser}.
+ */
+public class PrattParser extends Parser {
+    public PrattParser(List<Token> tokens, LineMap lines) {
+        super(tokens, lines);
+    }
+
+    public PrattParser(TokenBuffer tokens) {
+        super(tokens);
+    }
+
+    public PrattParser(TokenSource tokens) {
+        super(tokens);
+    }
+
+    public PrattParser(TokenSource tokens, NodeFactory nodes) {
+        super(tokens, nodes);
+    }
+
+    @Override
+    protected Expression parseExpression() {
+        return parseExpression(PrecedenceTable.ASSIGNMENT);
+    }
+
+    private Expression parseExpression(int minPrecedence) {
+        Expression expression = parsePrefix();
+
+        while (true) {
+            TokenType operator = tokens.peekType();
+            int precedence = PrecedenceTable.infix(operator);
+            if (precedence == PrecedenceTable.NONE || precedence < minPrecedence) {
+                return expression;
+            }
+            advance();
+
+            if (PrecedenceTable.isRightAssociative(operator)) {
+                ParseException invalidTarget = invalidTarget(expression instanceof VariableExpression);
+                Expression value = parseExpression(precedence);
+
+                if (invalidTarget != null) {
+                    throw invalidTarget;
+                }
+                VariableExpression variableExpression = (VariableExpression) expression;
+                expression = nodes.assign(variableExpression.getName(), variableExpression.getSymbol(), value);
+            } else {
+                Expression right = parseExpression(precedence + 1);
+                expression = nodes.binary(expression, operator, right);
+            }
+        }
+    }
+
+    private Expression parsePrefix() {
+        TokenType type = tokens.peekType();
+
+        if (PrecedenceTable.PREFIX_OPERATORS.contains(type)) {
+            advance();
+            return nodes.unary(type, parsePrefix());
+        }
+
+        if (match(TokenType.NUMBER)) {
+            return nodes.number(Double.parseDouble(tokens.previousValue()));
+        }
+
+        if (match(TokenType.ID)) {
+            return nodes.variable(tokens.previousValue(), tokens.previousSymbol());
+        }
+
+        if (match(TokenType.LPAREN)) {
+            Expression expression = parseExpression();
+            consume(TokenType.RPAREN, "Ожидается ')' после выражения.");
+            return expression;
+        }
+
+        throw new ParseException("Ожидается выражение.");
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.parser;
+
+import java.util.EnumSet;
+
+import org.example.lexer.TokenType;
+
+/**
+ * Binding power of every infix operator, indexed by TokenType ordinal.
+ * Mirrors the precedence levels of the recursive descent in {@link Parser}:
+ * assignment binds loosest and is the only right-associative operator,
+ * prefix minus binds tightest.
+ */
+final class PrecedenceTable {
+    static final int NONE = 0;
+    static final int ASSIGNMENT = 1;
+    static final int OR = 2;
+    static final int AND = 3;
+    static final int EQUALITY = 4;
+    static final int COMPARISON = 5;
+    static final int TERM = 6;
+    static final int FACTOR = 7;
+    static final int UNARY = 8;
+
+    static final EnumSet<TokenType> PREFIX_OPERATORS = EnumSet.of(TokenType.MINUS);
+
+    private static final int[] INFIX = new int[TokenType.values().length];
+    static {
+        INFIX[TokenType.EQ.ordinal()] = ASSIGNMENT;
+        INFIX[TokenType.OR.ordinal()] = OR;
+        INFIX[TokenType.AND.ordinal()] = AND;
+        INFIX[TokenType.EQEQ.ordinal()] = EQUALITY;
+        INFIX[TokenType.NEQ.ordinal()] = EQUALITY;
+        INFIX[TokenType.LT.ordinal()] = COMPARISON;
+        INFIX[TokenType.LTEQ.ordinal()] = COMPARISON;
+        INFIX[TokenType.GT.ordinal()] = COMPARISON;
+        INFIX[TokenType.GTEQ.ordinal()] = COMPARISON;
+        INFIX[TokenType.PLUS.ordinal()] = TERM;
+        INFIX[TokenType.MINUS.ordinal()] = TERM;
+        INFIX[TokenType.STAR.ordinal()] = FACTOR;
+        INFIX[TokenType.SLASH.ordinal()] = FACTOR;
+    }
+
+    private PrecedenceTable() {
+    }
+
+    /**
+     * @return Binding power of the token as an infix operator, NONE if it is not one
+     */
+    static int infix(TokenType type) {
+        return INFIX[type.ordinal()];
+    }
+
+    static boolean isRightAssociative(TokenType type) {
+        return type == TokenType.EQ;
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.parser.arena;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * A whole program's AST in parallel primitive arrays instead of one object
+ * per node. A node is an int index; per node the arena keeps its kind, an
+ * operator ordinal, up to three child indices and one value: an index into
+ * the literal or symbol table, or where a block's statements start in the
+ * shared statement list.
+ *
+ * Fields by kind (-1 marks an absent child):
+ * - NUMBER: value = literal; VARIABLE: value = symbol
+ * - ASSIGN: value = symbol, child 0 = assigned expression
+ * - UNARY: operator, child 0; BINARY: operator, children 0 and 1
+ * - VAR: value = symbol, child 0 = initializer or -1
+ * - PRINT, EXPRESSION: child 0
+ * - IF: condition, then branch, else branch or -1; WHILE: condition, body
+ * - BLOCK, PROGRAM: value = first list entry, child 0 = statement count
+ *
+ * Built by an {@link AstArenaBuilder}, read through {@link AstCursor}s;
+ * the arena itself is never changed after that.
+ */
+public final class AstArena {
+    public static final byte NUMBER = 0;
+    public static final byte VARIABLE = 1;
+    public static final byte ASSIGN = 2;
+    public static final byte UNARY = 3;
+    public static final byte BINARY = 4;
+    public static final byte VAR = 5;
+    public static final byte PRINT = 6;
+    public static final byte EXPRESSION = 7;
+    public static final byte IF = 8;
+    public static final byte WHILE = 9;
+    public static final byte BLOCK = 10;
+    public static final byte PROGRAM = 11;
+
+    static final TokenType[] OPERATORS = TokenType.values();
+
+    final byte[] kinds;
+    final byte[] operators;
+    // Three per node
+    final int[] children;
+    final int[] values;
+    final int size;
+
+    // Statements of all blocks, each block's in one run
+    final int[] lists;
+    final double[] literals;
+    final String[] symbols;
+
+    private final int root;
+
+    AstArena(byte[] kinds, byte[] operators, int[] children, int[] values, int size,
+             int[] lists, double[] literals, String[] symbols, int root) {
+        this.kinds = kinds;
+        this.operators = operators;
+        this.children = children;
+        this.values = values;
+        this.size = size;
+        this.lists = lists;
+        this.literals = literals;
+        this.symbols = symbols;
+        this.root = root;
+    }
+
+    /**
+     * @return Number of nodes, the program node included
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The PROGRAM node
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    public byte getKind(int node) {
+        return kinds[node];
+    }
+
+    public AstCursor cursor() {
+        return new AstCursor(this, root);
+    }
+
+    public AstCursor cursor(int node) {
+        return new AstCursor(this, node);
+    }
+
+    /**
+     * @return Bytes held by the arena's arrays, symbol strings not included
+     */
+    public long getFootprint() {
+        long arrayHeader = 16;
+        return 7 * arrayHeader + kinds.length + operators.length + 4L * (children.length + values.length + lists.length)
+                + 8L * literals.length + 4L * symbols.length;
+    }
+
+    /**
+     * Builds the equivalent object AST, e.g. to run the program
+     */
+    public List<Statement> toStatements() {
+        AstCursor cursor = cursor();
+        List<Statement> statements = new ArrayList<>(cursor.getChildCount());
+        for (int i = 0; i < cursor.getChildCount(); i++) {
+            statements.add(statement(cursor.getChild(i)));
+        }
+        return statements;
+    }
+
+    private Statement statement(int node) {
+        int first = children[3 * node];
+        int second = children[3 * node + 1];
+        int third = children[3 * node + 2];
+
+        switch (kinds[node]) {
+            case VAR:
+                return new VarStatement(symbols[values[node]], first < 0 ? null : expression(first));
+            case PRINT:
+                return new PrintStatement(expression(first));
+            case EXPRESSION:
+                return new ExpressionStatement(expression(first));
+            case IF:
+                return new IfStatement(expression(first), statement(second), third < 0 ? null : statement(third));
+            case WHILE:
+                return new WhileStatement(expression(first), statement(second));
+            case BLOCK:
+                List<Statement> statements = new ArrayList<>(first);
+                for (int i = 0; i < first; i++) {
+                    statements.add(statement(lists[values[node] + i]));
+                }
+                return new BlockStatement(statements);
+            default:
+                throw new IllegalStateException("Node " + node + " is not a statement");
+        }
+    }
+
+    private Expression expression(int node) {
+        int first = children[3 * node];
+
+        switch (kinds[node]) {
+            case NUMBER:
+                return new NumberExpression(literals[values[node]]);
+            case VARIABLE:
+                return new VariableExpression(symbols[values[node]]);
+            case ASSIGN:
+                return new AssignExpression(symbols[values[node]], expression(first));
+            case UNARY:
+                return new UnaryExpression(OPERATORS[operators[node]], expression(first));
+            case BINARY:
+                return new BinaryExpression(expression(first), OPERATORS[operators[node]],
+                        expression(children[3 * node + 1]));
+            default:
+                throw new IllegalStateException("Node " + node + " is not an expression");
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.parser.arena;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.lexer.TokenType;
+
+/**
+ * Appends nodes to a new {@link AstArena}, children before their parents
+ * (an assignment takes the index of its target variable, which comes first).
+ * Every method returns the new node's index. Block statements are
+ * collected between {@link #startList()} and {@link #block(int)}; blocks
+ * nest, since a list is closed before the enclosing one continues.
+ */
+public class AstArenaBuilder {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private byte[] kinds;
+    private byte[] operators;
+    private int[] children;
+    private int[] values;
+    private int size;
+
+    private int[] lists = new int[DEFAULT_CAPACITY];
+    private int listSize;
+
+    // Statements of the blocks being parsed, innermost last
+    private int[] pending = new int[64];
+    private int pendingSize;
+
+    private double[] literals = new double[DEFAULT_CAPACITY];
+    private int literalCount;
+
+    private final Map<String, Integer> symbolIndexes = new HashMap<>();
+    private final List<String> symbols = new ArrayList<>();
+
+    public AstArenaBuilder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public AstArenaBuilder(int capacity) {
+        kinds = new byte[capacity];
+        operators = new byte[capacity];
+        children = new int[3 * capacity];
+        values = new int[capacity];
+    }
+
+    public int number(double value) {
+        if (literalCount == literals.length) {
+            literals = Arrays.copyOf(literals, literalCount * 2);
+        }
+        literals[literalCount] = value;
+        return node(AstArena.NUMBER, 0, -1, -1, -1, literalCount++);
+    }
+
+    public int variable(String name) {
+        return node(AstArena.VARIABLE, 0, -1, -1, -1, symbol(name));
+    }
+
+    /**
+     * Turns the VARIABLE node the parser took for an assignment target into
+     * the assignment, so the target leaves no unused node behind
+     */
+    public int assign(int target, int value) {
+        kinds[target] = AstArena.ASSIGN;
+        children[3 * target] = value;
+        return target;
+    }
+
+    public int unary(TokenType operator, int operand) {
+        return node(AstArena.UNARY, operator.ordinal(), operand, -1, -1, 0);
+    }
+
+    public int binary(int left, TokenType operator, int right) {
+        return node(AstArena.BINARY, operator.ordinal(), left, right, -1, 0);
+    }
+
+    /**
+     * @param initializer -1 for "var x;"
+     */
+    public int varStatement(String name, int initializer) {
+        return node(AstArena.VAR, 0, initializer, -1, -1, symbol(name));
+    }
+
+    public int printStatement(int expression) {
+        return node(AstArena.PRINT, 0, expression, -1, -1, 0);
+    }
+
+    public int expressionStatement(int expression) {
+        return node(AstArena.EXPRESSION, 0, expression, -1, -1, 0);
+    }
+
+    /**
+     * @param elseBranch -1 without an else branch
+     */
+    public int ifStatement(int condition, int thenBranch, int elseBranch) {
+        return node(AstArena.IF, 0, condition, thenBranch, elseBranch, 0);
+    }
+
+    public int whileStatement(int condition, int body) {
+        return node(AstArena.WHILE, 0, condition, body, -1, 0);
+    }
+
+    public byte getKind(int node) {
+        return kinds[node];
+    }
+
+    /**
+     * @return Mark to pass to {@link #block} once the list's statements are added
+     */
+    public int startList() {
+        return pendingSize;
+    }
+
+    public void addToList(int statement) {
+        if (pendingSize == pending.length) {
+            pending = Arrays.copyOf(pending, pendingSize * 2);
+        }
+        pending[pendingSize++] = statement;
+    }
+
+    /**
+     * @return Block of the statements added since the mark
+     */
+    public int block(int mark) {
+        return list(AstArena.BLOCK, mark);
+    }
+
+    /**
+     * @param mark Start of the top-level statement list
+     * @return The finished arena; the builder is not used after this
+     */
+    public AstArena build(int mark) {
+        int root = list(AstArena.PROGRAM, mark);
+        return new AstArena(Arrays.copyOf(kinds, size), Arrays.copyOf(operators, size),
+                Arrays.copyOf(children, 3 * size), Arrays.copyOf(values, size), size,
+                Arrays.copyOf(lists, listSize), Arrays.copyOf(literals, literalCount),
+                symbols.toArray(new String[0]), root);
+    }
+
+    private int list(byte kind, int mark) {
+        int count = pendingSize - mark;
+        while (listSize + count > lists.length) {
+            lists = Arrays.copyOf(lists, lists.length * 2);
+        }
+        System.arraycopy(pending, mark, lists, listSize, count);
+        pendingSize = mark;
+
+        int node = node(kind, 0, count, -1, -1, listSize);
+        listSize += count;
+        return node;
+    }
+
+    private int symbol(String name) {
+        Integer index = symbolIndexes.get(name);
+        if (index == null) {
+            index = symbols.size();
+            symbolIndexes.put(name, index);
+            symbols.add(name);
+        }
+        return index;
+    }
+
+    private int node(byte kind, int operator, int first, int second, int third, int value) {
+        if (size == kinds.length) {
+            grow();
+        }
+        kinds[size] = kind;
+        operators[size] = (byte) operator;
+        children[3 * size] = first;
+        children[3 * size + 1] = second;
+        children[3 * size + 2] = third;
+        values[size] = value;
+        return size++;
+    }
+
+    private void grow() {
+        int capacity = Math.max(DEFAULT_CAPACITY, kinds.length + (kinds.length >> 1));
+        kinds = Arrays.copyOf(kinds, capacity);
+        operators = Arrays.copyOf(operators, capacity);
+        children = Arrays.copyOf(children, 3 * capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+}
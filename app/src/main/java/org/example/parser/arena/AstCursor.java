@@ -0,0 +1,119 @@
+package org.example.parser.arena;
+
+import org.example.lexer.TokenType;
+
+/**
+ * Read-only view of one arena node at a time. Moving it with {@link #moveTo}
+ * is an int assignment, so a single cursor can walk a whole tree without
+ * allocating. Getters that do not apply to the node's kind return -1 or
+ * garbage; check {@link #getKind()} first.
+ */
+public final class AstCursor {
+    private final AstArena arena;
+    private int node;
+
+    AstCursor(AstArena arena, int node) {
+        this.arena = arena;
+        this.node = node;
+    }
+
+    public AstCursor moveTo(int node) {
+        this.node = node;
+        return this;
+    }
+
+    public int getNode() {
+        return node;
+    }
+
+    public byte getKind() {
+        return arena.kinds[node];
+    }
+
+    // UNARY and BINARY
+    public TokenType getOperator() {
+        return AstArena.OPERATORS[arena.operators[node]];
+    }
+
+    // NUMBER
+    public double getNumber() {
+        return arena.literals[arena.values[node]];
+    }
+
+    // VARIABLE, ASSIGN and VAR
+    public String getName() {
+        return arena.symbols[arena.values[node]];
+    }
+
+    // Index of the name in the arena's symbol table, equal for equal names
+    public int getSymbol() {
+        return arena.values[node];
+    }
+
+    /**
+     * @return Number of children present: absent initializers and else branches are not counted
+     */
+    public int getChildCount() {
+        switch (arena.kinds[node]) {
+            case AstArena.NUMBER:
+            case AstArena.VARIABLE:
+                return 0;
+            case AstArena.ASSIGN:
+            case AstArena.UNARY:
+            case AstArena.PRINT:
+            case AstArena.EXPRESSION:
+                return 1;
+            case AstArena.VAR:
+                return arena.children[3 * node] < 0 ? 0 : 1;
+            case AstArena.BINARY:
+            case AstArena.WHILE:
+                return 2;
+            case AstArena.IF:
+                return arena.children[3 * node + 2] < 0 ? 2 : 3;
+            default:
+                return arena.children[3 * node];
+        }
+    }
+
+    /**
+     * @return The index-th present child, in source order
+     */
+    public int getChild(int index) {
+        byte kind = arena.kinds[node];
+        if (kind == AstArena.BLOCK || kind == AstArena.PROGRAM) {
+            return arena.lists[arena.values[node] + index];
+        }
+        return arena.children[3 * node + index];
+    }
+
+    // Named children, -1 if absent
+
+    public int getLeft() {
+        return arena.children[3 * node];
+    }
+
+    public int getRight() {
+        return arena.children[3 * node + 1];
+    }
+
+    // UNARY, ASSIGN, PRINT, EXPRESSION and VAR
+    public int getOperand() {
+        return arena.children[3 * node];
+    }
+
+    public int getCondition() {
+        return arena.children[3 * node];
+    }
+
+    public int getThenBranch() {
+        return arena.children[3 * node + 1];
+    }
+
+    public int getElseBranch() {
+        return arena.children[3 * node + 2];
+    }
+
+    public int getBody() {
+        return arena.children[3 * node + 1];
+    }
+}
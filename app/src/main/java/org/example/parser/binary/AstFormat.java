@@ -0,0 +1,97 @@
+package org.example.parser.binary;
+
+import java.util.Arrays;
+
+import org.example.lexer.TokenType;
+
+/**
+ * Layout of a serialized AST, version {@link #VERSION}:
+ *
+ *   magic "ASTB", version (u16)
+ *   string count (varint), then each string: byte length (varint), UTF-8
+ *   statement count (varint), then the statements
+ *
+ * Nodes are written in preorder: a tag byte, the node's own data, then its
+ * children. Names are string table indexes (varint), literals are 8-byte
+ * doubles, operators one byte from {@link #OPERATORS}, and a block gives
+ * its statement count (varint) before the statements. Optional children
+ * have their own tags (VAR / VAR_INIT, IF / IF_ELSE). Numbers are big-endian.
+ *
+ * Operator codes and tags are part of the format: they never follow
+ * changes to {@link TokenType}. Anything else needs a new version.
+ */
+public final class AstFormat {
+    static final int MAGIC = 0x41535442;
+    public static final int VERSION = 1;
+
+    public static final byte NUMBER = 1;
+    public static final byte STRING = 2;
+    public static final byte VARIABLE = 3;
+    public static final byte ASSIGN = 4;
+    public static final byte UNARY = 5;
+    public static final byte BINARY = 6;
+    // "var x;"
+    public static final byte VAR = 7;
+    public static final byte VAR_INIT = 8;
+    public static final byte PRINT = 9;
+    public static final byte EXPRESSION = 10;
+    public static final byte IF = 11;
+    public static final byte IF_ELSE = 12;
+    public static final byte WHILE = 13;
+    public static final byte BLOCK = 14;
+
+    // Operator of each code
+    static final TokenType[] OPERATORS = {
+            TokenType.PLUS, TokenType.MINUS, TokenType.STAR, TokenType.SLASH,
+            TokenType.LT, TokenType.LTEQ, TokenType.GT, TokenType.GTEQ,
+            TokenType.EQEQ, TokenType.NEQ, TokenType.AND, TokenType.OR
+    };
+
+    // Code of each operator, indexed by TokenType ordinal; -1 for other tokens
+    private static final byte[] CODES = new byte[TokenType.values().length];
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        for (int code = 0; code < OPERATORS.length; code++) {
+            CODES[OPERATORS[code].ordinal()] = (byte) code;
+        }
+    }
+
+    private AstFormat() {
+    }
+
+    static byte code(TokenType operator) {
+        byte code = CODES[operator.ordinal()];
+        if (code < 0) {
+            throw new IllegalArgumentException("Operator " + operator + " can not be serialized");
+        }
+        return code;
+    }
+
+    /**
+     * @return Number of children that follow a node with the tag and the
+     * data already read; blocks give their own count
+     */
+    static int arity(byte tag) {
+        switch (tag) {
+            case NUMBER:
+            case STRING:
+            case VARIABLE:
+            case VAR:
+                return 0;
+            case ASSIGN:
+            case UNARY:
+            case VAR_INIT:
+            case PRINT:
+            case EXPRESSION:
+                return 1;
+            case BINARY:
+            case IF:
+            case WHILE:
+                return 2;
+            case IF_ELSE:
+                return 3;
+            default:
+                throw new IllegalArgumentException("Unknown node tag " + tag);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package org.example.parser.binary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.lexer.TokenType;
+import org.example.parser.expression.AssignExpression;
+import org.example.parser.expression.BinaryExpression;
+import org.example.parser.expression.Expression;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.StringExpression;
+import org.example.parser.expression.UnaryExpression;
+import org.example.parser.expression.VariableExpression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.ExpressionStatement;
+import org.example.parser.statement.IfStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+
+/**
+ * Reads an AST in the {@link AstFormat} straight from a ByteBuffer, which
+ * may be a mapped file. {@link #next()} moves to the next node in preorder
+ * and decodes only that node's own data; names are decoded from the string
+ * table the first time they are asked for. {@link #readStatements()}
+ * builds the object AST when one is needed after all.
+ *
+ * The buffer is not changed or copied; the reader is not thread-safe.
+ */
+public final class AstReader {
+    private final ByteBuffer buffer;
+    private final int[] stringOffsets;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final int statementCount;
+    private final int statementsStart;
+
+    private int position;
+
+    // The node read last
+    private byte tag;
+    private int childCount;
+    private double number;
+    private int symbol;
+    private TokenType operator;
+
+    private AstReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.remaining() < 6 || buffer.getInt(0) != AstFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a serialized AST");
+        }
+        int version = buffer.getShort(4) & 0xFFFF;
+        if (version != AstFormat.VERSION) {
+            throw new IllegalArgumentException(String.format(
+                    "Unsupported AST format version %d, expected %d", version, AstFormat.VERSION));
+        }
+
+        position = 6;
+        int count = varint();
+        stringOffsets = new int[count];
+        stringLengths = new int[count];
+        strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            stringLengths[i] = varint();
+            stringOffsets[i] = position;
+            position += stringLengths[i];
+        }
+
+        statementCount = varint();
+        statementsStart = position;
+    }
+
+    /**
+     * @param buffer Serialized AST, from its position to its limit
+     * @throws IllegalArgumentException If it does not start with the format's header
+     */
+    public static AstReader of(ByteBuffer buffer) {
+        return new AstReader(buffer.slice());
+    }
+
+    /**
+     * Maps the file read-only; nodes are read from the mapping as they are visited
+     */
+    public static AstReader map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public int getStringCount() {
+        return strings.length;
+    }
+
+    public String getString(int index) {
+        String string = strings[index];
+        if (string == null) {
+            byte[] utf8 = new byte[stringLengths[index]];
+            buffer.get(stringOffsets[index], utf8);
+            string = new String(utf8, StandardCharsets.UTF_8);
+            strings[index] = string;
+        }
+        return string;
+    }
+
+    /**
+     * Goes back to before the first top-level statement
+     */
+    public void rewind() {
+        position = statementsStart;
+    }
+
+    /**
+     * Reads the next node in preorder: a top-level statement after
+     * {@link #rewind()}, otherwise the first child of the node read last,
+     * or whatever follows once its children are read or skipped
+     * @return The node's tag, one of the AstFormat constants
+     */
+    public byte next() {
+        tag = buffer.get(position++);
+        switch (tag) {
+            case AstFormat.NUMBER:
+                number = buffer.getDouble(position);
+                position += 8;
+                break;
+            case AstFormat.STRING:
+            case AstFormat.VARIABLE:
+            case AstFormat.ASSIGN:
+            case AstFormat.VAR:
+            case AstFormat.VAR_INIT:
+                symbol = varint();
+                break;
+            case AstFormat.UNARY:
+            case AstFormat.BINARY:
+                int code = buffer.get(position++);
+                if (code < 0 || code >= AstFormat.OPERATORS.length) {
+                    throw new IllegalArgumentException("Unknown operator code " + code);
+                }
+                operator = AstFormat.OPERATORS[code];
+                break;
+            default:
+                break;
+        }
+        childCount = tag == AstFormat.BLOCK ? varint() : AstFormat.arity(tag);
+        return tag;
+    }
+
+    // Data of the node read last
+
+    public int getChildCount() {
+        return childCount;
+    }
+
+    public double getNumber() {
+        return number;
+    }
+
+    // Name or string value, as a string table index
+    public int getSymbol() {
+        return symbol;
+    }
+
+    public String getName() {
+        return getString(symbol);
+    }
+
+    public TokenType getOperator() {
+        return operator;
+    }
+
+    /**
+     * Skips the children of the node read last, and theirs
+     */
+    public void skipChildren() {
+        int remaining = childCount;
+        for (int i = 0; i < remaining; i++) {
+            next();
+            skipChildren();
+        }
+    }
+
+    /**
+     * Builds the whole object AST, from the first statement on
+     */
+    public List<Statement> readStatements() {
+        rewind();
+        List<Statement> statements = new ArrayList<>(statementCount);
+        for (int i = 0; i < statementCount; i++) {
+            statements.add(statement());
+        }
+        return statements;
+    }
+
+    private Statement statement() {
+        switch (next()) {
+            case AstFormat.VAR:
+                return new VarStatement(getName(), null);
+            case AstFormat.VAR_INIT: {
+                String name = getName();
+                return new VarStatement(name, expression());
+            }
+            case AstFormat.PRINT:
+                return new PrintStatement(expression());
+            case AstFormat.EXPRESSION:
+                return new ExpressionStatement(expression());
+            case AstFormat.IF:
+            case AstFormat.IF_ELSE: {
+                boolean hasElse = tag == AstFormat.IF_ELSE;
+                Expression condition = expression();
+                Statement thenBranch = statement();
+                return new IfStatement(condition, thenBranch, hasElse ? statement() : null);
+            }
+            case AstFormat.WHILE: {
+                Expression condition = expression();
+                return new WhileStatement(condition, statement());
+            }
+            case AstFormat.BLOCK: {
+                int count = childCount;
+                List<Statement> statements = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    statements.add(statement());
+                }
+                return new BlockStatement(statements);
+            }
+            default:
+                throw new IllegalArgumentException("Expected a statement, found node tag " + tag);
+        }
+    }
+
+    private Expression expression() {
+        switch (next()) {
+            case AstFormat.NUMBER:
+                return new NumberExpression(number);
+            case AstFormat.STRING:
+                return new StringExpression(getName());
+            case AstFormat.VARIABLE:
+                return new VariableExpression(getName());
+            case AstFormat.ASSIGN: {
+                String name = getName();
+                return new AssignExpression(name, expression());
+            }
+            case AstFormat.UNARY: {
+                TokenType unary = operator;
+                return new UnaryExpression(unary, expression());
+            }
+            case AstFormat.BINARY: {
+                TokenType binary = operator;
+                Expression left = expression();
+                return new BinaryExpression(left, binary, expression());
+            }
+            default:
+                throw new IllegalArgumentException("Expected an expression, found node tag " + tag);
+        }
+    }
+
+    private int varint() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get(position++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.parser.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.parser.expression.*;
+import org.example.parser.statement.*;
+
+/**
+ * Serializes a parsed program in the {@link AstFormat}. The body is written
+ * first, collecting the names, and the string table put in front of it.
+ * Shared subtrees (see HashConsingNodeFactory) are written once per use.
+ * A writer can be reused; it is not thread-safe.
+ */
+public class AstWriter {
+    private byte[] body = new byte[4096];
+    private int size;
+
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    private final Encoder encoder = new Encoder();
+
+    public byte[] write(List<Statement> statements) {
+        size = 0;
+        stringIndexes.clear();
+        strings.clear();
+
+        varint(statements.size());
+        for (Statement statement : statements) {
+            statement.accept(encoder);
+        }
+        byte[] program = Arrays.copyOf(body, size);
+
+        size = 0;
+        u4(AstFormat.MAGIC);
+        u2(AstFormat.VERSION);
+        varint(strings.size());
+        for (String string : strings) {
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            bytes(utf8, utf8.length);
+        }
+        bytes(program, program.length);
+        return Arrays.copyOf(body, size);
+    }
+
+    public void write(List<Statement> statements, OutputStream out) throws IOException {
+        out.write(write(statements));
+    }
+
+    public void write(List<Statement> statements, Path file) throws IOException {
+        Files.write(file, write(statements));
+    }
+
+    private int string(String value) {
+        Integer index = stringIndexes.get(value);
+        if (index == null) {
+            index = strings.size();
+            stringIndexes.put(value, index);
+            strings.add(value);
+        }
+        return index;
+    }
+
+    // Unsigned LEB128: seven bits per byte, low bits first, high bit set on all but the last
+    private void varint(int value) {
+        while ((value & ~0x7F) != 0) {
+            u1((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        u1(value);
+    }
+
+    private void u1(int value) {
+        if (size == body.length) {
+            body = Arrays.copyOf(body, size * 2);
+        }
+        body[size++] = (byte) value;
+    }
+
+    private void u2(int value) {
+        u1(value >> 8);
+        u1(value);
+    }
+
+    private void u4(int value) {
+        u2(value >> 16);
+        u2(value);
+    }
+
+    private void bytes(byte[] bytes, int length) {
+        while (size + length > body.length) {
+            body = Arrays.copyOf(body, body.length * 2);
+        }
+        System.arraycopy(bytes, 0, body, size, length);
+        size += length;
+    }
+
+    // Writes each node, then its children
+    private final class Encoder implements StatementVisitor<Void>, ExpressionVisitor<Void> {
+        @Override
+        public Void visitVar(VarStatement statement) {
+            if (statement.getInitializer() == null) {
+                u1(AstFormat.VAR);
+                varint(string(statement.getName()));
+            } else {
+                u1(AstFormat.VAR_INIT);
+                varint(string(statement.getName()));
+                statement.getInitializer().accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitPrint(PrintStatement statement) {
+            u1(AstFormat.PRINT);
+            return statement.getExpression().accept(this);
+        }
+
+        @Override
+        public Void visitIf(IfStatement statement) {
+            u1(statement.getElseBranch() == null ? AstFormat.IF : AstFormat.IF_ELSE);
+            statement.getCondition().accept(this);
+            statement.getThenBranch().accept(this);
+            if (statement.getElseBranch() != null) {
+                statement.getElseBranch().accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitWhile(WhileStatement statement) {
+            u1(AstFormat.WHILE);
+            statement.getCondition().accept(this);
+            return statement.getBody().accept(this);
+        }
+
+        @Override
+        public Void visitBlock(BlockStatement statement) {
+            u1(AstFormat.BLOCK);
+            varint(statement.getStatements().size());
+            for (Statement child : statement.getStatements()) {
+                child.accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitExpression(ExpressionStatement statement) {
+            u1(AstFormat.EXPRESSION);
+            return statement.getExpression().accept(this);
+        }
+
+        @Override
+        public Void visitNumber(NumberExpression expression) {
+            u1(AstFormat.NUMBER);
+            long bits = Double.doubleToRawLongBits(expression.getValue());
+            u4((int) (bits >>> 32));
+            u4((int) bits);
+            return null;
+        }
+
+        @Override
+        public Void visitString(StringExpression expression) {
+            u1(AstFormat.STRING);
+            varint(string(expression.getValue()));
+            return null;
+        }
+
+        @Override
+        public Void visitVariable(VariableExpression expression) {
+            u1(AstFormat.VARIABLE);
+            varint(string(expression.getName()));
+            return null;
+        }
+
+        @Override
+        public Void visitAssign(AssignExpression expression) {
+            u1(AstFormat.ASSIGN);
+            varint(string(expression.getName()));
+            return expression.getValue().accept(this);
+        }
+
+        @Override
+        public Void visitUnary(UnaryExpression expression) {
+            u1(AstFormat.UNARY);
+            u1(AstFormat.code(expression.getOperator()));
+            return expression.getRight().accept(this);
+        }
+
+        @Override
+        public Void visitBinary(BinaryExpression expression) {
+            u1(AstFormat.BINARY);
+            u1(AstFormat.code(expression.getOperator()));
+            expression.getLeft().accept(this);
+            return expression.getRight().accept(this);
+        }
+    }
+}
@@ -1,14 +1,33 @@
 package org.example.parser.expression;
 
 import lombok.Getter;
+import lombok.Setter;
 
 @Getter
 public class AssignExpression extends Expression {
     private String name;
+    // Id of the name in the lexer's SymbolTable, -1 for nodes not made from a token
+    private int symbol = -1;
     private Expression value;
 
+    // Frame and slot of the assigned variable, set by the Resolver
+    @Setter
+    private int depth = -1;
+    @Setter
+    private int slot = -1;
+
     public AssignExpression(String name, Expression value) {
         this.name = name;
         this.value = value;
     }
+
+    public AssignExpression(String name, int symbol, Expression value) {
+        this(name, value);
+        this.symbol = symbol;
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitAssign(this);
+    }
 }
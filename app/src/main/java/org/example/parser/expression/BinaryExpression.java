@@ -15,4 +15,9 @@ public class BinaryExpression extends Expression {
         this.operator = operator;
         this.right = right;
     }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitBinary(this);
+    }
 }
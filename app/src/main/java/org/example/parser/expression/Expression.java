@@ -1,5 +1,15 @@
 package org.example.parser.expression;
 
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
 public abstract class Expression {
+    // Static type of the value and whether it needs no run-time checks, set by the TypeInference
+    private byte type;
+    private boolean staticallyTyped;
 
+    // Calls the visitor's method for this kind of expression
+    public abstract <R> R accept(ExpressionVisitor<R> visitor);
 }
@@ -0,0 +1,19 @@
+package org.example.parser.expression;
+
+/**
+ * One method per kind of expression, called by {@link Expression#accept}
+ * @param <R> What visiting an expression returns; Void when nothing
+ */
+public interface ExpressionVisitor<R> {
+    R visitNumber(NumberExpression expression);
+
+    R visitString(StringExpression expression);
+
+    R visitVariable(VariableExpression expression);
+
+    R visitAssign(AssignExpression expression);
+
+    R visitUnary(UnaryExpression expression);
+
+    R visitBinary(BinaryExpression expression);
+}
@@ -9,4 +9,9 @@ public class NumberExpression extends Expression {
     public NumberExpression(double value) {
         this.value = value;
     }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitNumber(this);
+    }
 }
@@ -9,4 +9,9 @@ public class StringExpression extends Expression {
     public StringExpression(String value) {
         this.value = value;
     }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitString(this);
+    }
 }
@@ -13,4 +13,9 @@ public class UnaryExpression extends Expression {
         this.operator = operator;
         this.right = right;
     }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitUnary(this);
+    }
 }
@@ -1,12 +1,31 @@
 package org.example.parser.expression;
 
 import lombok.Getter;
+import lombok.Setter;
 
 @Getter
 public class VariableExpression extends Expression {
     private String name;
+    // Id of the name in the lexer's SymbolTable, -1 for nodes not made from a token
+    private int symbol = -1;
+
+    // Where the variable lives at run time, set by the Resolver
+    @Setter
+    private int depth = -1;
+    @Setter
+    private int slot = -1;
 
     public VariableExpression(String name) {
         this.name = name;
     }
+
+    public VariableExpression(String name, int symbol) {
+        this.name = name;
+        this.symbol = symbol;
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitVariable(this);
+    }
 }
@@ -11,4 +11,9 @@ public class BlockStatement extends Statement {
     public BlockStatement(List<Statement> statements) {
         this.statements = statements;
     }
+
+    @Override
+    public <R> R accept(StatementVisitor<R> visitor) {
+        return visitor.visitBlock(this);
+    }
 }
@@ -11,4 +11,9 @@ public class PrintStatement extends Statement {
     public PrintStatement(Expression expression) {
         this.expression = expression;
     }
+
+    @Override
+    public <R> R accept(StatementVisitor<R> visitor) {
+        return visitor.visitPrint(this);
+    }
 }
@@ -1,5 +1,6 @@
 package org.example.parser.statement;
 
 public abstract class Statement {
-
+    // Calls the visitor's method for this kind of statement
+    public abstract <R> R accept(StatementVisitor<R> visitor);
 }
@@ -0,0 +1,19 @@
+package org.example.parser.statement;
+
+/**
+ * One method per kind of statement, called by {@link Statement#accept}
+ * @param <R> What visiting a statement returns; Void when nothing
+ */
+public interface StatementVisitor<R> {
+    R visitVar(VarStatement statement);
+
+    R visitPrint(PrintStatement statement);
+
+    R visitIf(IfStatement statement);
+
+    R visitWhile(WhileStatement statement);
+
+    R visitBlock(BlockStatement statement);
+
+    R visitExpression(ExpressionStatement statement);
+}
@@ -3,14 +3,33 @@ package org.example.parser.statement;
 import org.example.parser.expression.Expression;
 
 import lombok.Getter;
+import lombok.Setter;
 
 @Getter
 public class VarStatement extends Statement {
     private String name;
+    // Id of the name in the lexer's SymbolTable, -1 for nodes not made from a token
+    private int symbol = -1;
     private Expression initializer;
 
+    // Frame and slot this declaration writes, set by the Resolver
+    @Setter
+    private int depth = -1;
+    @Setter
+    private int slot = -1;
+
     public VarStatement(String name, Expression initializer) {
         this.name = name;
         this.initializer = initializer;
     }
+
+    public VarStatement(String name, int symbol, Expression initializer) {
+        this(name, initializer);
+        this.symbol = symbol;
+    }
+
+    @Override
+    public <R> R accept(StatementVisitor<R> visitor) {
+        return visitor.visitVar(this);
+    }
 }
@@ -13,4 +13,9 @@ public class WhileStatement extends Statement {
         this.condition = condition;
         this.body = body;
     }
+
+    @Override
+    public <R> R accept(StatementVisitor<R> visitor) {
+        return visitor.visitWhile(this);
+    }
 }
@@ -0,0 +1,148 @@
+package org.example.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.example.core.ASTPrinter;
+import org.example.exception.ParseException;
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+import org.example.parser.statement.Statement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CompilationCacheTest {
+    private static final String SOURCE = "var x = 1; while (x < 10) { if (x == 5) print x; else { x = x * 2; } x = x + 1; }";
+
+    private static String tree(List<Statement> statements) {
+        StringBuilder out = new StringBuilder();
+        new ASTPrinter().print(statements, out);
+        return out.toString();
+    }
+
+    private static String parsed(String source) {
+        return tree(new Parser(new Lexer(source).tokenizeToBuffer()).parse());
+    }
+
+    private static long fileCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static void setLastUsed(Path directory, String key, long millisAgo) throws IOException {
+        Files.setLastModifiedTime(directory.resolve(key + '.' + CompilationCache.AST),
+                FileTime.fromMillis(System.currentTimeMillis() - millisAgo));
+    }
+
+    @Test void secondParseIsAHit(@TempDir Path directory) throws IOException {
+        CompilationCache cache = new CompilationCache(directory, 1 << 20);
+        assertEquals(parsed(SOURCE), tree(cache.parse(SOURCE)));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        assertEquals(parsed(SOURCE), tree(cache.parse(SOURCE)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, fileCount(directory));
+    }
+
+    // The key covers the bytes, so a file and a string with the same text share it
+    @Test void fileAndStringShareTheEntry(@TempDir Path directory) throws IOException {
+        Path file = Files.writeString(directory.resolve("program.txt"), SOURCE, StandardCharsets.UTF_8);
+        CompilationCache cache = new CompilationCache(directory.resolve("cache"), 1 << 20);
+        cache.parse(file);
+        assertEquals(parsed(SOURCE), tree(cache.parse(SOURCE)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test void changedSourceOrStampMisses(@TempDir Path directory) throws IOException {
+        CompilationCache cache = new CompilationCache(directory, 1 << 20);
+        cache.parse(SOURCE);
+        cache.parse(SOURCE + " print 1;");
+        assertEquals(0, cache.getHitCount());
+
+        CompilationCache newer = new CompilationCache(directory, 1 << 20, CompilationCache.VERSION_STAMP + "+1");
+        byte[] bytes = SOURCE.getBytes(StandardCharsets.UTF_8);
+        assertNotEquals(cache.key(bytes), newer.key(bytes));
+        newer.parse(SOURCE);
+        assertEquals(0, newer.getHitCount());
+        assertEquals(1, newer.getMissCount());
+    }
+
+    @Test void syntaxErrorIsNotCached(@TempDir Path directory) throws IOException {
+        CompilationCache cache = new CompilationCache(directory, 1 << 20);
+        assertThrows(ParseException.class, () -> cache.parse("print 1 +;"));
+        assertThrows(ParseException.class, () -> cache.parse("print 1 +;"));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, fileCount(directory));
+    }
+
+    // Damaged or foreign entries count as misses and are parsed and written again
+    @Test void corruptEntryIsReplaced(@TempDir Path directory) throws IOException {
+        CompilationCache cache = new CompilationCache(directory, 1 << 20);
+        String key = cache.key(SOURCE.getBytes(StandardCharsets.UTF_8));
+        byte[][] corrupt = {
+            {},
+            "not an AST".getBytes(StandardCharsets.UTF_8),
+            // The header and a string count, but the body is cut off
+            new byte[] {0x41, 0x53, 0x54, 0x42, 0, 1, 1, 5, 'x'},
+        };
+        for (byte[] bytes : corrupt) {
+            cache.put(key, CompilationCache.AST, bytes);
+            assertEquals(parsed(SOURCE), tree(cache.parse(SOURCE)));
+        }
+        assertEquals(0, cache.getHitCount());
+        assertEquals(corrupt.length, cache.getMissCount());
+
+        assertEquals(parsed(SOURCE), tree(cache.parse(SOURCE)));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test void leastRecentlyUsedEntryIsEvicted(@TempDir Path directory) throws IOException {
+        CompilationCache cache = new CompilationCache(directory, 250);
+        byte[] bytes = new byte[100];
+        cache.put("a", CompilationCache.AST, bytes);
+        cache.put("b", CompilationCache.AST, bytes);
+        setLastUsed(directory, "a", 2 * 3600 * 1000);
+        setLastUsed(directory, "b", 3600 * 1000);
+        // Touches a, which makes b the oldest
+        assertNotNull(cache.get("a", CompilationCache.AST));
+
+        cache.put("c", CompilationCache.AST, bytes);
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("b", CompilationCache.AST));
+        assertArrayEquals(bytes, cache.get("a", CompilationCache.AST));
+        assertArrayEquals(bytes, cache.get("c", CompilationCache.AST));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    // A new cache counts the entries already in the directory
+    @Test void existingEntriesCountTowardsTheBound(@TempDir Path directory) throws IOException {
+        byte[] bytes = new byte[100];
+        CompilationCache first = new CompilationCache(directory, 1 << 20);
+        first.put("a", CompilationCache.AST, bytes);
+        first.put("b", CompilationCache.AST, bytes);
+        setLastUsed(directory, "a", 3600 * 1000);
+
+        CompilationCache second = new CompilationCache(directory, 250);
+        second.put("c", CompilationCache.AST, bytes);
+        assertEquals(1, second.getEvictionCount());
+        assertNull(second.get("a", CompilationCache.AST));
+        assertEquals(2, fileCount(directory));
+    }
+}
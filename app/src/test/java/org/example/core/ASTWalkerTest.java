@@ -0,0 +1,68 @@
+package org.example.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+import org.example.parser.statement.Statement;
+import org.junit.jupiter.api.Test;
+
+class ASTWalkerTest {
+    private static final String SOURCE = "var x = 1;\n"
+            + "if (x < 2) { print -x; } else print x * (x + 1);\n"
+            + "while (x != 3) x = x + 1;\n"
+            + "var y;\n"
+            + "if (x) {}\n";
+
+    private static List<Statement> parse(String source) {
+        return new Parser(new Lexer(source).tokenizeToBuffer()).parse();
+    }
+
+    private static String print(ASTPrinter.Format format, boolean iterative, List<Statement> statements) {
+        StringBuilder out = new StringBuilder();
+        new ASTPrinter(format, iterative).print(statements, out);
+        return out.toString();
+    }
+
+    @Test void walkMatchesRecursivePrinter() {
+        List<Statement> statements = parse(SOURCE);
+        for (ASTPrinter.Format format : ASTPrinter.Format.values()) {
+            assertEquals(print(format, false, statements), print(format, true, statements), format.name());
+        }
+    }
+
+    @Test void generatedProgramsMatchRecursivePrinter() {
+        for (long seed = 0; seed < 50; seed++) {
+            List<Statement> statements = parse(new RandomProgramGenerator(seed).generate(40));
+            assertEquals(print(ASTPrinter.Format.TREE, false, statements), print(ASTPrinter.Format.TREE, true, statements));
+        }
+    }
+
+    @Test void leaveFollowsChildrenInReverseOrderOfEnter() {
+        List<String> events = new ArrayList<>();
+        new ASTWalker().walk(parse("print 1 + 2;"), new ASTWalker.Visitor() {
+            @Override
+            public void enter(Object node, int depth, boolean isLast) {
+                events.add("enter " + node.getClass().getSimpleName() + " " + depth + (isLast ? " last" : ""));
+            }
+
+            @Override
+            public void leave(Object node, int depth) {
+                events.add("leave " + node.getClass().getSimpleName() + " " + depth);
+            }
+        });
+
+        assertEquals(List.of(
+                "enter PrintStatement 0 last",
+                "enter BinaryExpression 1 last",
+                "enter NumberExpression 2",
+                "leave NumberExpression 2",
+                "enter NumberExpression 2 last",
+                "leave NumberExpression 2",
+                "leave BinaryExpression 1",
+                "leave PrintStatement 0"), events);
+    }
+}
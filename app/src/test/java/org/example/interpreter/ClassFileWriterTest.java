@@ -0,0 +1,84 @@
+package org.example.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import org.junit.jupiter.api.Test;
+
+class ClassFileWriterTest {
+    private static final String RUN_DESCRIPTOR = "([[DLjava/io/PrintStream;)V";
+
+    private static CompiledLoop define(ClassFileWriter classFile, ClassFileWriter.Code run) throws Throwable {
+        ClassFileWriter.Code init = new ClassFileWriter.Code(1);
+        init.op(0x2a); // aload_0
+        init.stack(1);
+        init.op(0xb7, classFile.methodRef("java/lang/Object", "<init>", "()V")); // invokespecial
+        init.stack(-1);
+        init.op(0xb1); // return
+        classFile.addMethod("<init>", "()V", init);
+        classFile.addMethod("run", RUN_DESCRIPTOR, run);
+
+        byte[] bytes = classFile.toByteArray("org/example/interpreter/TestLoop", "java/lang/Object",
+                "org/example/interpreter/CompiledLoop");
+        MethodHandles.Lookup hidden = MethodHandles.lookup().defineHiddenClass(bytes, true);
+        return (CompiledLoop) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+    }
+
+    @Test void poolEntriesAreShared() {
+        ClassFileWriter classFile = new ClassFileWriter();
+        int name = classFile.utf8("name");
+        assertEquals(name, classFile.utf8("name"));
+        assertNotEquals(name, classFile.utf8("other"));
+
+        // A double takes two slots, the next entry skips one
+        int number = classFile.doubleConstant(1.5);
+        assertEquals(number, classFile.doubleConstant(1.5));
+        assertEquals(number + 2, classFile.integer(7));
+        assertNotEquals(classFile.doubleConstant(0.0), classFile.doubleConstant(-0.0));
+    }
+
+    // values[0][0] = values[0][0] + 2.5, written with a backward and a forward jump
+    @Test void generatedClassRuns() throws Throwable {
+        ClassFileWriter classFile = new ClassFileWriter();
+        int constant = classFile.doubleConstant(2.5);
+        ClassFileWriter.Code run = new ClassFileWriter.Code(3);
+        int skip = run.newLabel();
+        int start = run.newLabel();
+
+        run.jump(0xa7, skip); // goto, forward
+        run.bind(start);
+        run.op(0xb1); // return
+        run.bind(skip);
+        run.op(0x2b); // aload_1
+        run.op(0x03); // iconst_0
+        run.op(0x32); // aaload
+        run.op(0x03); // iconst_0
+        run.op(0x5c); // dup2
+        run.op(0x31); // daload
+        run.op(0x14, constant); // ldc2_w
+        run.op(0x63); // dadd
+        run.op(0x52); // dastore
+        // Deepest after ldc2_w: the array, the index and two doubles
+        run.stack(6);
+        run.stack(-6);
+        run.jump(0xa7, start); // goto, backward
+
+        double[][] values = {{1}};
+        define(classFile, run).run(values, System.out);
+        assertEquals(3.5, values[0][0]);
+    }
+
+    @Test void jumpBeyond16BitsIsRejected() {
+        ClassFileWriter.Code code = new ClassFileWriter.Code(1);
+        int end = code.newLabel();
+        code.jump(0xa7, end);
+        for (int i = 0; i < 40_000; i++) {
+            code.op(0x00); // nop
+        }
+        assertThrows(IllegalStateException.class, () -> code.bind(end));
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.exception.EvaluationException;
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+import org.example.parser.statement.Statement;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the same programs through the tree-walking {@link Interpreter}, the
+ * {@link VirtualMachine} and the interpreter with every loop handed to the
+ * {@link JitCompiler}, and expects the same output and the same error.
+ */
+class DifferentialExecutionTest {
+    private interface Engine {
+        void run(List<Statement> statements, PrintStream out);
+    }
+
+    private static final Engine INTERPRETER = (statements, out) -> new Interpreter(out).interpret(statements);
+    private static final Engine VM = (statements, out) ->
+            new VirtualMachine(out).run(new BytecodeCompiler().compile(statements));
+    private static final Engine JIT = (statements, out) -> new Interpreter(out, 1).interpret(statements);
+
+    private static final String[] PROGRAMS = {
+        "var x = 1; var y = x + 2 * 3; print y; print -y; print y / 4 - 1;",
+        "var i = 0; var s = 0; while (i < 10) { s = s + i; i = i + 1; } print s; print i == 10;",
+        "var i = 0; while (i < 3) { var j = 0; while (j < i) { print i * 10 + j; j = j + 1; } i = i + 1; }",
+        "var a = 1 < 2; var b = a && 2 > 3; print a || b; print b; print a != b; print a == (1 < 2);",
+        "var x = 1; { var x = 2; print x; } print x; if (x == 1) { print 1 < 2; } else { print 0; }",
+        "var i = 0; var x = 1; while (i < 6) { if (i == 3) { x = i < 2; } print x; i = i + 1; }",
+        "var x = 0; var y = x = 5; print x + y;",
+        // Errors, some after output was printed
+        "{ var a; print a; } { var b = 1; }",
+        "var x; print x;",
+        "var i = 0; var x; while (i < 3) { i = i + 1; } print x;",
+        "print 1; print 1 + (2 < 3);",
+        "var b = 1 < 2; print -b;",
+        "print 1 && 1 < 2;",
+        "print 1 < 2 && 3;",
+        "if (1) { print 1; }",
+        "var i = 0; while (i) { i = i + 1; }",
+        "var i = 0; var x = 1; while (i < 5) { print x * 2; if (i == 2) { x = x < 3; } i = i + 1; }",
+    };
+
+    private static String run(Engine engine, String source) {
+        // Every engine gets its own tree, passes store their results in the nodes
+        List<Statement> statements = new Parser(new Lexer(source).tokenizeToBuffer()).parse();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        String error = "";
+        try {
+            engine.run(statements, out);
+        } catch (EvaluationException e) {
+            error = "error: " + e.getMessage();
+        }
+        out.flush();
+        return bytes.toString(StandardCharsets.UTF_8) + error;
+    }
+
+    private static void assertSameBehavior(String source) {
+        String expected = run(INTERPRETER, source);
+        assertEquals(expected, run(VM, source), () -> "VM on " + source);
+        assertEquals(expected, run(JIT, source), () -> "JIT on " + source);
+    }
+
+    @Test void handWrittenPrograms() {
+        for (String source : PROGRAMS) {
+            assertSameBehavior(source);
+        }
+    }
+
+    @Test void generatedPrograms() {
+        for (long seed = 0; seed < 200; seed++) {
+            RandomProgramGenerator generator = new RandomProgramGenerator(seed);
+            generator.setLoopBound(5);
+            assertSameBehavior(generator.generate(30));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.VarStatement;
+import org.example.parser.statement.WhileStatement;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Hands the last top-level loop of a program to the {@link JitCompiler}
+ * directly, with the outer variables set by the test instead of by the
+ * statements before the loop.
+ */
+class JitCompilerTest {
+    private final JitCompiler jit = new JitCompiler();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+
+    private List<Statement> program;
+    private double[][] values;
+    private byte[][] kinds;
+
+    private void load(String source) {
+        program = new Parser(new Lexer(source).tokenizeToBuffer()).parse();
+        int[] frameSizes = new Resolver().resolve(program);
+        new TypeInference().infer(program, frameSizes);
+        jit.reset(program, frameSizes);
+
+        values = new double[frameSizes.length][];
+        kinds = new byte[frameSizes.length][];
+        for (int depth = 0; depth < frameSizes.length; depth++) {
+            values[depth] = new double[frameSizes[depth]];
+            kinds[depth] = new byte[frameSizes[depth]];
+        }
+    }
+
+    private int slot(String name) {
+        for (Statement statement : program) {
+            if (statement instanceof VarStatement v && v.getName().equals(name)) {
+                return v.getSlot();
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private void set(String name, double value, byte kind) {
+        values[0][slot(name)] = value;
+        kinds[0][slot(name)] = kind;
+    }
+
+    private double get(String name) {
+        return values[0][slot(name)];
+    }
+
+    private boolean run() {
+        WhileStatement loop = (WhileStatement) program.get(program.size() - 1);
+        return jit.tryRun(loop, values, kinds, out);
+    }
+
+    private static String interpret(String source, int jitThreshold) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        new Interpreter(out, jitThreshold).interpret(new Parser(new Lexer(source).tokenizeToBuffer()).parse());
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    // Declares the counter and n more variables, and a loop that assigns every one of them
+    private void loadLoopOver(int variableCount) {
+        StringBuilder source = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < variableCount; i++) {
+            source.append("var v").append(i).append(" = 0;\n");
+            body.append("v").append(i).append(" = v").append(i).append(" + 1; ");
+        }
+        load(source.append("var i = 0;\nwhile (i < 3) { ").append(body).append("i = i + 1; }").toString());
+
+        for (int i = 0; i < variableCount; i++) {
+            set("v" + i, 0, ValueKind.NUMBER);
+        }
+        set("i", 0, ValueKind.NUMBER);
+    }
+
+    @Test void compiledLoopWritesOuterVariablesBack() {
+        load("var i = 0; var s = 0; var b = 1 < 2; while (i < 10) { s = s + i / 2; i = i + 1; print b; }");
+        set("i", 0, ValueKind.NUMBER);
+        set("s", 0, ValueKind.NUMBER);
+        set("b", 1, ValueKind.BOOLEAN);
+
+        assertTrue(run());
+        assertEquals(1, jit.getCompiledCount());
+        assertEquals(10, get("i"));
+        assertEquals(22.5, get("s"));
+        assertEquals("true\n".repeat(10), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    // Reached again with the same kinds, the loop runs the code compiled the first time
+    @Test void loopIsCompiledOnce() {
+        load("var i = 0; while (i < 10) { i = i + 1; }");
+        set("i", 0, ValueKind.NUMBER);
+        assertTrue(run());
+        set("i", 5, ValueKind.NUMBER);
+        assertTrue(run());
+        assertEquals(1, jit.getCompiledCount());
+        assertEquals(10, get("i"));
+    }
+
+    @Test void unsetOuterVariableIsNotCompiled() {
+        load("var x; var i = 0; while (i < 3) { i = i + 1; x = i; }");
+        set("i", 0, ValueKind.NUMBER);
+        assertFalse(run());
+        assertEquals(0, jit.getCompiledCount());
+        assertEquals(0, get("i"));
+
+        // The loop is not tried again, even once the variable is set
+        set("x", 1, ValueKind.NUMBER);
+        assertFalse(run());
+        assertEquals(0, jit.getCompiledCount());
+    }
+
+    // this, values and out take 3 of the 255 locals, every variable takes 2
+    @Test void loopWithTooManyLocalsIsNotCompiled() {
+        loadLoopOver(125);
+        assertTrue(run());
+        assertEquals(1, jit.getCompiledCount());
+
+        loadLoopOver(126);
+        assertFalse(run());
+        assertEquals(1, jit.getCompiledCount());
+    }
+
+    @Test void oversizedLoopIsNotCompiled() {
+        load("var i = 0; var s = 0; while (i < 2) { " + "s = s + 1 / 2; ".repeat(15_000) + "i = i + 1; }");
+        set("i", 0, ValueKind.NUMBER);
+        set("s", 0, ValueKind.NUMBER);
+        assertFalse(run());
+        assertEquals(0, jit.getCompiledCount());
+        assertEquals(0, get("s"));
+    }
+
+    @Test void oversizedLoopStillRunsInterpreted() {
+        String source = "var i = 0; var s = 0; while (i < 2) { " + "s = s + 1 / 2; ".repeat(15_000) + "i = i + 1; } print s;";
+        assertEquals(interpret(source, 0), interpret(source, 1));
+    }
+
+    @Test void guardFailsWhenOuterKindChanges() {
+        load("var x = 1; var i = 0; while (i < 3) { i = i + 1; print x == x; }");
+        set("x", 1, ValueKind.NUMBER);
+        set("i", 0, ValueKind.NUMBER);
+        assertTrue(run());
+
+        set("x", 0, ValueKind.BOOLEAN);
+        set("i", 0, ValueKind.NUMBER);
+        assertFalse(run());
+        assertEquals(0, get("i"));
+        assertEquals(1, jit.getCompiledCount());
+    }
+
+    // The inner loop is compiled for a number x, then entered again with a boolean one
+    @Test void guardFailureOnReentryFallsBackToInterpreter() {
+        String source = "var x = 1; var j = 0;"
+                + "while (j < 3) { var i = 0; while (i < 3) { print x == 1; i = i + 1; } x = x == 1; j = j + 1; }";
+        assertEquals(interpret(source, 0), interpret(source, 1));
+    }
+
+    @Test void loopThatMayFailIsNotCompiled() {
+        load("var x = 1; var i = 0; while (i < 3) { i = i + 1; print x + 1; }");
+        set("x", 1, ValueKind.BOOLEAN);
+        set("i", 0, ValueKind.NUMBER);
+        assertFalse(run());
+        assertEquals(0, jit.getCompiledCount());
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.example.exception.EvaluationException;
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.example.parser.statement.WhileStatement;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Loops whose values leave the range a long holds exactly, or become -0.0,
+ * must print the same compiled as interpreted.
+ */
+class RangeAnalysisTest {
+    private static List<Statement> parse(String source) {
+        return new Parser(new Lexer(source).tokenizeToBuffer()).parse();
+    }
+
+    private static String run(String source, int jitThreshold) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        String error = "";
+        try {
+            new Interpreter(out, jitThreshold).interpret(parse(source));
+        } catch (EvaluationException e) {
+            error = "error: " + e.getMessage();
+        }
+        return bytes.toString(StandardCharsets.UTF_8) + error;
+    }
+
+    private static void assertJitMatchesInterpreter(String source) {
+        assertEquals(run(source, 0), run(source, 1), source);
+    }
+
+    private static RangeAnalysis analyze(List<Statement> program) {
+        RangeAnalysis analysis = new RangeAnalysis();
+        analysis.analyze(program, new Resolver().resolve(program));
+        return analysis;
+    }
+
+    @Test void overflowPastTwoToThe53() {
+        assertJitMatchesInterpreter("var x = 1; var i = 0; while (i < 70) { x = x * 3; print x; i = i + 1; } print x;");
+        assertJitMatchesInterpreter("var x = 1; var i = 0; while (i < 70) { x = x * 3; i = i + 1; } print x; print x + 1;");
+        assertJitMatchesInterpreter("var f = 1; var n = 1; while (n <= 25) { f = f * n; print f; n = n + 1; } print f;");
+        assertJitMatchesInterpreter("var x = 9007199254740990; var i = 0; while (i < 5) { x = x + 1; print x; i = i + 1; }");
+    }
+
+    @Test void negativeZero() {
+        assertJitMatchesInterpreter("var i = 0; while (i < 3) { var z = 0; print z * -1; i = i + 1; }");
+        assertJitMatchesInterpreter("var i = 0; while (i < 8) { print (i - 4) * 0; i = i + 1; }");
+        assertJitMatchesInterpreter("var i = 0; while (i < 3) { print -i; i = i + 1; }");
+        // Written back from the loop: a long local would lose the sign
+        assertJitMatchesInterpreter("var i = 0; var z = 1; while (i < 3) { if (i == 0) z = -i; i = i + 1; } print z;");
+        assertJitMatchesInterpreter("var i = 0; var z = 1; while (i < 3) { z = (i - 4) * 0; i = i + 1; } print z; print z + 0;");
+        assertJitMatchesInterpreter("var i = 0; var z = 0; while (i < 3) { z = z * -1; i = i + 1; } print z;");
+    }
+
+    @Test void divisionByOneAndMinusOne() {
+        assertJitMatchesInterpreter("var i = 0; while (i < 3) { print i / 1; print i / -1; i = i + 1; }");
+        assertJitMatchesInterpreter("var i = 0; var q = 5; while (i < 3) { q = i / -1; i = i + 1; } print q;");
+        assertJitMatchesInterpreter("var i = 0; var q = 5; while (i < 1) { q = i / -1; i = i + 1; } print q;");
+        assertJitMatchesInterpreter("var i = 0; while (i < 3) { print (i + 1) / 2; print i / 0; i = i + 1; }");
+    }
+
+    @Test void loopCounterGetsTheBoundsOfItsLoop() {
+        List<Statement> program = parse("var i = 0; while (i < 10) { i = i + 1; } print i;");
+        RangeAnalysis analysis = analyze(program);
+        Range range = analysis.rangeAt((WhileStatement) program.get(1), 0, 0);
+        assertEquals(0, range.getLo());
+        assertEquals(10, range.getHi());
+        assertTrue(range.isIntegral());
+        assertTrue(analysis.isIntegral(((PrintStatement) program.get(2)).getExpression()));
+    }
+
+    @Test void growingProductHasNoRange() {
+        List<Statement> program = parse("var x = 1; var i = 0; while (i < 70) { x = x * 3; i = i + 1; } print x;");
+        RangeAnalysis analysis = analyze(program);
+        assertNull(analysis.rangeAt((WhileStatement) program.get(2), 0, 0));
+        assertNull(analysis.rangeOf(((PrintStatement) program.get(3)).getExpression()));
+    }
+
+    @Test void rangeArithmetic() {
+        Range small = Range.of(-2, 3, false);
+        assertNull(Range.of(0, Range.LIMIT + 1, false));
+        assertNull(Range.multiply(Range.of(0, Range.LIMIT, false), Range.of(0, Range.LIMIT, false)));
+        assertNull(Range.add(Range.of(0, Range.LIMIT, false), Range.of(1, 1, false)));
+
+        // Zero times a negative number is -0.0
+        assertFalse(Range.multiply(small, Range.of(-1, -1, false)).isIntegral());
+        assertTrue(Range.multiply(Range.of(1, 3, false), Range.of(0, 0, false)).isIntegral());
+        assertFalse(Range.negate(small).isIntegral());
+        assertTrue(Range.negate(Range.of(1, 3, false)).isIntegral());
+        assertFalse(Range.constant(-0.0).isIntegral());
+        assertNull(Range.constant(0.5));
+
+        assertEquals(small.toString(), Range.divide(small, Range.of(1, 1, false)).toString());
+        assertEquals("[-3, 2] or -0.0", Range.divide(small, Range.of(-1, -1, false)).toString());
+        assertNull(Range.divide(small, Range.of(2, 2, false)));
+        assertNull(Range.divide(small, Range.of(-1, 1, false)));
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.example.exception.EvaluationException;
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+class VirtualMachineTest {
+    private static String run(String source) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BytecodeProgram program = new BytecodeCompiler().compile(new Parser(new Lexer(source).tokenizeToBuffer()).parse());
+        new VirtualMachine(new PrintStream(bytes, true, StandardCharsets.UTF_8)).run(program);
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test void printsLikeTheInterpreter() {
+        assertEquals("7.0\ntrue\n", run("var x = 1; var i = 0; while (i < 3) { i = i + 1; x = x + i; } print x; print x == 7;"));
+    }
+
+    // Both blocks get the same local; the error must still name the variable that was read
+    @Test void unassignedReadNamesTheVariableInReusedSlot() {
+        EvaluationException e = assertThrows(EvaluationException.class, () -> run("{ var a; print a; } { var b = 1; }"));
+        assertEquals("[Runtime Error] Variable 'a' is used before it is assigned.", e.getMessage());
+    }
+}
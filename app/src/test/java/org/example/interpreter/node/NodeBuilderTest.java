@@ -0,0 +1,113 @@
+package org.example.interpreter.node;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.exception.EvaluationException;
+import org.example.interpreter.Interpreter;
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+import org.example.parser.statement.Statement;
+import org.junit.jupiter.api.Test;
+
+class NodeBuilderTest {
+    private static final String[] PROGRAMS = {
+        "var x = 1; var y = x + 2 * 3; print y; print -y; print y / 4 - 1; print y > 2; print y <= 7;",
+        "var i = 0; var s = 0; while (i < 10) { s = s + i; i = i + 1; } print s; print i == 10;",
+        "var x = 1; { var x = 2; print x; } print x; if (x == 1) { print 1 < 2; } else { print 0; }",
+        "var a = 1 < 2; var b = a && 2 > 3; print a || b; print b; print a != b; print a == a;",
+        "var x; var i = 0; while (i < 3) { if (i == 1) x = i; i = i + 1; } print x;",
+        "var x; print x;",
+        "print 1 < 2 && 3;",
+        "print -(1 < 2);",
+        "if (1) { print 1; }",
+        "print 1 + (2 < 3);",
+    };
+
+    private static List<Statement> parse(String source) {
+        return new Parser(new Lexer(source).tokenizeToBuffer()).parse();
+    }
+
+    private static String interpret(String source) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        String error = "";
+        try {
+            new Interpreter(out).interpret(parse(source));
+        } catch (EvaluationException e) {
+            error = "error: " + e.getMessage();
+        }
+        return bytes.toString(StandardCharsets.UTF_8) + error;
+    }
+
+    private static String execute(RootNode root) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        String error = "";
+        try {
+            root.execute(out);
+        } catch (EvaluationException e) {
+            error = "error: " + e.getMessage();
+        }
+        return bytes.toString(StandardCharsets.UTF_8) + error;
+    }
+
+    // The second run starts from the tree the first one specialized
+    private static void assertSameBehavior(String source) {
+        String expected = interpret(source);
+        RootNode root = NodeBuilder.build(parse(source));
+        assertEquals(expected, execute(root), source);
+        assertEquals(expected, execute(root), source);
+    }
+
+    @Test void handWrittenProgramsMatchInterpreter() {
+        for (String source : PROGRAMS) {
+            assertSameBehavior(source);
+        }
+    }
+
+    @Test void generatedProgramsMatchInterpreter() {
+        for (long seed = 0; seed < 100; seed++) {
+            RandomProgramGenerator generator = new RandomProgramGenerator(seed);
+            generator.setLoopBound(5);
+            assertSameBehavior(generator.generate(30));
+        }
+    }
+
+    @Test void specializedTreeIsKeptAcrossRuns() {
+        RootNode root = NodeBuilder.build(parse("var i = 0; var s = 0; while (i < 10) { s = s + i * 2; i = i + 1; } print s;"));
+        execute(root);
+        int rewrites = root.getRewriteCount();
+        assertTrue(rewrites > 0);
+        assertEquals(0, root.getDeoptimizationCount());
+
+        assertEquals("90.0\n", execute(root));
+        assertEquals(rewrites, root.getRewriteCount());
+    }
+
+    @Test void changedKindDeoptimizes() {
+        String source = "var x = 1; var i = 0; while (i < 4) { print x == x; print -i; if (i == 1) x = i > 0; i = i + 1; }";
+        RootNode root = NodeBuilder.build(parse(source));
+        assertEquals(interpret(source), execute(root));
+        int deoptimizations = root.getDeoptimizationCount();
+        assertTrue(deoptimizations > 0);
+        assertTrue(deoptimizations < root.getRewriteCount());
+
+        // Generic nodes stay generic
+        assertEquals(interpret(source), execute(root));
+        assertEquals(deoptimizations, root.getDeoptimizationCount());
+    }
+
+    // The deoptimized node goes on from the operand's value, without running it again
+    @Test void deoptimizationDoesNotRepeatSideEffects() {
+        assertSameBehavior("var x = 1; var y = 0; var i = 0; while (i < 3) { print x + (y = y + 1); if (i == 1) x = 1 < 2; i = i + 1; } print y;");
+        assertSameBehavior("var x = 1; var y = 0; var i = 0; while (i < 3) { print (y = y + 1) + x; if (i == 1) x = 1 < 2; i = i + 1; } print y;");
+        assertSameBehavior("var b = 1; var y = 0; var i = 0; while (i < 3) { print (y = y + 1) == b; if (i == 1) b = 1 < 2; i = i + 1; } print y;");
+    }
+}
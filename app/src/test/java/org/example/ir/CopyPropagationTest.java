@@ -0,0 +1,74 @@
+package org.example.ir;
+
+import static org.example.ir.IrAssertions.build;
+import static org.example.ir.IrAssertions.interpret;
+import static org.example.ir.IrAssertions.run;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.core.RandomProgramGenerator;
+import org.junit.jupiter.api.Test;
+
+class CopyPropagationTest {
+    private static int count(ControlFlowGraph graph, int op) {
+        int count = 0;
+        for (BasicBlock block : graph.getBlocks()) {
+            for (Instruction instruction : block.getPhis()) {
+                count += instruction.getOp() == op ? 1 : 0;
+            }
+            for (Instruction instruction : block.getInstructions()) {
+                count += instruction.getOp() == op ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    @Test void readOfAssignedVariableIsRemoved() {
+        ControlFlowGraph graph = build("var x = 1; print x; print x + x;");
+        assertEquals(3, count(graph, Instruction.READ));
+        assertEquals(3, new CopyPropagation().run(graph));
+        assertEquals(0, count(graph, Instruction.READ));
+        assertEquals("1.0\n2.0\n", run(graph));
+    }
+
+    // The read may find the variable unassigned, so it keeps its check
+    @Test void readThatMayFailIsKept() {
+        String source = "var x; if (1 < 2) { x = 1; } print x;";
+        ControlFlowGraph graph = build(source);
+        new CopyPropagation().run(graph);
+        assertEquals(1, count(graph, Instruction.READ));
+        assertEquals(interpret(source), run(graph));
+    }
+
+    @Test void requireBooleanOfBooleanIsRemoved() {
+        ControlFlowGraph graph = build("var a = 1 < 2; print a && a;");
+        new CopyPropagation().run(graph);
+        assertEquals(0, count(graph, Instruction.REQUIRE_BOOLEAN));
+
+        String failing = "var a = 1; print a > 0 && a;";
+        graph = build(failing);
+        new CopyPropagation().run(graph);
+        assertEquals(1, count(graph, Instruction.REQUIRE_BOOLEAN));
+        assertEquals(interpret(failing), run(graph));
+    }
+
+    @Test void runCountsAcrossCalls() {
+        CopyPropagation pass = new CopyPropagation();
+        int first = pass.run(build("var x = 1; print x;"));
+        int second = pass.run(build("var y = 2; print y; print y;"));
+        assertTrue(first > 0 && second > first);
+        assertEquals(first + second, pass.getRemovedCount());
+        assertEquals(0, pass.run(build("print 1;")));
+    }
+
+    @Test void generatedProgramsMatchInterpreter() {
+        for (long seed = 0; seed < 100; seed++) {
+            RandomProgramGenerator generator = new RandomProgramGenerator(seed);
+            generator.setLoopBound(5);
+            String source = generator.generate(30);
+            ControlFlowGraph graph = build(source);
+            new CopyPropagation().run(graph);
+            assertEquals(interpret(source), run(graph), source);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.ir;
+
+import static org.example.ir.IrAssertions.build;
+import static org.example.ir.IrAssertions.interpret;
+import static org.example.ir.IrAssertions.run;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.example.core.RandomProgramGenerator;
+import org.junit.jupiter.api.Test;
+
+class DeadStoreEliminationTest {
+    private static ControlFlowGraph optimized(String source) {
+        ControlFlowGraph graph = build(source);
+        new CopyPropagation().run(graph);
+        new DeadStoreElimination().run(graph);
+        return graph;
+    }
+
+    @Test void unreadWritesAndTheirComputationsAreRemoved() {
+        ControlFlowGraph kept = optimized("print 3;");
+        ControlFlowGraph graph = optimized("var x = 1; var y = x * 2 + 1; x = y - 4; print 3;");
+        assertEquals(kept.countInstructions(), graph.countInstructions(), graph::toString);
+        assertEquals("3.0\n", run(graph));
+    }
+
+    @Test void phisOfUnreadVariablesAreRemoved() {
+        ControlFlowGraph graph = optimized("var x = 0; var i = 0; while (i < 3) { x = x + i; i = i + 1; } print i;");
+        int phis = 0;
+        for (BasicBlock block : graph.getBlocks()) {
+            phis += block.getPhis().size();
+        }
+        assertEquals(1, phis, graph::toString);
+        assertEquals("3.0\n", run(graph));
+    }
+
+    // Unused, but each of them can fail, so their errors stay
+    @Test void checksThatMayFailAreKept() {
+        for (String source : new String[] {
+            "var x; var y = x; print 1;",
+            "var b = 1 < 2; var y = -b; print 1;",
+            "var b = 1; var y = b && 1 < 2; print 1;",
+            "var b = 1 < 2; var y = b + 1; print 1;",
+        }) {
+            assertEquals(interpret(source), run(optimized(source)), source);
+        }
+    }
+
+    @Test void removedCountAddsUp() {
+        DeadStoreElimination pass = new DeadStoreElimination();
+        ControlFlowGraph graph = build("var x = 1 + 2; print 3;");
+        int before = graph.countInstructions();
+        int removed = pass.run(graph);
+        assertEquals(before - removed, graph.countInstructions());
+        assertEquals(removed, pass.getRemovedCount());
+        assertEquals(0, pass.run(graph));
+    }
+
+    @Test void generatedProgramsMatchInterpreter() {
+        for (long seed = 0; seed < 100; seed++) {
+            RandomProgramGenerator generator = new RandomProgramGenerator(seed);
+            generator.setLoopBound(5);
+            String source = generator.generate(30);
+            assertEquals(interpret(source), run(optimized(source)), source);
+        }
+    }
+}
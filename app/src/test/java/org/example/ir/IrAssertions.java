@@ -0,0 +1,104 @@
+package org.example.ir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.example.exception.EvaluationException;
+import org.example.interpreter.Interpreter;
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+import org.example.parser.statement.Statement;
+
+// Shared by the tests of the IR passes
+final class IrAssertions {
+    private IrAssertions() {
+    }
+
+    static List<Statement> parse(String source) {
+        return new Parser(new Lexer(source).tokenizeToBuffer()).parse();
+    }
+
+    static ControlFlowGraph build(String source) {
+        ControlFlowGraph graph = new SsaBuilder().build(parse(source));
+        assertWellFormed(graph);
+        return graph;
+    }
+
+    static String interpret(String source) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        String error = "";
+        try {
+            new Interpreter(out).interpret(parse(source));
+        } catch (EvaluationException e) {
+            error = "error: " + e.getMessage();
+        }
+        return bytes.toString(StandardCharsets.UTF_8) + error;
+    }
+
+    // Allocates slots and runs the graph as the passes left it
+    static String run(ControlFlowGraph graph) {
+        assertWellFormed(graph);
+        SlotAllocator.allocate(graph, new Liveness(graph));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        String error = "";
+        try {
+            new IrInterpreter(out).run(graph);
+        } catch (EvaluationException e) {
+            error = "error: " + e.getMessage();
+        }
+        return bytes.toString(StandardCharsets.UTF_8) + error;
+    }
+
+    /**
+     * Every block ends with its only terminator, which has as many successors
+     * as it names; phis have one operand per predecessor; operands and users
+     * are instructions still in the graph, and agree with each other
+     */
+    static void assertWellFormed(ControlFlowGraph graph) {
+        Set<Instruction> present = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BasicBlock block : graph.getBlocks()) {
+            present.addAll(block.getPhis());
+            present.addAll(block.getInstructions());
+        }
+
+        for (BasicBlock block : graph.getBlocks()) {
+            List<Instruction> instructions = block.getInstructions();
+            assertFalse(instructions.isEmpty(), () -> "empty b" + block.getId() + "\n" + graph);
+            for (int i = 0; i < instructions.size() - 1; i++) {
+                int index = i;
+                assertFalse(instructions.get(i).isTerminator(), () -> "b" + block.getId() + ":" + index + "\n" + graph);
+            }
+            Instruction terminator = block.getTerminator();
+            assertTrue(terminator.isTerminator(), () -> "b" + block.getId() + " not terminated\n" + graph);
+            int successors = terminator.getOp() == Instruction.JUMP ? 1 : terminator.getOp() == Instruction.BRANCH ? 2 : 0;
+            assertEquals(successors, block.getSuccessors().size(), () -> "b" + block.getId() + "\n" + graph);
+
+            for (Instruction phi : block.getPhis()) {
+                assertSame(block, phi.getBlock());
+                assertEquals(block.getPredecessors().size(), phi.getOperands().size(), () -> phi + "\n" + graph);
+            }
+            for (Instruction instruction : instructions) {
+                assertSame(block, instruction.getBlock());
+            }
+        }
+
+        for (Instruction instruction : present) {
+            for (Instruction operand : instruction.getOperands()) {
+                assertTrue(present.contains(operand), () -> instruction + " uses a removed value\n" + graph);
+                assertTrue(operand.getUsers().contains(instruction), () -> instruction + " not a user\n" + graph);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.ir;
+
+import static org.example.ir.IrAssertions.build;
+import static org.example.ir.IrAssertions.interpret;
+import static org.example.ir.IrAssertions.run;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.example.core.RandomProgramGenerator;
+import org.junit.jupiter.api.Test;
+
+class SlotAllocatorTest {
+    private static ControlFlowGraph optimized(String source) {
+        ControlFlowGraph graph = build(source);
+        new CopyPropagation().run(graph);
+        new DeadStoreElimination().run(graph);
+        return graph;
+    }
+
+    private static Instruction[] byId(ControlFlowGraph graph) {
+        Instruction[] byId = new Instruction[graph.getInstructionCount()];
+        for (BasicBlock block : graph.getBlocks()) {
+            for (Instruction phi : block.getPhis()) {
+                byId[phi.getId()] = phi;
+            }
+            for (Instruction instruction : block.getInstructions()) {
+                byId[instruction.getId()] = instruction;
+            }
+        }
+        return byId;
+    }
+
+    // Values live at the same point never share a slot
+    private static void assertNoSharedSlots(ControlFlowGraph graph, Liveness liveness) {
+        Instruction[] byId = byId(graph);
+        for (BasicBlock block : graph.getBlocks()) {
+            List<Instruction> instructions = block.getInstructions();
+            for (int i = 0; i <= instructions.size(); i++) {
+                BitSet live = i == instructions.size()
+                        ? liveness.getLiveOut(block)
+                        : Liveness.liveBefore(instructions, i, liveness.getLiveOut(block));
+                BitSet slots = new BitSet();
+                for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+                    int slot = byId[id].getSlot();
+                    assertTrue(slot >= 0 && slot < graph.getSlotCount());
+                    assertFalse(slots.get(slot), () -> "slot " + slot + " shared in b" + block.getId() + "\n" + graph);
+                    slots.set(slot);
+                }
+            }
+        }
+    }
+
+    @Test void sequentialValuesShareSlots() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            source.append("var v").append(i).append(" = ").append(i).append(" * 2; print v").append(i).append(";");
+        }
+        ControlFlowGraph graph = optimized(source.toString());
+        Liveness liveness = new Liveness(graph);
+        int slots = SlotAllocator.allocate(graph, liveness);
+        assertTrue(slots <= 3, () -> slots + " slots\n" + graph);
+        assertEquals(slots, graph.getSlotCount());
+        assertNoSharedSlots(graph, liveness);
+    }
+
+    @Test void loopVariablesAreLiveAroundTheLoop() {
+        ControlFlowGraph graph = optimized("var i = 0; var s = 0; while (i < 3) { s = s + i; i = i + 1; } print s;");
+        Liveness liveness = new Liveness(graph);
+        BasicBlock header = graph.getEntry().getSuccessors().get(0);
+        assertEquals(2, header.getPhis().size(), graph::toString);
+        // The phis are defined at the start of the header, not live into it
+        for (Instruction phi : header.getPhis()) {
+            assertFalse(liveness.getLiveIn(header).get(phi.getId()));
+        }
+        assertFalse(liveness.getLiveOut(graph.getEntry()).isEmpty());
+        assertEquals(0, liveness.getLiveOut(graph.getBlocks().get(graph.getBlocks().size() - 1)).cardinality());
+    }
+
+    @Test void generatedProgramsKeepLiveValuesApart() {
+        for (long seed = 0; seed < 100; seed++) {
+            RandomProgramGenerator generator = new RandomProgramGenerator(seed);
+            generator.setLoopBound(5);
+            String source = generator.generate(30);
+            ControlFlowGraph graph = optimized(source);
+            Liveness liveness = new Liveness(graph);
+            SlotAllocator.allocate(graph, liveness);
+            assertNoSharedSlots(graph, liveness);
+            assertEquals(interpret(source), run(graph), source);
+        }
+    }
+}
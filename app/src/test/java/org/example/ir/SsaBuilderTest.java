@@ -0,0 +1,71 @@
+package org.example.ir;
+
+import static org.example.ir.IrAssertions.build;
+import static org.example.ir.IrAssertions.interpret;
+import static org.example.ir.IrAssertions.run;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.example.core.RandomProgramGenerator;
+import org.junit.jupiter.api.Test;
+
+class SsaBuilderTest {
+    private static final String[] PROGRAMS = {
+        "var x = 1; var y = x + 2 * 3; print y; print -y; print y / 4 - 1;",
+        "var i = 0; var s = 0; while (i < 10) { s = s + i; i = i + 1; } print s; print i == 10;",
+        "var x = 1; { var x = 2; print x; } print x; if (x == 1) { print 1 < 2; } else { print 0; }",
+        "var x; if (1 < 2) { x = 1; } else { x = 2; } print x;",
+        "var x; if (1 < 2) { x = 1; } print x;",
+        "var x; var i = 0; while (i < 3) { if (i == 1) x = i; i = i + 1; } print x;",
+        "var a = 1 < 2; var b = a && 2 > 3; print a || b; print b; print a != b;",
+        "var x; print x;",
+        "print 1 < 2 && 3;",
+        "if (1) { print 1; }",
+    };
+
+    private static void assertSameBehavior(String source) {
+        assertEquals(interpret(source), run(build(source)), source);
+    }
+
+    @Test void handWrittenProgramsMatchInterpreter() {
+        for (String source : PROGRAMS) {
+            assertSameBehavior(source);
+        }
+    }
+
+    @Test void generatedProgramsMatchInterpreter() {
+        for (long seed = 0; seed < 100; seed++) {
+            RandomProgramGenerator generator = new RandomProgramGenerator(seed);
+            generator.setLoopBound(5);
+            assertSameBehavior(generator.generate(30));
+        }
+    }
+
+    // PRINT was appended to the block the '&&' had already ended with its branch
+    @Test void printOfShortCircuitGoesAfterTheJoin() {
+        assertSameBehavior("print 1 < 2 && 2 < 3; print 1 > 2 || 2 > 3; print 1 < 2 && (2 > 3 || 3 > 2);");
+        assertSameBehavior("var i = 0; while (i < 3) { print i < 1 || i > 1; i = i + 1; }");
+    }
+
+    // Like PRINT, NEG was appended before its operand was lowered
+    @Test void negationOfShortCircuit() {
+        assertSameBehavior("var b = 1 < 2; print -(b && b);");
+        assertSameBehavior("var b = 1 < 2; print -(b || b);");
+        assertSameBehavior("var b = 1 > 2; print -(b || 1) + 1;");
+    }
+
+    @Test void loopHeaderMergesTheLoopVariable() {
+        ControlFlowGraph graph = build("var i = 0; var x = 5; while (i < 3) { i = i + 1; } print i + x;");
+        int phis = 0;
+        for (BasicBlock block : graph.getBlocks()) {
+            phis += block.getPhis().size();
+        }
+        // x is not assigned in the loop, its phi merges one value and is removed
+        assertEquals(1, phis, graph::toString);
+    }
+
+    @Test void blocksComeAfterTheirDominatorsInReversePostOrder() {
+        ControlFlowGraph graph = build("var i = 0; while (i < 3) { if (i == 1) { print i; } else { print 0; } i = i + 1; }");
+        assertEquals(graph.getEntry(), graph.reversePostOrder().get(0));
+        assertEquals(graph.getBlocks().size(), graph.reversePostOrder().size());
+    }
+}
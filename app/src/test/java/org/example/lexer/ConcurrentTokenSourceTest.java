@@ -0,0 +1,109 @@
+package org.example.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.exception.ParseException;
+import org.example.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentTokenSourceTest {
+    private static List<String> describe(List<Token> tokens) {
+        List<String> result = new ArrayList<>();
+        for (Token token : tokens) {
+            result.add(token.getType() + " " + token.getValue() + " " + token.getPosition() + " " + token.getSymbol());
+        }
+        return result;
+    }
+
+    // Reads up to the EOF, or up to the error, which is returned as the last entry
+    private static List<String> drain(TokenSource tokens) {
+        List<Token> read = new ArrayList<>();
+        String error = null;
+        try {
+            while (true) {
+                read.add(tokens.peek());
+                if (tokens.peek().getType() == TokenType.EOF) {
+                    break;
+                }
+                tokens.advance();
+            }
+        } catch (ParseException e) {
+            error = e.getMessage();
+        }
+        List<String> result = describe(read);
+        if (error != null) {
+            result.add(error);
+        }
+        return result;
+    }
+
+    private static List<String> drainLexer(String source) {
+        return drain(new Lexer(source).cursor());
+    }
+
+    @Test void tokensMatchLexer() {
+        for (long seed = 0; seed < 20; seed++) {
+            String source = new RandomProgramGenerator(seed).generate(40);
+            for (int capacity : new int[] {1, 2, 16, 4096}) {
+                try (var tokens = new ConcurrentTokenSource(new Lexer(source), capacity)) {
+                    assertEquals(drainLexer(source), drain(tokens), "capacity " + capacity);
+                }
+            }
+        }
+    }
+
+    // A small ring makes the producer fail long before the parser gets there
+    @Test void errorComesAfterEveryTokenBeforeIt() {
+        String source = "var a = 1;\n".repeat(100) + "print a;\n  a = #;\nprint a;";
+        List<String> expected = drainLexer(source);
+        for (int capacity : new int[] {1, 2, 4096}) {
+            try (var tokens = new ConcurrentTokenSource(new Lexer(source), capacity)) {
+                assertEquals(expected, drain(tokens), "capacity " + capacity);
+            }
+        }
+    }
+
+    @Test void errorInFirstTokenIsThrownByConstructor() {
+        ParseException e = assertThrows(ParseException.class, () -> new ConcurrentTokenSource(new Lexer("#")));
+        assertEquals(assertThrows(ParseException.class, () -> new Lexer("#").tokenize()).getMessage(), e.getMessage());
+    }
+
+    @Test void parserErrorIsLocatedLikeLexer() {
+        String source = "var a = 1;\nprint a\nprint a;";
+        String expected = assertThrows(ParseException.class,
+                () -> new Parser(new Lexer(source).tokenizeToBuffer()).parse()).getMessage();
+        try (var tokens = new ConcurrentTokenSource(new Lexer(source), 2)) {
+            assertEquals(expected, assertThrows(ParseException.class, () -> new Parser(tokens).parse()).getMessage());
+        }
+    }
+
+    // The producer waits for ring space that the parser never frees
+    @Test void closeStopsBlockedProducer() throws InterruptedException {
+        String source = "print 1;\n".repeat(10_000);
+        var tokens = new ConcurrentTokenSource(new Lexer(source), 2);
+        // Gives the producer time to fill the ring and park
+        Thread.sleep(50);
+        Thread closer = new Thread(tokens::close);
+        closer.start();
+        closer.join(10_000);
+        assertFalse(closer.isAlive(), "close() did not return");
+
+        // The tokens already in the ring can still be read, then the source is exhausted
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 4; i++) {
+                tokens.advance();
+            }
+        });
+        tokens.close();
+    }
+
+    @Test void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentTokenSource(new Lexer(""), 0));
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.exception.ParseException;
+import org.junit.jupiter.api.Test;
+
+class DfaLexerTest {
+    private static List<String> describe(List<Token> tokens) {
+        List<String> result = new ArrayList<>();
+        for (Token token : tokens) {
+            result.add(token.getType() + " " + token.getValue() + " " + token.getPosition() + " " + token.getSymbol());
+        }
+        return result;
+    }
+
+    private static List<String> describe(TokenBuffer tokens) {
+        List<Token> result = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            result.add(tokens.getToken(i));
+        }
+        return describe(result);
+    }
+
+    private static void assertSameTokens(String source) {
+        List<String> expected = describe(new Lexer(source).tokenize());
+        assertEquals(expected, describe(new DfaLexer(source).tokenize()), source);
+        assertEquals(expected, describe(new DfaLexer(source).tokenizeToBuffer()), source);
+    }
+
+    // Words that start like a keyword must stay identifiers
+    @Test void keywordPrefixesAreIdentifiers() {
+        assertSameTokens("var variable = 1; print printer; if (iff) {} else {} while (whiles) {} elsewhere;");
+        assertEquals(TokenType.ID, new DfaLexer("vars").tokenize().get(0).getType());
+        assertEquals(TokenType.VAR, new DfaLexer("var").tokenize().get(0).getType());
+    }
+
+    @Test void operatorsUseMaximalMunch() {
+        assertSameTokens("a>=b<=c==d!=e=f>g<h!i&&j||k+-*/(){};");
+        assertSameTokens("a===b !== c >== d");
+    }
+
+    @Test void generatedProgramsMatchLexer() {
+        for (long seed = 0; seed < 50; seed++) {
+            assertSameTokens(new RandomProgramGenerator(seed).generate(40));
+        }
+    }
+
+    @Test void lineMapMatchesLexer() {
+        String source = "var x = 1;\n\n  print x;\n";
+        Lexer lexer = new Lexer(source);
+        lexer.tokenize();
+        DfaLexer dfa = new DfaLexer(source);
+        dfa.tokenize();
+        for (int offset = 0; offset < source.length(); offset++) {
+            assertEquals(lexer.getLineMap().getLine(offset), dfa.getLineMap().getLine(offset));
+            assertEquals(lexer.getLineMap().getColumn(offset), dfa.getLineMap().getColumn(offset));
+        }
+    }
+
+    @Test void errorsMatchLexer() {
+        for (String source : new String[] {"var x = 1;\n  x = #;", "a & b", "a | b", "@"}) {
+            ParseException expected = assertThrows(ParseException.class, () -> new Lexer(source).tokenize());
+            ParseException actual = assertThrows(ParseException.class, () -> new DfaLexer(source).tokenize());
+            assertEquals(expected.getMessage(), actual.getMessage(), source);
+        }
+    }
+}
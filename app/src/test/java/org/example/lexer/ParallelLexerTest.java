@@ -0,0 +1,110 @@
+package org.example.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.exception.ParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelLexerTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach void shutdown() {
+        pool.shutdown();
+    }
+
+    private static List<String> describe(List<Token> tokens) {
+        List<String> result = new ArrayList<>();
+        for (Token token : tokens) {
+            result.add(token.getType() + " " + token.getValue() + " " + token.getPosition() + " " + token.getSymbol());
+        }
+        return result;
+    }
+
+    private static List<String> describe(TokenBuffer tokens) {
+        List<Token> result = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            result.add(tokens.getToken(i));
+        }
+        return describe(result);
+    }
+
+    private static List<String> names(SymbolTable symbols) {
+        List<String> result = new ArrayList<>();
+        for (int id = 0; id < symbols.size(); id++) {
+            result.add(symbols.getName(id));
+        }
+        return result;
+    }
+
+    private static List<String> lines(CharSequence source, LineMap lines) {
+        List<String> result = new ArrayList<>();
+        for (int offset = 0; offset <= source.length(); offset++) {
+            result.add(lines.getLine(offset) + ":" + lines.getColumn(offset));
+        }
+        return result;
+    }
+
+    private void assertSameAsLexer(String source, int segmentSize) {
+        Lexer lexer = new Lexer(source);
+        List<String> expected = describe(lexer.tokenize());
+        String context = "segment size " + segmentSize + " of " + source;
+
+        ParallelLexer parallel = new ParallelLexer(source, pool, segmentSize);
+        assertEquals(expected, describe(parallel.tokenize()), context);
+        assertEquals(names(lexer.getSymbols()), names(parallel.getSymbols()), context);
+        assertEquals(lines(source, lexer.getLineMap()), lines(source, parallel.getLineMap()), context);
+
+        parallel = new ParallelLexer(source, pool, segmentSize);
+        TokenBuffer buffer = parallel.tokenizeToBuffer();
+        assertEquals(expected, describe(buffer), context);
+        assertEquals(names(lexer.getSymbols()), names(buffer.getSymbolTable()), context);
+        assertEquals(lines(source, lexer.getLineMap()), lines(source, parallel.getLineMap()), context);
+    }
+
+    // Small segments cut the source after nearly every line
+    @Test void segmentsMatchLexer() {
+        String source = "var a = 1;\nvar b = a;\n\n\nwhile (b < 10) {\n  b = b + a;\n}\nprint b;";
+        for (int segmentSize = 1; segmentSize <= source.length() + 1; segmentSize++) {
+            assertSameAsLexer(source, segmentSize);
+        }
+    }
+
+    @Test void generatedProgramsMatchLexer() {
+        for (long seed = 0; seed < 20; seed++) {
+            String source = new RandomProgramGenerator(seed).generate(40);
+            for (int segmentSize : new int[] {1, 7, 64, 1 << 20}) {
+                assertSameAsLexer(source, segmentSize);
+            }
+        }
+    }
+
+    @Test void sourceWithoutNewlinesIsOneSegment() {
+        assertSameAsLexer("var a = 1; print a + a;", 1);
+        assertSameAsLexer("", 1);
+        assertSameAsLexer("\n\n\n", 1);
+    }
+
+    // Every segment but the first fails; the report is the first error with its real line
+    @Test void errorIsTheFirstOneInTheSource() {
+        String source = "var a = 1;\nprint a;\nvar b = #;\nprint @;\n";
+        String expected = assertThrows(ParseException.class, () -> new Lexer(source).tokenize()).getMessage();
+        for (int segmentSize = 1; segmentSize <= source.length(); segmentSize++) {
+            int size = segmentSize;
+            assertEquals(expected, assertThrows(ParseException.class,
+                    () -> new ParallelLexer(source, pool, size).tokenize()).getMessage());
+            assertEquals(expected, assertThrows(ParseException.class,
+                    () -> new ParallelLexer(source, pool, size).tokenizeToBuffer()).getMessage());
+        }
+    }
+
+    @Test void segmentSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelLexer("", pool, 0));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.example.exception.ParseException;
+import org.junit.jupiter.api.Test;
+
+class StreamingLexerTest {
+    private static final String SOURCE = "var counter = 12345;\n"
+            + "while (counter >= 10 && counter != 77) {\n"
+            + "    counter = counter - 1;\n"
+            + "}\n"
+            + "var averyveryverylongidentifiername2 = counter <= 3 || !(counter == 4);\n"
+            + "print averyveryverylongidentifiername2;\n";
+
+    private static List<String> describe(List<Token> tokens) {
+        List<String> result = new ArrayList<>();
+        for (Token token : tokens) {
+            result.add(token.toString());
+        }
+        return result;
+    }
+
+    private static List<Token> stream(StreamingLexer lexer) {
+        List<Token> tokens = new ArrayList<>();
+        lexer.forEachRemaining(tokens::add);
+        return tokens;
+    }
+
+    // Every chunk size cuts some tokens in two, the identifier is longer than most chunks
+    @Test void tokensCrossingChunkBoundariesMatchLexer() {
+        List<String> expected = describe(new Lexer(SOURCE).tokenize());
+        for (int chunkSize = 2; chunkSize <= 40; chunkSize++) {
+            int size = chunkSize;
+            assertEquals(expected, describe(stream(new StreamingLexer(new StringReader(SOURCE), chunkSize))),
+                    () -> "chunk size " + size);
+        }
+    }
+
+    @Test void tokenLongerThanBufferGrowsIt() {
+        String name = "x".repeat(1000);
+        List<Token> tokens = stream(new StreamingLexer(new StringReader(name + " = 1;"), 2));
+        assertEquals(name, tokens.get(0).getValue());
+        assertEquals(1001, tokens.get(1).getPosition());
+    }
+
+    // The decoder may stop in the middle of a multi-byte char; positions count chars like Lexer does
+    @Test void channelDecodesCharsSplitAcrossChunks() {
+        String source = "var café = 1; print café + 2;";
+        var channel = Channels.newChannel(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(describe(new Lexer(source).tokenize()), describe(stream(new StreamingLexer(channel, 3))));
+    }
+
+    @Test void errorReportsLineAndColumnLikeLexer() {
+        String source = "var x = 1;\nvar y = x;\n   # x;";
+        ParseException expected = assertThrows(ParseException.class, () -> new Lexer(source).tokenize());
+        ParseException actual = assertThrows(ParseException.class,
+                () -> stream(new StreamingLexer(new StringReader(source), 4)));
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test void endsWithSingleEof() {
+        StreamingLexer lexer = new StreamingLexer(new StringReader("print 1;  \n"), 2);
+        List<Token> tokens = stream(lexer);
+        assertEquals(TokenType.EOF, tokens.get(tokens.size() - 1).getType());
+        assertEquals(4, tokens.size());
+        assertFalse(lexer.hasNext());
+        assertThrows(NoSuchElementException.class, lexer::next);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class SymbolTableTest {
+    private static final String SOURCE = "var é = 1; var ü = 2; print é; é = é + ü; print é; print ü;";
+
+    private static MappedSource mapped(String source) {
+        return new MappedSource(ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test void nonAsciiNamesFromMappedSourceAreInternedOnce() {
+        Lexer lexer = new Lexer(mapped(SOURCE));
+        lexer.tokenizeToBuffer();
+        SymbolTable symbols = lexer.getSymbols();
+        assertEquals(2, symbols.size());
+        assertEquals("é", symbols.getName(0));
+        assertEquals("ü", symbols.getName(1));
+    }
+
+    // Both names read as the same two chars from a MappedSource
+    @Test void nonAsciiNamesOfEqualLengthStayApart() {
+        MappedSource source = mapped("éü üé éü");
+        SymbolTable symbols = new SymbolTable();
+        int first = symbols.intern(source, 0, 4);
+        int second = symbols.intern(source, 5, 9);
+        assertNotEquals(first, second);
+        assertEquals(first, symbols.intern(source, 10, 14));
+        assertEquals(first, symbols.intern("éü"));
+        assertEquals(second, symbols.lookup("üé"));
+    }
+
+    @Test void rangesAndStringsShareIds() {
+        SymbolTable symbols = new SymbolTable();
+        int x = symbols.intern("x + xy", 0, 1);
+        int xy = symbols.intern(mapped("x + xy"), 4, 6);
+        assertEquals(x, symbols.intern("x"));
+        assertEquals(xy, symbols.lookup("xy"));
+        assertEquals(-1, symbols.lookup("y"));
+        assertSame(symbols.getName(xy), symbols.getName(symbols.intern("xy")));
+    }
+
+    @Test void idsSurviveGrowing() {
+        SymbolTable symbols = new SymbolTable(1);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, symbols.intern("v" + i + "é"));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, symbols.intern(mapped("v" + i + "é"), 0, String.valueOf(i).length() + 3));
+        }
+        assertEquals(1000, symbols.size());
+    }
+}
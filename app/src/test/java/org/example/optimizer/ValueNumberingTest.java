@@ -0,0 +1,107 @@
+package org.example.optimizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.core.ASTPrinter;
+import org.example.core.RandomProgramGenerator;
+import org.example.exception.EvaluationException;
+import org.example.interpreter.Interpreter;
+import org.example.lexer.Lexer;
+import org.example.parser.Parser;
+import org.example.parser.statement.Statement;
+import org.junit.jupiter.api.Test;
+
+class ValueNumberingTest {
+    private final ValueNumbering numbering = new ValueNumbering();
+
+    private static List<Statement> parse(String source) {
+        return new Parser(new Lexer(source).tokenizeToBuffer()).parse();
+    }
+
+    private static String tree(List<Statement> statements) {
+        StringBuilder out = new StringBuilder();
+        new ASTPrinter().print(statements, out);
+        return out.toString();
+    }
+
+    private static String run(List<Statement> statements) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        String error = "";
+        try {
+            new Interpreter(out).interpret(statements);
+        } catch (EvaluationException e) {
+            error = "error: " + e.getMessage();
+        }
+        return bytes.toString(StandardCharsets.UTF_8) + error;
+    }
+
+    private int reused(String source) {
+        List<Statement> numbered = numbering.number(parse(source));
+        assertEquals(run(parse(source)), run(numbered), source);
+        return numbering.getReusedCount();
+    }
+
+    @Test void repeatedComputationIsReused() {
+        assertEquals(2, reused("var x = 3; var y = x * 2 + 1; print x * 2; print x * 2 < 7;"));
+        assertEquals(1, reused("var x = 3; print x < 4; if (x < 4) { print 1; }"));
+    }
+
+    @Test void assignmentInBetweenStartsNewValue() {
+        assertEquals(0, reused("var x = 1; print x + 1; x = 2; print x + 1;"));
+        assertEquals(0, reused("var x = 1; print x + 1; var x = 5; print x + 1;"));
+        assertEquals(1, reused("var x = 1; var y = 2; print x + 1; y = 3; print x + 1;"));
+    }
+
+    @Test void loopsAndBlocksStartNewBasicBlocks() {
+        assertEquals(0, reused("var x = 1; print x + 1; { print x + 1; }"));
+        assertEquals(0, reused("var x = 1; var i = 0; print x + 1; while (i < 2) { print x + 1; i = i + 1; }"));
+        assertEquals(1, reused("var x = 1; { print x + 1; print x + 1; }"));
+    }
+
+    // The right operand of '&&' may not run, so it cannot provide the value
+    @Test void conditionalOccurrenceIsNotStored() {
+        assertEquals(0, reused("var x = 1; print 1 > 2 && x + 1 > 0; print x + 1;"));
+        assertEquals(1, reused("var x = 1; print x + 1; print 1 > 2 && x + 1 > 0;"));
+    }
+
+    @Test void errorsStayTheSame() {
+        reused("var x = 1 < 2; var y = 1; print y + 1; print y + 1; print x + 1; print x + 1;");
+        reused("var x; print 1; print x + 1; print x + 1;");
+    }
+
+    @Test void inputIsNotModified() {
+        List<Statement> program = parse("var x = 3; print x * 2; print x * 2;");
+        String before = tree(program);
+        List<Statement> numbered = numbering.number(program);
+        assertEquals(before, tree(program));
+        assertTrue(tree(numbered).contains("$v0"));
+    }
+
+    // A second run names its temporaries past the ones already in the program
+    @Test void numberingTwiceKeepsTemporariesApart() {
+        List<Statement> program = new ArrayList<>(
+                numbering.number(parse("var x = 3; print x * 2; print x * 2; print x + 1; print x + 1;")));
+        program.addAll(parse("print x * 3; print x * 3;"));
+        List<Statement> twice = numbering.number(program);
+        assertEquals(1, numbering.getReusedCount());
+        assertTrue(tree(twice).contains("$v2"));
+        assertEquals(run(program), run(twice));
+    }
+
+    @Test void generatedProgramsBehaveTheSame() {
+        for (long seed = 0; seed < 100; seed++) {
+            RandomProgramGenerator generator = new RandomProgramGenerator(seed);
+            generator.setLoopBound(5);
+            String source = generator.generate(30);
+            assertEquals(run(parse(source)), run(numbering.number(parse(source))), source);
+        }
+    }
+}
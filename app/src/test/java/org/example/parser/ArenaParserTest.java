@@ -0,0 +1,92 @@
+package org.example.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.example.core.ASTPrinter;
+import org.example.core.RandomProgramGenerator;
+import org.example.exception.ParseException;
+import org.example.lexer.Lexer;
+import org.example.lexer.ListTokenSource;
+import org.example.parser.arena.AstArena;
+import org.example.parser.arena.AstArenaBuilder;
+import org.example.parser.statement.Statement;
+import org.junit.jupiter.api.Test;
+
+class ArenaParserTest {
+    private static final String[] PROGRAMS = {
+        "var a; var b; var c; a = b = c = 1 - 2 - 3;",
+        "print 1 - 2 * 3 / 4 + -5 * -(6 - 7);",
+        "print 1 < 2 == 3 >= 4 != 5 <= 6 > 7;",
+        "print 1 || 2 && 3 || 4 && 5 == 6;",
+        "var x = 1; while (x < 10) { if (x == 5) print x; else { x = x * 2; } x = x + 1; }",
+        "{ print 1; { print 2; { } print 3; } print 4; } print 5;",
+        "var x; print ((((x = 2))));",
+        "",
+    };
+
+    private static final String[] ERRORS = {
+        "1 = 2;",
+        "var a; (a + 1) = 2;",
+        "var a; a = 1 + 2 = 3;",
+        "print 1 +;",
+        "print (1 + 2;",
+        "var = 1;",
+        "var a = 1",
+        "if 1) print 1;",
+        "{ print 1;",
+    };
+
+    private static String tree(List<Statement> statements) {
+        StringBuilder out = new StringBuilder();
+        new ASTPrinter().print(statements, out);
+        return out.toString();
+    }
+
+    private static AstArena parseArena(String source) {
+        return new ArenaParser(new Lexer(source).tokenizeToBuffer()).parseArena();
+    }
+
+    private static void assertSameTree(String source) {
+        String expected = tree(new Parser(new Lexer(source).tokenizeToBuffer()).parse());
+        assertEquals(expected, tree(parseArena(source).toStatements()), source);
+    }
+
+    @Test void handWrittenProgramsMatchParser() {
+        for (String source : PROGRAMS) {
+            assertSameTree(source);
+        }
+    }
+
+    @Test void generatedProgramsMatchParser() {
+        for (long seed = 0; seed < 100; seed++) {
+            assertSameTree(new RandomProgramGenerator(seed).generate(50));
+        }
+    }
+
+    @Test void errorsMatchParser() {
+        for (String source : ERRORS) {
+            String expected = assertThrows(ParseException.class,
+                    () -> new Parser(new Lexer(source).tokenizeToBuffer()).parse(), source).getMessage();
+            String actual = assertThrows(ParseException.class, () -> parseArena(source), source).getMessage();
+            assertEquals(expected, actual, source);
+        }
+    }
+
+    @Test void parseStillReturnsTheObjectTree() {
+        String source = PROGRAMS[4];
+        String expected = tree(new Parser(new Lexer(source).tokenizeToBuffer()).parse());
+        assertEquals(expected, tree(new ArenaParser(new Lexer(source).tokenizeToBuffer()).parse()));
+    }
+
+    // Starting from room for one node, the node arrays have to grow
+    @Test void builderGrowsPastItsCapacity() {
+        String source = new RandomProgramGenerator(7).generate(200);
+        Lexer lexer = new Lexer(source);
+        ListTokenSource tokens = new ListTokenSource(lexer.tokenize(), lexer.getLineMap());
+        AstArena arena = new ArenaParser(tokens, new AstArenaBuilder(1)).parseArena();
+        assertEquals(tree(new Parser(new Lexer(source).tokenizeToBuffer()).parse()), tree(arena.toStatements()));
+    }
+}
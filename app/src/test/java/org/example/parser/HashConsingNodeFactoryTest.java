@@ -0,0 +1,93 @@
+package org.example.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.example.core.ASTPrinter;
+import org.example.core.RandomProgramGenerator;
+import org.example.exception.EvaluationException;
+import org.example.interpreter.Interpreter;
+import org.example.lexer.Lexer;
+import org.example.parser.expression.Expression;
+import org.example.parser.statement.BlockStatement;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.junit.jupiter.api.Test;
+
+class HashConsingNodeFactoryTest {
+    private final HashConsingNodeFactory nodes = new HashConsingNodeFactory();
+
+    private List<Statement> parse(String source) {
+        return new PrattParser(new Lexer(source).tokenizeToBuffer().cursor(), nodes).parse();
+    }
+
+    private static Expression printed(Statement statement) {
+        return ((PrintStatement) statement).getExpression();
+    }
+
+    private static String tree(List<Statement> statements) {
+        StringBuilder out = new StringBuilder();
+        new ASTPrinter().print(statements, out);
+        return out.toString();
+    }
+
+    private static String run(List<Statement> statements) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        String error = "";
+        try {
+            new Interpreter(out).interpret(statements);
+        } catch (EvaluationException e) {
+            error = "error: " + e.getMessage();
+        }
+        return bytes.toString(StandardCharsets.UTF_8) + error;
+    }
+
+    @Test void repeatedExpressionIsOneNode() {
+        List<Statement> program = parse("var x = 1; print x + 1 * 2; print x + 1 * 2;");
+        assertSame(printed(program.get(1)), printed(program.get(2)));
+        // 1, x, 2, 1 * 2 and the sum; the 1 of the first print and all of the second are reused
+        assertEquals(5, nodes.getCreatedCount());
+        assertEquals(6, nodes.getReusedCount());
+    }
+
+    @Test void variablesOfDifferentDeclarationsAreNotShared() {
+        List<Statement> program = parse("var x = 1; print x; { var x = 2; print x; } print x;");
+        Expression outer = printed(program.get(1));
+        Expression inner = printed(((BlockStatement) program.get(2)).getStatements().get(1));
+        assertNotSame(outer, inner);
+        assertSame(outer, printed(program.get(3)));
+    }
+
+    @Test void assignmentsAreNeverShared() {
+        List<Statement> program = parse("var x; print x = 1; print x = 1; print (x = 1) + 2; print (x = 1) + 2;");
+        assertNotSame(printed(program.get(1)), printed(program.get(2)));
+        assertNotSame(printed(program.get(3)), printed(program.get(4)));
+    }
+
+    @Test void zeroAndNegativeZeroAreDifferentNumbers() {
+        List<Statement> program = parse("print 0; print -0; print 0; print 0 * -1;");
+        assertSame(printed(program.get(0)), printed(program.get(2)));
+        assertNotSame(printed(program.get(1)), printed(program.get(0)));
+    }
+
+    // Shared nodes are visited once per use, so the tree and its behavior are unchanged
+    @Test void generatedProgramsMatchPlainFactory() {
+        for (long seed = 0; seed < 100; seed++) {
+            RandomProgramGenerator generator = new RandomProgramGenerator(seed);
+            generator.setLoopBound(5);
+            String source = generator.generate(30);
+            List<Statement> plain = new PrattParser(new Lexer(source).tokenizeToBuffer()).parse();
+            List<Statement> shared = new PrattParser(new Lexer(source).tokenizeToBuffer().cursor(),
+                    new HashConsingNodeFactory()).parse();
+            assertEquals(tree(plain), tree(shared), source);
+            assertEquals(run(plain), run(shared), source);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.example.core.ASTPrinter;
+import org.example.core.ASTWalker;
+import org.example.core.RandomProgramGenerator;
+import org.example.exception.ParseException;
+import org.example.lexer.Lexer;
+import org.example.parser.statement.Statement;
+import org.junit.jupiter.api.Test;
+
+class IterativeParserTest {
+    private static final int DEPTH = 200_000;
+
+    // Far too small for a recursive parse of DEPTH levels
+    private static final long STACK_SIZE = 256 * 1024;
+
+    private static final String[] ERRORS = {
+        "1 = 2;",
+        "var a; a = 1 + 2 = 3;",
+        "print 1 +;",
+        "print (1 + 2;",
+        "var a = 1",
+        "while (1 print 1;",
+        "{ { print 1; }",
+        "if (1) { print 1; } else",
+    };
+
+    private static String tree(List<Statement> statements) {
+        StringBuilder out = new StringBuilder();
+        new ASTPrinter().print(statements, out);
+        return out.toString();
+    }
+
+    private static List<Statement> parse(String source) {
+        return new IterativeParser(new Lexer(source).tokenizeToBuffer()).parse();
+    }
+
+    // Depth of the deepest node, counted without recursion
+    private static int maxDepth(List<Statement> statements) {
+        int[] max = {0};
+        new ASTWalker().walk(statements, (node, depth, isLast) -> max[0] = Math.max(max[0], depth));
+        return max[0];
+    }
+
+    private static void onSmallStack(Runnable body) throws Throwable {
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                body.run();
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        }, "small-stack", STACK_SIZE);
+        thread.start();
+        thread.join();
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    @Test void generatedProgramsMatchParser() {
+        for (long seed = 0; seed < 100; seed++) {
+            String source = new RandomProgramGenerator(seed).generate(50);
+            assertEquals(tree(new Parser(new Lexer(source).tokenizeToBuffer()).parse()), tree(parse(source)), source);
+        }
+    }
+
+    @Test void errorsMatchParser() {
+        for (String source : ERRORS) {
+            String expected = assertThrows(ParseException.class,
+                    () -> new Parser(new Lexer(source).tokenizeToBuffer()).parse(), source).getMessage();
+            assertEquals(expected, assertThrows(ParseException.class, () -> parse(source), source).getMessage(), source);
+        }
+    }
+
+    @Test void deepBlocks() throws Throwable {
+        String source = "{".repeat(DEPTH) + "print 1;" + "}".repeat(DEPTH);
+        onSmallStack(() -> assertEquals(DEPTH + 1, maxDepth(parse(source))));
+    }
+
+    @Test void deepIfsAndWhiles() throws Throwable {
+        String source = "if (1) while (0) ".repeat(DEPTH / 2) + "print 1;";
+        // Every level holds the condition and the nested statement
+        onSmallStack(() -> assertEquals(DEPTH + 1, maxDepth(parse(source))));
+    }
+
+    @Test void deepExpressions() throws Throwable {
+        String negations = "print " + "-(".repeat(DEPTH) + "1" + ")".repeat(DEPTH) + ";";
+        onSmallStack(() -> assertEquals(DEPTH + 1, maxDepth(parse(negations))));
+
+        String sums = "print " + "(1 + ".repeat(DEPTH) + "1" + ")".repeat(DEPTH) + ";";
+        onSmallStack(() -> assertEquals(DEPTH + 1, maxDepth(parse(sums))));
+    }
+
+    @Test void deepErrorIsReported() throws Throwable {
+        String source = "{".repeat(DEPTH) + "print 1;" + "}".repeat(DEPTH - 1);
+        onSmallStack(() -> assertThrows(ParseException.class, () -> parse(source)));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringReader;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.example.exception.ParseException;
+import org.example.lexer.DfaLexer;
+import org.example.lexer.Lexer;
+import org.example.lexer.StreamingLexer;
+import org.example.lexer.TokenSource;
+import org.junit.jupiter.api.Test;
+
+class ParserTest {
+    private static final Map<String, Function<TokenSource, Object>> PARSERS = Map.of(
+            "Parser", tokens -> new Parser(tokens).parse(),
+            "PrattParser", tokens -> new PrattParser(tokens).parse(),
+            "IterativeParser", tokens -> new IterativeParser(tokens).parse(),
+            "ArenaParser", tokens -> new ArenaParser(tokens).parseArena());
+
+    private static String streamingError(Function<TokenSource, Object> parser, String source) {
+        // A chunk of 2 makes the lexer drop line starts as soon as the parser moves past them
+        TokenSource tokens = new StreamingLexer(new StringReader(source), 2).cursor();
+        return assertThrows(ParseException.class, () -> parser.apply(tokens)).getMessage();
+    }
+
+    private static void assertStreamingError(String expected, String source) {
+        PARSERS.forEach((name, parser) -> assertEquals(expected, streamingError(parser, source), name));
+    }
+
+    // The value spans lines the streaming lexer has forgotten by the time it is parsed
+    @Test void invalidTargetIsLocatedAtEqualsBeforeValueLines() {
+        assertStreamingError("[Parser Error] Line 1, Col 3: Invalid assignment target.", "1 =\n\n\n\n x;");
+        assertStreamingError("[Parser Error] Line 1, Col 7: Invalid assignment target.", "a + 1 = \n\n\n(((3)));");
+        assertStreamingError("[Parser Error] Line 2, Col 7: Invalid assignment target.", "var a;\na = 1 = \n\n\n2;");
+    }
+
+    @Test void errorInValueIsReportedBeforeInvalidTarget() {
+        PARSERS.forEach((name, parser) ->
+                assertEquals("Ожидается выражение.", streamingError(parser, "1 =\n\n\n ;"), name));
+    }
+
+    @Test void tokenListIsLocatedByItsLineMap() {
+        String source = "var x;\nx - 1 = 1;";
+        Lexer lexer = new Lexer(source);
+        ParseException e = assertThrows(ParseException.class,
+                () -> new Parser(lexer.tokenize(), lexer.getLineMap()).parse());
+        assertEquals("[Parser Error] Line 2, Col 7: Invalid assignment target.", e.getMessage());
+
+        DfaLexer dfa = new DfaLexer(source);
+        e = assertThrows(ParseException.class, () -> new PrattParser(dfa.tokenize(), dfa.getLineMap()).parse());
+        assertEquals("[Parser Error] Line 2, Col 7: Invalid assignment target.", e.getMessage());
+    }
+
+    @Test void validAssignmentStillParses() {
+        PARSERS.forEach((name, parser) ->
+                parser.apply(new StreamingLexer(new StringReader("var a; var b;\na =\n\n b = 1 + 2;"), 2).cursor()));
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.parser.arena;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.example.core.RandomProgramGenerator;
+import org.example.lexer.Lexer;
+import org.example.lexer.TokenType;
+import org.example.parser.ArenaParser;
+import org.junit.jupiter.api.Test;
+
+class AstCursorTest {
+    private static AstArena parse(String source) {
+        return new ArenaParser(new Lexer(source).tokenizeToBuffer()).parseArena();
+    }
+
+    private static int countReachable(AstCursor cursor, int node) {
+        cursor.moveTo(node);
+        int count = 1;
+        int children = cursor.getChildCount();
+        for (int i = 0; i < children; i++) {
+            int child = cursor.moveTo(node).getChild(i);
+            count += countReachable(cursor, child);
+        }
+        return count;
+    }
+
+    @Test void walksStatementsAndExpressions() {
+        AstArena arena = parse("var x = 1 + 2; if (x) print -x; else { x = 3; print x; } while (x) x = 0; var y;");
+        AstCursor cursor = arena.cursor();
+        assertEquals(AstArena.PROGRAM, cursor.getKind());
+        assertEquals(arena.getRoot(), cursor.getNode());
+        assertEquals(4, cursor.getChildCount());
+        int ifStatement = cursor.getChild(1);
+        int whileStatement = cursor.getChild(2);
+        int varY = cursor.getChild(3);
+
+        cursor.moveTo(cursor.getChild(0));
+        assertEquals(AstArena.VAR, cursor.getKind());
+        assertEquals("x", cursor.getName());
+        int x = cursor.getSymbol();
+        assertEquals(1, cursor.getChildCount());
+        cursor.moveTo(cursor.getOperand());
+        assertEquals(AstArena.BINARY, cursor.getKind());
+        assertEquals(TokenType.PLUS, cursor.getOperator());
+        int right = cursor.getRight();
+        assertEquals(1.0, cursor.moveTo(cursor.getLeft()).getNumber());
+        assertEquals(2.0, cursor.moveTo(right).getNumber());
+
+        cursor.moveTo(ifStatement);
+        assertEquals(AstArena.IF, cursor.getKind());
+        assertEquals(3, cursor.getChildCount());
+        int thenBranch = cursor.getThenBranch();
+        int elseBranch = cursor.getElseBranch();
+        assertEquals(x, cursor.moveTo(cursor.getCondition()).getSymbol());
+        assertEquals(AstArena.VARIABLE, cursor.getKind());
+        cursor.moveTo(cursor.moveTo(thenBranch).getOperand());
+        assertEquals(AstArena.UNARY, cursor.getKind());
+        assertEquals(TokenType.MINUS, cursor.getOperator());
+
+        cursor.moveTo(elseBranch);
+        assertEquals(AstArena.BLOCK, cursor.getKind());
+        assertEquals(2, cursor.getChildCount());
+        cursor.moveTo(cursor.moveTo(cursor.getChild(0)).getOperand());
+        assertEquals(AstArena.ASSIGN, cursor.getKind());
+        assertEquals(x, cursor.getSymbol());
+        assertEquals(3.0, cursor.moveTo(cursor.getOperand()).getNumber());
+
+        cursor.moveTo(whileStatement);
+        assertEquals(AstArena.WHILE, cursor.getKind());
+        assertEquals(AstArena.EXPRESSION, arena.getKind(cursor.getBody()));
+
+        cursor.moveTo(varY);
+        assertEquals("y", cursor.getName());
+        assertNotEquals(x, cursor.getSymbol());
+        assertEquals(0, cursor.getChildCount());
+        assertEquals(-1, cursor.getOperand());
+    }
+
+    @Test void ifWithoutElseHasTwoChildren() {
+        AstCursor cursor = parse("if (1) print 1;").cursor();
+        cursor.moveTo(cursor.getChild(0));
+        assertEquals(2, cursor.getChildCount());
+        assertEquals(-1, cursor.getElseBranch());
+    }
+
+    // Nested blocks close their list before the enclosing one goes on
+    @Test void nestedBlocksKeepTheirOwnStatements() {
+        AstArena arena = parse("{ print 1; { print 2; { } print 3; } print 4; } print 5;");
+        AstCursor cursor = arena.cursor();
+        assertEquals(2, cursor.getChildCount());
+        cursor.moveTo(cursor.getChild(0));
+        assertEquals(3, cursor.getChildCount());
+        int inner = cursor.getChild(1);
+        assertEquals(4.0, cursor.moveTo(cursor.moveTo(cursor.getChild(2)).getOperand()).getNumber());
+        cursor.moveTo(inner);
+        assertEquals(3, cursor.getChildCount());
+        assertEquals(0, arena.cursor(cursor.getChild(1)).getChildCount());
+        assertEquals(3.0, cursor.moveTo(cursor.moveTo(cursor.getChild(2)).getOperand()).getNumber());
+    }
+
+    // Every node hangs in the tree once: assignment targets leave no node behind
+    @Test void everyNodeIsReachableFromTheRoot() {
+        AstArena arena = parse("var a; var b; a = b = 1; print a;");
+        assertEquals(arena.size(), countReachable(arena.cursor(), arena.getRoot()));
+        for (long seed = 0; seed < 50; seed++) {
+            arena = parse(new RandomProgramGenerator(seed).generate(50));
+            assertEquals(arena.size(), countReachable(arena.cursor(), arena.getRoot()));
+        }
+    }
+
+    @Test void moveToReturnsTheSameCursor() {
+        AstCursor cursor = parse("print 1;").cursor();
+        assertSame(cursor, cursor.moveTo(0));
+        assertEquals(0, cursor.getNode());
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.parser.binary;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.example.core.ASTPrinter;
+import org.example.core.RandomProgramGenerator;
+import org.example.lexer.Lexer;
+import org.example.lexer.TokenType;
+import org.example.parser.Parser;
+import org.example.parser.expression.NumberExpression;
+import org.example.parser.expression.StringExpression;
+import org.example.parser.statement.PrintStatement;
+import org.example.parser.statement.Statement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AstReaderTest {
+    private static final String[] PROGRAMS = {
+        "var a; var b; var c; a = b = c = 1 - 2 - 3;",
+        "print 1 - 2 * 3 / 4 + -5 * -(6 - 7);",
+        "print 1 < 2 == 3 >= 4 != 5 <= 6 > 7 || 1 && 0;",
+        "var x = 1; while (x < 10) { if (x == 5) print x; else { x = x * 2; } if (x) { } x = x + 1; }",
+        "",
+    };
+
+    private static List<Statement> parse(String source) {
+        return new Parser(new Lexer(source).tokenizeToBuffer()).parse();
+    }
+
+    private static String tree(List<Statement> statements) {
+        StringBuilder out = new StringBuilder();
+        new ASTPrinter().print(statements, out);
+        return out.toString();
+    }
+
+    private static void assertRoundTrip(List<Statement> statements) {
+        byte[] bytes = new AstWriter().write(statements);
+        assertEquals(tree(statements), tree(AstReader.of(ByteBuffer.wrap(bytes)).readStatements()));
+    }
+
+    @Test void handWrittenProgramsRoundTrip() {
+        for (String source : PROGRAMS) {
+            assertRoundTrip(parse(source));
+        }
+    }
+
+    @Test void generatedProgramsRoundTrip() {
+        for (long seed = 0; seed < 100; seed++) {
+            assertRoundTrip(parse(new RandomProgramGenerator(seed).generate(50)));
+        }
+    }
+
+    // Neither comes out of the lexer
+    @Test void stringsAndFractionsRoundTrip() {
+        List<Statement> statements = List.of(new PrintStatement(new StringExpression("héllo, мир")),
+                new PrintStatement(new NumberExpression(0.1)));
+        assertRoundTrip(statements);
+        AstReader reader = AstReader.of(ByteBuffer.wrap(new AstWriter().write(statements)));
+        assertEquals(AstFormat.PRINT, reader.next());
+        assertEquals(AstFormat.STRING, reader.next());
+        assertEquals("héllo, мир", reader.getName());
+    }
+
+    @Test void mappedFileRoundTrips(@TempDir Path directory) throws IOException {
+        List<Statement> statements = parse(PROGRAMS[3]);
+        Path file = directory.resolve("program.astb");
+        new AstWriter().write(statements, file);
+        assertEquals(tree(statements), tree(AstReader.map(file).readStatements()));
+    }
+
+    @Test void namesAreWrittenOnce() {
+        AstReader reader = AstReader.of(ByteBuffer.wrap(new AstWriter().write(parse("var x = 1; var y = x; x = y + x; print y;"))));
+        assertEquals(2, reader.getStringCount());
+        assertEquals("x", reader.getString(0));
+        assertEquals("y", reader.getString(1));
+        assertEquals(4, reader.getStatementCount());
+    }
+
+    @Test void nextWalksInPreorder() {
+        AstReader reader = AstReader.of(ByteBuffer.wrap(new AstWriter().write(parse("var x = 1 + 2; while (x) { print -x; } print 3;"))));
+        reader.rewind();
+        assertEquals(AstFormat.VAR_INIT, reader.next());
+        assertEquals("x", reader.getName());
+        assertEquals(AstFormat.BINARY, reader.next());
+        assertEquals(TokenType.PLUS, reader.getOperator());
+        assertEquals(2, reader.getChildCount());
+        assertEquals(AstFormat.NUMBER, reader.next());
+        assertEquals(1.0, reader.getNumber());
+        assertEquals(AstFormat.NUMBER, reader.next());
+
+        assertEquals(AstFormat.WHILE, reader.next());
+        reader.skipChildren();
+        assertEquals(AstFormat.PRINT, reader.next());
+        assertEquals(AstFormat.NUMBER, reader.next());
+        assertEquals(3.0, reader.getNumber());
+
+        reader.rewind();
+        assertEquals(AstFormat.VAR_INIT, reader.next());
+    }
+
+    @Test void writerCanBeReused() {
+        AstWriter writer = new AstWriter();
+        writer.write(parse(PROGRAMS[3]));
+        byte[] reused = writer.write(parse(PROGRAMS[0]));
+        assertArrayEquals(new AstWriter().write(parse(PROGRAMS[0])), reused);
+    }
+
+    // The reader reads from the buffer's position, not from its start
+    @Test void readsFromTheBufferPosition() {
+        byte[] bytes = new AstWriter().write(parse(PROGRAMS[0]));
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+        buffer.position(3);
+        buffer.put(bytes);
+        buffer.position(3);
+        assertEquals(tree(parse(PROGRAMS[0])), tree(AstReader.of(buffer).readStatements()));
+    }
+
+    @Test void otherVersionIsRejected() {
+        byte[] bytes = new AstWriter().write(parse(PROGRAMS[0]));
+        bytes[5] = (byte) (AstFormat.VERSION + 1);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> AstReader.of(ByteBuffer.wrap(bytes)));
+        assertEquals("Unsupported AST format version " + (AstFormat.VERSION + 1) + ", expected " + AstFormat.VERSION, e.getMessage());
+    }
+
+    @Test void otherDataIsRejected() {
+        byte[] bytes = new AstWriter().write(parse(PROGRAMS[0]));
+        bytes[0] = 'X';
+        assertEquals("Not a serialized AST",
+                assertThrows(IllegalArgumentException.class, () -> AstReader.of(ByteBuffer.wrap(bytes))).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> AstReader.of(ByteBuffer.wrap(new byte[] {0x41, 0x53})));
+    }
+}